@@ -0,0 +1,60 @@
+package it.unimol.dragon_ball.app.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di {@link Character#evolve()}. Poiché un personaggio non può evolvere oltre la sua forma massima,
+ * ogni invocazione genera un nuovo personaggio e lo fa evolvere fino a quest'ultima: il costo della sola creazione è
+ * misurato a parte, così da poterlo sottrarre.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class EvolutionBenchmark {
+
+    @Param({"goku", "freezer"})
+    public String characterName;
+
+    private Properties characterProperties;
+
+    @Setup
+    public void setUp() throws IOException {
+        characterProperties = new Properties();
+        String propertiesFilepath = CharacterFactory.PROPERTIES_FILEPATH + characterName + ".properties";
+
+        try (InputStream inputStream = EvolutionBenchmark.class.getResourceAsStream(propertiesFilepath)) {
+            characterProperties.load(inputStream);
+        }
+    }
+
+    private Character createCharacter() {
+        Character character = new Character(characterProperties);
+        character.addNewSkill(new Skill("Punch", character, 0, 0, 0));
+        character.addNewSkill(new Skill("EnergyBall", character, 30, 75, 0.5));
+        character.addNewSkill(new Skill("Special", character, 150, 400, 10));
+        character.addNewSkill(new Skill("Ultimate", character, 300, 800, 25));
+        return character;
+    }
+
+    @Benchmark
+    public Character create() {
+        return createCharacter();
+    }
+
+    @Benchmark
+    public Character createAndEvolveToMaxEvolution() {
+        Character character = createCharacter();
+        while (character.getActualEvolutionNumber() < character.getMAX_EVOLUTIONS_NUMBER())
+            character.evolve();
+
+        return character;
+    }
+}
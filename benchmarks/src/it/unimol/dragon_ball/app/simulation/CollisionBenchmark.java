@@ -0,0 +1,54 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo dei controlli di collisione: il singolo confronto tra due {@link Hitbox}, con e senza margine, e un
+ * intero tick di {@link BattleSimulation} con i personaggi a contatto, in cui la fase di collisione è preponderante.
+ * Nel tick misurato nessun personaggio agisce, così che lo stato della simulazione non cambi tra un'invocazione e
+ * l'altra.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+    private BattleSimulation simulation;
+    private Hitbox hurtbox1;
+    private Hitbox hurtbox2;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+
+        PlayerInput right = PlayerInput.of(PlayerInput.RIGHT);
+        while (!simulation.getFighter1().getHurtbox().intersects(simulation.getFighter2().getHurtbox()))
+            simulation.step(right, PlayerInput.NONE);
+
+        hurtbox1 = simulation.getFighter1().getHurtbox();
+        hurtbox2 = simulation.getFighter2().getHurtbox();
+    }
+
+    @Benchmark
+    public boolean intersects() {
+        return hurtbox1.intersects(hurtbox2);
+    }
+
+    @Benchmark
+    public boolean intersectsWithMargin() {
+        return hurtbox1.intersects(hurtbox2, 10);
+    }
+
+    @Benchmark
+    public long stepWithPlayersInContact() {
+        simulation.step(PlayerInput.NONE, PlayerInput.NONE);
+        return simulation.getTickCount();
+    }
+}
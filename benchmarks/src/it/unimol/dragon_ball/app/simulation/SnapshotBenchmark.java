@@ -0,0 +1,49 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo del salvataggio e del ripristino dell'intero stato di una {@link BattleSimulation} tramite un
+ * {@link BattleSnapshot} riutilizzato, con entrambi i personaggi impegnati in un'abilità.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    private BattleSimulation simulation;
+    private BattleSnapshot snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+
+        PlayerInput aura = PlayerInput.of(PlayerInput.AURA);
+        for (int i = 0; i < 19; i++)
+            simulation.step(aura, aura);
+
+        PlayerInput energyball = PlayerInput.of(PlayerInput.ENERGYBALL);
+        simulation.step(energyball, energyball);
+
+        snapshot = simulation.saveSnapshot();
+    }
+
+    @Benchmark
+    public int save() {
+        simulation.saveSnapshot(snapshot);
+        return snapshot.getSize();
+    }
+
+    @Benchmark
+    public long restore() {
+        simulation.restoreSnapshot(snapshot);
+        return simulation.getTickCount();
+    }
+}
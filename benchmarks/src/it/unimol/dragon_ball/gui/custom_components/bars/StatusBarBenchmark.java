@@ -0,0 +1,56 @@
+package it.unimol.dragon_ball.gui.custom_components.bars;
+
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.FighterState;
+import it.unimol.dragon_ball.utils.ImageConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di disegno della {@link StatusBar} di un personaggio su un buffer fuori schermo delle dimensioni
+ * della finestra di gioco, come avviene ad ogni ridisegno del pannello di battaglia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class StatusBarBenchmark {
+
+    @Param({"false", "true"})
+    public boolean isFlipped;
+
+    private StatusBar statusBar;
+    private FighterState state;
+    private BufferedImage backBuffer;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setUp() throws IOException {
+        Character character = CharacterFactory.create(CharacterFactory.GOKU);
+        character.setAura(50);
+
+        statusBar = new StatusBar(character, new Point(isFlipped ? 1147 : 20, 20), isFlipped);
+        state = new BattleSimulation(character, CharacterFactory.create(CharacterFactory.GOKU)).getState().getFighter1();
+        backBuffer = ImageConverter.createCompatibleImage(1280, 720, Transparency.OPAQUE);
+        graphics = backBuffer.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawStatusBar() {
+        statusBar.draw(graphics, state);
+        return backBuffer;
+    }
+}
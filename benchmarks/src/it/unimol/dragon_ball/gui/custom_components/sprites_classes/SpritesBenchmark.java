@@ -0,0 +1,90 @@
+package it.unimol.dragon_ball.gui.custom_components.sprites_classes;
+
+import it.unimol.dragon_ball.app.GameLoop;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import it.unimol.dragon_ball.utils.ImageConverter;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di disegno di {@link CharacterSprite} e {@link SkillSprite} su un buffer fuori schermo, con il
+ * personaggio fermo oppure con ciascuna delle sue abilità in volo.
+ * Lo stato da disegnare viene preparato facendo avanzare una {@link BattleSimulation}: il personaggio carica l'aura
+ * fino a disporre del mana necessario, lancia l'abilità e attende che questa sia in volo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class SpritesBenchmark {
+    private static final int[] SKILLS_BUTTONS = {
+            PlayerInput.PUNCH, PlayerInput.ENERGYBALL, PlayerInput.SPECIAL_SKILL, PlayerInput.ULTIMATE_SKILL
+    };
+
+    @Param({CharacterFactory.GOKU, CharacterFactory.FREEZER})
+    public String characterName;
+
+    /**
+     * Indice dell'abilità in volo secondo le costanti di {@link Skill}; {@link Skill#PUNCH} indica nessuna abilità.
+     */
+    @Param({"0", "1", "2", "3"})
+    public int skillIndex;
+
+    private CharacterSprite characterSprite;
+    private SkillSprite skillSprite;
+    private BufferedImage backBuffer;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setUp() throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(characterName),
+                CharacterFactory.create(characterName));
+        if (skillIndex != Skill.PUNCH)
+            launchSkill(simulation);
+
+        characterSprite = new CharacterSprite(simulation.getFighter1().getCharacter(),
+                simulation.getState().getFighter1(), new Dimension(100, 100), new JPanel(), GameLoop.DEFAULT_TICK_MILLIS);
+        skillSprite = characterSprite.getSkillSprite();
+
+        backBuffer = ImageConverter.createCompatibleImage(1280, 720, Transparency.OPAQUE);
+        graphics = backBuffer.createGraphics();
+    }
+
+    private void launchSkill(BattleSimulation simulation) {
+        int mana = simulation.getFighter1().getCharacter().getSkills().get(skillIndex).getMana();
+        PlayerInput aura = PlayerInput.of(PlayerInput.AURA);
+        while (simulation.getFighter1().getCharacter().getActualMP() < mana)
+            simulation.step(aura, PlayerInput.NONE);
+
+        simulation.step(PlayerInput.of(SKILLS_BUTTONS[skillIndex]), PlayerInput.NONE);
+        while (!simulation.getFighter1().getProjectile().isTravelling())
+            simulation.step(PlayerInput.NONE, PlayerInput.NONE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawCharacterSprite() {
+        characterSprite.draw(graphics, 0.5);
+        return backBuffer;
+    }
+
+    @Benchmark
+    public BufferedImage drawSkillSprite() {
+        skillSprite.draw(graphics, 0.5);
+        return backBuffer;
+    }
+}
@@ -0,0 +1,78 @@
+package it.unimol.dragon_ball.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di disegno (blit) di un frame composto dalle immagini di gioco, nel formato restituito dal decoder e
+ * nel formato compatibile con lo schermo prodotto da {@link ImageConverter}.
+ * Le immagini vengono disegnate su un buffer compatibile delle dimensioni della finestra di gioco, come avviene
+ * durante il ridisegno del pannello di battaglia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class BlitBenchmark {
+    private static final String[] BENCHMARK_IMAGES = {
+            "/resources/maps/Mountains.jpg",
+            "/resources/sprites/other/StatusBar.png",
+            "/resources/sprites/characters/goku/goku_normal/IDLE.png",
+            "/resources/sprites/characters/goku/goku_normal/AURA_0.png",
+            "/resources/sprites/characters/goku/goku_normal/PUNCH_0.png",
+            "/resources/sprites/characters/freezer/freezer_first_form/IDLE.png",
+            "/resources/sprites/characters/freezer/freezer_first_form/AURA_0.png",
+            "/resources/sprites/characters/freezer/freezer_first_form/PUNCH_0.png"
+    };
+
+    private List<BufferedImage> decodedImages;
+    private List<BufferedImage> compatibleImages;
+    private BufferedImage backBuffer;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        decodedImages = new ArrayList<>();
+        compatibleImages = new ArrayList<>();
+        for (String path : BENCHMARK_IMAGES) {
+            BufferedImage image = Resources.getImage(path);
+            decodedImages.add(image);
+            compatibleImages.add(ImageConverter.toCompatibleImage(image));
+        }
+
+        backBuffer = ImageConverter.createCompatibleImage(1280, 720, Transparency.OPAQUE);
+        g = backBuffer.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawDecodedImages() {
+        drawFrame(decodedImages);
+        return backBuffer;
+    }
+
+    @Benchmark
+    public BufferedImage drawCompatibleImages() {
+        drawFrame(compatibleImages);
+        return backBuffer;
+    }
+
+    private void drawFrame(List<BufferedImage> images) {
+        int x = 0;
+        for (BufferedImage image : images) {
+            g.drawImage(image, x, 0, null);
+            x = (x + 70) % 1200;
+        }
+    }
+}
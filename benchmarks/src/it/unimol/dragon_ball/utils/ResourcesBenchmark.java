@@ -0,0 +1,32 @@
+package it.unimol.dragon_ball.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il costo di decodifica delle immagini di gioco tramite {@link Resources#getImage(String)}, senza alcuna cache:
+ * uno sfondo JPEG, un'immagine dell'interfaccia, un singolo frame e l'atlante di un'evoluzione.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ResourcesBenchmark {
+
+    @Param({
+            "/resources/maps/Mountains.jpg",
+            "/resources/other/battle_panel_images/status_bar/CharacterStatusBar.png",
+            "/resources/sprites/characters/goku/goku_normal/IDLE.png",
+            "/resources/atlases/goku/goku_normal.png"
+    })
+    public String path;
+
+    @Benchmark
+    public BufferedImage decodeImage() {
+        return Resources.getImage(path);
+    }
+}
@@ -0,0 +1,64 @@
+package it.unimol.dragon_ball;
+
+import it.unimol.dragon_ball.app.batch.BatchRunner;
+import it.unimol.dragon_ball.app.batch.BatchStatistics;
+import it.unimol.dragon_ball.app.batch.StrategyType;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+
+import java.io.IOException;
+
+/**
+ * Simula senza interfaccia grafica un lotto di partite tra due personaggi e ne stampa le statistiche aggregate
+ * (percentuali di vittoria, durata media delle partite, danno medio per abilità) insieme al throughput ottenuto.
+ * Indicando 0 come numero di thread, il lotto viene ripetuto con 1, 2, 4, ... thread e infine con tutti i core
+ * disponibili, così da misurare la scalabilità della simulazione.
+ * Utilizzo: <code>java -cp DragonBallGame.jar it.unimol.dragon_ball.BatchMatchRunner [partite] [personaggio1]
+ * [personaggio2] [random|scripted] [csv|json] [seme] [thread]</code>
+ */
+public class BatchMatchRunner {
+    private static final int DEFAULT_MATCHES = 1000;
+    private static final long DEFAULT_SEED = 42;
+
+    public static void main(String[] args) throws IOException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MATCHES;
+        String player1Name = args.length > 1 ? args[1] : CharacterFactory.GOKU;
+        String player2Name = args.length > 2 ? args[2] : CharacterFactory.FREEZER;
+        StrategyType strategyType = args.length > 3 ? StrategyType.valueOf(args[3].toUpperCase()) : StrategyType.RANDOM;
+        boolean isJson = args.length > 4 && args[4].equalsIgnoreCase("json");
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEED;
+        int availableThreads = Runtime.getRuntime().availableProcessors();
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : availableThreads;
+
+        BatchRunner runner = new BatchRunner(player1Name, player2Name, strategyType, seed);
+
+        if (isJson)
+            System.out.print("[");
+        else
+            System.out.println(BatchStatistics.CSV_HEADER);
+
+        if (threads > 0) {
+            print(runner.run(matches, threads), isJson, true);
+        } else {
+            // Un primo lotto, non stampato, riscalda la JVM così che il confronto tra i lotti non ne risenta
+            runner.run(matches, 1);
+
+            for (int i = 1; i < availableThreads; i *= 2)
+                print(runner.run(matches, i), isJson, i == 1);
+            print(runner.run(matches, availableThreads), isJson, availableThreads == 1);
+        }
+
+        if (isJson)
+            System.out.println("]");
+    }
+
+    private static void print(BatchStatistics statistics, boolean isJson, boolean isFirst) {
+        if (!isJson) {
+            System.out.println(statistics.toCsv());
+            return;
+        }
+
+        if (!isFirst)
+            System.out.print(",");
+        System.out.println(statistics.toJson());
+    }
+}
@@ -1,9 +1,11 @@
 package it.unimol.dragon_ball;
 
 import it.unimol.dragon_ball.gui.frames.MainFrame;
+import it.unimol.dragon_ball.utils.ResourcesHandler;
 
 public class DragonBallGame {
     public static void main(String[] args) {
+        ResourcesHandler.getInstance().preloadSounds();
         MainFrame.getInstance().setVisible(true);
     }
 }
@@ -0,0 +1,53 @@
+package it.unimol.dragon_ball;
+
+import it.unimol.dragon_ball.app.GameController;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.net.UdpTransport;
+import it.unimol.dragon_ball.gui.GuiHandler;
+import it.unimol.dragon_ball.gui.frames.MainFrame;
+import it.unimol.dragon_ball.utils.ResourcesHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Avvia una partita in rete su UDP contro un giocatore remoto, che deve avviarla con gli stessi personaggi e con il
+ * numero di giocatore opposto. Il giocatore locale utilizza i comandi del primo giocatore della tastiera.
+ * Utilizzo: <code>java -cp DragonBallGame.jar it.unimol.dragon_ball.NetworkGameLauncher porta_locale host_remoto
+ * porta_remota 1|2 [personaggio1] [personaggio2]</code>
+ */
+public class NetworkGameLauncher {
+    private static final String DEFAULT_MAP_FILEPATH = "/resources/maps/GokuHouse.jpg";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Utilizzo: NetworkGameLauncher porta_locale host_remoto porta_remota 1|2 " +
+                    "[personaggio1] [personaggio2]");
+            return;
+        }
+
+        int localPort = Integer.parseInt(args[0]);
+        InetSocketAddress remoteAddress = new InetSocketAddress(args[1], Integer.parseInt(args[2]));
+        int localPlayer = Integer.parseInt(args[3]) - 1;
+        String player1Name = args.length > 4 ? args[4] : CharacterFactory.GOKU;
+        String player2Name = args.length > 5 ? args[5] : CharacterFactory.FREEZER;
+
+        GameController controller = GameController.getInstance();
+        if (player1Name.equals(CharacterFactory.FREEZER))
+            controller.setPlayer1AsFreezer();
+        else
+            controller.setPlayer1AsGoku();
+
+        if (player2Name.equals(CharacterFactory.FREEZER))
+            controller.setPlayer2AsFreezer();
+        else
+            controller.setPlayer2AsGoku();
+
+        ResourcesHandler.getInstance().preloadSounds();
+        GuiHandler.getInstance().setSelectedBackgroundMapFilepath(DEFAULT_MAP_FILEPATH);
+        controller.startNetworkGame(DEFAULT_MAP_FILEPATH, localPlayer,
+                new UdpTransport(localPort, remoteAddress));
+        MainFrame.getInstance().setVisible(true);
+        MainFrame.getInstance().switchPanel(MainFrame.GAME_PANEL);
+    }
+}
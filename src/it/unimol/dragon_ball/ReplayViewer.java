@@ -0,0 +1,52 @@
+package it.unimol.dragon_ball;
+
+import it.unimol.dragon_ball.app.GameController;
+import it.unimol.dragon_ball.app.replay.Replay;
+import it.unimol.dragon_ball.app.replay.ReplayCodec;
+import it.unimol.dragon_ball.app.replay.ReplayPlayer;
+import it.unimol.dragon_ball.app.simulation.BattleState;
+import it.unimol.dragon_ball.gui.GuiHandler;
+import it.unimol.dragon_ball.gui.frames.MainFrame;
+import it.unimol.dragon_ball.utils.ResourcesHandler;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Riproduce una partita salvata nella cartella dei replay. Indicando <code>headless</code> la partita viene
+ * simulata senza interfaccia grafica e ne viene stampato l'esito, verificando che coincida con quello registrato;
+ * altrimenti viene mostrata a schermo alla velocità indicata, da 1x a 64x.
+ * Utilizzo: <code>java -cp DragonBallGame.jar it.unimol.dragon_ball.ReplayViewer file [headless|velocità]</code>
+ */
+public class ReplayViewer {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Utilizzo: ReplayViewer file [headless|velocità]");
+            return;
+        }
+
+        Replay replay = ReplayCodec.load(new File(args[0]));
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("headless")) {
+            ReplayPlayer player = new ReplayPlayer(replay);
+            player.playToEnd();
+
+            BattleState state = player.getSimulation().getState();
+            System.out.println(replay.getPlayer1Name() + " vs " + replay.getPlayer2Name() + ", " +
+                    state.getTickCount() + " tick");
+            System.out.println("Vincitore: " + state.getWinnerName());
+            System.out.println("HP: " + state.getFighter1().getActualHP() + " - " + state.getFighter2().getActualHP());
+            System.out.println("Checksum: " + (player.isConsistent() ? "OK" : "MISMATCH"));
+            return;
+        }
+
+        int speed = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        speed = Math.max(1, Math.min(GameController.MAX_REPLAY_SPEED, speed));
+
+        ResourcesHandler.getInstance().preloadSounds();
+        GuiHandler.getInstance().setSelectedBackgroundMapFilepath(replay.getMapFilepath());
+        GameController.getInstance().startReplay(replay, speed);
+        MainFrame.getInstance().setVisible(true);
+        MainFrame.getInstance().switchPanel(MainFrame.GAME_PANEL);
+    }
+}
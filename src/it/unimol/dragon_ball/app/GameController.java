@@ -1,24 +1,43 @@
 package it.unimol.dragon_ball.app;
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
 
+import it.unimol.dragon_ball.app.ai.UtilityInputStrategy;
 import it.unimol.dragon_ball.app.logic.Character;
-import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.net.RollbackSession;
+import it.unimol.dragon_ball.app.net.Transport;
+import it.unimol.dragon_ball.app.replay.Replay;
+import it.unimol.dragon_ball.app.replay.ReplayCodec;
+import it.unimol.dragon_ball.app.replay.ReplayPlayer;
+import it.unimol.dragon_ball.app.replay.ReplayRecorder;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
 
 /**
  * Singleton che gestisce il flusso di gioco.
  *      Questa classe fornisce le seguenti funzionalità:
  *          - avvio e interruzione del flusso di gioco;
  *          - selezione dei personaggi giocanti;
- *          - aggiornamento controllato dei dati dei personaggi;
+ *          - avanzamento, ad ogni tick, della {@link BattleSimulation} con gli input dei giocatori;
+ *          - registrazione della partita in un {@link Replay}, salvato su richiesta nella cartella dei replay al suo
+ *            termine;
+ *          - riproduzione di un {@link Replay} a velocità multipla;
+ *          - partite in rete, sincronizzate tramite una {@link RollbackSession};
+ *          - partite contro il computer, che controlla il secondo personaggio tramite una {@link UtilityInputStrategy};
  *          - restituisce il nome del player vincitore a fine partita.
  */
 public class GameController {
+    public static final String REPLAYS_DIRECTORY = "replays";
+    public static final String SAVE_REPLAYS_PROPERTY = "dragonball.saveReplays";
+    public static final int MAX_REPLAY_SPEED = 64;
+    public static final double DISCONNECTION_SECONDS = 5;
+    public static final double FINAL_ACK_SECONDS = 0.5;
+
     private Character player1;
     private boolean isCharacter1Goku;
     private boolean isCharacter1Freezer;
@@ -30,11 +49,28 @@ public class GameController {
     private String winnerName;
 
     private volatile boolean isGameActive;
+    private GameLoop gameLoop;
+    private BattleSimulation battleSimulation;
+
+    private volatile PlayerInput player1Input;
+    private volatile PlayerInput player2Input;
+
+    private String mapFilepath;
+    private ReplayPlayer replayPlayer;
+    private volatile RollbackSession rollbackSession;
+    private long resultAcknowledgedTicks;
+    private volatile boolean isConnectionLost;
+    private final Random seedGenerator;
+    private volatile boolean isReplaySavingEnabled;
+    private volatile Replay lastReplay;
+    private volatile IOException lastReplaySaveError;
 
     private static GameController instance;
 
     private GameController() {
         isGameActive = false;
+        seedGenerator = new Random();
+        isReplaySavingEnabled = Boolean.getBoolean(SAVE_REPLAYS_PROPERTY);
 
         isCharacter1Goku = false;
         isCharacter1Freezer = false;
@@ -72,118 +108,266 @@ public class GameController {
 
     /**
      * Avvia il flusso di gioco.
-     * Vengono inizializzati i personaggi selezionati e viene avviato il thread che aggiorna automaticamente
-     * i dati dei personaggi al verificarsi degli eventi.
+     * Vengono inizializzati i personaggi selezionati e la {@link BattleSimulation} della partita, quindi viene avviato
+     * il {@link GameLoop} che, ad ogni tick, fa avanzare la simulazione con gli ultimi input ricevuti dai giocatori.
+     * Gli input di ogni tick vengono registrati, così che al termine la partita sia disponibile come {@link Replay} e,
+     * se il salvataggio dei replay è attivo, venga salvata nella cartella {@link #REPLAYS_DIRECTORY}.
+     * @param mapFilepath percorso dell'immagine della mappa selezionata, memorizzato nel replay della partita.
      */
-    public void startGame() {
+    public void startGame(String mapFilepath) {
+        startGame(mapFilepath, null);
+    }
+
+    /**
+     * Avvia una partita contro il computer, che controlla il secondo personaggio al posto del secondo giocatore della
+     * tastiera. Le decisioni del computer avvengono sul thread del {@link GameLoop}, entro
+     * {@link UtilityInputStrategy#DEFAULT_BUDGET_NANOS} nanosecondi per tick, e vengono registrate nel replay come
+     * quelle di un giocatore.
+     * @param mapFilepath percorso dell'immagine della mappa selezionata, memorizzato nel replay della partita.
+     */
+    public void startComputerGame(String mapFilepath) {
+        startGame(mapFilepath, new UtilityInputStrategy());
+    }
+
+    private void startGame(String mapFilepath, UtilityInputStrategy computerStrategy) {
         this.isGameActive = true;
+        this.winnerName = null;
+        this.lastReplaySaveError = null;
+        this.isConnectionLost = false;
+        this.mapFilepath = mapFilepath;
+        this.replayPlayer = null;
+        this.rollbackSession = null;
         initPlayers();
-        startGameThread();
-    }
-
-    private void startGameThread() {
-        Thread gameBattleThread = new Thread(() -> {
-
-            while (this.isGameActive) {
-                /* Player 1 handling */
-                if (this.player1.getAura() >= this.player1.getMaxAura() &&
-                        this.player1.getActualEvolutionNumber() < this.player1.getMAX_EVOLUTIONS_NUMBER()) {
-                        player1.resetAura();
-                        player1.evolve();
-                }
-                /* */
-
-
-                /* Player 2 handling */
-                if (this.player2.getAura() >= this.player2.getMaxAura() &&
-                        this.player2.getActualEvolutionNumber() < this.player2.getMAX_EVOLUTIONS_NUMBER()) {
-                        player2.resetAura();
-                        player2.evolve();
-                }
-
-                /* */
-
-                if (this.player1.getActualHP() < 0) {
-                    winnerName = "player2";
-                    stopGame();
-                } else if (this.player2.getActualHP() < 0) {
-                    winnerName = "player1";
-                    stopGame();
-                }
-
-                try {
-                    Thread.sleep(30);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+
+        this.player1Input = PlayerInput.NONE;
+        this.player2Input = PlayerInput.NONE;
+
+        gameLoop = createGameLoop(GameLoop.DEFAULT_TICK_MILLIS);
+        long tickMillis = gameLoop.getTickNanos() / 1_000_000L;
+        BattleSimulation battleSimulation = new BattleSimulation(player1, player2, tickMillis,
+                seedGenerator.nextLong());
+        ReplayRecorder replayRecorder = new ReplayRecorder(battleSimulation, mapFilepath);
+
+        if (computerStrategy != null) {
+            try {
+                computerStrategy.prepare(battleSimulation);
+            } catch (IOException ignored) {
+                // Il computer si affida alla sola politica a utilità
             }
+        }
 
-        });
+        gameLoop.addPhaseHandler(GameLoop.Phase.MOVEMENT, () -> {
+            // Leggo una sola volta gli input, così che quelli registrati coincidano con quelli simulati
+            PlayerInput player1Input = this.player1Input;
+            PlayerInput player2Input = computerStrategy == null ? this.player2Input : computerStrategy.nextInput(
+                    battleSimulation, battleSimulation.getFighter2(), battleSimulation.getFighter1());
 
-        gameBattleThread.start();
+            replayRecorder.record(player1Input, player2Input);
+            battleSimulation.step(player1Input, player2Input);
+        });
+        gameLoop.addPhaseHandler(GameLoop.Phase.WIN_CHECK, this::checkWinner);
+        gameLoop.addStopListener(() -> saveReplay(replayRecorder.toReplay(battleSimulation.getState())));
+        this.battleSimulation = battleSimulation;
+        gameLoop.start();
     }
 
-    public void stopGame() {
-        this.isGameActive = false;
+    /**
+     * Avvia la riproduzione di una partita registrata, mostrata come una partita in corso.
+     * La simulazione avanza della quantità di tick indicata dalla velocità ad ogni tick del {@link GameLoop}, la cui
+     * durata coincide con quella della partita registrata; gli input dei giocatori vengono ignorati.
+     * @param replay partita da riprodurre.
+     * @param speed fattore di velocità della riproduzione, compreso tra 1 e {@link #MAX_REPLAY_SPEED}.
+     * @throws IOException se non è possibile caricare i personaggi della partita.
+     */
+    public void startReplay(Replay replay, int speed) throws IOException {
+        assert speed >= 1 && speed <= MAX_REPLAY_SPEED;
+
+        ReplayPlayer replayPlayer = new ReplayPlayer(replay);
+        this.replayPlayer = replayPlayer;
+        this.rollbackSession = null;
+        this.isGameActive = true;
+        this.winnerName = null;
+        this.lastReplaySaveError = null;
+        this.isConnectionLost = false;
+        this.mapFilepath = replay.getMapFilepath();
+
+        battleSimulation = replayPlayer.getSimulation();
+        player1 = battleSimulation.getFighter1().getCharacter();
+        player2 = battleSimulation.getFighter2().getCharacter();
+
+        gameLoop = createGameLoop(replay.getTickMillis());
+        gameLoop.addPhaseHandler(GameLoop.Phase.MOVEMENT, () -> replayPlayer.step(speed));
+        gameLoop.addPhaseHandler(GameLoop.Phase.WIN_CHECK, this::checkWinner);
+        gameLoop.start();
     }
 
+    /**
+     * Avvia una partita in rete contro un giocatore remoto, che deve aver selezionato gli stessi personaggi.
+     * Ad ogni tick la {@link RollbackSession} fa avanzare la simulazione con l'input del primo giocatore della
+     * tastiera, attribuito al personaggio controllato in locale, e con quello ricevuto dal giocatore remoto.
+     * La partita termina quando entrambi i giocatori conoscono il vincitore definitivo: gli input continuano ad essere
+     * inviati e confermati finché il giocatore remoto non ha ricevuto quelli con cui la simulazione si è conclusa, e
+     * per altri {@link #FINAL_ACK_SECONDS} secondi nel caso in cui l'ultima conferma vada persa.
+     * La simulazione parte soltanto quando il giocatore remoto è connesso, attendendolo senza limiti di tempo; da quel
+     * momento, se il giocatore remoto non invia più pacchetti per {@link #DISCONNECTION_SECONDS} secondi prima che il
+     * vincitore sia definitivo, la partita termina senza vincitore e {@link #isConnectionLost()} restituisce true.
+     * @param mapFilepath percorso dell'immagine della mappa selezionata.
+     * @param localPlayer 0 se il giocatore locale controlla il primo personaggio, 1 se controlla il secondo.
+     * @param transport canale con cui comunicare con il giocatore remoto, chiuso al termine della partita.
+     */
+    public void startNetworkGame(String mapFilepath, int localPlayer, Transport transport) {
+        this.isGameActive = true;
+        this.winnerName = null;
+        this.lastReplaySaveError = null;
+        this.isConnectionLost = false;
+        this.mapFilepath = mapFilepath;
+        this.replayPlayer = null;
+        initPlayers();
 
-    private void initPlayers() {
-        String character1PropertiesFilepath = null;
-        String character2PropertiesFilepath = null;
+        this.player1Input = PlayerInput.NONE;
+        this.player2Input = PlayerInput.NONE;
+
+        gameLoop = createGameLoop(GameLoop.DEFAULT_TICK_MILLIS);
+        battleSimulation = new BattleSimulation(player1, player2, gameLoop.getTickNanos() / 1_000_000L);
+        RollbackSession rollbackSession = new RollbackSession(battleSimulation, localPlayer, transport,
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        this.rollbackSession = rollbackSession;
+        this.resultAcknowledgedTicks = 0;
+
+        gameLoop.addPhaseHandler(GameLoop.Phase.MOVEMENT, () -> {
+            try {
+                rollbackSession.advance(player1Input);
+            } catch (IOException e) {
+                isConnectionLost = true;
+                stopGame();
+            }
+        });
+        gameLoop.addPhaseHandler(GameLoop.Phase.WIN_CHECK, this::checkWinner);
+        gameLoop.addStopListener(() -> {
+            try {
+                transport.close();
+            } catch (IOException ignored) {
 
-        if (isCharacter1Goku)
-            character1PropertiesFilepath = "/resources/file_properties/goku.properties";
-        else if (isCharacter1Freezer)
-            character1PropertiesFilepath = "/resources/file_properties/freezer.properties";
+            }
+        });
+        gameLoop.start();
+    }
 
-        if (isCharacter2Goku)
-            character2PropertiesFilepath = "/resources/file_properties/goku.properties";
-        else if (isCharacter2Freezer)
-            character2PropertiesFilepath = "/resources/file_properties/freezer.properties";
+    private GameLoop createGameLoop(long tickMillis) {
+        GameLoop gameLoop = new GameLoop(tickMillis);
 
-        assert character1PropertiesFilepath != null && character2PropertiesFilepath != null;
-        try (InputStream inputStream1 = getClass().getResourceAsStream(character1PropertiesFilepath);
-             InputStream inputStream2 = getClass().getResourceAsStream(character2PropertiesFilepath)) {
-            Properties propertiesCharacter1 = new Properties();
-            propertiesCharacter1.load(inputStream1);
-            player1 = new Character(propertiesCharacter1);
+        // Un errore durante un tick arresta il ciclo senza passare da stopGame
+        gameLoop.addStopListener(() -> this.isGameActive = false);
+        return gameLoop;
+    }
 
-            Properties propertiesCharacter2 = new Properties();
-            propertiesCharacter2.load(inputStream2);
-            player2 = new Character(propertiesCharacter2);
+    private void checkWinner() {
+        if (rollbackSession != null) {
+            checkNetworkWinner();
+            return;
+        }
 
-            initPlayersSkills();
-        } catch (IOException ignored) {
+        if (battleSimulation.isFinished() || (replayPlayer != null && replayPlayer.isFinished())) {
+            winnerName = battleSimulation.getWinnerName();
+            stopGame();
+        }
+    }
 
+    /**
+     * Un vincitore dovuto ad una previsione errata potrebbe essere annullato da un rollback: la partita in rete termina
+     * soltanto quando il vincitore è definitivo per entrambi i giocatori, o quando il giocatore remoto si disconnette.
+     */
+    private void checkNetworkWinner() {
+        if (rollbackSession.isResultAcknowledged()) {
+            resultAcknowledgedTicks++;
+
+            // Le conferme vengono inviate ancora per qualche tick, nel caso in cui l'ultima vada persa
+            if (resultAcknowledgedTicks > battleSimulation.toTicks(FINAL_ACK_SECONDS)) {
+                winnerName = battleSimulation.getWinnerName();
+                stopGame();
+            }
+            return;
         }
 
+        if (rollbackSession.getTicksSinceLastPacket() > battleSimulation.toTicks(DISCONNECTION_SECONDS)) {
+            // Il giocatore remoto può aver concluso la partita prima che la sua ultima conferma arrivasse
+            if (rollbackSession.isResultConfirmed())
+                winnerName = battleSimulation.getWinnerName();
+            else
+                isConnectionLost = true;
+
+            stopGame();
+        }
+    }
+
+    /**
+     * Aggiorna gli input dei giocatori, con cui la simulazione avanza ad ogni tick finché non vengono nuovamente aggiornati.
+     * @param player1Input comandi premuti dal primo giocatore.
+     * @param player2Input comandi premuti dal secondo giocatore.
+     */
+    public void setPlayersInput(PlayerInput player1Input, PlayerInput player2Input) {
+        assert player1Input != null && player2Input != null;
+
+        this.player1Input = player1Input;
+        this.player2Input = player2Input;
+    }
+
+    public void stopGame() {
+        this.isGameActive = false;
+
+        if (this.gameLoop != null)
+            this.gameLoop.stop();
+    }
+
+    /**
+     * Memorizza il replay della partita registrata e, se il salvataggio dei replay è attivo, lo salva nella cartella
+     * {@link #REPLAYS_DIRECTORY} con un nome che riporta la data e l'ora del salvataggio. L'eventuale errore viene
+     * restituito da {@link #getLastReplaySaveError()}. Va eseguito sul thread del {@link GameLoop} al suo termine,
+     * così che nessun tick venga registrato nel frattempo.
+     */
+    private void saveReplay(Replay replay) {
+        lastReplay = replay;
+
+        if (!isReplaySavingEnabled)
+            return;
+
+        File replaysDirectory = new File(REPLAYS_DIRECTORY);
+        String filename = "replay-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) +
+                ReplayCodec.FILE_EXTENSION;
+
+        try {
+            if (!replaysDirectory.isDirectory() && !replaysDirectory.mkdirs())
+                throw new IOException("Cannot create directory " + replaysDirectory.getAbsolutePath());
+
+            ReplayCodec.save(replay, new File(replaysDirectory, filename));
+        } catch (IOException e) {
+            lastReplaySaveError = e;
+        }
     }
 
-    private void initPlayersSkills() {
+
+    private void initPlayers() {
+        String character1Name = null;
+        String character2Name = null;
+
         if (isCharacter1Goku)
-            initGokuSkills(player1);
+            character1Name = CharacterFactory.GOKU;
         else if (isCharacter1Freezer)
-            initFreezerSkills(player1);
+            character1Name = CharacterFactory.FREEZER;
 
         if (isCharacter2Goku)
-            initGokuSkills(player2);
+            character2Name = CharacterFactory.GOKU;
         else if (isCharacter2Freezer)
-            initFreezerSkills(player2);
-    }
+            character2Name = CharacterFactory.FREEZER;
 
-    private void initGokuSkills(Character goku) {
-        goku.addNewSkill(new Skill("Punch", goku, 0, 0, 0));
-        goku.addNewSkill(new Skill("EnergyBall", goku, 30, 75, 0.5));
-        goku.addNewSkill(new Skill("Kamehameha", goku,  150, 400, 10));
-        goku.addNewSkill(new Skill("GenkidamaSphere", goku, 300, 800, 25));
-    }
+        assert character1Name != null && character2Name != null;
+        try {
+            player1 = CharacterFactory.create(character1Name);
+            player2 = CharacterFactory.create(character2Name);
+        } catch (IOException ignored) {
+
+        }
 
-    private void initFreezerSkills(Character freezer) {
-        freezer.addNewSkill(new Skill("Punch", freezer, 0, 0, 0));
-        freezer.addNewSkill(new Skill("EnergyBall", freezer,  40, 50, 0.5));
-        freezer.addNewSkill(new Skill("DeathBullet", freezer, 200, 350, 15));
-        freezer.addNewSkill(new Skill("SupernovaSphere", freezer, 400, 700, 30));
     }
 
 
@@ -196,11 +380,84 @@ public class GameController {
     }
 
 
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    public BattleSimulation getBattleSimulation() {
+        return battleSimulation;
+    }
+
+    /**
+     * @return true se è in corso una partita in rete e il giocatore remoto non si è ancora connesso.
+     */
+    public boolean isWaitingForOpponent() {
+        RollbackSession rollbackSession = this.rollbackSession;
+        return rollbackSession != null && isGameActive && !rollbackSession.isConnected();
+    }
+
     public boolean isGameActive() {
         return isGameActive;
     }
 
+    /**
+     * @return il nome del player vincitore, oppure null se la partita è ancora in corso o si è conclusa senza
+     * vincitore, ad esempio per la disconnessione del giocatore remoto.
+     */
     public String getWinnerName() {
         return winnerName;
     }
+
+    /**
+     * @return true se l'ultima partita in rete si è conclusa senza vincitore per la perdita della connessione con il
+     * giocatore remoto.
+     */
+    public boolean isConnectionLost() {
+        return isConnectionLost;
+    }
+
+    public String getMapFilepath() {
+        return mapFilepath;
+    }
+
+    /**
+     * @return il replay dell'ultima partita giocata, o null se nessuna partita è stata ancora conclusa.
+     */
+    public Replay getLastReplay() {
+        return lastReplay;
+    }
+
+    public boolean isReplaySavingEnabled() {
+        return isReplaySavingEnabled;
+    }
+
+    /**
+     * Attiva o disattiva il salvataggio dei replay al termine delle partite. Inizialmente il salvataggio è attivo
+     * soltanto se la proprietà di sistema {@link #SAVE_REPLAYS_PROPERTY} vale <code>true</code>.
+     */
+    public void setReplaySavingEnabled(boolean isReplaySavingEnabled) {
+        this.isReplaySavingEnabled = isReplaySavingEnabled;
+    }
+
+    /**
+     * @return l'errore che ha impedito di salvare il replay dell'ultima partita, o null se il replay è stato salvato
+     * o il salvataggio non è attivo.
+     */
+    public IOException getLastReplaySaveError() {
+        return lastReplaySaveError;
+    }
+
+    /**
+     * @return la sessione della partita in rete in corso, o null se la partita in corso non è in rete.
+     */
+    public RollbackSession getRollbackSession() {
+        return rollbackSession;
+    }
+
+    /**
+     * @return la riproduzione in corso, o null se la partita in corso non è un replay.
+     */
+    public ReplayPlayer getReplayPlayer() {
+        return replayPlayer;
+    }
 }
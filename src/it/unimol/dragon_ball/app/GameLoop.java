@@ -0,0 +1,251 @@
+package it.unimol.dragon_ball.app;
+
+import it.unimol.dragon_ball.utils.PerformanceMetrics;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Motore di gioco a passo fisso.
+ * Un unico thread esegue, ad ogni tick, le fasi di gioco sempre nello stesso ordine:
+ * lettura degli input, avanzamento della simulazione, animazioni e controllo del vincitore.
+ * Il tempo reale trascorso viene accumulato e consumato a passi di durata costante: qualora il thread dovesse
+ * rimanere indietro, vengono eseguiti più tick consecutivi (fino a {@link #MAX_CATCH_UP_TICKS}) per recuperare,
+ * scartando il ritardo eccedente.
+ */
+public class GameLoop {
+    public static final long DEFAULT_TICK_MILLIS = 30;
+    public static final int MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * Fasi di un tick, elencate nell'ordine in cui vengono eseguite.
+     * Durante MOVEMENT viene eseguito l'intero passo della simulazione, comprese evoluzioni e collisioni.
+     */
+    public enum Phase {
+        INPUT,
+        MOVEMENT,
+        ANIMATION,
+        WIN_CHECK
+    }
+
+    private final long tickNanos;
+    private final Map<Phase, List<Runnable>> phaseHandlers;
+    private final List<Runnable> stopListeners;
+
+    private volatile boolean isRunning;
+    private volatile boolean isStopped;
+    private volatile long tickCount;
+    private volatile long accumulator;
+    private volatile long lastAdvanceTime;
+    private volatile long tickEndTime;
+    private volatile RuntimeException failure;
+
+    private Thread loopThread;
+
+    public GameLoop() {
+        this(DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Genera un nuovo <code>GameLoop</code> con la durata del tick presa come parametro.
+     * @param tickMillis durata di un tick espressa in millisecondi.
+     */
+    public GameLoop(long tickMillis) {
+        assert tickMillis > 0;
+
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.phaseHandlers = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values())
+            this.phaseHandlers.put(phase, new CopyOnWriteArrayList<>());
+
+        this.stopListeners = new CopyOnWriteArrayList<>();
+        this.isRunning = false;
+        this.isStopped = false;
+        this.tickCount = 0;
+        this.accumulator = 0;
+    }
+
+    /**
+     * Registra un'operazione da eseguire ad ogni tick durante la fase presa come parametro.
+     * Le operazioni di una stessa fase vengono eseguite nell'ordine di registrazione.
+     * @param phase fase del tick in cui eseguire l'operazione.
+     * @param handler operazione da eseguire.
+     */
+    public void addPhaseHandler(Phase phase, Runnable handler) {
+        assert phase != null && handler != null;
+
+        this.phaseHandlers.get(phase).add(handler);
+    }
+
+    /**
+     * Registra un'operazione da eseguire, sul thread del motore, quando il ciclo di gioco termina.
+     * @param listener operazione da eseguire al termine del ciclo.
+     */
+    public void addStopListener(Runnable listener) {
+        assert listener != null;
+
+        this.stopListeners.add(listener);
+    }
+
+    /**
+     * Avvia il thread che scandisce i tick del motore.
+     */
+    public void start() {
+        if (this.isRunning || this.isStopped)
+            return;
+
+        this.isRunning = true;
+        this.loopThread = new Thread(this::runLoop, "GameLoop");
+        this.loopThread.start();
+    }
+
+    /**
+     * Interrompe il ciclo di gioco. Il tick in esecuzione viene comunque completato, mentre gli eventuali tick di
+     * recupero ancora in attesa vengono scartati. Un <code>GameLoop</code> interrotto non può essere riavviato.
+     */
+    public void stop() {
+        this.isStopped = true;
+        this.isRunning = false;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Restituisce l'eccezione che ha interrotto il ciclo di gioco durante un tick. In tal caso il ciclo viene
+     * arrestato come da {@link #stop()} e le operazioni registrate con {@link #addStopListener(Runnable)} vengono
+     * comunque eseguite.
+     * @return eccezione sollevata da un'operazione di una fase, o null se il ciclo non è terminato per un errore.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Restituisce l'istante, nella scala di {@link System#nanoTime()}, in cui termina l'intervallo di tempo reale
+     * simulato dal tick in esecuzione. Anche i tick eseguiti consecutivamente per recuperare un ritardo coprono
+     * ciascuno il proprio intervallo: gli eventi avvenuti entro tale istante appartengono al tick in esecuzione.
+     * @return istante di fine del tick in esecuzione, o dell'ultimo tick eseguito.
+     */
+    public long getTickEndTime() {
+        return tickEndTime;
+    }
+
+    /**
+     * Converte una durata nel numero di tick, arrotondato per eccesso, necessari a coprirla.
+     * @param seconds durata espressa in secondi.
+     * @return numero di tick corrispondenti alla durata.
+     */
+    public long toTicks(double seconds) {
+        return toTicks(seconds, this.tickNanos);
+    }
+
+    /**
+     * Converte una durata nel numero di tick, arrotondato per eccesso, necessari a coprirla.
+     * @param seconds durata espressa in secondi.
+     * @param tickNanos durata di un tick espressa in nanosecondi.
+     * @return numero di tick corrispondenti alla durata.
+     */
+    public static long toTicks(double seconds, long tickNanos) {
+        assert tickNanos > 0;
+
+        // La tolleranza evita che gli errori di arrotondamento aggiungano un tick alle durate multiple del tick
+        return (long) Math.ceil(seconds * 1_000_000_000L / tickNanos - 1e-9);
+    }
+
+    /**
+     * Restituisce la frazione di tick già accumulata ma non ancora simulata.
+     * Mentre il thread del motore è attivo, viene considerato anche il tempo trascorso dall'ultimo avanzamento, così
+     * che il valore cresca con continuità tra un tick e il successivo.
+     * @return valore compreso tra 0 (tick appena eseguito) e 1 (tick successivo imminente).
+     */
+    public double getInterpolationAlpha() {
+        long pendingNanos = this.accumulator;
+        if (this.isRunning)
+            pendingNanos = pendingNanos + (System.nanoTime() - this.lastAdvanceTime);
+
+        return Math.max(0.0, Math.min(1.0, pendingNanos / (double) this.tickNanos));
+    }
+
+    private void runLoop() {
+        long previousTime = System.nanoTime();
+        this.lastAdvanceTime = previousTime;
+        this.tickEndTime = previousTime;
+
+        try {
+            while (this.isRunning) {
+                long actualTime = System.nanoTime();
+                advance(actualTime - previousTime);
+                previousTime = actualTime;
+                this.lastAdvanceTime = actualTime;
+
+                long sleepNanos = this.tickNanos - this.accumulator;
+                if (sleepNanos > 0 && this.isRunning)
+                    Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+            }
+        } catch (InterruptedException e) {
+            // L'interruzione del thread del motore equivale ad una richiesta di arresto
+            Thread.currentThread().interrupt();
+            stop();
+        } catch (RuntimeException e) {
+            this.failure = e;
+            stop();
+        }
+
+        for (Runnable listener : stopListeners)
+            listener.run();
+    }
+
+    /**
+     * Aggiunge all'accumulatore il tempo trascorso ed esegue tutti i tick che ne risultano.
+     * Vengono eseguiti al massimo {@link #MAX_CATCH_UP_TICKS} tick: l'eventuale ritardo eccedente viene scartato,
+     * in modo da non rimanere indefinitamente indietro rispetto al tempo reale.
+     * @param elapsedNanos tempo trascorso dall'ultima chiamata, espresso in nanosecondi.
+     * @return numero di tick eseguiti.
+     */
+    public int advance(long elapsedNanos) {
+        long actualAccumulator = this.accumulator + Math.max(0, elapsedNanos);
+        int executedTicks = 0;
+
+        while (actualAccumulator >= this.tickNanos && executedTicks < MAX_CATCH_UP_TICKS && !this.isStopped) {
+            this.tickEndTime = this.tickEndTime + this.tickNanos;
+            tick();
+            actualAccumulator -= this.tickNanos;
+            executedTicks++;
+        }
+
+        if (actualAccumulator >= this.tickNanos) {
+            // Il ritardo scartato non viene simulato: i tick successivi ripartono dal tempo reale
+            long discardedNanos = actualAccumulator - actualAccumulator % this.tickNanos;
+            this.tickEndTime = this.tickEndTime + discardedNanos;
+            actualAccumulator = actualAccumulator - discardedNanos;
+        }
+
+        this.accumulator = actualAccumulator;
+        return executedTicks;
+    }
+
+    /**
+     * Esegue un singolo tick, richiamando in ordine le operazioni registrate per ciascuna fase.
+     */
+    public void tick() {
+        for (Phase phase : Phase.values()) {
+            for (Runnable handler : this.phaseHandlers.get(phase))
+                handler.run();
+        }
+
+        this.tickCount = this.tickCount + 1;
+        PerformanceMetrics.getInstance().recordTick();
+    }
+}
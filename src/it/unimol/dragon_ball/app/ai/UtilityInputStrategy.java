@@ -0,0 +1,217 @@
+package it.unimol.dragon_ball.app.ai;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleSnapshot;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Avversario controllato dal computer, che decide ad ogni tick entro un tempo massimo prefissato.
+ * La decisione avviene in due passi:
+ *      - la {@link UtilityPolicy} ordina per utilità le azioni possibili, in tempo costante;
+ *      - le azioni più utili vengono simulate per alcuni tick su una copia della partita, ripristinata da un
+ *        {@link BattleSnapshot}, e viene scelta quella con il miglior esito in termini di danni inflitti e subiti.
+ * Il tempo a disposizione decorre dall'inizio della decisione e comprende anche l'ordinamento della politica, che
+ * costituisce la decisione minima e viene quindi sempre eseguito. Il salvataggio della partita e ogni simulazione
+ * vengono avviati soltanto se rientrano nel tempo rimasto, in base alla durata media di una simulazione, e una
+ * simulazione viene comunque interrotta non appena il tempo a disposizione termina: si restituisce allora la migliore
+ * azione valutata fino a quel momento. Se una decisione supera il tempo a disposizione, nei tick successivi vengono
+ * simulate meno azioni, fino a ridursi alla sola politica a utilità; il numero di simulazioni torna a crescere dopo
+ * una serie di decisioni rapide.
+ * La strategia viene eseguita sul thread che fa avanzare la simulazione, senza thread aggiuntivi: non può quindi
+ * rallentare il ciclo di gioco oltre il tempo a disposizione, neanche su una macchina a singolo core.
+ */
+public class UtilityInputStrategy implements InputStrategy {
+    public static final long DEFAULT_BUDGET_NANOS = 1_000_000L;  // Un trentesimo del tick predefinito
+    public static final int MAX_ROLLOUTS = 4;
+
+    static final int ROLLOUT_TICKS = 15;
+    private static final int RECOVERY_DECISIONS = 30;
+    private static final double WIN_VALUE = 10_000;
+
+    private final long budgetNanos;
+    private final LongSupplier clock;
+    private final UtilityPolicy policy;
+    private final PlayerInput[] candidates;
+    private final double[] scores;
+
+    private final BattleSnapshot snapshot;
+    private BattleSimulation rolloutSimulation;
+
+    private int allowedRollouts;
+    private long rolloutNanos;
+    private int fastDecisions;
+    private long decisions;
+    private long overruns;
+    private long maxDecisionNanos;
+
+    /**
+     * Genera un avversario con il tempo a disposizione predefinito, misurato tramite {@link System#nanoTime()}.
+     */
+    public UtilityInputStrategy() {
+        this(DEFAULT_BUDGET_NANOS, System::nanoTime);
+    }
+
+    /**
+     * @param budgetNanos tempo a disposizione per ciascuna decisione, espresso in nanosecondi.
+     * @param clock orologio con cui misurare il tempo trascorso, espresso in nanosecondi.
+     */
+    public UtilityInputStrategy(long budgetNanos, LongSupplier clock) {
+        assert budgetNanos > 0 && clock != null;
+
+        this.budgetNanos = budgetNanos;
+        this.clock = clock;
+        this.policy = new UtilityPolicy();
+        this.candidates = new PlayerInput[UtilityPolicy.CANDIDATES_NUMBER];
+        this.scores = new double[UtilityPolicy.CANDIDATES_NUMBER];
+
+        this.snapshot = new BattleSnapshot();
+        this.allowedRollouts = MAX_ROLLOUTS;
+    }
+
+    /**
+     * Prepara la copia della partita su cui simulare le azioni. Va richiamato prima dell'inizio della partita, poiché
+     * richiede il caricamento dei personaggi; in sua assenza l'avversario si affida alla sola politica a utilità.
+     * @param simulation simulazione della partita che verrà giocata.
+     * @throws IOException se non è possibile caricare i personaggi della partita.
+     */
+    public void prepare(BattleSimulation simulation) throws IOException {
+        this.rolloutSimulation = new BattleSimulation(
+                CharacterFactory.create(simulation.getFighter1().getCharacter().getCanonicalName()),
+                CharacterFactory.create(simulation.getFighter2().getCharacter().getCanonicalName()),
+                simulation.getTickMillis());
+    }
+
+    @Override
+    public PlayerInput nextInput(BattleSimulation simulation, Fighter self, Fighter opponent) {
+        long startTime = clock.getAsLong();
+        long deadline = startTime + budgetNanos;
+
+        // Un personaggio impegnato in un'abilità ignora gli input
+        if (self.isBusy())
+            return PlayerInput.NONE;
+
+        policy.rank(simulation, self, opponent, candidates, scores);
+        PlayerInput bestInput = candidates[0];
+
+        // Il salvataggio della partita serve soltanto se resta il tempo per almeno una simulazione
+        int rollouts = Math.min(allowedRollouts, countUseful());
+        if (rolloutSimulation != null && rollouts > 1 && clock.getAsLong() + rolloutNanos < deadline) {
+            simulation.saveSnapshot(snapshot);
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < rollouts; i++) {
+                long rolloutStartTime = clock.getAsLong();
+                if (rolloutStartTime + rolloutNanos >= deadline)
+                    break;
+
+                double value = rollout(self.getId(), candidates[i], deadline);
+                if (Double.isNaN(value))
+                    break;
+
+                // Media mobile esponenziale della durata di una simulazione
+                long elapsedNanos = clock.getAsLong() - rolloutStartTime;
+                rolloutNanos = rolloutNanos == 0 ? elapsedNanos : (rolloutNanos * 7 + elapsedNanos) / 8;
+
+                // A parità di esito resta preferibile l'azione più utile
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestInput = candidates[i];
+                }
+            }
+        }
+
+        adaptRollouts(clock.getAsLong() - startTime);
+        return bestInput;
+    }
+
+    private int countUseful() {
+        int count = 0;
+        while (count < candidates.length && scores[count] > 0)
+            count++;
+
+        return count;
+    }
+
+    /**
+     * Simula la partita mantenendo premuta l'azione presa come parametro, mentre l'avversario non preme alcun comando
+     * e le abilità già lanciate proseguono il loro percorso.
+     * @return danni inflitti meno danni subiti, oppure NaN se il tempo a disposizione è terminato durante la
+     * simulazione.
+     */
+    private double rollout(int selfId, PlayerInput input, long deadline) {
+        rolloutSimulation.restoreSnapshot(snapshot);
+        Fighter self = selfId == 0 ? rolloutSimulation.getFighter1() : rolloutSimulation.getFighter2();
+        Fighter opponent = selfId == 0 ? rolloutSimulation.getFighter2() : rolloutSimulation.getFighter1();
+
+        int selfHP = self.getCharacter().getActualHP();
+        int opponentHP = opponent.getCharacter().getActualHP();
+
+        for (int i = 0; i < ROLLOUT_TICKS && !rolloutSimulation.isFinished(); i++) {
+            if (clock.getAsLong() >= deadline)
+                return Double.NaN;
+
+            if (selfId == 0)
+                rolloutSimulation.step(input, PlayerInput.NONE);
+            else
+                rolloutSimulation.step(PlayerInput.NONE, input);
+        }
+
+        double value = (opponentHP - opponent.getCharacter().getActualHP()) -
+                (selfHP - self.getCharacter().getActualHP());
+        if (rolloutSimulation.isFinished())
+            value = value + (rolloutSimulation.getWinnerName().equals(selfId == 0 ? "player1" : "player2") ?
+                    WIN_VALUE : -WIN_VALUE);
+
+        return value;
+    }
+
+    /**
+     * Riduce il numero di azioni da simulare dopo una decisione troppo lenta, e lo aumenta dopo una serie di decisioni
+     * che hanno richiesto meno della metà del tempo a disposizione.
+     */
+    private void adaptRollouts(long decisionNanos) {
+        decisions++;
+        maxDecisionNanos = Math.max(maxDecisionNanos, decisionNanos);
+
+        if (decisionNanos > budgetNanos) {
+            overruns++;
+            fastDecisions = 0;
+            allowedRollouts = Math.max(0, allowedRollouts - 1);
+        } else if (decisionNanos < budgetNanos / 2 && ++fastDecisions >= RECOVERY_DECISIONS) {
+            fastDecisions = 0;
+            allowedRollouts = Math.min(MAX_ROLLOUTS, allowedRollouts + 1);
+        }
+    }
+
+    /**
+     * @return numero di azioni che verranno simulate nella prossima decisione.
+     */
+    public int getAllowedRollouts() {
+        return allowedRollouts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * @return numero di decisioni che hanno superato il tempo a disposizione.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getMaxDecisionNanos() {
+        return maxDecisionNanos;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+}
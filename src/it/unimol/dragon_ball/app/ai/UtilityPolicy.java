@@ -0,0 +1,148 @@
+package it.unimol.dragon_ball.app.ai;
+
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import it.unimol.dragon_ball.app.simulation.Projectile;
+
+import java.util.List;
+
+/**
+ * Politica a utilità che assegna un punteggio, compreso tra 0 e 1, a ciascuna delle azioni possibili del personaggio.
+ * I punteggi dipendono da poche considerazioni sullo stato della partita, tutte calcolabili in tempo costante:
+ *      - la vicinanza all'avversario, che rende utili i pugni e pericoloso il caricamento dell'aura;
+ *      - l'allineamento verticale con l'avversario, necessario a colpirlo con le abilità;
+ *      - le abilità disponibili, secondo cooldown e MP;
+ *      - la minaccia di un'abilità avversaria lanciata o in caricamento, da schivare spostandosi verticalmente;
+ *      - gli MP e gli HP rimasti, che rendono utile caricare l'aura o allontanarsi.
+ */
+public class UtilityPolicy {
+    public static final int CANDIDATES_NUMBER = 10;
+
+    private static final double ALIGNMENT_TOLERANCE = 20;
+    private static final double CLOSE_DISTANCE = 2.5 * Fighter.WIDTH;
+
+    private static final PlayerInput UP = PlayerInput.of(PlayerInput.UP);
+    private static final PlayerInput DOWN = PlayerInput.of(PlayerInput.DOWN);
+    private static final PlayerInput LEFT = PlayerInput.of(PlayerInput.LEFT);
+    private static final PlayerInput RIGHT = PlayerInput.of(PlayerInput.RIGHT);
+    private static final PlayerInput AURA = PlayerInput.of(PlayerInput.AURA);
+    private static final PlayerInput[] SKILLS_INPUTS = {
+            PlayerInput.of(PlayerInput.PUNCH),
+            PlayerInput.of(PlayerInput.ENERGYBALL),
+            PlayerInput.of(PlayerInput.SPECIAL_SKILL),
+            PlayerInput.of(PlayerInput.ULTIMATE_SKILL)
+    };
+
+    /**
+     * Ordina le azioni possibili per utilità decrescente.
+     * @param simulation simulazione in corso, in sola lettura.
+     * @param self personaggio controllato.
+     * @param opponent personaggio avversario.
+     * @param candidates array di almeno {@link #CANDIDATES_NUMBER} elementi in cui scrivere le azioni ordinate.
+     * @param scores array di almeno {@link #CANDIDATES_NUMBER} elementi in cui scrivere le relative utilità.
+     */
+    public void rank(BattleSimulation simulation, Fighter self, Fighter opponent, PlayerInput[] candidates,
+                     double[] scores) {
+        assert candidates.length >= CANDIDATES_NUMBER && scores.length >= CANDIDATES_NUMBER;
+
+        Character character = self.getCharacter();
+        double distanceX = Math.abs(opponent.getX() - self.getX());
+        double distanceY = opponent.getY() - self.getY();
+        boolean isInContact = self.getHurtbox().intersects(opponent.getHurtbox());
+        boolean isClose = distanceX < CLOSE_DISTANCE;
+        boolean isAligned = Math.abs(distanceY) <= ALIGNMENT_TOLERANCE;
+        double mpRatio = (double) character.getActualMP() / character.getActualMaxMp();
+        double hpRatio = Math.max(0, (double) character.getActualHP() / character.getActualMaxHp());
+
+        boolean isAnySkillAvailable = false;
+        for (int skillIndex = Skill.ENERGYBALL; skillIndex <= Skill.ULTIMATE_SKILL; skillIndex++)
+            isAnySkillAvailable = isAnySkillAvailable || isAvailable(simulation, self, skillIndex);
+
+        PlayerInput forward = self.getDirection() > 0 ? RIGHT : LEFT;
+        PlayerInput back = self.getDirection() > 0 ? LEFT : RIGHT;
+        // Verso l'alto o il basso, da dove c'è più spazio nell'arena
+        boolean isDodgingDown = self.getY() < (BattleSimulation.ARENA_MIN_Y + BattleSimulation.ARENA_MAX_Y) / 2;
+
+        int count = 0;
+        count = add(candidates, scores, count, PlayerInput.NONE, 0.05);
+
+        double alignScore = !isAligned && isAnySkillAvailable ? 0.55 : 0;
+        double dodgeScore = isThreatened(self, opponent) ? 0.95 : 0;
+        count = add(candidates, scores, count, UP, Math.max(distanceY < 0 ? alignScore : 0,
+                isDodgingDown ? 0 : dodgeScore));
+        count = add(candidates, scores, count, DOWN, Math.max(distanceY > 0 ? alignScore : 0,
+                isDodgingDown ? dodgeScore : 0));
+
+        // Senza abilità disponibili conviene avvicinarsi per colpire con i pugni
+        count = add(candidates, scores, count, forward, isInContact ? 0 : isAnySkillAvailable ? 0.15 : 0.45);
+        count = add(candidates, scores, count, back, isInContact && hpRatio < 0.3 ? 0.5 : 0);
+
+        // L'aura serve soprattutto quando nessuna abilità è disponibile
+        double auraScore = isAnySkillAvailable ? 0.2 + 0.3 * (1 - mpRatio) : 0.5 + 0.25 * (1 - mpRatio);
+        count = add(candidates, scores, count, AURA, isClose ? auraScore * 0.3 : auraScore);
+
+        count = add(candidates, scores, count, SKILLS_INPUTS[Skill.PUNCH], isInContact ? 0.9 : 0);
+        for (int skillIndex = Skill.ENERGYBALL; skillIndex <= Skill.ULTIMATE_SKILL; skillIndex++) {
+            // Le abilità più potenti sono preferibili, e tutte lo sono a distanza ravvicinata
+            double skillScore = isAligned && isAvailable(simulation, self, skillIndex) ? 0.6 + 0.1 * skillIndex : 0;
+            count = add(candidates, scores, count, SKILLS_INPUTS[skillIndex], skillScore);
+        }
+
+        sort(candidates, scores, count);
+    }
+
+    private static int add(PlayerInput[] candidates, double[] scores, int count, PlayerInput input, double score) {
+        candidates[count] = input;
+        scores[count] = score;
+        return count + 1;
+    }
+
+    /**
+     * Ordinamento per inserzione, stabile: a parità di utilità resta prima l'azione aggiunta per prima.
+     */
+    private static void sort(PlayerInput[] candidates, double[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            PlayerInput candidate = candidates[i];
+            double score = scores[i];
+
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                candidates[j + 1] = candidates[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+
+            candidates[j + 1] = candidate;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Il personaggio è minacciato da un'abilità avversaria in caricamento se si trova alla stessa altezza
+     * dell'avversario, oppure da un'abilità lanciata che si dirige verso di lui alla sua altezza.
+     */
+    static boolean isThreatened(Fighter self, Fighter opponent) {
+        Projectile projectile = opponent.getProjectile();
+        if (projectile == null)
+            return false;
+
+        if (!projectile.isTravelling())
+            return Math.abs(opponent.getY() - self.getY()) < Fighter.HEIGHT;
+
+        boolean isApproaching = projectile.getDirection() * (self.getX() - projectile.getX()) > -Fighter.WIDTH;
+        return isApproaching && Math.abs(projectile.getY() - self.getY()) < Fighter.HEIGHT;
+    }
+
+    static boolean isAvailable(BattleSimulation simulation, Fighter fighter, int skillIndex) {
+        Character character = fighter.getCharacter();
+        List<Skill> skills = character.getSkills();
+
+        // L'input verrà elaborato nel tick successivo a quello attuale
+        return skills.size() > skillIndex &&
+                simulation.getTickCount() + 1 >= fighter.getCooldownEndTick(skillIndex) &&
+                character.getActualMP() >= skills.get(skillIndex).getMana();
+    }
+}
@@ -0,0 +1,154 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.GameLoop;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simula un numero arbitrario di partite tra due personaggi, distribuendole sui core disponibili tramite un
+ * {@link ForkJoinPool}.
+ * Le partite sono indipendenti tra loro: ciascuna dispone dei propri personaggi e delle proprie strategie, il cui
+ * seme dipende soltanto dal seme del lotto e dall'indice della partita. Il risultato è quindi identico qualunque sia
+ * il numero di thread utilizzati.
+ */
+public class BatchRunner {
+    public static final double DEFAULT_MAX_MATCH_SECONDS = 300;
+    private static final int MATCHES_PER_TASK = 4;
+
+    private final String player1Name;
+    private final String player2Name;
+    private final StrategyType strategyType;
+    private final long seed;
+    private final long tickMillis;
+    private final long maxTicks;
+
+    /**
+     * Genera un nuovo <code>BatchRunner</code> con la durata del tick predefinita del {@link GameLoop} e una durata
+     * massima delle partite pari a {@link #DEFAULT_MAX_MATCH_SECONDS}.
+     * @param player1Name nome canonico del personaggio del primo giocatore.
+     * @param player2Name nome canonico del personaggio del secondo giocatore.
+     * @param strategyType strategia utilizzata da entrambi i giocatori.
+     * @param seed seme del lotto di partite.
+     */
+    public BatchRunner(String player1Name, String player2Name, StrategyType strategyType, long seed) {
+        this(player1Name, player2Name, strategyType, seed, GameLoop.DEFAULT_TICK_MILLIS,
+                GameLoop.toTicks(DEFAULT_MAX_MATCH_SECONDS, GameLoop.DEFAULT_TICK_MILLIS * 1_000_000L));
+    }
+
+    /**
+     * @param tickMillis durata di un tick della simulazione, espressa in millisecondi.
+     * @param maxTicks numero massimo di tick di una partita; raggiunto tale limite, la partita è considerata pari.
+     */
+    public BatchRunner(String player1Name, String player2Name, StrategyType strategyType, long seed,
+                       long tickMillis, long maxTicks) {
+        assert strategyType != null && tickMillis > 0 && maxTicks > 0;
+
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
+        this.strategyType = strategyType;
+        this.seed = seed;
+        this.tickMillis = tickMillis;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Simula le partite del lotto.
+     * @param matches numero di partite da simulare.
+     * @param threads numero di thread su cui distribuire le partite.
+     * @return statistiche aggregate delle partite, comprensive dei tempi di esecuzione.
+     * @throws IOException se le proprietà di uno dei personaggi non sono disponibili.
+     */
+    public BatchStatistics run(int matches, int threads) throws IOException {
+        assert matches >= 0 && threads > 0;
+
+        // Verifico i personaggi prima di avviare i thread, così da non dover gestire l'errore al loro interno
+        CharacterFactory.create(player1Name);
+        CharacterFactory.create(player2Name);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long startTime = System.nanoTime();
+            BatchStatistics statistics = pool.invoke(new MatchesTask(0, matches));
+            statistics.setExecution(threads, System.nanoTime() - startTime);
+
+            return statistics;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Simula una singola partita del lotto.
+     * @param matchIndex indice della partita, da cui dipendono i semi delle strategie.
+     * @return la simulazione, giocata fino alla sua conclusione o al limite di tick.
+     */
+    public BattleSimulation playMatch(long matchIndex) throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(player1Name),
+                CharacterFactory.create(player2Name), tickMillis, seed + matchIndex);
+
+        Random matchRandom = new Random(seed + matchIndex);
+        InputStrategy player1Strategy = strategyType.create(matchRandom.nextLong());
+        InputStrategy player2Strategy = strategyType.create(matchRandom.nextLong());
+
+        Fighter fighter1 = simulation.getFighter1();
+        Fighter fighter2 = simulation.getFighter2();
+
+        while (!simulation.isFinished() && simulation.getTickCount() < maxTicks) {
+            simulation.step(player1Strategy.nextInput(simulation, fighter1, fighter2),
+                    player2Strategy.nextInput(simulation, fighter2, fighter1));
+        }
+
+        return simulation;
+    }
+
+    private BatchStatistics newStatistics() {
+        return new BatchStatistics(player1Name, player2Name, strategyType.name().toLowerCase(), tickMillis);
+    }
+
+    /**
+     * Simula le partite con indice compreso nell'intervallo [from, to), dividendolo a metà finché non è
+     * sufficientemente piccolo.
+     */
+    private class MatchesTask extends RecursiveTask<BatchStatistics> {
+        private final long from;
+        private final long to;
+
+        private MatchesTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchStatistics compute() {
+            if (to - from <= MATCHES_PER_TASK) {
+                BatchStatistics statistics = newStatistics();
+
+                try {
+                    for (long matchIndex = from; matchIndex < to; matchIndex++)
+                        statistics.record(playMatch(matchIndex));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return statistics;
+            }
+
+            long middle = (from + to) >>> 1;
+            MatchesTask left = new MatchesTask(from, middle);
+            left.fork();
+
+            BatchStatistics statistics = new MatchesTask(middle, to).compute();
+            statistics.merge(left.join());
+
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+
+import java.util.Locale;
+
+/**
+ * Statistiche aggregate di un insieme di partite simulate.
+ * Ogni thread accumula le statistiche delle proprie partite in un'istanza separata; le istanze vengono poi unite
+ * tramite {@link #merge(BatchStatistics)}. Essendo composte soltanto da somme intere, il risultato dell'unione non
+ * dipende dall'ordine in cui le partite sono state giocate.
+ */
+public class BatchStatistics {
+    public static final String CSV_HEADER = "player1,player2,strategy,matches,threads," +
+            "player1_win_rate,player2_win_rate,draw_rate,average_match_ticks,average_match_seconds," +
+            "player1_punch_damage,player1_energyball_damage,player1_special_damage,player1_ultimate_damage," +
+            "player2_punch_damage,player2_energyball_damage,player2_special_damage,player2_ultimate_damage," +
+            "elapsed_millis,matches_per_second,ticks_per_second";
+
+    private static final String[] SKILLS_KEYS = {"punch", "energyball", "special", "ultimate"};
+
+    private final String player1Name;
+    private final String player2Name;
+    private final String strategyName;
+    private final long tickMillis;
+
+    private long matches;
+    private long player1Wins;
+    private long player2Wins;
+    private long draws;
+    private long totalTicks;
+    private final long[][] damageDealt;
+
+    private int threads;
+    private long elapsedNanos;
+
+    public BatchStatistics(String player1Name, String player2Name, String strategyName, long tickMillis) {
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
+        this.strategyName = strategyName;
+        this.tickMillis = tickMillis;
+        this.damageDealt = new long[2][Skill.ULTIMATE_SKILL + 1];
+    }
+
+    /**
+     * Registra l'esito di una partita. Una partita non conclusa viene considerata un pareggio.
+     * @param simulation simulazione della partita, giocata fino alla sua conclusione o al limite di tick.
+     */
+    public void record(BattleSimulation simulation) {
+        this.matches++;
+        this.totalTicks += simulation.getTickCount();
+
+        if (!simulation.isFinished())
+            this.draws++;
+        else if (simulation.getWinnerName().equals("player1"))
+            this.player1Wins++;
+        else
+            this.player2Wins++;
+
+        recordDamage(0, simulation.getFighter1());
+        recordDamage(1, simulation.getFighter2());
+    }
+
+    private void recordDamage(int player, Fighter fighter) {
+        for (int skillIndex = 0; skillIndex < damageDealt[player].length; skillIndex++)
+            this.damageDealt[player][skillIndex] += fighter.getDamageDealt(skillIndex);
+    }
+
+    /**
+     * Somma a questa istanza le statistiche di un altro insieme di partite.
+     */
+    public void merge(BatchStatistics other) {
+        this.matches += other.matches;
+        this.player1Wins += other.player1Wins;
+        this.player2Wins += other.player2Wins;
+        this.draws += other.draws;
+        this.totalTicks += other.totalTicks;
+
+        for (int player = 0; player < damageDealt.length; player++) {
+            for (int skillIndex = 0; skillIndex < damageDealt[player].length; skillIndex++)
+                this.damageDealt[player][skillIndex] += other.damageDealt[player][skillIndex];
+        }
+    }
+
+    void setExecution(int threads, long elapsedNanos) {
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public long getPlayer1Wins() {
+        return player1Wins;
+    }
+
+    public long getPlayer2Wins() {
+        return player2Wins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * @param player 0 per il primo giocatore, 1 per il secondo.
+     * @param skillIndex indice dell'abilità secondo le costanti di {@link Skill}.
+     * @return danno complessivamente inflitto dal giocatore con l'abilità in tutte le partite.
+     */
+    public long getDamageDealt(int player, int skillIndex) {
+        return damageDealt[player][skillIndex];
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getAverageMatchTicks() {
+        return ratio(totalTicks, matches);
+    }
+
+    public double getAverageDamagePerMatch(int player, int skillIndex) {
+        return ratio(damageDealt[player][skillIndex], matches);
+    }
+
+    public double getMatchesPerSecond() {
+        return ratio(matches * 1_000_000_000L, elapsedNanos);
+    }
+
+    public double getTicksPerSecond() {
+        return ratio(totalTicks, elapsedNanos) * 1_000_000_000L;
+    }
+
+    private static double ratio(long dividend, long divisor) {
+        return divisor == 0 ? 0 : (double) dividend / divisor;
+    }
+
+    /**
+     * @return una riga CSV, senza terminatore, le cui colonne sono descritte da {@link #CSV_HEADER}. Il danno delle
+     * abilità è espresso come media per partita.
+     */
+    public String toCsv() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(player1Name).append(',')
+                .append(player2Name).append(',')
+                .append(strategyName).append(',')
+                .append(matches).append(',')
+                .append(threads).append(',')
+                .append(format(ratio(player1Wins, matches))).append(',')
+                .append(format(ratio(player2Wins, matches))).append(',')
+                .append(format(ratio(draws, matches))).append(',')
+                .append(format(getAverageMatchTicks())).append(',')
+                .append(format(getAverageMatchTicks() * tickMillis / 1000));
+
+        for (int player = 0; player < damageDealt.length; player++) {
+            for (int skillIndex = 0; skillIndex < damageDealt[player].length; skillIndex++)
+                builder.append(',').append(format(getAverageDamagePerMatch(player, skillIndex)));
+        }
+
+        builder.append(',').append(format(elapsedNanos / 1_000_000.0))
+                .append(',').append(format(getMatchesPerSecond()))
+                .append(',').append(format(getTicksPerSecond()));
+
+        return builder.toString();
+    }
+
+    /**
+     * @return un oggetto JSON su una sola riga, con gli stessi valori restituiti da {@link #toCsv()}.
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder("{");
+        builder.append("\"player1\":\"").append(player1Name).append("\",")
+                .append("\"player2\":\"").append(player2Name).append("\",")
+                .append("\"strategy\":\"").append(strategyName).append("\",")
+                .append("\"matches\":").append(matches).append(',')
+                .append("\"threads\":").append(threads).append(',')
+                .append("\"player1WinRate\":").append(format(ratio(player1Wins, matches))).append(',')
+                .append("\"player2WinRate\":").append(format(ratio(player2Wins, matches))).append(',')
+                .append("\"drawRate\":").append(format(ratio(draws, matches))).append(',')
+                .append("\"averageMatchTicks\":").append(format(getAverageMatchTicks())).append(',')
+                .append("\"averageMatchSeconds\":").append(format(getAverageMatchTicks() * tickMillis / 1000))
+                .append(',')
+                .append("\"damagePerMatch\":{");
+
+        for (int player = 0; player < damageDealt.length; player++) {
+            if (player > 0)
+                builder.append(',');
+            builder.append("\"player").append(player + 1).append("\":{");
+
+            for (int skillIndex = 0; skillIndex < damageDealt[player].length; skillIndex++) {
+                if (skillIndex > 0)
+                    builder.append(',');
+                builder.append('"').append(SKILLS_KEYS[skillIndex]).append("\":")
+                        .append(format(getAverageDamagePerMatch(player, skillIndex)));
+            }
+            builder.append('}');
+        }
+
+        builder.append("},")
+                .append("\"elapsedMillis\":").append(format(elapsedNanos / 1_000_000.0)).append(',')
+                .append("\"matchesPerSecond\":").append(format(getMatchesPerSecond())).append(',')
+                .append("\"ticksPerSecond\":").append(format(getTicksPerSecond()))
+                .append('}');
+
+        return builder.toString();
+    }
+
+    // Il separatore decimale deve essere il punto, indipendentemente dalla lingua di sistema
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
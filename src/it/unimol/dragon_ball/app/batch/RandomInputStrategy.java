@@ -0,0 +1,40 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+import java.util.Random;
+
+/**
+ * Strategia che preme un singolo comando casuale, o nessun comando, e lo mantiene per un numero casuale di tick, come
+ * farebbe un giocatore che preme i tasti a caso.
+ * A parità di seme la sequenza di input generata è sempre la stessa.
+ */
+public class RandomInputStrategy implements InputStrategy {
+    private static final int MAX_HOLD_TICKS = 30;
+
+    private final Random random;
+    private PlayerInput input;
+    private int remainingTicks;
+
+    public RandomInputStrategy(long seed) {
+        this.random = new Random(seed);
+        this.input = PlayerInput.NONE;
+        this.remainingTicks = 0;
+    }
+
+    @Override
+    public PlayerInput nextInput(BattleSimulation simulation, Fighter self, Fighter opponent) {
+        if (remainingTicks == 0) {
+            // L'indice pari a BUTTONS_NUMBER corrisponde a nessun comando premuto
+            int button = random.nextInt(PlayerInput.BUTTONS_NUMBER + 1);
+            input = button < PlayerInput.BUTTONS_NUMBER ? PlayerInput.of(button) : PlayerInput.NONE;
+            remainingTicks = 1 + random.nextInt(MAX_HOLD_TICKS);
+        }
+
+        remainingTicks--;
+        return input;
+    }
+}
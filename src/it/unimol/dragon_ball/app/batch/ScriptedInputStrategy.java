@@ -0,0 +1,74 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+import java.util.List;
+
+/**
+ * Strategia deterministica che segue sempre lo stesso copione:
+ *      - a contatto con l'avversario, lo colpisce con i pugni;
+ *      - se l'avversario sta lanciando un'abilità, la schiva spostandosi verticalmente;
+ *      - se allineato all'avversario, lancia l'abilità più potente disponibile;
+ *      - se non allineato, si sposta verticalmente verso l'avversario;
+ *      - se nessuna abilità è disponibile, carica l'aura.
+ */
+public class ScriptedInputStrategy implements InputStrategy {
+    private static final double ALIGNMENT_TOLERANCE = 20;
+
+    private static final PlayerInput UP = PlayerInput.of(PlayerInput.UP);
+    private static final PlayerInput DOWN = PlayerInput.of(PlayerInput.DOWN);
+    private static final PlayerInput AURA = PlayerInput.of(PlayerInput.AURA);
+    private static final PlayerInput PUNCH = PlayerInput.of(PlayerInput.PUNCH);
+    private static final PlayerInput[] SKILLS_INPUTS = {
+            PlayerInput.of(PlayerInput.PUNCH),
+            PlayerInput.of(PlayerInput.ENERGYBALL),
+            PlayerInput.of(PlayerInput.SPECIAL_SKILL),
+            PlayerInput.of(PlayerInput.ULTIMATE_SKILL)
+    };
+
+    @Override
+    public PlayerInput nextInput(BattleSimulation simulation, Fighter self, Fighter opponent) {
+        if (self.isBusy())
+            return PlayerInput.NONE;
+
+        if (self.getHurtbox().intersects(opponent.getHurtbox()))
+            return PUNCH;
+
+        if (isThreatened(self, opponent))
+            return self.getY() < (BattleSimulation.ARENA_MIN_Y + BattleSimulation.ARENA_MAX_Y) / 2 ? DOWN : UP;
+
+        double distanceY = opponent.getY() - self.getY();
+        if (Math.abs(distanceY) > ALIGNMENT_TOLERANCE)
+            return distanceY < 0 ? UP : DOWN;
+
+        for (int skillIndex = Skill.ULTIMATE_SKILL; skillIndex > Skill.PUNCH; skillIndex--) {
+            if (isAvailable(simulation, self, skillIndex))
+                return SKILLS_INPUTS[skillIndex];
+        }
+
+        return AURA;
+    }
+
+    /**
+     * Un'abilità avversaria, anche se ancora in caricamento, minaccia il personaggio finché questo si trova alla stessa
+     * altezza dell'avversario.
+     */
+    private static boolean isThreatened(Fighter self, Fighter opponent) {
+        return opponent.isBusy() && Math.abs(opponent.getY() - self.getY()) < Fighter.HEIGHT;
+    }
+
+    private static boolean isAvailable(BattleSimulation simulation, Fighter fighter, int skillIndex) {
+        Character character = fighter.getCharacter();
+        List<Skill> skills = character.getSkills();
+
+        // L'input verrà elaborato nel tick successivo a quello attuale
+        return skills.size() > skillIndex &&
+                simulation.getTickCount() + 1 >= fighter.getCooldownEndTick(skillIndex) &&
+                character.getActualMP() >= skills.get(skillIndex).getMana();
+    }
+}
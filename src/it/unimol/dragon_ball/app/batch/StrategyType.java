@@ -0,0 +1,27 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+
+/**
+ * Tipologie di {@link InputStrategy} utilizzabili per le partite simulate da {@link BatchRunner}.
+ */
+public enum StrategyType {
+    RANDOM {
+        @Override
+        public InputStrategy create(long seed) {
+            return new RandomInputStrategy(seed);
+        }
+    },
+    SCRIPTED {
+        @Override
+        public InputStrategy create(long seed) {
+            return new ScriptedInputStrategy();
+        }
+    };
+
+    /**
+     * @param seed seme della strategia; ignorato dalle strategie deterministiche.
+     * @return una nuova strategia, da utilizzare per un solo giocatore in una sola partita.
+     */
+    public abstract InputStrategy create(long seed);
+}
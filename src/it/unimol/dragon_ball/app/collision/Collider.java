@@ -0,0 +1,118 @@
+package it.unimol.dragon_ball.app.collision;
+
+import it.unimol.dragon_ball.app.simulation.Hitbox;
+
+/**
+ * Corpo registrabile in un {@link CollisionWorld}.
+ * Il collider non possiede una posizione propria, ma legge ad ogni controllo il rettangolo di collisione a cui è
+ * associato, che può quindi essere aggiornato liberamente dalla simulazione. Un rettangolo vuoto non collide mai.
+ * I collider appartenenti allo stesso proprietario non collidono tra loro.
+ */
+public class Collider {
+    private final ColliderType type;
+    private final CollisionLayer layer;
+    private final int collisionMask;
+    private final int ownerId;
+    private final Hitbox bounds;
+    private final double marginX;
+    private final Object userData;
+
+    /**
+     * Genera un nuovo <code>Collider</code> privo di margine.
+     * @see #Collider(ColliderType, CollisionLayer, int, int, Hitbox, double, Object)
+     */
+    public Collider(ColliderType type, CollisionLayer layer, int collisionMask, int ownerId, Hitbox bounds,
+                    Object userData) {
+        this(type, layer, collisionMask, ownerId, bounds, 0, userData);
+    }
+
+    /**
+     * @param type tipologia del collider.
+     * @param layer livello a cui appartiene il collider.
+     * @param collisionMask livelli con cui il collider può collidere, ottenuti tramite
+     *                      {@link CollisionLayer#maskOf(CollisionLayer...)}.
+     * @param ownerId identificativo del proprietario del collider.
+     * @param bounds rettangolo di collisione, letto ad ogni controllo.
+     * @param marginX espansione orizzontale del rettangolo, su entrambi i lati, considerata dalla broadphase.
+     * @param userData oggetto associato al collider, restituito insieme alle collisioni.
+     */
+    public Collider(ColliderType type, CollisionLayer layer, int collisionMask, int ownerId, Hitbox bounds,
+                    double marginX, Object userData) {
+        assert type != null && layer != null && bounds != null && marginX >= 0;
+
+        this.type = type;
+        this.layer = layer;
+        this.collisionMask = collisionMask;
+        this.ownerId = ownerId;
+        this.bounds = bounds;
+        this.marginX = marginX;
+        this.userData = userData;
+    }
+
+    /**
+     * Verifica se i due collider possono collidere in base ai loro livelli e proprietari, senza considerarne la
+     * posizione.
+     */
+    public boolean canCollideWith(Collider other) {
+        return this.ownerId != other.ownerId &&
+                (this.collisionMask & other.layer.getBit()) != 0 && (other.collisionMask & this.layer.getBit()) != 0;
+    }
+
+    /**
+     * Verifica la sovrapposizione dei rettangoli dei due collider, ciascuno espanso del proprio margine.
+     */
+    public boolean overlaps(Collider other) {
+        Hitbox a = this.bounds;
+        Hitbox b = other.bounds;
+
+        if (a.isEmpty() || b.isEmpty())
+            return false;
+
+        return getMinX() < other.getMaxX() && other.getMinX() < getMaxX() &&
+                a.getY() < b.getY() + b.getHeight() && b.getY() < a.getY() + a.getHeight();
+    }
+
+    double getMinX() {
+        return bounds.getX() - marginX;
+    }
+
+    double getMaxX() {
+        return bounds.getX() + bounds.getWidth() + marginX;
+    }
+
+    double getMinY() {
+        return bounds.getY();
+    }
+
+    double getMaxY() {
+        return bounds.getY() + bounds.getHeight();
+    }
+
+    public ColliderType getType() {
+        return type;
+    }
+
+    public CollisionLayer getLayer() {
+        return layer;
+    }
+
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+
+    public int getOwnerId() {
+        return ownerId;
+    }
+
+    public Hitbox getBounds() {
+        return bounds;
+    }
+
+    public double getMarginX() {
+        return marginX;
+    }
+
+    public Object getUserData() {
+        return userData;
+    }
+}
@@ -0,0 +1,19 @@
+package it.unimol.dragon_ball.app.collision;
+
+/**
+ * Tipologia di un {@link Collider}, che determina come viene risolta una collisione.
+ */
+public enum ColliderType {
+    /**
+     * Corpo di un personaggio.
+     */
+    CHARACTER,
+    /**
+     * Abilità che si sposta come un unico corpo, come la sfera di energia o l'abilità finale.
+     */
+    PROJECTILE,
+    /**
+     * Raggio che si estende dal personaggio che lo lancia fino alla sua testa, come l'abilità speciale.
+     */
+    BEAM
+}
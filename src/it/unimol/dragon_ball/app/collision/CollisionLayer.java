@@ -0,0 +1,25 @@
+package it.unimol.dragon_ball.app.collision;
+
+/**
+ * Livelli di collisione. Ogni {@link Collider} appartiene ad un solo livello e indica con quali livelli può
+ * collidere: due collider vengono confrontati soltanto se ciascuno dei due accetta il livello dell'altro.
+ */
+public enum CollisionLayer {
+    CHARACTERS,
+    SKILLS;
+
+    int getBit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @return la maschera che comprende tutti i livelli presi come parametro.
+     */
+    public static int maskOf(CollisionLayer... layers) {
+        int mask = 0;
+        for (CollisionLayer layer : layers)
+            mask = mask | layer.getBit();
+
+        return mask;
+    }
+}
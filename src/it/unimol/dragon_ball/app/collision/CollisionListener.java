@@ -0,0 +1,13 @@
+package it.unimol.dragon_ball.app.collision;
+
+/**
+ * Riceve le coppie di {@link Collider} sovrapposti individuate da un {@link CollisionWorld}.
+ */
+public interface CollisionListener {
+
+    /**
+     * Richiamato una sola volta per ciascuna coppia di collider sovrapposti. I due collider vengono passati
+     * nell'ordine in cui sono stati aggiunti al mondo.
+     */
+    void onCollision(Collider first, Collider second);
+}
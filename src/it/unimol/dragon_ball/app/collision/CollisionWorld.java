@@ -0,0 +1,163 @@
+package it.unimol.dragon_ball.app.collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Insieme di {@link Collider} su cui individuare le coppie sovrapposte.
+ * La broadphase suddivide l'area del mondo in una griglia uniforme di celle quadrate: ogni collider viene inserito
+ * nelle celle coperte dal suo rettangolo e soltanto i collider che condividono una cella vengono confrontati, così che
+ * il costo cresca con il numero di collider vicini anziché con il quadrato del numero totale. I collider che escono
+ * dall'area del mondo vengono assegnati alle celle di bordo.
+ * Una coppia che condivide più celle viene segnalata soltanto nella cella che contiene l'angolo in alto a sinistra
+ * della loro intersezione, senza bisogno di memorizzare le coppie già segnalate.
+ * L'ordine in cui le coppie vengono segnalate dipende soltanto dalle posizioni e dall'ordine di inserimento dei
+ * collider: a parità di stato, il risultato è sempre lo stesso.
+ */
+public class CollisionWorld {
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    private final List<Collider> colliders;
+    private final List<List<Collider>> cells;
+    private final List<List<Collider>> occupiedCells;
+    private int[] occupiedCellsIndexes;
+
+    /**
+     * @param minX ascissa minima dell'area del mondo.
+     * @param minY ordinata minima dell'area del mondo.
+     * @param maxX ascissa massima dell'area del mondo.
+     * @param maxY ordinata massima dell'area del mondo.
+     * @param cellSize lato di una cella della griglia, idealmente paragonabile alla dimensione dei collider.
+     */
+    public CollisionWorld(double minX, double minY, double maxX, double maxY, double cellSize) {
+        assert maxX > minX && maxY > minY && cellSize > 0;
+
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil((maxX - minX) / cellSize);
+        this.rows = (int) Math.ceil((maxY - minY) / cellSize);
+
+        this.colliders = new ArrayList<>();
+        this.cells = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++)
+            this.cells.add(new ArrayList<>());
+
+        this.occupiedCells = new ArrayList<>();
+        this.occupiedCellsIndexes = new int[16];
+    }
+
+    public void add(Collider collider) {
+        assert collider != null;
+
+        this.colliders.add(collider);
+    }
+
+    public void remove(Collider collider) {
+        this.colliders.remove(collider);
+    }
+
+    public void clear() {
+        this.colliders.clear();
+    }
+
+    public int getCollidersNumber() {
+        return colliders.size();
+    }
+
+    /**
+     * Individua tutte le coppie di collider sovrapposti che possono collidere tra loro e le segnala al listener.
+     * Le posizioni dei collider vengono lette all'inizio della chiamata; il listener non deve aggiungere o rimuovere
+     * collider dal mondo.
+     * @param listener destinatario delle coppie individuate.
+     * @return numero di coppie segnalate.
+     */
+    public int findCollisions(CollisionListener listener) {
+        rebuildGrid();
+
+        int collisionsNumber = 0;
+        for (int k = 0; k < occupiedCells.size(); k++) {
+            List<Collider> cell = occupiedCells.get(k);
+            int cellIndex = occupiedCellsIndexes[k];
+
+            for (int i = 0; i < cell.size(); i++) {
+                Collider first = cell.get(i);
+
+                for (int j = i + 1; j < cell.size(); j++) {
+                    Collider second = cell.get(j);
+
+                    if (first.canCollideWith(second) && first.overlaps(second) && isOwnerCell(first, second, cellIndex)) {
+                        listener.onCollision(first, second);
+                        collisionsNumber++;
+                    }
+                }
+            }
+        }
+
+        return collisionsNumber;
+    }
+
+    /**
+     * Reinserisce i collider nella griglia. Vengono svuotate e visitate soltanto le celle occupate, così che il costo
+     * non dipenda dall'estensione del mondo.
+     */
+    private void rebuildGrid() {
+        for (List<Collider> cell : occupiedCells)
+            cell.clear();
+        occupiedCells.clear();
+
+        // I collider vengono inseriti nell'ordine di aggiunta, che viene quindi mantenuto all'interno di ogni cella
+        for (Collider collider : colliders) {
+            if (collider.getBounds().isEmpty())
+                continue;
+
+            int fromColumn = toColumn(collider.getMinX());
+            int toColumn = toColumn(collider.getMaxX());
+            int fromRow = toRow(collider.getMinY());
+            int toRow = toRow(collider.getMaxY());
+
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++)
+                    addToCell(row * columns + column, collider);
+            }
+        }
+    }
+
+    private void addToCell(int cellIndex, Collider collider) {
+        List<Collider> cell = cells.get(cellIndex);
+
+        if (cell.isEmpty()) {
+            if (occupiedCells.size() == occupiedCellsIndexes.length)
+                occupiedCellsIndexes = Arrays.copyOf(occupiedCellsIndexes, occupiedCellsIndexes.length * 2);
+
+            occupiedCellsIndexes[occupiedCells.size()] = cellIndex;
+            occupiedCells.add(cell);
+        }
+
+        cell.add(collider);
+    }
+
+    private boolean isOwnerCell(Collider first, Collider second, int cellIndex) {
+        int column = toColumn(Math.max(first.getMinX(), second.getMinX()));
+        int row = toRow(Math.max(first.getMinY(), second.getMinY()));
+
+        return row * columns + column == cellIndex;
+    }
+
+    private int toColumn(double x) {
+        return clamp((int) Math.floor((x - minX) / cellSize), columns);
+    }
+
+    private int toRow(double y) {
+        return clamp((int) Math.floor((y - minY) / cellSize), rows);
+    }
+
+    private static int clamp(int index, int size) {
+        return Math.max(0, Math.min(size - 1, index));
+    }
+}
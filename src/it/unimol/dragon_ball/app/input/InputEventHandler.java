@@ -0,0 +1,18 @@
+package it.unimol.dragon_ball.app.input;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+/**
+ * Riceve gli eventi prelevati da una {@link InputEventQueue}.
+ */
+public interface InputEventHandler {
+
+    /**
+     * Richiamato per ciascun evento, nell'ordine in cui è stato inserito nella coda.
+     * @param player indice del giocatore, a partire da 0.
+     * @param button indice del comando secondo le costanti di {@link PlayerInput}.
+     * @param isPressed true se il comando è stato premuto, false se è stato rilasciato.
+     * @param timestampNanos istante dell'evento, nella scala di {@link System#nanoTime()}.
+     */
+    void onInputEvent(int player, int button, boolean isPressed, long timestampNanos);
+}
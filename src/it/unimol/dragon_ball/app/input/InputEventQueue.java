@@ -0,0 +1,119 @@
+package it.unimol.dragon_ball.app.input;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+/**
+ * Coda circolare, priva di lock, degli eventi di pressione e rilascio dei comandi dei giocatori.
+ * La coda ammette un solo produttore, il thread che riceve gli eventi della tastiera, e un solo consumatore, il thread
+ * del motore di gioco. Gli eventi vengono memorizzati in array preallocati, così che né la scrittura né la lettura
+ * generino nuovi oggetti; i due thread si sincronizzano soltanto tramite i contatori volatili degli eventi scritti e
+ * letti. Qualora la coda fosse piena, i nuovi eventi vengono scartati e conteggiati.
+ */
+public class InputEventQueue {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final int[] players;
+    private final int[] buttons;
+    private final boolean[] pressedFlags;
+    private final long[] timestamps;
+
+    // Eventi scritti dal produttore e letti dal consumatore dalla creazione della coda
+    private volatile long writtenEvents;
+    private volatile long readEvents;
+    private volatile long droppedEvents;
+
+    public InputEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity numero massimo di eventi in attesa di essere letti.
+     */
+    public InputEventQueue(int capacity) {
+        assert capacity > 0;
+
+        this.capacity = capacity;
+        this.players = new int[capacity];
+        this.buttons = new int[capacity];
+        this.pressedFlags = new boolean[capacity];
+        this.timestamps = new long[capacity];
+
+        this.writtenEvents = 0;
+        this.readEvents = 0;
+        this.droppedEvents = 0;
+    }
+
+    /**
+     * Inserisce un evento nella coda. Va invocato dal solo thread produttore.
+     * @param player indice del giocatore, a partire da 0.
+     * @param button indice del comando secondo le costanti di {@link PlayerInput}.
+     * @param isPressed true se il comando è stato premuto, false se è stato rilasciato.
+     * @param timestampNanos istante dell'evento, nella scala di {@link System#nanoTime()}.
+     * @return false se la coda è piena e l'evento è stato scartato.
+     */
+    public boolean offer(int player, int button, boolean isPressed, long timestampNanos) {
+        assert player >= 0 && button >= 0 && button < PlayerInput.BUTTONS_NUMBER;
+
+        long writePosition = this.writtenEvents;
+        if (writePosition - this.readEvents == this.capacity) {
+            this.droppedEvents = this.droppedEvents + 1;
+            return false;
+        }
+
+        int index = (int) (writePosition % this.capacity);
+        this.players[index] = player;
+        this.buttons[index] = button;
+        this.pressedFlags[index] = isPressed;
+        this.timestamps[index] = timestampNanos;
+
+        // Pubblica l'evento al consumatore soltanto dopo averlo scritto
+        this.writtenEvents = writePosition + 1;
+        return true;
+    }
+
+    /**
+     * Preleva, nell'ordine di inserimento, gli eventi avvenuti entro l'istante preso come parametro. Il prelievo si
+     * interrompe al primo evento successivo, che resta in coda. Va invocato dal solo thread consumatore.
+     * @param untilNanos istante, nella scala di {@link System#nanoTime()}, entro cui prelevare gli eventi.
+     * @param handler destinatario degli eventi prelevati.
+     * @return numero di eventi prelevati.
+     */
+    public int drain(long untilNanos, InputEventHandler handler) {
+        long readPosition = this.readEvents;
+        long availableEvents = this.writtenEvents - readPosition;
+        int drainedEvents = 0;
+
+        while (drainedEvents < availableEvents) {
+            int index = (int) ((readPosition + drainedEvents) % this.capacity);
+            if (this.timestamps[index] - untilNanos > 0)
+                break;
+
+            handler.onInputEvent(this.players[index], this.buttons[index], this.pressedFlags[index],
+                    this.timestamps[index]);
+            drainedEvents++;
+        }
+
+        // Libera le posizioni lette soltanto dopo averle consumate
+        this.readEvents = readPosition + drainedEvents;
+        return drainedEvents;
+    }
+
+    /**
+     * @return numero di eventi in attesa di essere letti.
+     */
+    public int size() {
+        return (int) (this.writtenEvents - this.readEvents);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return numero di eventi scartati perché la coda era piena.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+}
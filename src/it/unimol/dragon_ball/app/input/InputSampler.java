@@ -0,0 +1,69 @@
+package it.unimol.dragon_ball.app.input;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+/**
+ * Costruisce, ad ogni tick, il {@link PlayerInput} di ciascun giocatore a partire dagli eventi di una
+ * {@link InputEventQueue}.
+ * Un comando risulta premuto in un tick se è tenuto premuto al suo termine oppure se è stato premuto in un qualunque
+ * momento del tick: anche una pressione più breve di un tick viene quindi consegnata alla simulazione, per un tick.
+ * Il campionamento va eseguito dal solo thread consumatore della coda.
+ */
+public class InputSampler implements InputEventHandler {
+    private final InputEventQueue queue;
+    private final int[] heldBits;
+    private final int[] pressedBits;
+    private final PlayerInput[] inputs;
+
+    /**
+     * @param queue coda da cui prelevare gli eventi.
+     * @param playersNumber numero di giocatori di cui campionare gli input.
+     */
+    public InputSampler(InputEventQueue queue, int playersNumber) {
+        assert queue != null && playersNumber > 0;
+
+        this.queue = queue;
+        this.heldBits = new int[playersNumber];
+        this.pressedBits = new int[playersNumber];
+        this.inputs = new PlayerInput[playersNumber];
+
+        for (int player = 0; player < playersNumber; player++)
+            this.inputs[player] = PlayerInput.NONE;
+    }
+
+    /**
+     * Preleva gli eventi avvenuti entro la fine del tick e aggiorna gli input di tutti i giocatori.
+     * @param tickEndNanos istante di fine del tick, nella scala di {@link System#nanoTime()}.
+     */
+    public void sample(long tickEndNanos) {
+        for (int player = 0; player < this.pressedBits.length; player++)
+            this.pressedBits[player] = 0;
+
+        this.queue.drain(tickEndNanos, this);
+
+        for (int player = 0; player < this.inputs.length; player++)
+            this.inputs[player] = PlayerInput.fromBits(this.heldBits[player] | this.pressedBits[player]);
+    }
+
+    @Override
+    public void onInputEvent(int player, int button, boolean isPressed, long timestampNanos) {
+        if (player >= this.heldBits.length)
+            return;
+
+        int buttonBit = 1 << button;
+        if (isPressed) {
+            this.heldBits[player] = this.heldBits[player] | buttonBit;
+            this.pressedBits[player] = this.pressedBits[player] | buttonBit;
+        } else {
+            this.heldBits[player] = this.heldBits[player] & ~buttonBit;
+        }
+    }
+
+    /**
+     * @param player indice del giocatore, a partire da 0.
+     * @return gli input del giocatore relativi all'ultimo tick campionato.
+     */
+    public PlayerInput getInput(int player) {
+        return inputs[player];
+    }
+}
@@ -215,6 +215,29 @@ public class Character {
 
     }
 
+    /**
+     * Riporta le statistiche variabili del personaggio ai valori presi come parametro, ad esempio per ripristinare una
+     * partita salvata. Il nome dell'evoluzione e il danno delle skill vengono aggiornati di conseguenza.
+     * Si asserisce che il numero dell'evoluzione sia coerente con quelle disponibili.
+     */
+    public void restoreStats(int actualEvolutionNumber, int actualMaxHp, int actualHP, int actualMaxMp, int actualMP,
+                             int atk, int maxAura, int aura) {
+        assert actualEvolutionNumber >= 0 && actualEvolutionNumber <= this.MAX_EVOLUTIONS_NUMBER;
+
+        this.actualEvolutionNumber = actualEvolutionNumber;
+        this.actualEvolutionName = evolutionsNames[actualEvolutionNumber];
+        this.actualMaxHp = actualMaxHp;
+        this.actualHP = actualHP;
+        this.actualMaxMp = actualMaxMp;
+        this.actualMP = actualMP;
+        this.atk = atk;
+        this.maxAura = maxAura;
+        this.aura = aura;
+
+        for (Skill skill : skills)
+            skill.updateDamageDealt();
+    }
+
     private void increaseActualEvolutionNumber() {
         this.actualEvolutionNumber = actualEvolutionNumber + 1;
     }
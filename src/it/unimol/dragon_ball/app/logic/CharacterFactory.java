@@ -0,0 +1,63 @@
+package it.unimol.dragon_ball.app.logic;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Classe di utilità che costruisce i personaggi giocanti a partire dal loro nome canonico.
+ * Le statistiche vengono lette dal file properties del personaggio, mentre le abilità vengono assegnate secondo
+ * l'ordine atteso da {@link Skill}: pugno, sfera di energia, abilità speciale e abilità finale.
+ */
+public class CharacterFactory {
+    public static final String GOKU = "goku";
+    public static final String FREEZER = "freezer";
+
+    public static final String PROPERTIES_FILEPATH = "/resources/file_properties/";
+
+    private CharacterFactory() {
+    }
+
+    /**
+     * Genera un nuovo personaggio, completo delle sue abilità.
+     * @param canonicalName nome canonico del personaggio: "goku" o "freezer".
+     * @return il personaggio generato.
+     * @throws IOException se il file properties del personaggio non è disponibile.
+     */
+    public static Character create(String canonicalName) throws IOException {
+        assert GOKU.equals(canonicalName) || FREEZER.equals(canonicalName);
+
+        String propertiesFilepath = PROPERTIES_FILEPATH + canonicalName + ".properties";
+        Properties characterProperties = new Properties();
+
+        try (InputStream inputStream = CharacterFactory.class.getResourceAsStream(propertiesFilepath)) {
+            if (inputStream == null)
+                throw new FileNotFoundException(propertiesFilepath);
+
+            characterProperties.load(inputStream);
+        }
+
+        Character character = new Character(characterProperties);
+        if (GOKU.equals(canonicalName))
+            initGokuSkills(character);
+        else
+            initFreezerSkills(character);
+
+        return character;
+    }
+
+    private static void initGokuSkills(Character goku) {
+        goku.addNewSkill(new Skill("Punch", goku, 0, 0, 0));
+        goku.addNewSkill(new Skill("EnergyBall", goku, 30, 75, 0.5));
+        goku.addNewSkill(new Skill("Kamehameha", goku,  150, 400, 10));
+        goku.addNewSkill(new Skill("GenkidamaSphere", goku, 300, 800, 25));
+    }
+
+    private static void initFreezerSkills(Character freezer) {
+        freezer.addNewSkill(new Skill("Punch", freezer, 0, 0, 0));
+        freezer.addNewSkill(new Skill("EnergyBall", freezer,  40, 50, 0.5));
+        freezer.addNewSkill(new Skill("DeathBullet", freezer, 200, 350, 15));
+        freezer.addNewSkill(new Skill("SupernovaSphere", freezer, 400, 700, 30));
+    }
+}
@@ -0,0 +1,112 @@
+package it.unimol.dragon_ball.app.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * {@link Transport} in memoria che collega due estremi all'interno dello stesso processo, utile ai test e alle prove
+ * della {@link RollbackSession} senza rete.
+ * Il collegamento simula una rete UDP: ogni pacchetto viene consegnato soltanto dopo la latenza indicata e può
+ * andare perso con la probabilità indicata. Il tempo è scandito esplicitamente tramite {@link #advanceTime()}, di
+ * norma una volta per tick, così che il comportamento del collegamento sia riproducibile.
+ */
+public class LoopbackTransport implements Transport {
+
+    private static final class Link {
+        private final int latencyTicks;
+        private final double lossRate;
+        private final Random random;
+        private long time;
+
+        private Link(int latencyTicks, double lossRate, long seed) {
+            this.latencyTicks = latencyTicks;
+            this.lossRate = lossRate;
+            this.random = new Random(seed);
+            this.time = 0;
+        }
+    }
+
+    private static final class Packet {
+        private final long deliveryTime;
+        private final byte[] data;
+
+        private Packet(long deliveryTime, byte[] data) {
+            this.deliveryTime = deliveryTime;
+            this.data = data;
+        }
+    }
+
+    private final Link link;
+    private final Queue<Packet> incomingPackets;
+    private LoopbackTransport remote;
+
+    private LoopbackTransport(Link link) {
+        this.link = link;
+        this.incomingPackets = new ArrayDeque<>();
+    }
+
+    /**
+     * Genera due estremi collegati tra loro.
+     * @param latencyTicks latenza di ciascun pacchetto in una direzione, espressa in unità di tempo.
+     * @param lossRate probabilità, compresa tra 0 e 1, che un pacchetto vada perso.
+     * @param seed seme del generatore pseudo-casuale delle perdite.
+     * @return i due estremi del collegamento.
+     */
+    public static LoopbackTransport[] createPair(int latencyTicks, double lossRate, long seed) {
+        assert latencyTicks >= 0 && lossRate >= 0 && lossRate <= 1;
+
+        Link link = new Link(latencyTicks, lossRate, seed);
+        LoopbackTransport first = new LoopbackTransport(link);
+        LoopbackTransport second = new LoopbackTransport(link);
+        first.remote = second;
+        second.remote = first;
+
+        return new LoopbackTransport[]{first, second};
+    }
+
+    /**
+     * Fa avanzare di un'unità il tempo del collegamento, condiviso da entrambi gli estremi.
+     */
+    public void advanceTime() {
+        synchronized (link) {
+            link.time++;
+        }
+    }
+
+    @Override
+    public void send(ByteBuffer packet) {
+        byte[] data = new byte[packet.remaining()];
+        packet.get(data);
+
+        synchronized (link) {
+            if (link.random.nextDouble() < link.lossRate)
+                return;
+
+            remote.incomingPackets.add(new Packet(link.time + link.latencyTicks, data));
+        }
+    }
+
+    @Override
+    public boolean receive(ByteBuffer packet) {
+        synchronized (link) {
+            Packet nextPacket = incomingPackets.peek();
+            if (nextPacket == null || nextPacket.deliveryTime > link.time)
+                return false;
+
+            incomingPackets.remove();
+            packet.clear();
+            packet.put(nextPacket.data);
+            packet.flip();
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (link) {
+            incomingPackets.clear();
+        }
+    }
+}
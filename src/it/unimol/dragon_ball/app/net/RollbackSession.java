@@ -0,0 +1,415 @@
+package it.unimol.dragon_ball.app.net;
+
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleSnapshot;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Sessione di gioco in rete tra due giocatori, sincronizzata tramite rollback.
+ * Prima del tick iniziale le due sessioni si scambiano un pacchetto di saluto con un numero casuale scelto da
+ * ciascuna: la simulazione parte soltanto quando entrambe conoscono il numero dell'altra, da cui ricavano
+ * l'identificativo della partita. Ogni pacchetto di input riporta tale identificativo, così che i pacchetti residui di
+ * una partita precedente vengano scartati.
+ * Ad ogni tick la simulazione avanza subito con l'input del giocatore locale e con una previsione di quello remoto,
+ * pari all'ultimo input ricevuto: chi gioca non percepisce quindi alcuna latenza. Quando l'input remoto di un tick già
+ * simulato arriva e differisce dalla previsione, la simulazione viene riportata al salvataggio di quel tick e
+ * rieseguita fino al tick attuale con gli input corretti. Poiché la {@link BattleSimulation} è deterministica, entrambi
+ * i giocatori raggiungono lo stesso stato non appena tutti gli input sono stati scambiati.
+ * Gli input vengono inviati ad ogni tick tramite un {@link Transport}, insieme a tutti quelli non ancora confermati
+ * dal giocatore remoto, così da tollerare la perdita dei pacchetti. Se il giocatore remoto resta indietro di più di
+ * <code>maxRollbackTicks</code> tick, la sessione attende invece di avanzare, così che nessun rollback superi tale
+ * limite.
+ * Conclusa la simulazione, gli input successivi non hanno più effetto: il vincitore è definitivo non appena gli input
+ * dei tick che l'hanno fatta avanzare sono stati ricevuti, e noto ad entrambi i giocatori quando il giocatore remoto ha
+ * confermato di aver ricevuto quelli locali.
+ * La sessione va utilizzata dal solo thread che fa avanzare la simulazione.
+ */
+public class RollbackSession {
+    public static final int DEFAULT_MAX_ROLLBACK_TICKS = 8;
+
+    private static final byte INPUTS_PACKET = 1;
+    private static final byte HELLO_PACKET = 2;
+    private static final int HEADER_SIZE = 1 + 8 + 4 + 4 + 2;
+    private static final int HELLO_SIZE = 1 + 4 + 4;
+    private static final int UNKNOWN_NONCE = 0;
+    private static final int MAX_PACKET_SIZE = 512;
+    private static final int MAX_INPUTS_PER_PACKET = (MAX_PACKET_SIZE - HEADER_SIZE) / 2;
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int NO_ROLLBACK = Integer.MAX_VALUE;
+
+    private final BattleSimulation simulation;
+    private final int localPlayer;
+    private final Transport transport;
+    private final int maxRollbackTicks;
+
+    private final BattleSnapshot[] snapshots;
+    private final ByteBuffer packet;
+    private final int localNonce;
+
+    private int remoteNonce;
+    private long matchId;
+    private volatile boolean isConnected;
+
+    private int[] localInputs;
+    private int[] remoteInputs;
+    private int tick;
+    private int confirmedTicks;
+    private int acknowledgedTicks;
+    private int rollbackTick;
+
+    private long ticksSinceLastPacket;
+    private long rollbacks;
+    private long rolledBackTicks;
+    private long stalls;
+
+    /**
+     * @param simulation simulazione da sincronizzare, appena creata con gli stessi personaggi di quella remota.
+     * @param localPlayer 0 se il giocatore locale controlla il primo personaggio, 1 se controlla il secondo.
+     * @param transport canale con cui comunicare con il giocatore remoto.
+     * @param maxRollbackTicks numero massimo di tick di cui la simulazione può essere riportata indietro.
+     */
+    public RollbackSession(BattleSimulation simulation, int localPlayer, Transport transport, int maxRollbackTicks) {
+        assert simulation != null && transport != null && (localPlayer == 0 || localPlayer == 1) && maxRollbackTicks > 0;
+
+        this.simulation = simulation;
+        this.localPlayer = localPlayer;
+        this.transport = transport;
+        this.maxRollbackTicks = maxRollbackTicks;
+
+        // Un salvataggio per ciascun tick che può essere ancora rieseguito
+        this.snapshots = new BattleSnapshot[maxRollbackTicks + 1];
+        for (int i = 0; i < this.snapshots.length; i++)
+            this.snapshots[i] = new BattleSnapshot();
+
+        this.packet = ByteBuffer.allocate(MAX_PACKET_SIZE);
+        this.localNonce = generateNonce();
+        this.remoteNonce = UNKNOWN_NONCE;
+        this.isConnected = false;
+        this.localInputs = new int[INITIAL_CAPACITY];
+        this.remoteInputs = new int[INITIAL_CAPACITY];
+        this.tick = 0;
+        this.confirmedTicks = 0;
+        this.acknowledgedTicks = 0;
+        this.rollbackTick = NO_ROLLBACK;
+    }
+
+    private static int generateNonce() {
+        SecureRandom random = new SecureRandom();
+
+        int nonce;
+        do {
+            nonce = random.nextInt();
+        } while (nonce == UNKNOWN_NONCE);
+
+        return nonce;
+    }
+
+    /**
+     * Riceve gli input remoti, esegue l'eventuale rollback e fa avanzare la simulazione di un tick con l'input locale
+     * preso come parametro, che viene quindi inviato al giocatore remoto. Finché il giocatore remoto non è connesso,
+     * viene invece inviato il pacchetto di saluto.
+     * @param localInput comandi premuti dal giocatore locale.
+     * @return false se la sessione è in attesa del giocatore remoto e la simulazione non è avanzata.
+     */
+    public boolean advance(PlayerInput localInput) throws IOException {
+        // Il tempo dall'ultimo pacchetto viene conteggiato soltanto a connessione avvenuta
+        if (this.isConnected)
+            this.ticksSinceLastPacket++;
+        receiveInputs();
+
+        if (!this.isConnected) {
+            sendHello();
+            return false;
+        }
+
+        if (this.tick - this.confirmedTicks >= this.maxRollbackTicks) {
+            this.stalls++;
+            sendInputs();
+            return false;
+        }
+
+        ensureCapacity(this.tick + 1);
+        this.localInputs[this.tick] = localInput.getBits();
+        simulateTick(this.tick);
+        this.tick++;
+
+        sendInputs();
+        return true;
+    }
+
+    /**
+     * Riceve gli input remoti disponibili ed esegue l'eventuale rollback senza far avanzare la simulazione, quindi
+     * invia nuovamente gli input locali non ancora confermati. Permette di completare lo scambio degli input a partita
+     * conclusa.
+     */
+    public void poll() throws IOException {
+        receiveInputs();
+
+        if (this.isConnected)
+            sendInputs();
+        else
+            sendHello();
+    }
+
+    private void receiveInputs() throws IOException {
+        while (this.transport.receive(this.packet)) {
+            if (this.packet.remaining() < 1)
+                continue;
+
+            byte type = this.packet.get();
+            if (type == HELLO_PACKET)
+                readHello(this.packet);
+            else if (type == INPUTS_PACKET)
+                readPacket(this.packet);
+        }
+
+        if (this.rollbackTick < this.tick)
+            rollback();
+
+        this.rollbackTick = NO_ROLLBACK;
+    }
+
+    /**
+     * Legge il numero casuale del giocatore remoto e, se quest'ultimo conosce già quello locale, conclude la
+     * connessione. Prima della connessione viene accettato l'ultimo numero ricevuto, che sostituisce quello di un
+     * eventuale saluto residuo di una sessione precedente.
+     */
+    private void readHello(ByteBuffer packet) {
+        if (packet.remaining() < HELLO_SIZE - 1)
+            return;
+
+        int senderNonce = packet.getInt();
+        int echoedNonce = packet.getInt();
+        if (senderNonce == UNKNOWN_NONCE)
+            return;
+
+        if (this.isConnected) {
+            // Il giocatore remoto non ha ancora ricevuto gli input locali, che vengono comunque inviati ad ogni tick
+            if (senderNonce == this.remoteNonce)
+                this.ticksSinceLastPacket = 0;
+            return;
+        }
+
+        this.remoteNonce = senderNonce;
+        this.matchId = this.localPlayer == 0 ? toMatchId(this.localNonce, senderNonce)
+                : toMatchId(senderNonce, this.localNonce);
+
+        if (echoedNonce == this.localNonce)
+            this.isConnected = true;
+    }
+
+    private static long toMatchId(int player1Nonce, int player2Nonce) {
+        return ((long) player1Nonce << 32) | (player2Nonce & 0xFFFFFFFFL);
+    }
+
+    private void readPacket(ByteBuffer packet) {
+        if (packet.remaining() < HEADER_SIZE - 1)
+            return;
+
+        long packetMatchId = packet.getLong();
+        int startTick = packet.getInt();
+        int remoteAcknowledgedTicks = packet.getInt();
+        int inputsNumber = packet.getShort() & 0xFFFF;
+
+        // Pacchetto malformato o appartenente ad un'altra partita
+        if (this.remoteNonce == UNKNOWN_NONCE || packetMatchId != this.matchId)
+            return;
+        if (packet.remaining() < inputsNumber * 2 || startTick < 0 || remoteAcknowledgedTicks < 0)
+            return;
+
+        // Il giocatore remoto invia gli input soltanto dopo aver ricevuto il saluto con il numero locale
+        this.isConnected = true;
+        this.ticksSinceLastPacket = 0;
+        this.acknowledgedTicks = Math.max(this.acknowledgedTicks, Math.min(remoteAcknowledgedTicks, this.tick));
+
+        for (int i = 0; i < inputsNumber; i++) {
+            int inputTick = startTick + i;
+            int bits = packet.getShort() & 0xFFFF;
+
+            if (inputTick < this.confirmedTicks)
+                continue;
+            if (inputTick > this.confirmedTicks)
+                break;
+
+            confirmRemoteInput(inputTick, bits);
+        }
+    }
+
+    private void confirmRemoteInput(int inputTick, int bits) {
+        ensureCapacity(inputTick + 1);
+
+        // Un tick già simulato con una previsione errata va rieseguito
+        if (inputTick < this.tick && this.remoteInputs[inputTick] != bits)
+            this.rollbackTick = Math.min(this.rollbackTick, inputTick);
+
+        this.remoteInputs[inputTick] = bits;
+        this.confirmedTicks++;
+    }
+
+    /**
+     * Riporta la simulazione al primo tick simulato con una previsione errata e la riesegue fino al tick attuale,
+     * aggiornando le previsioni dei tick non ancora confermati.
+     */
+    private void rollback() {
+        assert this.rollbackTick >= this.tick - this.maxRollbackTicks;
+
+        this.simulation.restoreSnapshot(this.snapshots[this.rollbackTick % this.snapshots.length]);
+        for (int i = this.rollbackTick; i < this.tick; i++)
+            simulateTick(i);
+
+        this.rollbacks++;
+        this.rolledBackTicks = this.rolledBackTicks + (this.tick - this.rollbackTick);
+    }
+
+    private void simulateTick(int simulatedTick) {
+        if (simulatedTick >= this.confirmedTicks)
+            this.remoteInputs[simulatedTick] = predictRemoteInput();
+
+        this.simulation.saveSnapshot(this.snapshots[simulatedTick % this.snapshots.length]);
+
+        PlayerInput localInput = PlayerInput.fromBits(this.localInputs[simulatedTick]);
+        PlayerInput remoteInput = PlayerInput.fromBits(this.remoteInputs[simulatedTick]);
+        if (this.localPlayer == 0)
+            this.simulation.step(localInput, remoteInput);
+        else
+            this.simulation.step(remoteInput, localInput);
+    }
+
+    /**
+     * Si prevede che il giocatore remoto continui a premere gli stessi comandi dell'ultimo input ricevuto.
+     */
+    private int predictRemoteInput() {
+        return this.confirmedTicks > 0 ? this.remoteInputs[this.confirmedTicks - 1] : 0;
+    }
+
+    /**
+     * Invia gli input locali non ancora confermati dal giocatore remoto, insieme al numero di input remoti ricevuti.
+     */
+    private void sendInputs() throws IOException {
+        int inputsNumber = Math.min(this.tick - this.acknowledgedTicks, MAX_INPUTS_PER_PACKET);
+
+        this.packet.clear();
+        this.packet.put(INPUTS_PACKET).putLong(this.matchId).putInt(this.acknowledgedTicks).putInt(this.confirmedTicks)
+                .putShort((short) inputsNumber);
+        for (int i = 0; i < inputsNumber; i++)
+            this.packet.putShort((short) this.localInputs[this.acknowledgedTicks + i]);
+
+        this.packet.flip();
+        this.transport.send(this.packet);
+    }
+
+    /**
+     * Invia il numero casuale locale insieme a quello remoto, se già ricevuto.
+     */
+    private void sendHello() throws IOException {
+        this.packet.clear();
+        this.packet.put(HELLO_PACKET).putInt(this.localNonce).putInt(this.remoteNonce);
+
+        this.packet.flip();
+        this.transport.send(this.packet);
+    }
+
+    private void ensureCapacity(int ticksNumber) {
+        if (ticksNumber <= this.localInputs.length)
+            return;
+
+        int capacity = Math.max(ticksNumber, this.localInputs.length * 2);
+        this.localInputs = Arrays.copyOf(this.localInputs, capacity);
+        this.remoteInputs = Arrays.copyOf(this.remoteInputs, capacity);
+    }
+
+    public BattleSimulation getSimulation() {
+        return simulation;
+    }
+
+    public int getLocalPlayer() {
+        return localPlayer;
+    }
+
+    /**
+     * @return true se entrambi i giocatori conoscono l'identificativo della partita e la simulazione può avanzare.
+     */
+    public boolean isConnected() {
+        return isConnected;
+    }
+
+    /**
+     * @return numero di tick simulati dalla sessione.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * @return numero di tick per cui l'input remoto è stato ricevuto.
+     */
+    public int getConfirmedTicks() {
+        return confirmedTicks;
+    }
+
+    /**
+     * @return true se tutti i tick simulati utilizzano input remoti ricevuti e non previsti, ovvero se lo stato della
+     * simulazione è definitivo.
+     */
+    public boolean isSynchronized() {
+        return confirmedTicks >= tick;
+    }
+
+    /**
+     * @return true se la simulazione è conclusa e tutti gli input dei tick che l'hanno fatta avanzare sono stati
+     * ricevuti, ovvero se il vincitore non può più essere annullato da un rollback.
+     */
+    public boolean isResultConfirmed() {
+        return simulation.isFinished() && confirmedTicks >= simulation.getTickCount();
+    }
+
+    /**
+     * @return true se il vincitore è definitivo e il giocatore remoto ha confermato di aver ricevuto tutti gli input
+     * locali con cui la simulazione si è conclusa, così da conoscere anch'esso il vincitore definitivo.
+     */
+    public boolean isResultAcknowledged() {
+        return isResultConfirmed() && acknowledgedTicks >= simulation.getTickCount();
+    }
+
+    /**
+     * Restituisce l'input con cui un giocatore ha partecipato ad un tick, previsto se non ancora ricevuto.
+     * @param player 0 per il primo personaggio, 1 per il secondo.
+     * @param inputTick tick già simulato.
+     */
+    public PlayerInput getInput(int player, int inputTick) {
+        assert inputTick >= 0 && inputTick < tick;
+
+        return PlayerInput.fromBits(player == localPlayer ? localInputs[inputTick] : remoteInputs[inputTick]);
+    }
+
+    /**
+     * @return numero di chiamate ad {@link #advance(PlayerInput)} trascorse dall'ultimo pacchetto valido ricevuto dopo
+     * la connessione, utile a riconoscere la disconnessione del giocatore remoto.
+     */
+    public long getTicksSinceLastPacket() {
+        return ticksSinceLastPacket;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    /**
+     * @return numero complessivo di tick rieseguiti a causa dei rollback.
+     */
+    public long getRolledBackTicks() {
+        return rolledBackTicks;
+    }
+
+    /**
+     * @return numero di tick in cui la sessione ha atteso il giocatore remoto.
+     */
+    public long getStalls() {
+        return stalls;
+    }
+}
@@ -0,0 +1,25 @@
+package it.unimol.dragon_ball.app.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Canale non bloccante con cui una {@link RollbackSession} scambia pacchetti con il giocatore remoto.
+ * Come UDP, il canale non garantisce né la consegna né l'ordine dei pacchetti: la sessione tollera perdite e
+ * riordinamenti reinviando gli input non ancora confermati.
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Invia il pacchetto compreso tra la posizione e il limite del buffer, senza attendere.
+     */
+    void send(ByteBuffer packet) throws IOException;
+
+    /**
+     * Riceve, senza attendere, il prossimo pacchetto disponibile.
+     * @param packet buffer in cui copiare il pacchetto, pronto alla lettura in caso di successo.
+     * @return false se non è disponibile alcun pacchetto.
+     */
+    boolean receive(ByteBuffer packet) throws IOException;
+}
@@ -0,0 +1,55 @@
+package it.unimol.dragon_ball.app.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * {@link Transport} su UDP, collegato ad un unico giocatore remoto.
+ * I pacchetti inviati prima che il giocatore remoto sia in ascolto vengono semplicemente persi.
+ */
+public class UdpTransport implements Transport {
+    private final DatagramChannel channel;
+
+    /**
+     * @param localPort porta locale su cui ricevere i pacchetti.
+     * @param remoteAddress indirizzo del giocatore remoto.
+     */
+    public UdpTransport(int localPort, InetSocketAddress remoteAddress) throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.bind(new InetSocketAddress(localPort));
+        this.channel.connect(remoteAddress);
+        this.channel.configureBlocking(false);
+    }
+
+    @Override
+    public void send(ByteBuffer packet) throws IOException {
+        try {
+            this.channel.write(packet);
+        } catch (PortUnreachableException ignored) {
+            // Il giocatore remoto non è ancora in ascolto
+        }
+    }
+
+    @Override
+    public boolean receive(ByteBuffer packet) throws IOException {
+        packet.clear();
+
+        try {
+            if (this.channel.read(packet) <= 0)
+                return false;
+        } catch (PortUnreachableException e) {
+            return false;
+        }
+
+        packet.flip();
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,117 @@
+package it.unimol.dragon_ball.app.replay;
+
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleState;
+import it.unimol.dragon_ball.app.simulation.FighterState;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+/**
+ * Registrazione di una partita, sufficiente a riprodurla in modo identico.
+ * Poiché la {@link BattleSimulation} è deterministica, una partita è descritta interamente dai personaggi schierati,
+ * dalla durata del tick e dagli input dei due giocatori ad ogni tick; la mappa e il seme dei generatori pseudo-casuali
+ * completano la descrizione della partita. Il checksum dello stato finale permette di verificare che la riproduzione
+ * sia fedele alla partita registrata.
+ * Gli input di ciascun tick sono memorizzati in un unico intero: i bit del primo giocatore seguiti da quelli del
+ * secondo.
+ */
+public class Replay {
+    private final String player1Name;
+    private final String player2Name;
+    private final String mapFilepath;
+    private final long tickMillis;
+    private final long seed;
+    private final int[] inputs;
+    private final long finalChecksum;
+
+    /**
+     * @param player1Name nome del personaggio del primo giocatore.
+     * @param player2Name nome del personaggio del secondo giocatore.
+     * @param mapFilepath percorso dell'immagine della mappa, o stringa vuota se la partita non ne ha una.
+     * @param tickMillis durata di un tick della simulazione, espressa in millisecondi.
+     * @param seed seme della partita, restituito da {@link BattleSimulation#getSeed()}.
+     * @param inputs input dei due giocatori ad ogni tick, ottenuti tramite {@link #packInputs(PlayerInput, PlayerInput)}.
+     * @param finalChecksum checksum dello stato al termine della partita, ottenuto tramite
+     *                      {@link #checksumOf(BattleState)}.
+     */
+    public Replay(String player1Name, String player2Name, String mapFilepath, long tickMillis, long seed,
+                  int[] inputs, long finalChecksum) {
+        assert player1Name != null && player2Name != null && mapFilepath != null && tickMillis > 0 && inputs != null;
+
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
+        this.mapFilepath = mapFilepath;
+        this.tickMillis = tickMillis;
+        this.seed = seed;
+        this.inputs = inputs.clone();
+        this.finalChecksum = finalChecksum;
+    }
+
+    static int packInputs(PlayerInput player1Input, PlayerInput player2Input) {
+        return player1Input.getBits() | (player2Input.getBits() << PlayerInput.BUTTONS_NUMBER);
+    }
+
+    /**
+     * Calcola un checksum dello stato della partita, che comprende tick, posizioni, azioni e statistiche di entrambi
+     * i personaggi.
+     */
+    public static long checksumOf(BattleState state) {
+        long checksum = state.getTickCount();
+        checksum = mix(checksum, state.getFighter1());
+        checksum = mix(checksum, state.getFighter2());
+
+        return checksum;
+    }
+
+    private static long mix(long checksum, FighterState fighter) {
+        long[] values = {
+                Double.doubleToLongBits(fighter.getX()), Double.doubleToLongBits(fighter.getY()),
+                fighter.getAction().ordinal(), fighter.getActualHP(), fighter.getActualMP(), fighter.getAura(),
+                fighter.getActualEvolutionNumber(), fighter.getProjectile() != null ? fighter.getProjectile().getTicks() : -1
+        };
+
+        for (long value : values)
+            checksum = checksum * 31 + value;
+
+        return checksum;
+    }
+
+    public String getPlayer1Name() {
+        return player1Name;
+    }
+
+    public String getPlayer2Name() {
+        return player2Name;
+    }
+
+    public String getMapFilepath() {
+        return mapFilepath;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTicksNumber() {
+        return inputs.length;
+    }
+
+    int getPackedInputs(int tick) {
+        return inputs[tick];
+    }
+
+    public PlayerInput getPlayer1Input(int tick) {
+        return PlayerInput.fromBits(inputs[tick] & ((1 << PlayerInput.BUTTONS_NUMBER) - 1));
+    }
+
+    public PlayerInput getPlayer2Input(int tick) {
+        return PlayerInput.fromBits(inputs[tick] >>> PlayerInput.BUTTONS_NUMBER);
+    }
+
+    public long getFinalChecksum() {
+        return finalChecksum;
+    }
+}
@@ -0,0 +1,127 @@
+package it.unimol.dragon_ball.app.replay;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Salvataggio e caricamento dei {@link Replay} in formato binario compatto.
+ * Il file è composto da un'intestazione (firma, versione del formato, seme, durata del tick, personaggi, mappa,
+ * numero di tick e checksum finale) seguita dagli input della partita. Poiché gli input restano spesso invariati per
+ * molti tick consecutivi, vengono codificati come sequenze di coppie (ripetizioni, input), entrambe scritte come
+ * interi a lunghezza variabile: una partita occupa tipicamente pochi KB.
+ */
+public class ReplayCodec {
+    public static final String FILE_EXTENSION = ".dbr";
+
+    private static final int MAGIC = 0x44425250;  // "DBRP"
+    private static final int FORMAT_VERSION = 1;
+
+    private ReplayCodec() {
+    }
+
+    public static void write(Replay replay, OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        output.writeInt(MAGIC);
+        output.writeShort(FORMAT_VERSION);
+        output.writeLong(replay.getSeed());
+        output.writeInt((int) replay.getTickMillis());
+        output.writeUTF(replay.getPlayer1Name());
+        output.writeUTF(replay.getPlayer2Name());
+        output.writeUTF(replay.getMapFilepath());
+        output.writeInt(replay.getTicksNumber());
+        output.writeLong(replay.getFinalChecksum());
+
+        int tick = 0;
+        while (tick < replay.getTicksNumber()) {
+            int packedInputs = replay.getPackedInputs(tick);
+            int runLength = 1;
+            while (tick + runLength < replay.getTicksNumber() && replay.getPackedInputs(tick + runLength) == packedInputs)
+                runLength++;
+
+            writeVarInt(output, runLength);
+            writeVarInt(output, packedInputs);
+            tick = tick + runLength;
+        }
+
+        output.flush();
+    }
+
+    /**
+     * @throws IOException se lo stream non contiene un replay valido in un formato supportato.
+     */
+    public static Replay read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (input.readInt() != MAGIC)
+            throw new IOException("Not a replay file");
+
+        int version = input.readUnsignedShort();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported replay version: " + version);
+
+        long seed = input.readLong();
+        int tickMillis = input.readInt();
+        String player1Name = input.readUTF();
+        String player2Name = input.readUTF();
+        String mapFilepath = input.readUTF();
+        int ticksNumber = input.readInt();
+        long finalChecksum = input.readLong();
+
+        if (tickMillis <= 0 || ticksNumber < 0)
+            throw new IOException("Corrupted replay header");
+
+        int[] inputs = new int[ticksNumber];
+        int tick = 0;
+        while (tick < ticksNumber) {
+            int runLength = readVarInt(input);
+            int packedInputs = readVarInt(input);
+
+            if (runLength <= 0 || tick + runLength > ticksNumber)
+                throw new IOException("Corrupted replay inputs");
+
+            Arrays.fill(inputs, tick, tick + runLength, packedInputs);
+            tick = tick + runLength;
+        }
+
+        return new Replay(player1Name, player2Name, mapFilepath, tickMillis, seed, inputs, finalChecksum);
+    }
+
+    public static void save(Replay replay, File file) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            write(replay, outputStream);
+        }
+    }
+
+    public static Replay load(File file) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return read(inputStream);
+        }
+    }
+
+    /**
+     * Scrive l'intero non negativo a gruppi di 7 bit, dal meno significativo; il bit più alto di ogni byte indica se
+     * seguono altri gruppi.
+     */
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value = value >>> 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int readByte = input.readUnsignedByte();
+            value = value | ((readByte & 0x7F) << shift);
+
+            if ((readByte & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("Corrupted replay inputs");
+    }
+}
@@ -0,0 +1,88 @@
+package it.unimol.dragon_ball.app.replay;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+
+import java.io.IOException;
+
+/**
+ * Riproduce un {@link Replay} su una nuova {@link BattleSimulation}, consegnandole ad ogni tick gli input registrati.
+ * La riproduzione non dipende dal tempo reale: può essere eseguita senza interfaccia grafica, tutta in una volta, o
+ * un numero arbitrario di tick alla volta, ad esempio per mostrarla a schermo a velocità multipla.
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private final BattleSimulation simulation;
+    private int tick;
+
+    /**
+     * @param replay partita da riprodurre.
+     * @throws IOException se non è possibile caricare i personaggi della partita.
+     */
+    public ReplayPlayer(Replay replay) throws IOException {
+        assert replay != null;
+
+        this.replay = replay;
+        this.simulation = new BattleSimulation(CharacterFactory.create(replay.getPlayer1Name()),
+                CharacterFactory.create(replay.getPlayer2Name()), replay.getTickMillis(), replay.getSeed());
+        this.tick = 0;
+    }
+
+    /**
+     * Esegue il prossimo tick registrato.
+     * @return false se la riproduzione era già conclusa.
+     */
+    public boolean step() {
+        if (isFinished())
+            return false;
+
+        this.simulation.step(this.replay.getPlayer1Input(this.tick), this.replay.getPlayer2Input(this.tick));
+        this.tick++;
+        return true;
+    }
+
+    /**
+     * Esegue fino al numero di tick preso come parametro, interrompendosi al termine della riproduzione.
+     * @return numero di tick eseguiti.
+     */
+    public int step(int ticks) {
+        int executedTicks = 0;
+        while (executedTicks < ticks && step())
+            executedTicks++;
+
+        return executedTicks;
+    }
+
+    public void playToEnd() {
+        while (step()) {
+            // Riproduce tutti i tick registrati
+        }
+    }
+
+    /**
+     * @return true se tutti i tick registrati sono stati eseguiti oppure la partita si è conclusa.
+     */
+    public boolean isFinished() {
+        return this.tick >= this.replay.getTicksNumber() || this.simulation.isFinished();
+    }
+
+    /**
+     * Verifica che la riproduzione conclusa abbia raggiunto lo stesso stato finale della partita registrata.
+     * @return true se il checksum dello stato attuale coincide con quello registrato.
+     */
+    public boolean isConsistent() {
+        return isFinished() && Replay.checksumOf(this.simulation.getState()) == this.replay.getFinalChecksum();
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public BattleSimulation getSimulation() {
+        return simulation;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+}
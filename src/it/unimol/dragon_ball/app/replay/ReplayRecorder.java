@@ -0,0 +1,78 @@
+package it.unimol.dragon_ball.app.replay;
+
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleState;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+
+import java.util.Arrays;
+
+/**
+ * Registra, tick dopo tick, gli input consegnati ad una partita, così da ottenerne il {@link Replay} al termine.
+ * Va utilizzato dal solo thread che fa avanzare la simulazione, registrando gli input di ciascun tick prima di
+ * eseguirlo.
+ */
+public class ReplayRecorder {
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final String player1Name;
+    private final String player2Name;
+    private final String mapFilepath;
+    private final long tickMillis;
+    private final long seed;
+
+    private int[] inputs;
+    private int ticksNumber;
+
+    /**
+     * Genera un registratore della partita presa come parametro, da cui vengono letti i personaggi, la durata del tick
+     * e il seme.
+     * @param simulation partita da registrare, non ancora avviata.
+     * @param mapFilepath percorso dell'immagine della mappa, o null se la partita non ne ha una.
+     */
+    public ReplayRecorder(BattleSimulation simulation, String mapFilepath) {
+        this(simulation.getFighter1().getCharacter().getCanonicalName(),
+                simulation.getFighter2().getCharacter().getCanonicalName(), mapFilepath,
+                simulation.getTickMillis(), simulation.getSeed());
+    }
+
+    /**
+     * @see Replay#Replay(String, String, String, long, long, int[], long)
+     */
+    public ReplayRecorder(String player1Name, String player2Name, String mapFilepath, long tickMillis, long seed) {
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
+        this.mapFilepath = mapFilepath != null ? mapFilepath : "";
+        this.tickMillis = tickMillis;
+        this.seed = seed;
+
+        this.inputs = new int[INITIAL_CAPACITY];
+        this.ticksNumber = 0;
+    }
+
+    /**
+     * Registra gli input dei due giocatori relativi al prossimo tick.
+     */
+    public void record(PlayerInput player1Input, PlayerInput player2Input) {
+        if (this.ticksNumber == this.inputs.length)
+            this.inputs = Arrays.copyOf(this.inputs, this.inputs.length * 2);
+
+        this.inputs[this.ticksNumber] = Replay.packInputs(player1Input, player2Input);
+        this.ticksNumber++;
+    }
+
+    public int getTicksNumber() {
+        return ticksNumber;
+    }
+
+    /**
+     * Restituisce la registrazione degli input ricevuti finora.
+     * @param finalState stato della partita dopo l'ultimo tick registrato, di cui memorizzare il checksum.
+     * @return il replay della partita.
+     */
+    public Replay toReplay(BattleState finalState) {
+        assert finalState.getTickCount() == this.ticksNumber;
+
+        return new Replay(this.player1Name, this.player2Name, this.mapFilepath, this.tickMillis, this.seed,
+                Arrays.copyOf(this.inputs, this.ticksNumber), Replay.checksumOf(finalState));
+    }
+}
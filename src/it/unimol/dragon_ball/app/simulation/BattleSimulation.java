@@ -0,0 +1,659 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.GameLoop;
+import it.unimol.dragon_ball.app.collision.Collider;
+import it.unimol.dragon_ball.app.collision.ColliderType;
+import it.unimol.dragon_ball.app.collision.CollisionWorld;
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.NotEnoughManaException;
+import it.unimol.dragon_ball.app.logic.Skill;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Simulazione di un combattimento tra due personaggi, indipendente dall'interfaccia grafica.
+ * La simulazione detiene posizioni, abilità lanciate, rettangoli di collisione e cooldown dei due {@link Fighter} e
+ * avanza di un tick alla volta tramite {@link #step(PlayerInput, PlayerInput)}, ricevendo gli input di entrambi i
+ * giocatori. Ad ogni tick vengono eseguite, nell'ordine:
+ *      - le azioni dei personaggi in relazione agli input ricevuti;
+ *      - lo spostamento delle abilità lanciate;
+ *      - l'evoluzione dei personaggi che hanno caricato l'aura al massimo;
+ *      - le collisioni del tipo player-player, player-skill e skill-skill, con i relativi danni;
+ *      - la fine delle abilità che hanno raggiunto il confine del proprio percorso;
+ *      - il controllo del vincitore.
+ * Tutte le durate vengono convertite in tick: a parità di input, due simulazioni evolvono in modo identico, senza
+ * alcuna dipendenza dal tempo reale. L'interfaccia grafica si limita a disegnarne lo stato, leggendo da un altro thread
+ * l'istantanea immutabile {@link BattleState} pubblicata al termine di ogni tick.
+ * Le collisioni delle abilità considerano l'intero spostamento compiuto durante il tick, così che nessun colpo vada
+ * perso anche con tick di lunga durata.
+ * Tra un tick e l'altro lo stato della simulazione può essere salvato in un {@link BattleSnapshot} e successivamente
+ * ripristinato, così da riprendere la partita da quel punto.
+ */
+public class BattleSimulation {
+    public static final double PLAYER1_START_X = 120;
+    public static final double PLAYER2_START_X = 1160;
+    public static final double PLAYERS_START_Y = 400;
+
+    public static final double ARENA_MIN_X = 100;
+    public static final double ARENA_MAX_X = 1160;
+    public static final double ARENA_MIN_Y = 150;
+    public static final double ARENA_MAX_Y = 600;
+
+    private static final int SPEED_OFFSET = 2;
+    private static final int AURA_PER_TICK = 1;
+    private static final int MP_PER_AURA_TICK = 4;
+    private static final int PUNCH_DAMAGE_INTERVAL_TICKS = 3;  // Evito che i danni da pugno siano eccessivi
+
+    // Area in cui si muovono personaggi e abilità, suddivisa in celle della dimensione di un personaggio
+    private static final double WORLD_WIDTH = 1280;
+    private static final double WORLD_HEIGHT = 720;
+    private static final double COLLISION_CELL_SIZE = 128;
+
+    private final Fighter fighter1;
+    private final Fighter fighter2;
+    private final List<Fighter> fighters;
+
+    private final CollisionWorld collisionWorld;
+    private final List<Collider> contacts;
+    private final List<Collider> hits;
+    private final List<Collider> clashes;
+    private final List<Impact> impacts;
+    private final boolean[] punchedFighters;
+    private final boolean[] landedPunchFighters;
+
+    private final byte[] player1NameBytes;
+    private final byte[] player2NameBytes;
+
+    private final long seed;
+    private final long tickNanos;
+    private final double tickSeconds;
+    private final double movementScale;
+
+    private long tickCount;
+    private String winnerName;
+    private volatile BattleState state;
+
+    /**
+     * Genera una nuova simulazione con la durata del tick predefinita del {@link GameLoop}.
+     * @param player1 personaggio del primo giocatore, schierato a sinistra.
+     * @param player2 personaggio del secondo giocatore, schierato a destra e rivolto verso sinistra.
+     */
+    public BattleSimulation(Character player1, Character player2) {
+        this(player1, player2, GameLoop.DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Genera una nuova simulazione con la durata del tick presa come parametro.
+     * @param player1 personaggio del primo giocatore, schierato a sinistra.
+     * @param player2 personaggio del secondo giocatore, schierato a destra e rivolto verso sinistra.
+     * @param tickMillis durata di un tick espressa in millisecondi.
+     */
+    public BattleSimulation(Character player1, Character player2, long tickMillis) {
+        this(player1, player2, tickMillis, 0);
+    }
+
+    /**
+     * Genera una nuova simulazione con la durata del tick e il seme della partita presi come parametro.
+     * @param player1 personaggio del primo giocatore, schierato a sinistra.
+     * @param player2 personaggio del secondo giocatore, schierato a destra e rivolto verso sinistra.
+     * @param tickMillis durata di un tick espressa in millisecondi.
+     * @param seed seme della partita, restituito da {@link #getSeed()}.
+     */
+    public BattleSimulation(Character player1, Character player2, long tickMillis, long seed) {
+        assert player1 != null && player2 != null && tickMillis > 0;
+
+        this.fighter1 = new Fighter(0, player1, PLAYER1_START_X, PLAYERS_START_Y, false);
+        this.fighter2 = new Fighter(1, player2, PLAYER2_START_X, PLAYERS_START_Y, true);
+        this.fighters = Arrays.asList(this.fighter1, this.fighter2);
+
+        this.collisionWorld = new CollisionWorld(0, 0, WORLD_WIDTH, WORLD_HEIGHT, COLLISION_CELL_SIZE);
+        this.contacts = new ArrayList<>();
+        this.hits = new ArrayList<>();
+        this.clashes = new ArrayList<>();
+        this.impacts = new ArrayList<>();
+        this.punchedFighters = new boolean[this.fighters.size()];
+        this.landedPunchFighters = new boolean[this.fighters.size()];
+
+        this.player1NameBytes = player1.getCanonicalName().getBytes(StandardCharsets.UTF_8);
+        this.player2NameBytes = player2.getCanonicalName().getBytes(StandardCharsets.UTF_8);
+
+        this.seed = seed;
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.tickSeconds = tickMillis / 1000.0;
+        // La velocità dei personaggi è espressa in pixel per tick del GameLoop predefinito
+        this.movementScale = (double) tickMillis / GameLoop.DEFAULT_TICK_MILLIS;
+
+        this.tickCount = 0;
+        this.winnerName = null;
+        this.state = new BattleState(this.tickCount, this.winnerName, this.fighter1, this.fighter2);
+    }
+
+    /**
+     * Avanza la simulazione di un tick. Terminata la partita, la simulazione non avanza più.
+     * @param player1Input comandi premuti dal primo giocatore.
+     * @param player2Input comandi premuti dal secondo giocatore.
+     */
+    public void step(PlayerInput player1Input, PlayerInput player2Input) {
+        assert player1Input != null && player2Input != null;
+
+        if (isFinished())
+            return;
+
+        this.tickCount++;
+
+        this.fighter1.savePreviousPosition();
+        this.fighter2.savePreviousPosition();
+
+        handleActions(this.fighter1, player1Input);
+        handleActions(this.fighter2, player2Input);
+
+        advanceProjectile(this.fighter1);
+        advanceProjectile(this.fighter2);
+
+        handleEvolution(this.fighter1);
+        handleEvolution(this.fighter2);
+
+        checkCollisions();
+
+        endProjectileOutOfArena(this.fighter1);
+        endProjectileOutOfArena(this.fighter2);
+
+        checkWinner();
+
+        this.state = new BattleState(this.tickCount, this.winnerName, this.fighter1, this.fighter2);
+    }
+
+    public long toTicks(double seconds) {
+        return GameLoop.toTicks(seconds, this.tickNanos);
+    }
+
+    /**
+     * @return un nuovo salvataggio dello stato attuale della simulazione.
+     */
+    public BattleSnapshot saveSnapshot() {
+        BattleSnapshot snapshot = new BattleSnapshot();
+        saveSnapshot(snapshot);
+
+        return snapshot;
+    }
+
+    /**
+     * Salva lo stato attuale della simulazione nel salvataggio preso come parametro, sovrascrivendone il contenuto.
+     * Riutilizzando lo stesso salvataggio non viene allocata alcuna memoria.
+     * @param snapshot salvataggio da sovrascrivere.
+     */
+    public void saveSnapshot(BattleSnapshot snapshot) {
+        ByteBuffer buffer = snapshot.beginWrite(getTickMillis(), this.tickCount, this.player1NameBytes,
+                this.player2NameBytes);
+
+        buffer.put((byte) (this.winnerName == null ? 0 : this.winnerName.equals("player1") ? 1 : 2));
+        this.fighter1.writeTo(buffer);
+        this.fighter2.writeTo(buffer);
+
+        snapshot.endWrite(buffer, this.fighter1.getCharacter().getActualEvolutionNumber(),
+                this.fighter2.getCharacter().getActualEvolutionNumber());
+    }
+
+    /**
+     * Riporta la simulazione allo stato del salvataggio preso come parametro e ne pubblica la relativa istantanea.
+     * Il salvataggio viene confrontato con la simulazione prima di modificarne lo stato: se viene rifiutato, la
+     * simulazione resta invariata.
+     * @param snapshot salvataggio di una simulazione con gli stessi personaggi e la stessa durata del tick.
+     * @throws IllegalArgumentException se il salvataggio appartiene ad una partita differente.
+     */
+    public void restoreSnapshot(BattleSnapshot snapshot) {
+        Character player1 = this.fighter1.getCharacter();
+        Character player2 = this.fighter2.getCharacter();
+
+        if (snapshot.getTickMillis() != getTickMillis() ||
+                !snapshot.getPlayer1Name().equals(player1.getCanonicalName()) ||
+                !snapshot.getPlayer2Name().equals(player2.getCanonicalName()) ||
+                snapshot.getPlayer1EvolutionNumber() > player1.getMAX_EVOLUTIONS_NUMBER() ||
+                snapshot.getPlayer2EvolutionNumber() > player2.getMAX_EVOLUTIONS_NUMBER())
+            throw new IllegalArgumentException("Snapshot of a different battle");
+
+        ByteBuffer buffer = snapshot.beginRead();
+        this.tickCount = snapshot.getTickCount();
+
+        byte winner = buffer.get();
+        this.winnerName = winner == 0 ? null : winner == 1 ? "player1" : "player2";
+
+        this.fighter1.readFrom(buffer);
+        this.fighter2.readFrom(buffer);
+
+        this.state = new BattleState(this.tickCount, this.winnerName, this.fighter1, this.fighter2);
+    }
+
+
+    private void handleActions(Fighter fighter, PlayerInput input) {
+        fighter.setAction(resolveAction(fighter, input));
+    }
+
+    /**
+     * Esegue l'azione richiesta dagli input e la restituisce. Il movimento ha la precedenza sulle altre azioni, tranne
+     * che durante il caricamento dell'aura; un personaggio impegnato in un'abilità prosegue quest'ultima.
+     */
+    private Fighter.Action resolveAction(Fighter fighter, PlayerInput input) {
+        if (fighter.isBusy())
+            return fighter.getAction();
+
+        boolean isAuraActive = fighter.getAction() == Fighter.Action.AURA && input.isPressed(PlayerInput.AURA);
+        boolean isMoving = input.isPressed(PlayerInput.UP) || input.isPressed(PlayerInput.LEFT) ||
+                input.isPressed(PlayerInput.DOWN) || input.isPressed(PlayerInput.RIGHT);
+
+        if (isMoving && !isAuraActive)
+            return move(fighter, input);
+
+        if (input.isPressed(PlayerInput.AURA)) {
+            chargeAura(fighter.getCharacter());
+            return Fighter.Action.AURA;
+        }
+
+        if (input.isPressed(PlayerInput.PUNCH) && fighter.getCharacter().getSkills().size() > Skill.PUNCH)
+            return Fighter.Action.PUNCH;
+
+        if (input.isPressed(PlayerInput.ENERGYBALL)) {
+            if (castSkill(fighter, Skill.ENERGYBALL))
+                return Fighter.Action.ENERGYBALL;
+        } else if (input.isPressed(PlayerInput.SPECIAL_SKILL)) {
+            if (castSkill(fighter, Skill.SPECIAL_SKILL))
+                return Fighter.Action.SPECIAL_SKILL;
+        } else if (input.isPressed(PlayerInput.ULTIMATE_SKILL)) {
+            if (castSkill(fighter, Skill.ULTIMATE_SKILL))
+                return Fighter.Action.ULTIMATE_SKILL;
+        }
+
+        return Fighter.Action.IDLE;
+    }
+
+    /**
+     * Sposta il personaggio lungo ciascun asse richiesto dagli input. Lo spostamento lungo un asse non ha effetto
+     * qualora porti il personaggio oltre i confini dell'arena.
+     * @return l'azione di movimento, che dipende dalla direzione verticale o, in sua assenza, da quella orizzontale
+     * rispetto all'orientamento del personaggio.
+     */
+    private Fighter.Action move(Fighter fighter, PlayerInput input) {
+        double step = (fighter.getCharacter().getSpeed() - SPEED_OFFSET) * this.movementScale;
+
+        int directionX = input.isPressed(PlayerInput.LEFT) ? -1 : (input.isPressed(PlayerInput.RIGHT) ? 1 : 0);
+        int directionY = input.isPressed(PlayerInput.UP) ? -1 : (input.isPressed(PlayerInput.DOWN) ? 1 : 0);
+
+        double newX = fighter.getX() + directionX * step;
+        double newY = fighter.getY() + directionY * step;
+
+        if (newX < ARENA_MIN_X || newX > ARENA_MAX_X)
+            newX = fighter.getX();
+        if (newY < ARENA_MIN_Y || newY > ARENA_MAX_Y)
+            newY = fighter.getY();
+
+        fighter.setPosition(newX, newY);
+
+        if (directionY != 0)
+            return directionY < 0 ? Fighter.Action.MOVE_FORWARD : Fighter.Action.MOVE_BACK;
+
+        return directionX == fighter.getDirection() ? Fighter.Action.MOVE_FORWARD : Fighter.Action.MOVE_BACK;
+    }
+
+    private void chargeAura(Character character) {
+        character.setAura(character.getAura() + AURA_PER_TICK);
+        try {
+            character.setActualMP(character.getActualMP() + MP_PER_AURA_TICK);
+        } catch (NotEnoughManaException ignored) {
+            //MP only increase
+        }
+    }
+
+    /**
+     * Lancia l'abilità presa come parametro, qualora il suo cooldown sia terminato e il personaggio disponga del mana
+     * necessario, che viene sottratto.
+     * @return true se l'abilità è stata lanciata.
+     */
+    private boolean castSkill(Fighter fighter, int skillIndex) {
+        Character character = fighter.getCharacter();
+        List<Skill> skills = character.getSkills();
+
+        if (skills.size() <= skillIndex || this.tickCount < fighter.getCooldownEndTick(skillIndex))
+            return false;
+
+        try {
+            character.setActualMP(character.getActualMP() - skills.get(skillIndex).getMana());
+        } catch (NotEnoughManaException e) {
+            return false;
+        }
+
+        long windupTicks = toTicks(Projectile.getWindupSeconds(skillIndex));
+        fighter.setProjectile(new Projectile(skillIndex, fighter, this.tickCount, windupTicks));
+        return true;
+    }
+
+    /**
+     * Fa avanzare l'abilità lanciata dal personaggio. Al termine del caricamento l'abilità viene lanciata e ne parte
+     * il cooldown. L'abilità che raggiunge il confine del suo percorso termina soltanto dopo il controllo delle
+     * collisioni, così da poter colpire lungo il tratto percorso nel tick.
+     */
+    private void advanceProjectile(Fighter fighter) {
+        Projectile projectile = fighter.getProjectile();
+        if (projectile == null)
+            return;
+
+        projectile.tick();
+
+        if (projectile.isCharged()) {
+            projectile.launch();
+
+            int skillIndex = projectile.getSkillIndex();
+            double cooldown = fighter.getCharacter().getSkills().get(skillIndex).getCooldown();
+            fighter.setCooldownEndTick(skillIndex, this.tickCount + toTicks(cooldown));
+        }
+
+        if (projectile.isTravelling())
+            projectile.move(this.tickSeconds);
+    }
+
+    private void endProjectileOutOfArena(Fighter fighter) {
+        Projectile projectile = fighter.getProjectile();
+
+        if (projectile != null && projectile.isTravelling() && projectile.isOutOfArena())
+            fighter.setProjectile(null);
+    }
+
+    private void handleEvolution(Fighter fighter) {
+        Character character = fighter.getCharacter();
+
+        if (character.getAura() >= character.getMaxAura() &&
+                character.getActualEvolutionNumber() < character.getMAX_EVOLUTIONS_NUMBER()) {
+            character.resetAura();
+            character.evolve();
+        }
+    }
+
+
+    /**
+     * Controlla le collisioni del tipo player-player, player-skill e skill-skill relative al tick attuale e applica
+     * i relativi danni.
+     * I personaggi e le abilità in volo vengono registrati nel {@link CollisionWorld} con i rettangoli che coprono
+     * l'intero spostamento del tick, così da individuare le coppie che potrebbero essersi sovrapposte. Vengono
+     * risolti prima i pugni, poi gli impatti delle abilità, nell'ordine in cui avvengono durante il tick: un'abilità
+     * che ha colpito un personaggio non può quindi scontrarsi con un'altra abilità incontrata successivamente, e
+     * viceversa. A parità di istante, l'impatto con un personaggio precede lo scontro tra abilità.
+     */
+    private void checkCollisions() {
+        this.contacts.clear();
+        this.hits.clear();
+        this.clashes.clear();
+
+        this.collisionWorld.clear();
+        for (Fighter fighter : this.fighters) {
+            this.collisionWorld.add(fighter.getCollider());
+
+            Projectile projectile = fighter.getProjectile();
+            if (projectile != null && projectile.isTravelling())
+                this.collisionWorld.add(projectile.getCollider());
+        }
+        this.collisionWorld.findCollisions(this::classifyCollision);
+
+        handlePunches();
+        handleProjectileImpacts();
+    }
+
+    /**
+     * Smista la coppia di collider nella lista relativa alla sua tipologia. Nelle collisioni player-skill l'abilità
+     * precede sempre il personaggio. I personaggi sono a contatto soltanto se si sovrappongono al termine del tick.
+     */
+    private void classifyCollision(Collider first, Collider second) {
+        boolean isFirstCharacter = first.getType() == ColliderType.CHARACTER;
+        boolean isSecondCharacter = second.getType() == ColliderType.CHARACTER;
+
+        List<Collider> collisions;
+        if (isFirstCharacter && isSecondCharacter) {
+            Fighter firstFighter = (Fighter) first.getUserData();
+            Fighter secondFighter = (Fighter) second.getUserData();
+            if (!firstFighter.getHurtbox().intersects(secondFighter.getHurtbox()))
+                return;
+
+            collisions = this.contacts;
+        } else if (isFirstCharacter || isSecondCharacter) {
+            collisions = this.hits;
+        } else {
+            collisions = this.clashes;
+        }
+
+        collisions.add(isFirstCharacter && !isSecondCharacter ? second : first);
+        collisions.add(isFirstCharacter && !isSecondCharacter ? first : second);
+    }
+
+    /**
+     * Un personaggio che sta tirando pugni colpisce tutti i personaggi con cui è a contatto, infliggendo danno una
+     * volta ogni {@link #PUNCH_DAMAGE_INTERVAL_TICKS} tick.
+     */
+    private void handlePunches() {
+        for (Fighter fighter : this.fighters) {
+            if (fighter.getPunchIntervalTicks() > 0)
+                fighter.setPunchIntervalTicks(fighter.getPunchIntervalTicks() - 1);
+        }
+
+        Arrays.fill(this.punchedFighters, false);
+        Arrays.fill(this.landedPunchFighters, false);
+        for (int i = 0; i < this.contacts.size(); i += 2) {
+            Fighter first = (Fighter) this.contacts.get(i).getUserData();
+            Fighter second = (Fighter) this.contacts.get(i + 1).getUserData();
+
+            if (first.getAction() == Fighter.Action.PUNCH)
+                this.punchedFighters[second.getId()] = true;
+            if (second.getAction() == Fighter.Action.PUNCH)
+                this.punchedFighters[first.getId()] = true;
+        }
+
+        for (Fighter fighter : this.fighters)
+            fighter.setPunchedTicks(this.punchedFighters[fighter.getId()] ? fighter.getPunchedTicks() + 1 : 0);
+
+        for (int i = 0; i < this.contacts.size(); i += 2) {
+            Fighter first = (Fighter) this.contacts.get(i).getUserData();
+            Fighter second = (Fighter) this.contacts.get(i + 1).getUserData();
+
+            handlePunchDamage(first, second);
+            handlePunchDamage(second, first);
+        }
+
+        for (Fighter fighter : this.fighters) {
+            if (this.landedPunchFighters[fighter.getId()])
+                fighter.setPunchIntervalTicks(PUNCH_DAMAGE_INTERVAL_TICKS);
+        }
+    }
+
+    private void handlePunchDamage(Fighter attacker, Fighter defender) {
+        if (attacker.getAction() == Fighter.Action.PUNCH && attacker.getPunchIntervalTicks() == 0) {
+            applyDamage(attacker, defender, Skill.PUNCH);
+            this.landedPunchFighters[attacker.getId()] = true;
+        }
+    }
+
+    /**
+     * Calcola l'istante in cui avvengono le collisioni player-skill e skill-skill individuate nel tick e le risolve
+     * in ordine cronologico. Un'abilità terminata da un impatto non partecipa agli impatti successivi; quelli
+     * successivi al raggiungimento del confine del percorso vengono ignorati.
+     */
+    private void handleProjectileImpacts() {
+        this.impacts.clear();
+
+        for (int i = 0; i < this.hits.size(); i += 2) {
+            Collider skillCollider = this.hits.get(i);
+            Collider characterCollider = this.hits.get(i + 1);
+            Projectile projectile = ((Fighter) skillCollider.getUserData()).getProjectile();
+            Fighter defender = (Fighter) characterCollider.getUserData();
+
+            double time = Hitbox.timeOfImpact(projectile.getPreviousHitbox(), projectile.getHitbox(),
+                    defender.getPreviousHurtbox(), defender.getHurtbox(), 0);
+            if (time != Hitbox.NO_IMPACT && time <= projectile.getArenaExitTime())
+                this.impacts.add(new Impact(time, skillCollider, characterCollider));
+        }
+
+        for (int i = 0; i < this.clashes.size(); i += 2) {
+            Collider collider1 = this.clashes.get(i);
+            Collider collider2 = this.clashes.get(i + 1);
+            Projectile projectile1 = ((Fighter) collider1.getUserData()).getProjectile();
+            Projectile projectile2 = ((Fighter) collider2.getUserData()).getProjectile();
+
+            // Il margine delle sfere di energia vale soltanto negli scontri tra sfere di energia
+            double marginX = projectile1.getSkillIndex() == Skill.ENERGYBALL &&
+                    projectile2.getSkillIndex() == Skill.ENERGYBALL ? Projectile.ENERGYBALL_CLASH_MARGIN : 0;
+
+            double time = Hitbox.timeOfImpact(projectile1.getPreviousHitbox(), projectile1.getHitbox(),
+                    projectile2.getPreviousHitbox(), projectile2.getHitbox(), marginX);
+            if (time != Hitbox.NO_IMPACT &&
+                    time <= projectile1.getArenaExitTime() && time <= projectile2.getArenaExitTime())
+                this.impacts.add(new Impact(time, collider1, collider2));
+        }
+
+        // L'ordinamento è stabile: a parità di istante gli impatti con i personaggi restano in testa
+        this.impacts.sort(Comparator.comparingDouble(Impact::getTime));
+
+        for (Impact impact : this.impacts) {
+            if (impact.getSecond().getType() == ColliderType.CHARACTER)
+                handleProjectileHit(impact.getFirst(), impact.getSecond());
+            else
+                handleProjectilesClash(impact.getFirst(), impact.getSecond());
+        }
+    }
+
+    private void handleProjectileHit(Collider skillCollider, Collider characterCollider) {
+        Fighter attacker = (Fighter) skillCollider.getUserData();
+        Fighter defender = (Fighter) characterCollider.getUserData();
+
+        if (!isActive(attacker, skillCollider))
+            return;
+
+        applyDamage(attacker, defender, attacker.getProjectile().getSkillIndex());
+        defender.setHitBySkill(true);
+        attacker.setProjectile(null);
+    }
+
+    /**
+     * Le abilità che si scontrano si annullano: due sfere di energia, due abilità speciali o due abilità finali
+     * terminano entrambe, mentre una sfera di energia che incontra un'abilità speciale o finale viene assorbita.
+     */
+    private void handleProjectilesClash(Collider collider1, Collider collider2) {
+        Fighter owner1 = (Fighter) collider1.getUserData();
+        Fighter owner2 = (Fighter) collider2.getUserData();
+
+        if (!isActive(owner1, collider1) || !isActive(owner2, collider2))
+            return;
+
+        int skill1 = owner1.getProjectile().getSkillIndex();
+        int skill2 = owner2.getProjectile().getSkillIndex();
+
+        if (skill1 == Skill.ENERGYBALL && skill2 == Skill.ENERGYBALL) {
+            owner1.setProjectile(null);
+            owner2.setProjectile(null);
+        } else if (skill1 == Skill.ENERGYBALL) {
+            owner1.setProjectile(null);
+        } else if (skill2 == Skill.ENERGYBALL) {
+            owner2.setProjectile(null);
+        } else if (skill1 == skill2) {
+            owner1.setProjectile(null);
+            owner2.setProjectile(null);
+        }
+    }
+
+    /**
+     * @return true se l'abilità associata al collider non è stata terminata da un impatto precedente.
+     */
+    private static boolean isActive(Fighter owner, Collider skillCollider) {
+        Projectile projectile = owner.getProjectile();
+        return projectile != null && projectile.getCollider() == skillCollider;
+    }
+
+    private void applyDamage(Fighter attacker, Fighter defender, int skillIndex) {
+        Character defenderCharacter = defender.getCharacter();
+        int damage = attacker.getCharacter().getSkills().get(skillIndex).getDamageDealt();
+
+        defenderCharacter.setActualHP(defenderCharacter.getActualHP() - damage);
+        attacker.addDamageDealt(skillIndex, damage);
+    }
+
+    private void checkWinner() {
+        if (this.fighter1.getCharacter().getActualHP() < 0)
+            this.winnerName = "player2";
+        else if (this.fighter2.getCharacter().getActualHP() < 0)
+            this.winnerName = "player1";
+    }
+
+
+    /**
+     * Collisione tra un'abilità e un personaggio o un'altra abilità, avvenuta nella frazione di tick indicata.
+     */
+    private static final class Impact {
+        private final double time;
+        private final Collider first;
+        private final Collider second;
+
+        private Impact(double time, Collider first, Collider second) {
+            this.time = time;
+            this.first = first;
+            this.second = second;
+        }
+
+        private double getTime() {
+            return time;
+        }
+
+        private Collider getFirst() {
+            return first;
+        }
+
+        private Collider getSecond() {
+            return second;
+        }
+    }
+
+
+    /**
+     * Restituisce l'istantanea pubblicata al termine dell'ultimo tick. A differenza dei {@link Fighter}, che vanno
+     * letti soltanto dal thread che fa avanzare la simulazione, l'istantanea può essere letta da qualunque thread.
+     * @return lo stato della partita al termine dell'ultimo tick.
+     */
+    public BattleState getState() {
+        return state;
+    }
+
+    public Fighter getFighter1() {
+        return fighter1;
+    }
+
+    public Fighter getFighter2() {
+        return fighter2;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getTickMillis() {
+        return tickNanos / 1_000_000L;
+    }
+
+    /**
+     * Le regole del combattimento non fanno uso di valori casuali: il seme identifica la partita, ad esempio nei
+     * {@link it.unimol.dragon_ball.app.replay.Replay}, e va condiviso dalle simulazioni che devono restare identiche.
+     * @return seme con cui è stata generata la simulazione, 0 se non specificato.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isFinished() {
+        return winnerName != null;
+    }
+
+    /**
+     * @return "player1" o "player2" a partita conclusa, null altrimenti.
+     */
+    public String getWinnerName() {
+        return winnerName;
+    }
+}
@@ -0,0 +1,207 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Salvataggio binario dell'intero stato di una {@link BattleSimulation}, da cui la simulazione può essere ripristinata
+ * tramite {@link BattleSimulation#restoreSnapshot(BattleSnapshot)}.
+ * Il salvataggio comprende il tick attuale, l'eventuale vincitore e, per entrambi i personaggi, posizioni, azione in
+ * corso, cooldown, statistiche e abilità lanciata; i rettangoli di collisione vengono ricalcolati durante il ripristino.
+ * Ogni campo viene scritto e letto esplicitamente, senza alcuna riflessione, in un buffer riutilizzabile: salvare e
+ * ripristinare una partita richiede pochi microsecondi, così da poterlo fare ad ogni tick.
+ * Il formato inizia con una firma e un numero di versione, seguiti dalla durata del tick e dai nomi dei personaggi,
+ * necessari a ricreare la partita da un salvataggio letto con {@link #fromByteArray(byte[])}. Un salvataggio letto
+ * viene verificato per intero prima di essere restituito, così che il ripristino non possa fallire a metà.
+ */
+public final class BattleSnapshot {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x44425353;  // "DBSS"
+    private static final int MAX_STATE_SIZE = 1024;
+    private static final int TICK_COUNT_OFFSET = 4 + 2 + 8;
+
+    private byte[] data;
+    private int length;
+    private int player1EvolutionNumber;
+    private int player2EvolutionNumber;
+
+    /**
+     * Genera un salvataggio vuoto, da riempire tramite {@link BattleSimulation#saveSnapshot(BattleSnapshot)}.
+     */
+    public BattleSnapshot() {
+        this.data = new byte[MAX_STATE_SIZE];
+        this.length = 0;
+    }
+
+    /**
+     * Legge un salvataggio ottenuto tramite {@link #toByteArray()}, verificandone l'intestazione, la lunghezza di ogni
+     * campo e i valori delle enumerazioni.
+     * @throws IOException se i byte non contengono un salvataggio valido in un formato supportato.
+     */
+    public static BattleSnapshot fromByteArray(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        if (bytes.length < TICK_COUNT_OFFSET + 8 || buffer.getInt() != MAGIC)
+            throw new IOException("Not a battle snapshot");
+
+        int version = buffer.getShort() & 0xFFFF;
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported snapshot version: " + version);
+
+        BattleSnapshot snapshot = new BattleSnapshot();
+        snapshot.data = bytes.clone();
+        snapshot.length = bytes.length;
+
+        try {
+            snapshot.validateBody();
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted battle snapshot", e);
+        }
+
+        return snapshot;
+    }
+
+    private void validateBody() throws IOException {
+        if (getTickMillis() <= 0 || getTickCount() < 0)
+            throw new IOException("Invalid snapshot tick");
+
+        ByteBuffer buffer = beginRead();
+        byte winner = buffer.get();
+        if (winner < 0 || winner > 2)
+            throw new IOException("Invalid snapshot winner");
+
+        player1EvolutionNumber = Fighter.validate(buffer);
+        player2EvolutionNumber = Fighter.validate(buffer);
+
+        if (buffer.hasRemaining())
+            throw new IOException("Unexpected data after the battle state");
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, length);
+    }
+
+    /**
+     * @return true se il salvataggio non è stato ancora riempito.
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int getSize() {
+        return length;
+    }
+
+    public long getTickMillis() {
+        assert !isEmpty();
+
+        return ByteBuffer.wrap(data).getLong(4 + 2);
+    }
+
+    public long getTickCount() {
+        assert !isEmpty();
+
+        return ByteBuffer.wrap(data).getLong(TICK_COUNT_OFFSET);
+    }
+
+    public String getPlayer1Name() {
+        ByteBuffer buffer = headerReader();
+        return readName(buffer);
+    }
+
+    public String getPlayer2Name() {
+        ByteBuffer buffer = headerReader();
+        readName(buffer);
+        return readName(buffer);
+    }
+
+    /**
+     * Prepara il buffer alla scrittura di un nuovo salvataggio, scrivendone l'intestazione.
+     * @param player1Name nome canonico del personaggio del primo giocatore, in UTF-8.
+     * @param player2Name nome canonico del personaggio del secondo giocatore, in UTF-8.
+     */
+    ByteBuffer beginWrite(long tickMillis, long tickCount, byte[] player1Name, byte[] player2Name) {
+        int requiredSize = MAX_STATE_SIZE + player1Name.length + player2Name.length;
+        if (data.length < requiredSize)
+            data = new byte[requiredSize];
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.putInt(MAGIC).putShort((short) FORMAT_VERSION).putLong(tickMillis).putLong(tickCount);
+        buffer.putShort((short) player1Name.length).put(player1Name);
+        buffer.putShort((short) player2Name.length).put(player2Name);
+
+        return buffer;
+    }
+
+    /**
+     * Conclude la scrittura del salvataggio.
+     * @param player1EvolutionNumber evoluzione del primo personaggio al momento del salvataggio.
+     * @param player2EvolutionNumber evoluzione del secondo personaggio al momento del salvataggio.
+     */
+    void endWrite(ByteBuffer buffer, int player1EvolutionNumber, int player2EvolutionNumber) {
+        this.length = buffer.position();
+        this.player1EvolutionNumber = player1EvolutionNumber;
+        this.player2EvolutionNumber = player2EvolutionNumber;
+    }
+
+    /**
+     * @return evoluzione del primo personaggio, letta senza decodificare lo stato della simulazione.
+     */
+    int getPlayer1EvolutionNumber() {
+        return player1EvolutionNumber;
+    }
+
+    /**
+     * @return evoluzione del secondo personaggio, letta senza decodificare lo stato della simulazione.
+     */
+    int getPlayer2EvolutionNumber() {
+        return player2EvolutionNumber;
+    }
+
+    /**
+     * @return un buffer posizionato subito dopo l'intestazione, da cui leggere lo stato della simulazione.
+     */
+    ByteBuffer beginRead() {
+        assert !isEmpty();
+
+        ByteBuffer buffer = headerReader();
+        skipName(buffer);
+        skipName(buffer);
+
+        return buffer;
+    }
+
+    private ByteBuffer headerReader() {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        buffer.position(TICK_COUNT_OFFSET + 8);
+
+        return buffer;
+    }
+
+    /**
+     * Oltrepassa i byte presi come parametro durante la verifica di un salvataggio.
+     * @throws IOException se il salvataggio termina prima.
+     */
+    static void skip(ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            throw new IOException("Truncated battle snapshot");
+
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private static void skipName(ByteBuffer buffer) {
+        int nameLength = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + nameLength);
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        int nameLength = buffer.getShort() & 0xFFFF;
+        String name = new String(buffer.array(), buffer.position(), nameLength, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + nameLength);
+
+        return name;
+    }
+}
@@ -0,0 +1,45 @@
+package it.unimol.dragon_ball.app.simulation;
+
+/**
+ * Istantanea immutabile di una {@link BattleSimulation} al termine di un tick.
+ * La simulazione modifica il proprio stato soltanto sul thread che la fa avanzare e, al termine di ogni tick, ne
+ * pubblica una nuova istantanea tramite un unico riferimento volatile. Chi disegna la partita da un altro thread legge
+ * quindi, senza alcun lock, uno stato coerente in cui tutti i valori appartengono allo stesso tick; ogni istantanea
+ * contiene anche le posizioni all'inizio del tick, necessarie all'interpolazione.
+ */
+public final class BattleState {
+    private final long tickCount;
+    private final String winnerName;
+    private final FighterState fighter1;
+    private final FighterState fighter2;
+
+    BattleState(long tickCount, String winnerName, Fighter fighter1, Fighter fighter2) {
+        this.tickCount = tickCount;
+        this.winnerName = winnerName;
+        this.fighter1 = new FighterState(fighter1);
+        this.fighter2 = new FighterState(fighter2);
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public boolean isFinished() {
+        return winnerName != null;
+    }
+
+    /**
+     * @return "player1" o "player2" a partita conclusa, null altrimenti.
+     */
+    public String getWinnerName() {
+        return winnerName;
+    }
+
+    public FighterState getFighter1() {
+        return fighter1;
+    }
+
+    public FighterState getFighter2() {
+        return fighter2;
+    }
+}
@@ -0,0 +1,362 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.collision.Collider;
+import it.unimol.dragon_ball.app.collision.ColliderType;
+import it.unimol.dragon_ball.app.collision.CollisionLayer;
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.Skill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Stato di un personaggio all'interno di una {@link BattleSimulation}.
+ * Oltre al {@link Character}, che ne mantiene le statistiche, comprende la posizione nell'arena, l'azione in corso,
+ * l'eventuale abilità lanciata e i cooldown delle abilità. La posizione coincide con il punto di ancoraggio dello
+ * sprite: un personaggio capovolto occupa l'area alla sinistra di tale punto.
+ * Lo stato viene modificato soltanto dalla simulazione; all'esterno del package è in sola lettura.
+ */
+public class Fighter {
+    public static final int WIDTH = 100;
+    public static final int HEIGHT = 100;
+    private static final int HURTBOX_INSET = 20;
+
+    /**
+     * Azione svolta dal personaggio durante l'ultimo tick.
+     */
+    public enum Action {
+        IDLE,
+        MOVE_FORWARD,
+        MOVE_BACK,
+        AURA,
+        PUNCH,
+        ENERGYBALL,
+        SPECIAL_SKILL,
+        ULTIMATE_SKILL
+    }
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int id;
+    private final Character character;
+    private final boolean isFlipped;
+
+    private double x;
+    private double y;
+    private double previousX;
+    private double previousY;
+
+    private Action action;
+    private long actionTicks;
+
+    private Projectile projectile;
+    private final long[] cooldownEndTicks;
+    private final long[] damageDealt;
+    private int punchIntervalTicks;
+
+    private long punchedTicks;
+    private boolean isHitBySkill;
+
+    private final Hitbox hurtbox;
+    private final Hitbox previousHurtbox;
+    private final Hitbox sweptHurtbox;
+    private final Collider collider;
+
+    Fighter(int id, Character character, double x, double y, boolean isFlipped) {
+        assert character != null;
+
+        this.id = id;
+        this.character = character;
+        this.isFlipped = isFlipped;
+        this.x = x;
+        this.y = y;
+
+        this.action = Action.IDLE;
+        this.actionTicks = 0;
+        this.cooldownEndTicks = new long[Skill.ULTIMATE_SKILL + 1];
+        this.damageDealt = new long[Skill.ULTIMATE_SKILL + 1];
+        this.punchIntervalTicks = 0;
+        this.punchedTicks = 0;
+        this.isHitBySkill = false;
+
+        this.hurtbox = new Hitbox();
+        this.previousHurtbox = new Hitbox();
+        this.sweptHurtbox = new Hitbox();
+        updateHurtbox();
+        savePreviousPosition();
+
+        // Il collider copre l'intero spostamento del tick, così da non perdere le abilità più veloci
+        this.collider = new Collider(ColliderType.CHARACTER, CollisionLayer.CHARACTERS,
+                CollisionLayer.maskOf(CollisionLayer.CHARACTERS, CollisionLayer.SKILLS), id, sweptHurtbox, this);
+    }
+
+    /**
+     * @return identificativo del personaggio all'interno della simulazione, pari alla sua posizione di partenza.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public Character getCharacter() {
+        return character;
+    }
+
+    public boolean isFlipped() {
+        return isFlipped;
+    }
+
+    /**
+     * @return 1 se il personaggio è rivolto verso destra, -1 se è rivolto verso sinistra.
+     */
+    public int getDirection() {
+        return isFlipped ? -1 : 1;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return ascissa del personaggio all'inizio del tick attuale.
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * @return ordinata del personaggio all'inizio del tick attuale.
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+        updateHurtbox();
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return numero di tick trascorsi dall'inizio dell'azione in corso.
+     */
+    public long getActionTicks() {
+        return actionTicks;
+    }
+
+    /**
+     * Registra l'azione svolta nel tick attuale. Proseguire l'azione del tick precedente ne fa avanzare la durata,
+     * mentre iniziarne una nuova la azzera e fa terminare la posa di danno subito da un'abilità.
+     */
+    void setAction(Action action) {
+        if (this.action == action) {
+            this.actionTicks++;
+            return;
+        }
+
+        this.action = action;
+        this.actionTicks = 0;
+        this.isHitBySkill = false;
+    }
+
+    /**
+     * @return l'abilità lanciata dal personaggio, o null se nessuna abilità è in corso.
+     */
+    public Projectile getProjectile() {
+        return projectile;
+    }
+
+    void setProjectile(Projectile projectile) {
+        this.projectile = projectile;
+    }
+
+    /**
+     * Un personaggio impegnato in un'abilità non può muoversi né avviare altre azioni finché questa non termina.
+     */
+    public boolean isBusy() {
+        return projectile != null;
+    }
+
+    public long getCooldownEndTick(int skillIndex) {
+        return cooldownEndTicks[skillIndex];
+    }
+
+    void setCooldownEndTick(int skillIndex, long cooldownEndTick) {
+        this.cooldownEndTicks[skillIndex] = cooldownEndTick;
+    }
+
+    /**
+     * @param skillIndex indice dell'abilità secondo le costanti di {@link Skill}.
+     * @return danno complessivamente inflitto all'avversario con l'abilità presa come parametro.
+     */
+    public long getDamageDealt(int skillIndex) {
+        return damageDealt[skillIndex];
+    }
+
+    void addDamageDealt(int skillIndex, int damage) {
+        this.damageDealt[skillIndex] = this.damageDealt[skillIndex] + damage;
+    }
+
+    int getPunchIntervalTicks() {
+        return punchIntervalTicks;
+    }
+
+    void setPunchIntervalTicks(int punchIntervalTicks) {
+        this.punchIntervalTicks = punchIntervalTicks;
+    }
+
+    /**
+     * @return numero di tick consecutivi in cui il personaggio è stato colpito dai pugni dell'avversario, 0 se non lo
+     * è nel tick attuale.
+     */
+    public long getPunchedTicks() {
+        return punchedTicks;
+    }
+
+    void setPunchedTicks(long punchedTicks) {
+        this.punchedTicks = punchedTicks;
+    }
+
+    /**
+     * @return true se il personaggio è stato colpito da un'abilità e non ha ancora cambiato azione.
+     */
+    public boolean isHitBySkill() {
+        return isHitBySkill;
+    }
+
+    void setHitBySkill(boolean hitBySkill) {
+        isHitBySkill = hitBySkill;
+    }
+
+    public Hitbox getHurtbox() {
+        return hurtbox;
+    }
+
+    /**
+     * @return il rettangolo di collisione del personaggio all'inizio del tick attuale.
+     */
+    public Hitbox getPreviousHurtbox() {
+        return previousHurtbox;
+    }
+
+    /**
+     * Conserva la posizione e il rettangolo di collisione attuali come punto di partenza dello spostamento del tick
+     * successivo.
+     */
+    void savePreviousPosition() {
+        previousX = x;
+        previousY = y;
+        previousHurtbox.set(hurtbox);
+        sweptHurtbox.set(hurtbox);
+    }
+
+    Collider getCollider() {
+        return collider;
+    }
+
+    /**
+     * Scrive lo stato del personaggio, statistiche e abilità lanciata comprese, nel formato di {@link BattleSnapshot}.
+     * I rettangoli di collisione non vengono scritti, poiché dipendono soltanto dalle posizioni.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putDouble(previousX).putDouble(previousY).putDouble(x).putDouble(y);
+        buffer.put((byte) action.ordinal()).putLong(actionTicks);
+
+        for (int i = 0; i < cooldownEndTicks.length; i++)
+            buffer.putLong(cooldownEndTicks[i]).putLong(damageDealt[i]);
+
+        buffer.putInt(punchIntervalTicks).putLong(punchedTicks).put((byte) (isHitBySkill ? 1 : 0));
+
+        buffer.putInt(character.getActualEvolutionNumber())
+                .putInt(character.getActualMaxHp()).putInt(character.getActualHP())
+                .putInt(character.getActualMaxMp()).putInt(character.getActualMP())
+                .putInt(character.getAtk()).putInt(character.getMaxAura()).putInt(character.getAura());
+
+        if (projectile == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1);
+            projectile.writeTo(buffer);
+        }
+    }
+
+    /**
+     * Ripristina lo stato del personaggio scritto da {@link #writeTo(ByteBuffer)}, ricalcolando i rettangoli di
+     * collisione a partire dalle posizioni.
+     */
+    void readFrom(ByteBuffer buffer) {
+        double previousX = buffer.getDouble();
+        double previousY = buffer.getDouble();
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+
+        setPosition(previousX, previousY);
+        savePreviousPosition();
+        setPosition(x, y);
+
+        action = ACTIONS[buffer.get()];
+        actionTicks = buffer.getLong();
+
+        for (int i = 0; i < cooldownEndTicks.length; i++) {
+            cooldownEndTicks[i] = buffer.getLong();
+            damageDealt[i] = buffer.getLong();
+        }
+
+        punchIntervalTicks = buffer.getInt();
+        punchedTicks = buffer.getLong();
+        isHitBySkill = buffer.get() != 0;
+
+        character.restoreStats(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getInt());
+
+        projectile = buffer.get() != 0 ? Projectile.readFrom(buffer, this) : null;
+    }
+
+    /**
+     * Verifica, senza modificare alcuno stato, che il buffer contenga un personaggio scritto da
+     * {@link #writeTo(ByteBuffer)} e lo oltrepassa.
+     * @return evoluzione del personaggio.
+     * @throws IOException se un campo è troncato o ha un valore non valido.
+     */
+    static int validate(ByteBuffer buffer) throws IOException {
+        BattleSnapshot.skip(buffer, 4 * Double.BYTES);
+
+        byte action = buffer.get();
+        if (action < 0 || action >= ACTIONS.length || buffer.getLong() < 0)
+            throw new IOException("Invalid fighter action");
+
+        BattleSnapshot.skip(buffer, (Skill.ULTIMATE_SKILL + 1) * 2 * Long.BYTES);
+
+        if (buffer.getInt() < 0 || buffer.getLong() < 0)
+            throw new IOException("Invalid fighter punch ticks");
+
+        byte isHitBySkill = buffer.get();
+        int evolutionNumber = buffer.getInt();
+        if ((isHitBySkill != 0 && isHitBySkill != 1) || evolutionNumber < 0)
+            throw new IOException("Invalid fighter state");
+
+        BattleSnapshot.skip(buffer, 7 * Integer.BYTES);
+
+        byte hasProjectile = buffer.get();
+        if (hasProjectile == 1)
+            Projectile.validate(buffer);
+        else if (hasProjectile != 0)
+            throw new IOException("Invalid fighter projectile");
+
+        return evolutionNumber;
+    }
+
+    private void updateHurtbox() {
+        double left = isFlipped ? x - WIDTH : x;
+        hurtbox.set(left, y, WIDTH, HEIGHT);
+        hurtbox.grow(-HURTBOX_INSET, -HURTBOX_INSET);  // In order to best fit with the image
+        sweptHurtbox.setUnion(previousHurtbox, hurtbox);
+    }
+}
@@ -0,0 +1,144 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.Character;
+
+/**
+ * Istantanea immutabile di un {@link Fighter} al termine di un tick, parte di un {@link BattleState}.
+ * Comprende sia la posizione e l'azione del personaggio che le statistiche del suo {@link Character} necessarie a
+ * disegnarlo. Oltre alla posizione attuale conserva quella all'inizio del tick, così da poterne interpolare lo
+ * spostamento.
+ */
+public final class FighterState {
+    private final int id;
+    private final boolean isFlipped;
+    private final double x;
+    private final double y;
+    private final double previousX;
+    private final double previousY;
+
+    private final Fighter.Action action;
+    private final long actionTicks;
+    private final long punchedTicks;
+    private final boolean isHitBySkill;
+    private final ProjectileState projectile;
+
+    private final int actualHP;
+    private final int actualMP;
+    private final int actualMaxMp;
+    private final int aura;
+    private final int maxAura;
+    private final int actualEvolutionNumber;
+    private final String actualEvolutionName;
+
+    FighterState(Fighter fighter) {
+        Character character = fighter.getCharacter();
+
+        this.id = fighter.getId();
+        this.isFlipped = fighter.isFlipped();
+        this.x = fighter.getX();
+        this.y = fighter.getY();
+        this.previousX = fighter.getPreviousX();
+        this.previousY = fighter.getPreviousY();
+
+        this.action = fighter.getAction();
+        this.actionTicks = fighter.getActionTicks();
+        this.punchedTicks = fighter.getPunchedTicks();
+        this.isHitBySkill = fighter.isHitBySkill();
+        this.projectile = fighter.getProjectile() != null ? new ProjectileState(fighter.getProjectile()) : null;
+
+        this.actualHP = character.getActualHP();
+        this.actualMP = character.getActualMP();
+        this.actualMaxMp = character.getActualMaxMp();
+        this.aura = character.getAura();
+        this.maxAura = character.getMaxAura();
+        this.actualEvolutionNumber = character.getActualEvolutionNumber();
+        this.actualEvolutionName = character.getActualEvolutionName();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isFlipped() {
+        return isFlipped;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return ascissa del personaggio all'inizio del tick.
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * @return ordinata del personaggio all'inizio del tick.
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    public Fighter.Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return numero di tick trascorsi dall'inizio dell'azione in corso.
+     */
+    public long getActionTicks() {
+        return actionTicks;
+    }
+
+    /**
+     * @return numero di tick consecutivi in cui il personaggio è stato colpito dai pugni dell'avversario.
+     */
+    public long getPunchedTicks() {
+        return punchedTicks;
+    }
+
+    public boolean isHitBySkill() {
+        return isHitBySkill;
+    }
+
+    /**
+     * @return l'abilità lanciata dal personaggio, o null se nessuna abilità è in corso.
+     */
+    public ProjectileState getProjectile() {
+        return projectile;
+    }
+
+    public int getActualHP() {
+        return actualHP;
+    }
+
+    public int getActualMP() {
+        return actualMP;
+    }
+
+    public int getActualMaxMp() {
+        return actualMaxMp;
+    }
+
+    public int getAura() {
+        return aura;
+    }
+
+    public int getMaxAura() {
+        return maxAura;
+    }
+
+    public int getActualEvolutionNumber() {
+        return actualEvolutionNumber;
+    }
+
+    public String getActualEvolutionName() {
+        return actualEvolutionName;
+    }
+}
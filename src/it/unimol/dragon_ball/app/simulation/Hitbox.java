@@ -0,0 +1,175 @@
+package it.unimol.dragon_ball.app.simulation;
+
+/**
+ * Rettangolo di collisione allineato agli assi, espresso in pixel dell'arena.
+ * A differenza di {@link java.awt.Rectangle} utilizza coordinate reali e non dipende dalla libreria grafica; può
+ * essere modificato soltanto dalla simulazione, mentre all'esterno del package è in sola lettura.
+ */
+public class Hitbox {
+    /**
+     * Valore restituito da {@link #timeOfImpact(Hitbox, Hitbox, Hitbox, Hitbox, double)} quando i rettangoli non si
+     * sovrappongono durante il tick.
+     */
+    public static final double NO_IMPACT = -1;
+
+    private double x;
+    private double y;
+    private double width;
+    private double height;
+
+    public Hitbox() {
+        clear();
+    }
+
+    public Hitbox(double x, double y, double width, double height) {
+        set(x, y, width, height);
+    }
+
+    void set(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    void set(Hitbox other) {
+        set(other.x, other.y, other.width, other.height);
+    }
+
+    /**
+     * Imposta il più piccolo rettangolo che contiene entrambi i rettangoli presi come parametro. Un rettangolo vuoto
+     * non contribuisce all'unione.
+     */
+    void setUnion(Hitbox first, Hitbox second) {
+        if (first.isEmpty()) {
+            set(second);
+        } else if (second.isEmpty()) {
+            set(first);
+        } else {
+            double minX = Math.min(first.x, second.x);
+            double minY = Math.min(first.y, second.y);
+            double maxX = Math.max(first.x + first.width, second.x + second.width);
+            double maxY = Math.max(first.y + first.height, second.y + second.height);
+            set(minX, minY, maxX - minX, maxY - minY);
+        }
+    }
+
+    /**
+     * Imposta il rettangolo compreso orizzontalmente tra le due ascisse prese come parametro, in qualunque ordine.
+     */
+    void setSpan(double fromX, double toX, double y, double height) {
+        set(Math.min(fromX, toX), y, Math.abs(toX - fromX), height);
+    }
+
+    /**
+     * Espande il rettangolo di <code>dx</code> su entrambi i lati orizzontali e di <code>dy</code> su entrambi i lati
+     * verticali. Valori negativi restringono il rettangolo.
+     */
+    void grow(double dx, double dy) {
+        this.x = this.x - dx;
+        this.y = this.y - dy;
+        this.width = this.width + 2 * dx;
+        this.height = this.height + 2 * dy;
+    }
+
+    /**
+     * Svuota il rettangolo, che da quel momento non interseca più alcun altro rettangolo.
+     */
+    void clear() {
+        set(0, 0, 0, 0);
+    }
+
+    public boolean isEmpty() {
+        return width <= 0 || height <= 0;
+    }
+
+    public boolean intersects(Hitbox other) {
+        return intersects(other, 0);
+    }
+
+    /**
+     * Verifica l'intersezione tra i due rettangoli, entrambi espansi orizzontalmente del margine preso come parametro.
+     * I rettangoli vuoti non intersecano mai.
+     * @param other rettangolo da confrontare.
+     * @param marginX espansione orizzontale applicata ad entrambi i lati di entrambi i rettangoli.
+     * @return true se i rettangoli espansi si sovrappongono.
+     */
+    public boolean intersects(Hitbox other, double marginX) {
+        if (this.isEmpty() || other.isEmpty())
+            return false;
+
+        return this.x - marginX < other.x + other.width + marginX && other.x - marginX < this.x + this.width + marginX &&
+                this.y < other.y + other.height && other.y < this.y + this.height;
+    }
+
+    /**
+     * Calcola l'istante del tick in cui due rettangoli in movimento iniziano a sovrapporsi (swept AABB).
+     * Durante il tick ciascun lato di entrambi i rettangoli si sposta in modo lineare dalla posizione iniziale a
+     * quella finale: oltre alle traslazioni sono quindi gestiti anche i rettangoli che si allungano, come il raggio
+     * dell'abilità speciale. In questo modo una collisione viene rilevata anche quando lo spostamento compiuto in un
+     * tick supera la dimensione dei rettangoli. Un rettangolo iniziale vuoto viene considerato fermo nella posizione
+     * finale.
+     * @param from rettangolo del primo corpo all'inizio del tick.
+     * @param to rettangolo del primo corpo al termine del tick.
+     * @param otherFrom rettangolo del secondo corpo all'inizio del tick.
+     * @param otherTo rettangolo del secondo corpo al termine del tick.
+     * @param marginX espansione orizzontale applicata ad entrambi i lati di entrambi i rettangoli, come in
+     *                {@link #intersects(Hitbox, double)}.
+     * @return frazione del tick, compresa tra 0 e 1, in cui inizia la sovrapposizione, o {@link #NO_IMPACT}.
+     */
+    public static double timeOfImpact(Hitbox from, Hitbox to, Hitbox otherFrom, Hitbox otherTo, double marginX) {
+        if (to.isEmpty() || otherTo.isEmpty())
+            return NO_IMPACT;
+        if (from.isEmpty())
+            from = to;
+        if (otherFrom.isEmpty())
+            otherFrom = otherTo;
+
+        // Ogni condizione di sovrapposizione è una funzione lineare del tempo, positiva quando è soddisfatta
+        double[] interval = {0, 1};
+        boolean isOverlapping =
+                restrictInterval(interval, otherFrom.x + otherFrom.width - from.x + 2 * marginX,
+                        otherTo.x + otherTo.width - to.x + 2 * marginX) &&
+                restrictInterval(interval, from.x + from.width - otherFrom.x + 2 * marginX,
+                        to.x + to.width - otherTo.x + 2 * marginX) &&
+                restrictInterval(interval, otherFrom.y + otherFrom.height - from.y,
+                        otherTo.y + otherTo.height - to.y) &&
+                restrictInterval(interval, from.y + from.height - otherFrom.y,
+                        to.y + to.height - otherTo.y);
+
+        return isOverlapping ? interval[0] : NO_IMPACT;
+    }
+
+    /**
+     * Restringe l'intervallo di tempo a quello in cui la funzione lineare, che vale <code>start</code> all'inizio del
+     * tick e <code>end</code> al suo termine, è positiva.
+     * @return false se l'intervallo risultante è vuoto.
+     */
+    private static boolean restrictInterval(double[] interval, double start, double end) {
+        if (start <= 0 && end <= 0)
+            return false;
+
+        if (start <= 0)
+            interval[0] = Math.max(interval[0], start / (start - end));
+        else if (end <= 0)
+            interval[1] = Math.min(interval[1], start / (start - end));
+
+        return interval[0] < interval[1];
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,18 @@
+package it.unimol.dragon_ball.app.simulation;
+
+/**
+ * Sorgente degli input di un giocatore non controllato da tastiera.
+ * Ad ogni tick la strategia osserva lo stato della {@link BattleSimulation} e decide i comandi da premere per il
+ * personaggio che controlla.
+ */
+public interface InputStrategy {
+
+    /**
+     * Decide i comandi da premere nel prossimo tick della simulazione.
+     * @param simulation simulazione in corso, in sola lettura.
+     * @param self personaggio controllato dalla strategia.
+     * @param opponent personaggio avversario.
+     * @return comandi premuti dal giocatore nel prossimo tick.
+     */
+    PlayerInput nextInput(BattleSimulation simulation, Fighter self, Fighter opponent);
+}
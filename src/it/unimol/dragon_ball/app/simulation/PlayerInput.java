@@ -0,0 +1,85 @@
+package it.unimol.dragon_ball.app.simulation;
+
+/**
+ * Insieme dei comandi premuti da un giocatore durante un tick di simulazione.
+ * Ogni comando corrisponde ad un bit: l'intero stato è quindi rappresentabile da un singolo intero, e tutte le
+ * possibili combinazioni sono istanziate una sola volta e condivise, così che leggere l'input ad ogni tick non
+ * generi nuovi oggetti.
+ */
+public final class PlayerInput {
+    public static final int UP = 0;
+    public static final int LEFT = 1;
+    public static final int DOWN = 2;
+    public static final int RIGHT = 3;
+    public static final int AURA = 4;
+    public static final int PUNCH = 5;
+    public static final int ENERGYBALL = 6;
+    public static final int SPECIAL_SKILL = 7;
+    public static final int ULTIMATE_SKILL = 8;
+    public static final int BUTTONS_NUMBER = 9;
+
+    private static final int BITS_MASK = (1 << BUTTONS_NUMBER) - 1;
+    private static final PlayerInput[] INSTANCES = new PlayerInput[1 << BUTTONS_NUMBER];
+
+    static {
+        for (int bits = 0; bits < INSTANCES.length; bits++)
+            INSTANCES[bits] = new PlayerInput(bits);
+    }
+
+    public static final PlayerInput NONE = INSTANCES[0];
+
+    private final int bits;
+
+    private PlayerInput(int bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Restituisce l'input corrispondente ai bit presi come parametro.
+     * @param bits un bit per ciascun comando premuto, secondo gli indici dichiarati in questa classe.
+     * @return l'input corrispondente.
+     */
+    public static PlayerInput fromBits(int bits) {
+        assert (bits & ~BITS_MASK) == 0;
+
+        return INSTANCES[bits & BITS_MASK];
+    }
+
+    /**
+     * Restituisce l'input in cui risultano premuti soltanto i comandi presi come parametro.
+     * @param buttons indici dei comandi premuti.
+     * @return l'input corrispondente.
+     */
+    public static PlayerInput of(int... buttons) {
+        PlayerInput input = NONE;
+        for (int button : buttons)
+            input = input.with(button);
+
+        return input;
+    }
+
+    /**
+     * @param button indice del comando da premere.
+     * @return l'input attuale a cui si aggiunge il comando preso come parametro.
+     */
+    public PlayerInput with(int button) {
+        assert button >= 0 && button < BUTTONS_NUMBER;
+
+        return INSTANCES[this.bits | (1 << button)];
+    }
+
+    public boolean isPressed(int button) {
+        assert button >= 0 && button < BUTTONS_NUMBER;
+
+        return (this.bits & (1 << button)) != 0;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerInput{" + Integer.toBinaryString(bits) + "}";
+    }
+}
@@ -0,0 +1,370 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.collision.Collider;
+import it.unimol.dragon_ball.app.collision.ColliderType;
+import it.unimol.dragon_ball.app.collision.CollisionLayer;
+import it.unimol.dragon_ball.app.logic.Skill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Abilità a distanza lanciata da un {@link Fighter}: sfera di energia, abilità speciale o abilità finale.
+ * Un'abilità attraversa due fasi: durante il caricamento il personaggio prepara il colpo e l'abilità non può colpire;
+ * terminato il caricamento l'abilità viene lanciata e si sposta nell'arena finché non colpisce qualcosa o non ne
+ * raggiunge il confine.
+ * Le velocità sono espresse in pixel al secondo, così che il percorso non dipenda dalla durata del tick. Le collisioni
+ * considerano l'intero tratto percorso durante il tick, compreso tra il rettangolo iniziale e quello finale.
+ */
+public class Projectile {
+    /* ENERGYBALL */
+    static final double ENERGYBALL_WINDUP_SECONDS = 0.6;
+    static final double ENERGYBALL_OFFSET_X = 30;
+    static final double ENERGYBALL_SPEED = 1250;                // 50 pixel ogni 40 millisecondi
+    static final double ENERGYBALL_HITBOX_INSET = 40;
+    static final double ENERGYBALL_MIN_X = 20;
+    static final double ENERGYBALL_MAX_X = 1200;
+    static final double ENERGYBALL_CLASH_MARGIN = 10;           // Rende possibile l'intersezione tra due energyball
+
+    /* SPECIAL SKILL */
+    static final double SPECIAL_SKILL_WINDUP_SECONDS = 1.4;
+    static final double SPECIAL_SKILL_HEAD_OFFSET = 45;
+    static final double SPECIAL_SKILL_SPEED = 310;              // 31 pixel ogni 100 millisecondi
+    static final double SPECIAL_SKILL_MIN_X = 20;
+    static final double SPECIAL_SKILL_MAX_X = 1200;
+
+    /* ULTIMATE SKILL */
+    static final double ULTIMATE_SKILL_WINDUP_SECONDS = 1.1;
+    static final double ULTIMATE_SKILL_OFFSET_Y = -100;
+    static final double ULTIMATE_SKILL_SPEED_X = 750;           // 75 pixel ogni 100 millisecondi
+    static final double ULTIMATE_SKILL_SPEED_Y = 500;           // 50 pixel ogni 100 millisecondi
+    static final double ULTIMATE_SKILL_MAX_Y = 530;
+
+    public enum Phase {
+        CHARGING,
+        TRAVELLING
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final int skillIndex;
+    private final int direction;
+    private final long castTick;
+    private final long windupTicks;
+
+    private Phase phase;
+    private long ticks;
+
+    private double x;
+    private double y;
+    private double previousX;
+    private double previousY;
+    private final double originX;
+
+    private final Hitbox hitbox;
+    private final Hitbox previousHitbox;
+    private final Hitbox sweptHitbox;
+    private final Collider collider;
+
+    /**
+     * Genera una nuova abilità in fase di caricamento, posizionata rispetto al personaggio che la lancia.
+     * @param skillIndex indice dell'abilità secondo le costanti di {@link Skill}.
+     * @param owner personaggio che lancia l'abilità.
+     * @param castTick tick in cui l'abilità viene lanciata.
+     * @param windupTicks durata del caricamento, espressa in tick.
+     */
+    Projectile(int skillIndex, Fighter owner, long castTick, long windupTicks) {
+        this(skillIndex, owner, castTick, windupTicks, initialOriginX(skillIndex, owner));
+
+        if (skillIndex == Skill.ENERGYBALL) {
+            this.x = this.originX;
+            this.y = owner.getY();
+        } else if (skillIndex == Skill.SPECIAL_SKILL) {
+            this.x = this.originX + direction * SPECIAL_SKILL_HEAD_OFFSET;
+            this.y = owner.getY();
+        } else {
+            this.x = this.originX;
+            this.y = owner.getY() + ULTIMATE_SKILL_OFFSET_Y;
+        }
+
+        this.previousX = this.x;
+        this.previousY = this.y;
+    }
+
+    private Projectile(int skillIndex, Fighter owner, long castTick, long windupTicks, double originX) {
+        assert skillIndex == Skill.ENERGYBALL || skillIndex == Skill.SPECIAL_SKILL || skillIndex == Skill.ULTIMATE_SKILL;
+
+        this.skillIndex = skillIndex;
+        this.direction = owner.getDirection();
+        this.castTick = castTick;
+        this.windupTicks = windupTicks;
+        this.phase = Phase.CHARGING;
+        this.ticks = 0;
+        this.originX = originX;
+
+        this.hitbox = new Hitbox();
+        this.previousHitbox = new Hitbox();
+        this.sweptHitbox = new Hitbox();
+
+        // Il collider appartiene al personaggio che lancia l'abilità, così da non colpirlo
+        ColliderType colliderType = skillIndex == Skill.SPECIAL_SKILL ? ColliderType.BEAM : ColliderType.PROJECTILE;
+        double marginX = skillIndex == Skill.ENERGYBALL ? ENERGYBALL_CLASH_MARGIN : 0;
+        this.collider = new Collider(colliderType, CollisionLayer.SKILLS,
+                CollisionLayer.maskOf(CollisionLayer.CHARACTERS, CollisionLayer.SKILLS), owner.getId(), sweptHitbox,
+                marginX, owner);
+    }
+
+    private static double initialOriginX(int skillIndex, Fighter owner) {
+        if (skillIndex == Skill.ENERGYBALL)
+            return owner.getX() + owner.getDirection() * ENERGYBALL_OFFSET_X;
+        else if (skillIndex == Skill.SPECIAL_SKILL)
+            // Il raggio parte dal lato del personaggio rivolto verso l'avversario
+            return owner.getX() + owner.getDirection() * Fighter.WIDTH;
+        else
+            return owner.getX();
+    }
+
+    /**
+     * Scrive lo stato dell'abilità nel formato di {@link BattleSnapshot}.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) skillIndex).putLong(castTick).putLong(windupTicks);
+        buffer.put((byte) phase.ordinal()).putLong(ticks);
+        buffer.putDouble(originX).putDouble(previousX).putDouble(previousY).putDouble(x).putDouble(y);
+    }
+
+    /**
+     * Ricostruisce l'abilità scritta da {@link #writeTo(ByteBuffer)}. Tra un tick e l'altro un'abilità lanciata si è
+     * sempre già spostata almeno una volta, quindi i suoi rettangoli di collisione dipendono soltanto dalle posizioni.
+     * @param owner personaggio che ha lanciato l'abilità.
+     */
+    static Projectile readFrom(ByteBuffer buffer, Fighter owner) {
+        int skillIndex = buffer.get();
+        long castTick = buffer.getLong();
+        long windupTicks = buffer.getLong();
+        Phase phase = PHASES[buffer.get()];
+        long ticks = buffer.getLong();
+
+        Projectile projectile = new Projectile(skillIndex, owner, castTick, windupTicks, buffer.getDouble());
+        projectile.phase = phase;
+        projectile.ticks = ticks;
+        projectile.previousX = buffer.getDouble();
+        projectile.previousY = buffer.getDouble();
+        projectile.x = buffer.getDouble();
+        projectile.y = buffer.getDouble();
+
+        if (projectile.isTravelling()) {
+            double x = projectile.x;
+            double y = projectile.y;
+
+            projectile.x = projectile.previousX;
+            projectile.y = projectile.previousY;
+            projectile.updateHitbox();
+            projectile.previousHitbox.set(projectile.hitbox);
+
+            projectile.x = x;
+            projectile.y = y;
+            projectile.updateHitbox();
+        }
+
+        return projectile;
+    }
+
+    /**
+     * Verifica, senza modificare alcuno stato, che il buffer contenga un'abilità scritta da
+     * {@link #writeTo(ByteBuffer)} e la oltrepassa.
+     * @throws IOException se un campo è troncato o ha un valore non valido.
+     */
+    static void validate(ByteBuffer buffer) throws IOException {
+        byte skillIndex = buffer.get();
+        if (skillIndex != Skill.ENERGYBALL && skillIndex != Skill.SPECIAL_SKILL && skillIndex != Skill.ULTIMATE_SKILL)
+            throw new IOException("Invalid projectile skill");
+
+        BattleSnapshot.skip(buffer, 2 * Long.BYTES);
+
+        byte phase = buffer.get();
+        if (phase < 0 || phase >= PHASES.length || buffer.getLong() < 0)
+            throw new IOException("Invalid projectile phase");
+
+        BattleSnapshot.skip(buffer, 5 * Double.BYTES);
+    }
+
+    static double getWindupSeconds(int skillIndex) {
+        if (skillIndex == Skill.ENERGYBALL)
+            return ENERGYBALL_WINDUP_SECONDS;
+        else if (skillIndex == Skill.SPECIAL_SKILL)
+            return SPECIAL_SKILL_WINDUP_SECONDS;
+        else
+            return ULTIMATE_SKILL_WINDUP_SECONDS;
+    }
+
+    void tick() {
+        this.ticks++;
+    }
+
+    boolean isCharged() {
+        return this.phase == Phase.CHARGING && this.ticks >= this.windupTicks;
+    }
+
+    void launch() {
+        this.phase = Phase.TRAVELLING;
+        updateHitbox();
+    }
+
+    /**
+     * Sposta l'abilità lanciata lungo il suo percorso per la durata di un tick. La posizione di partenza viene
+     * conservata, così che le collisioni possano considerare l'intero tratto percorso.
+     * @param tickSeconds durata del tick espressa in secondi.
+     */
+    void move(double tickSeconds) {
+        assert this.phase == Phase.TRAVELLING;
+
+        this.previousX = this.x;
+        this.previousY = this.y;
+        this.previousHitbox.set(this.hitbox);
+
+        if (this.skillIndex == Skill.ENERGYBALL) {
+            this.x = this.x + direction * ENERGYBALL_SPEED * tickSeconds;
+        } else if (this.skillIndex == Skill.SPECIAL_SKILL) {
+            this.x = this.x + direction * SPECIAL_SKILL_SPEED * tickSeconds;
+        } else {
+            this.x = this.x + direction * ULTIMATE_SKILL_SPEED_X * tickSeconds;
+            this.y = this.y + ULTIMATE_SKILL_SPEED_Y * tickSeconds;
+        }
+
+        updateHitbox();
+    }
+
+    /**
+     * @return true se l'abilità ha raggiunto il confine del proprio percorso e deve terminare.
+     */
+    boolean isOutOfArena() {
+        if (this.skillIndex == Skill.ENERGYBALL)
+            return direction > 0 ? this.x >= ENERGYBALL_MAX_X : this.x <= ENERGYBALL_MIN_X;
+        else if (this.skillIndex == Skill.SPECIAL_SKILL)
+            return direction > 0 ? this.x >= SPECIAL_SKILL_MAX_X : this.x <= SPECIAL_SKILL_MIN_X;
+        else
+            return this.y >= ULTIMATE_SKILL_MAX_Y;
+    }
+
+    /**
+     * @return frazione dell'ultimo tick, compresa tra 0 e 1, in cui l'abilità ha raggiunto il confine del proprio
+     * percorso; 1 se l'abilità non lo ha raggiunto. Le collisioni successive a tale istante non vanno considerate.
+     */
+    double getArenaExitTime() {
+        if (!isOutOfArena())
+            return 1;
+
+        if (this.skillIndex == Skill.ENERGYBALL)
+            return crossingTime(this.previousX, this.x, direction > 0 ? ENERGYBALL_MAX_X : ENERGYBALL_MIN_X);
+        else if (this.skillIndex == Skill.SPECIAL_SKILL)
+            return crossingTime(this.previousX, this.x, direction > 0 ? SPECIAL_SKILL_MAX_X : SPECIAL_SKILL_MIN_X);
+        else
+            return crossingTime(this.previousY, this.y, ULTIMATE_SKILL_MAX_Y);
+    }
+
+    private static double crossingTime(double from, double to, double limit) {
+        if (from == to)
+            return 0;
+
+        return Math.max(0, Math.min(1, (limit - from) / (to - from)));
+    }
+
+    private void updateHitbox() {
+        double left = direction > 0 ? this.x : this.x - Fighter.WIDTH;
+
+        if (this.skillIndex == Skill.ENERGYBALL) {
+            this.hitbox.set(left, this.y, Fighter.WIDTH, Fighter.HEIGHT);
+            this.hitbox.grow(-ENERGYBALL_HITBOX_INSET, -ENERGYBALL_HITBOX_INSET);  // In order to best fit with the image
+        } else if (this.skillIndex == Skill.SPECIAL_SKILL) {
+            // Il raggio copre l'area che va dal personaggio fino alla testa
+            this.hitbox.setSpan(this.originX, this.x + direction * Fighter.WIDTH, this.y, Fighter.HEIGHT);
+        } else {
+            this.hitbox.set(left, this.y, Fighter.WIDTH, Fighter.HEIGHT);
+        }
+
+        this.sweptHitbox.setUnion(this.previousHitbox, this.hitbox);
+    }
+
+    public int getSkillIndex() {
+        return skillIndex;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public long getCastTick() {
+        return castTick;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public boolean isTravelling() {
+        return phase == Phase.TRAVELLING;
+    }
+
+    /**
+     * @return numero di tick trascorsi dal lancio dell'abilità, caricamento compreso.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getWindupTicks() {
+        return windupTicks;
+    }
+
+    /**
+     * @return ascissa del punto di ancoraggio dello sprite dell'abilità; per l'abilità speciale, quella della testa.
+     */
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return ascissa dell'abilità all'inizio dell'ultimo spostamento.
+     */
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * @return ordinata dell'abilità all'inizio dell'ultimo spostamento.
+     */
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    /**
+     * @return ascissa da cui l'abilità è partita; per l'abilità speciale, quella della coda del raggio.
+     */
+    public double getOriginX() {
+        return originX;
+    }
+
+    /**
+     * @return il rettangolo di collisione dell'abilità, vuoto durante il caricamento.
+     */
+    public Hitbox getHitbox() {
+        return hitbox;
+    }
+
+    /**
+     * @return il rettangolo di collisione dell'abilità all'inizio dell'ultimo spostamento, vuoto se l'abilità è stata
+     * lanciata nel tick attuale e non si è ancora spostata.
+     */
+    public Hitbox getPreviousHitbox() {
+        return previousHitbox;
+    }
+
+    Collider getCollider() {
+        return collider;
+    }
+}
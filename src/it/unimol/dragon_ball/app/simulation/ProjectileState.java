@@ -0,0 +1,90 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.Skill;
+
+/**
+ * Istantanea immutabile di un {@link Projectile} al termine di un tick, parte di un {@link BattleState}.
+ * Oltre alla posizione attuale conserva quella all'inizio del tick, così da poterne interpolare lo spostamento.
+ */
+public final class ProjectileState {
+    private final long castTick;
+    private final int skillIndex;
+    private final int direction;
+    private final Projectile.Phase phase;
+    private final long ticks;
+    private final double x;
+    private final double y;
+    private final double previousX;
+    private final double previousY;
+    private final double originX;
+
+    ProjectileState(Projectile projectile) {
+        this.castTick = projectile.getCastTick();
+        this.skillIndex = projectile.getSkillIndex();
+        this.direction = projectile.getDirection();
+        this.phase = projectile.getPhase();
+        this.ticks = projectile.getTicks();
+        this.x = projectile.getX();
+        this.y = projectile.getY();
+        this.previousX = projectile.getPreviousX();
+        this.previousY = projectile.getPreviousY();
+        this.originX = projectile.getOriginX();
+    }
+
+    /**
+     * @return tick in cui l'abilità è stata lanciata; distingue le abilità lanciate in momenti diversi dallo stesso
+     * personaggio.
+     */
+    public long getCastTick() {
+        return castTick;
+    }
+
+    /**
+     * @return indice dell'abilità secondo le costanti di {@link Skill}.
+     */
+    public int getSkillIndex() {
+        return skillIndex;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public Projectile.Phase getPhase() {
+        return phase;
+    }
+
+    public boolean isTravelling() {
+        return phase == Projectile.Phase.TRAVELLING;
+    }
+
+    /**
+     * @return numero di tick trascorsi dal lancio dell'abilità, caricamento compreso.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    /**
+     * @return ascissa da cui l'abilità è partita; per l'abilità speciale, quella della coda del raggio.
+     */
+    public double getOriginX() {
+        return originX;
+    }
+}
@@ -0,0 +1,53 @@
+package it.unimol.dragon_ball.gui;
+
+/**
+ * Cadenzatore dei frame: sospende il thread chiamante fino all'istante previsto per il frame successivo, in modo da
+ * mantenere una frequenza costante pari agli FPS obiettivo.
+ * Qualora il chiamante fosse in ritardo rispetto alla scadenza, il frame viene emesso subito e la scansione riparte
+ * dal tempo attuale, senza tentare di recuperare i frame persi.
+ */
+public class FramePacer {
+    private final long frameNanos;
+    private long nextFrameTime;
+
+    /**
+     * Genera un nuovo <code>FramePacer</code> per la frequenza presa come parametro.
+     * @param targetFps numero di frame al secondo da mantenere.
+     */
+    public FramePacer(int targetFps) {
+        assert targetFps > 0;
+
+        this.frameNanos = 1_000_000_000L / targetFps;
+        reset();
+    }
+
+    /**
+     * Riallinea la scansione dei frame al tempo attuale.
+     */
+    public void reset() {
+        this.nextFrameTime = System.nanoTime();
+    }
+
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Attende fino all'istante previsto per il frame successivo.
+     * Se il thread chiamante viene interrotto, l'attesa termina subito e lo stato di interruzione viene mantenuto, così
+     * che il chiamante possa uscire dal proprio ciclo.
+     */
+    public void awaitNextFrame() {
+        this.nextFrameTime = this.nextFrameTime + this.frameNanos;
+        long sleepNanos = this.nextFrameTime - System.nanoTime();
+
+        if (sleepNanos > 0) {
+            try {
+                Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else
+            this.nextFrameTime = System.nanoTime(); // Siamo in ritardo: riparto dal tempo attuale invece di recuperare
+    }
+}
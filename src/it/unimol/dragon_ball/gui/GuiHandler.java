@@ -3,9 +3,7 @@ package it.unimol.dragon_ball.gui;
 import it.unimol.dragon_ball.gui.custom_components.buttons.CustomButton;
 import it.unimol.dragon_ball.utils.ResourceException;
 import it.unimol.dragon_ball.utils.ResourcesHandler;
-import it.unimol.dragon_ball.utils.SoundException;
 
-import javax.sound.sampled.Clip;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
@@ -18,6 +16,7 @@ import java.awt.event.MouseMotionListener;
  *       - gestione del suono dei tasti;
  *       - gestione della selezione dei tasti;
  *       - comunicazione tra i diversi pannelli esistenti;
+ *       - configurazione della frequenza di ridisegno del pannello di gioco;
  *
  * Di default, setta i flag utilizzati per la gestione del suono e dei tasti a false.
  *
@@ -28,7 +27,6 @@ public class GuiHandler {
     private boolean multiplayerGameActive;
 
     private boolean mainBackgroundMusicActive;
-    private Clip mainBackgroundMusicClip;
 
     private boolean buttonSelectionSoundActive;
 
@@ -37,6 +35,8 @@ public class GuiHandler {
 
     private String selectedBackgroundMapFilepath;
 
+    private int targetFps;
+
     private static GuiHandler instance;
 
 
@@ -46,6 +46,8 @@ public class GuiHandler {
 
         this.computerGameActive = false;
         this.multiplayerGameActive = false;
+
+        this.targetFps = Integer.getInteger("dragonball.fps", RenderScheduler.DEFAULT_TARGET_FPS);
     }
 
     public static GuiHandler getInstance() {
@@ -72,31 +74,14 @@ public class GuiHandler {
     }
 
     public void startMainBackgroundMusic() {
-        Thread thread = new Thread(() -> {
-            Clip clip;
-
-            try {
-                clip = ResourcesHandler.getInstance().playMusic("/resources/sounds/other/GameIntro.wav", Clip.LOOP_CONTINUOUSLY);
-                mainBackgroundMusicClip = clip;
-            } catch (ResourceException ignored) {
-
-            }
-
-        });
+        try {
+            ResourcesHandler.getInstance().playBackgroundMusic("/resources/sounds/other/GameIntro.wav");
+        } catch (ResourceException ignored) {
 
-        thread.start();
+        }
     }
 
     public void stopBackgroundMusic() {
-        assert mainBackgroundMusicClip != null;
-
-        /*
-        try {
-            ResourcesHandler.getInstance().stopMusic(mainBackgroundMusicClip);
-        } catch (SoundException e) {
-            e.printStackTrace();
-        }*/
-
         this.mainBackgroundMusicActive = false;
     }
 
@@ -221,5 +206,20 @@ public class GuiHandler {
         this.selectedBackgroundMapFilepath = selectedBackgroundMap;
     }
 
+    /**
+     * Restituisce il numero di frame al secondo con cui viene ridisegnato il pannello di gioco.
+     * Il valore predefinito può essere modificato all'avvio tramite la proprietà di sistema <code>dragonball.fps</code>.
+     * @return FPS obiettivo del pannello di gioco.
+     */
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    public void setTargetFps(int targetFps) {
+        assert targetFps > 0;
+
+        this.targetFps = targetFps;
+    }
+
 
 }
@@ -0,0 +1,85 @@
+package it.unimol.dragon_ball.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scandisce il ridisegno di un componente ad una frequenza costante (FPS obiettivo), indipendentemente dal ritmo con
+ * cui viene aggiornata la logica di gioco.
+ * Ad ogni frame viene accodato sull'Event Dispatch Thread un ridisegno sincrono dell'intero componente; qualora il
+ * frame precedente non fosse stato ancora disegnato, il nuovo frame viene saltato, in modo da non accumulare richieste
+ * sull'EDT. Al termine di ogni ridisegno viene richiesta la sincronizzazione con lo schermo.
+ */
+public class RenderScheduler {
+    public static final int DEFAULT_TARGET_FPS = 60;
+
+    private final JComponent component;
+    private final FramePacer framePacer;
+    private final AtomicBoolean isFramePending;
+
+    private volatile boolean isRunning;
+    private Thread renderThread;
+
+    /**
+     * Genera un nuovo <code>RenderScheduler</code> per il componente e la frequenza presi come parametro.
+     * @param component componente da ridisegnare.
+     * @param targetFps numero di frame al secondo da mostrare.
+     */
+    public RenderScheduler(JComponent component, int targetFps) {
+        assert component != null && targetFps > 0;
+
+        this.component = component;
+        this.framePacer = new FramePacer(targetFps);
+        this.isFramePending = new AtomicBoolean(false);
+        this.isRunning = false;
+    }
+
+    /**
+     * Avvia il thread che scandisce i frame.
+     */
+    public void start() {
+        if (this.isRunning)
+            return;
+
+        this.isRunning = true;
+        this.renderThread = new Thread(this::runLoop, "RenderScheduler");
+        this.renderThread.setDaemon(true);
+        this.renderThread.start();
+    }
+
+    /**
+     * Interrompe la scansione dei frame. L'eventuale frame già accodato viene comunque disegnato.
+     */
+    public void stop() {
+        this.isRunning = false;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    private void runLoop() {
+        this.framePacer.reset();
+
+        while (this.isRunning && !Thread.currentThread().isInterrupted()) {
+            if (this.isFramePending.compareAndSet(false, true))
+                SwingUtilities.invokeLater(this::renderFrame);
+
+            this.framePacer.awaitNextFrame();
+        }
+
+        this.isRunning = false;
+    }
+
+    private void renderFrame() {
+        try {
+            if (this.isRunning && this.component.isShowing()) {
+                this.component.paintImmediately(0, 0, this.component.getWidth(), this.component.getHeight());
+                Toolkit.getDefaultToolkit().sync();
+            }
+        } finally {
+            this.isFramePending.set(false);
+        }
+    }
+}
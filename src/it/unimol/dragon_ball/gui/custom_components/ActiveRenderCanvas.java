@@ -0,0 +1,141 @@
+package it.unimol.dragon_ball.gui.custom_components;
+
+import it.unimol.dragon_ball.gui.FramePacer;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+/**
+ * Superficie di disegno in rendering attivo.
+ * <code>ActiveRenderCanvas</code> è un'estensione di {@link Canvas} che, invece di attendere il ridisegno passivo di
+ * Swing, disegna autonomamente ogni frame su un {@link BufferStrategy} a doppio o triplo buffer, da un thread dedicato
+ * cadenzato da un {@link FramePacer}.
+ * Inizializzarlo richiede l'operazione di disegno di un frame e gli FPS obiettivo. Il rendering attivo può essere
+ * avviato soltanto dopo che la superficie è stata aggiunta ad una finestra visibile.
+ */
+public class ActiveRenderCanvas extends Canvas {
+    public static final int MAX_BUFFERS_NUMBER = 3;
+
+    private final Consumer<Graphics> frameRenderer;
+    private final FramePacer framePacer;
+
+    private BufferStrategy bufferStrategy;
+    private int buffersNumber;
+    private volatile boolean isRunning;
+    private Thread renderThread;
+
+    /**
+     * Genera una nuova <code>ActiveRenderCanvas</code>.
+     * @param frameRenderer operazione che disegna un frame completo sul contesto grafico ricevuto.
+     * @param targetFps numero di frame al secondo da mostrare.
+     */
+    public ActiveRenderCanvas(Consumer<Graphics> frameRenderer, int targetFps) {
+        assert frameRenderer != null;
+
+        this.frameRenderer = frameRenderer;
+        this.framePacer = new FramePacer(targetFps);
+        this.isRunning = false;
+
+        this.setIgnoreRepaint(true);
+        this.setFocusable(false); // Gli input da tastiera restano gestiti dalla finestra principale
+    }
+
+    /**
+     * Crea il {@link BufferStrategy} e avvia il thread di disegno.
+     * Viene tentato prima un triplo buffer accelerato e poi un doppio buffer accelerato; in mancanza di entrambi,
+     * viene utilizzato il doppio buffer scelto dal sistema.
+     * @return true se il rendering attivo è stato avviato, false se la superficie non è ancora visualizzabile e
+     *          occorre quindi ricorrere al ridisegno passivo di Swing.
+     */
+    public boolean start() {
+        if (this.isRunning)
+            return true;
+
+        if (!this.isDisplayable() || !initBufferStrategy())
+            return false;
+
+        this.isRunning = true;
+        this.renderThread = new Thread(this::runLoop, "ActiveRenderer");
+        this.renderThread.setDaemon(true);
+        this.renderThread.start();
+        return true;
+    }
+
+    /**
+     * Interrompe il thread di disegno e rilascia il {@link BufferStrategy}.
+     */
+    public void stop() {
+        this.isRunning = false;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * @return numero di buffer del {@link BufferStrategy} in uso, oppure 0 se il rendering attivo non è stato avviato.
+     */
+    public int getBuffersNumber() {
+        return buffersNumber;
+    }
+
+    private boolean initBufferStrategy() {
+        for (int buffersNumber = MAX_BUFFERS_NUMBER; buffersNumber >= 2; buffersNumber--) {
+            try {
+                BufferCapabilities capabilities = new BufferCapabilities(new ImageCapabilities(true),
+                        new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED);
+                this.createBufferStrategy(buffersNumber, capabilities);
+                this.bufferStrategy = this.getBufferStrategy();
+                this.buffersNumber = buffersNumber;
+                return true;
+            } catch (AWTException ignored) {
+                // Configurazione non supportata: provo con un buffer in meno
+            }
+        }
+
+        try {
+            this.createBufferStrategy(2);
+            this.bufferStrategy = this.getBufferStrategy();
+            this.buffersNumber = 2;
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void runLoop() {
+        this.framePacer.reset();
+
+        while (this.isRunning && !Thread.currentThread().isInterrupted()) {
+            renderFrame();
+            this.framePacer.awaitNextFrame();
+        }
+
+        this.isRunning = false;
+        this.bufferStrategy.dispose();
+    }
+
+    private void renderFrame() {
+        try {
+            // Il contenuto dei buffer può andare perso (es. cambio di risoluzione): in tal caso il frame viene ridisegnato
+            do {
+                do {
+                    Graphics g = this.bufferStrategy.getDrawGraphics();
+                    try {
+                        this.frameRenderer.accept(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (this.bufferStrategy.contentsRestored());
+
+                this.bufferStrategy.show();
+                Toolkit.getDefaultToolkit().sync();
+            } while (this.bufferStrategy.contentsLost());
+
+        } catch (IllegalStateException e) {
+            // La superficie è stata rimossa dalla finestra durante il disegno
+            this.isRunning = false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package it.unimol.dragon_ball.gui.custom_components;
+
+import it.unimol.dragon_ball.utils.MetricsSnapshot;
+import it.unimol.dragon_ball.utils.PerformanceMetrics;
+
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Pannello informativo, disegnato sopra la scena, che mostra l'ultimo campione delle {@link PerformanceMetrics}.
+ * Il testo viene ricalcolato soltanto quando il campione cambia, ovvero una volta al secondo. Sotto le metriche può
+ * essere mostrato un messaggio di stato, ad esempio l'esito del salvataggio delle metriche.
+ */
+public class PerformanceOverlay {
+    private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 160);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 13);
+    private static final int LINE_HEIGHT = 16;
+    private static final int PADDING = 8;
+    private static final int WIDTH = 300;
+
+    private final Point position;
+
+    private MetricsSnapshot shownSnapshot;
+    private String[] lines;
+    private volatile String message;
+
+    /**
+     * @param position posizione dell'angolo in alto a sinistra del pannello.
+     */
+    public PerformanceOverlay(Point position) {
+        this.position = position;
+        this.lines = new String[]{"Raccolta delle metriche..."};
+    }
+
+    /**
+     * Imposta il messaggio di stato mostrato sotto le metriche. Può essere richiamato da qualsiasi thread.
+     * @param message messaggio da mostrare, o null per non mostrarne alcuno.
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public void draw(Graphics g) {
+        MetricsSnapshot snapshot = PerformanceMetrics.getInstance().getLastSnapshot();
+        if (snapshot != null && snapshot != shownSnapshot) {
+            shownSnapshot = snapshot;
+            lines = toLines(snapshot);
+        }
+
+        String message = this.message;
+        int linesNumber = message == null ? lines.length : lines.length + 1;
+
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(position.x, position.y, WIDTH, linesNumber * LINE_HEIGHT + 2 * PADDING);
+
+        g.setColor(Color.WHITE);
+        g.setFont(FONT);
+        for (int i = 0; i < lines.length; i++)
+            g.drawString(lines[i], position.x + PADDING, position.y + PADDING + (i + 1) * LINE_HEIGHT - 4);
+
+        if (message != null)
+            g.drawString(message, position.x + PADDING, position.y + PADDING + linesNumber * LINE_HEIGHT - 4);
+    }
+
+    private static String[] toLines(MetricsSnapshot snapshot) {
+        return new String[]{
+                String.format(Locale.ROOT, "FPS: %.1f", snapshot.getFps()),
+                String.format(Locale.ROOT, "Frame p50/p99: %.1f / %.1f ms",
+                        snapshot.getFrameP50Millis(), snapshot.getFrameP99Millis()),
+                String.format(Locale.ROOT, "Tick/s: %.1f", snapshot.getTicksPerSecond()),
+                String.format(Locale.ROOT, "Thread: %d (picco %d)", snapshot.getThreads(), snapshot.getPeakThreads()),
+                String.format(Locale.ROOT, "Cache immagini: %.1f%% hit", snapshot.getImageCacheHitRate() * 100),
+                String.format(Locale.ROOT, "Heap: %d / %d MB",
+                        snapshot.getHeapUsedBytes() >> 20, snapshot.getHeapMaxBytes() >> 20),
+                String.format(Locale.ROOT, "Asset: %d (%.0f ms)", snapshot.getAssetsLoaded(), snapshot.getAssetLoadMillis())
+        };
+    }
+}
@@ -16,6 +16,7 @@ public abstract class Sprite {
     private Image activeSprite;
     private Character character;
     private Point position;
+    private Point previousPosition;
     private Dimension dimension;
     private JPanel actualPanel;
     private boolean isFlipped;
@@ -24,6 +25,7 @@ public abstract class Sprite {
     public Sprite(Character character, Point position, Dimension dimension, JPanel actualPanel, boolean isFlipped) {
         this.character = character;
         this.position = position;
+        this.previousPosition = new Point(position);
         this.dimension = dimension;
         this.actualPanel = actualPanel;
         this.isFlipped = isFlipped;
@@ -54,6 +56,35 @@ public abstract class Sprite {
         return position;
     }
 
+    /**
+     * Memorizza la posizione attuale come posizione di partenza per l'interpolazione del prossimo tick.
+     * Va richiamato all'inizio di ogni tick e ogni volta che lo sprite viene spostato istantaneamente.
+     */
+    public void savePreviousPosition() {
+        this.previousPosition.setLocation(this.position);
+    }
+
+    /**
+     * Imposta la posizione del tick precedente e quella attuale, tra cui interpolare lo sprite.
+     */
+    public void setPositions(int previousX, int previousY, int x, int y) {
+        this.previousPosition.setLocation(previousX, previousY);
+        this.position.setLocation(x, y);
+    }
+
+    /**
+     * Restituisce la posizione in cui disegnare lo sprite, interpolata tra la posizione del tick precedente e quella
+     * attuale.
+     * @param interpolationAlpha frazione di tick trascorsa, compresa tra 0 e 1.
+     * @return posizione interpolata dello sprite.
+     */
+    public Point getInterpolatedPosition(double interpolationAlpha) {
+        int x = (int) Math.round(previousPosition.x + (position.x - previousPosition.x) * interpolationAlpha);
+        int y = (int) Math.round(previousPosition.y + (position.y - previousPosition.y) * interpolationAlpha);
+
+        return new Point(x, y);
+    }
+
     public Dimension getDimension() {
         return dimension;
     }
@@ -70,6 +101,11 @@ public abstract class Sprite {
         return isFlipped;
     }
 
-    public abstract void draw(Graphics g);
+    /**
+     * Disegna lo sprite nella posizione interpolata tra il tick precedente e quello attuale.
+     * @param g contesto grafico su cui disegnare.
+     * @param interpolationAlpha frazione di tick trascorsa, compresa tra 0 e 1.
+     */
+    public abstract void draw(Graphics g, double interpolationAlpha);
 
 }
@@ -4,6 +4,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 
 import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.simulation.FighterState;
 import it.unimol.dragon_ball.utils.ResourceException;
 import it.unimol.dragon_ball.utils.ResourcesHandler;
 
@@ -14,6 +15,7 @@ import javax.swing.*;
  * il mana e l'aura.
  * Inizializzarlo richiede un'istanza di {@link Character}, la posizione {@link Point} all'interno del pannello e un
  * booleano che descrive se la raffigurazione deve essere capovolta da destra verso sinistra (true) o no (false).
+ * I valori da rappresentare vengono letti, ad ogni disegno, dall'istantanea {@link FighterState} del personaggio.
  */
 public class StatusBar {
     private Image characterIconCircle;
@@ -103,10 +105,10 @@ public class StatusBar {
         this.aura = aura;
     }
 
-    public void draw(Graphics g) {
-        this.hp = character.getActualHP();
-        this.mp = character.getActualMP();
-        this.aura = character.getAura();
+    public void draw(Graphics g, FighterState state) {
+        this.hp = state.getActualHP();
+        this.mp = state.getActualMP();
+        this.aura = state.getAura();
 
         /* Gestione della lunghezza di taglio dell'ultima barra di vita */
         int healthBarsNumber = (int) Math.ceil(hp / (this.SINGLE_BAR_HP * 1.0));  // Approssimo per eccesso il risultato
@@ -117,7 +119,7 @@ public class StatusBar {
         /* */
 
         /* Gestione della lunghezza di taglio della barra del mana */
-        int manaBarWidth = (this.mp * 122) / this.character.getActualMaxMp();  //122px è la larghezza reale dell'immagine
+        int manaBarWidth = (this.mp * 122) / state.getActualMaxMp();  //122px è la larghezza reale dell'immagine
         if (manaBarWidth == 0)  // Per evitare che il crop generi eccezioni
             manaBarWidth++;
 
@@ -125,7 +127,7 @@ public class StatusBar {
         /* */
 
         /* Gestione della lunghezza di taglio della barra dell'aura */
-        int auraBarWidth = (this.aura * 81) / this.character.getMaxAura();  //81px è la larghezza reale dell'immagine
+        int auraBarWidth = (this.aura * 81) / state.getMaxAura();  //81px è la larghezza reale dell'immagine
         if (auraBarWidth == 0)  // Per evitare che il crop generi eccezioni
             auraBarWidth++;
 
@@ -133,7 +135,7 @@ public class StatusBar {
         /* */
 
 
-        String iconFilepath = "/resources/sprites/characters/" + this.character.getCanonicalName() + "/" + this.character.getActualEvolutionName() + "/ICON.png";
+        String iconFilepath = "/resources/sprites/characters/" + this.character.getCanonicalName() + "/" + state.getActualEvolutionName() + "/ICON.png";
         characterIcon = ResourcesHandler.getInstance().getImage(iconFilepath);
 
         if (this.isFlipped) {
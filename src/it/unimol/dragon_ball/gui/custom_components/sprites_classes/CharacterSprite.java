@@ -2,270 +2,269 @@ package it.unimol.dragon_ball.gui.custom_components.sprites_classes;
 
 import it.unimol.dragon_ball.app.logic.Character;
 import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.FighterState;
+import it.unimol.dragon_ball.app.simulation.ProjectileState;
 import it.unimol.dragon_ball.gui.custom_components.Sprite;
-import it.unimol.dragon_ball.gui.custom_components.animations.SpriteAnimation;
 import it.unimol.dragon_ball.utils.ResourcesHandler;
+import it.unimol.dragon_ball.utils.SpriteAtlas;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Classe che rappresenta un personaggio del gioco disegnabile su pannello.
  * CharacterSprite è un'estensione di {@link Sprite}. Pertanto, eredita il costruttore e le funzionalità descritte
  * in quest'ultima classe.
+ * Lo sprite disegna l'istantanea {@link FighterState} di un {@link Fighter} della simulazione: il frame da mostrare
+ * viene scelto in base all'azione in corso e ai tick trascorsi dal suo inizio, mentre l'eventuale abilità lanciata
+ * viene disegnata da uno {@link SkillSprite}.
  */
 public class CharacterSprite extends Sprite {
+    private static final long PUNCH_FRAME_MILLIS = 180;
+    private static final long DAMAGE_FRAME_MILLIS = 200;
+    private static final long SPECIAL_SKILL_POSE_MILLIS = 1000;
+
+    private final long tickMillis;
+
     private Image idle;
     private Image move_back;
     private Image move_forward;
 
-    private ArrayList<SkillSprite> skillSprites;
-    private boolean isAuraActive;
-    private boolean isPunchActive;
-    private boolean isEnergyballActive;
-    private boolean isSpecialSkillActive;
-    private boolean isUltimateSkillActive;
-
     private ArrayList<Image> auraCharge;
     private ArrayList<Image> damageSprites;
-    private int evolutionNumber;
-
-    private Rectangle characterCollisionRect;
-    private boolean isCharacterSpriteInitReady;
-
-
-    public CharacterSprite(Character character, Point position, Dimension dimension, JPanel actualPanel, boolean isFlipped) {
-        super(character, position, dimension, actualPanel, isFlipped);
-
-        initCharacterSprite();
-        while (!isCharacterSpriteInitReady) { // Tempo necessario ad inizializzare il personaggio
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException ignored) {
-            }
-        }
-
-        this.setActiveSprite(this.idle);
-        this.evolutionNumber = getCharacter().getActualEvolutionNumber();
-    }
-
-    private void initCharacterSprite() {
-        // Creo un thread perchè l'inizializzazione del personaggio è un procedimento molto pesante dal punto di vista dell'elaborazione
-        Thread initCharacterSpriteThread = new Thread(() -> {
-            isCharacterSpriteInitReady = false;
-
-            Character character = this.getCharacter();
-            String characterFilepath = "/resources/sprites/characters/" + character.getCanonicalName() + "/" + character.getActualEvolutionName() + "/";
-
-            idle = ResourcesHandler.getInstance().getImage(characterFilepath + "IDLE.png");
-            move_back = ResourcesHandler.getInstance().getImage(characterFilepath + "MOVE_BACK.png");
-            move_forward = ResourcesHandler.getInstance().getImage(characterFilepath + "MOVE_FORWARD.png");
-
-            isAuraActive = false;
-            isPunchActive = false;
-            isEnergyballActive = false;
-            isSpecialSkillActive = false;
-            isUltimateSkillActive = false;
-
-            auraCharge = new ArrayList<>();
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_0.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_1.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_2.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_1.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_2.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_1.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_2.png"));
-            auraCharge.add(ResourcesHandler.getInstance().getImage(characterFilepath + "AURA_0.png"));
+    private ArrayList<Image> punchAndKick;
+    private ArrayList<Image> spritesEnergyball;
+    private ArrayList<Image> spritesSpecialSkill;
+    private ArrayList<Image> spritesUltimateSkill;
+    private SkillSprite skillSprite;
 
-            damageSprites = new ArrayList<>();
-            damageSprites.add(ResourcesHandler.getInstance().getImage(characterFilepath + "DAMAGE_0.png"));
-            damageSprites.add(ResourcesHandler.getInstance().getImage(characterFilepath + "DAMAGE_1.png"));
-            damageSprites.add(ResourcesHandler.getInstance().getImage(characterFilepath + "DAMAGE_2.png"));
-
-            skillSprites = new ArrayList<>(4);
-            skillSprites.add(new SkillSprite("punch", this));
-            skillSprites.add(new SkillSprite("energyball", this));
-            skillSprites.add(new SkillSprite("special", this));
-            skillSprites.add(new SkillSprite("ultimate", this));
-
-            this.characterCollisionRect = new Rectangle();
-
-            isCharacterSpriteInitReady = true;
-        });
+    private ArrayList<EvolutionSprites> evolutionsSprites;
+    private int evolutionNumber;
 
-        initCharacterSpriteThread.start();
-    }
+    private FighterState state;
+    private long lastEnergyballCastTick;
+    private int spriteEnergyballNumber;
 
-    public Image getIdle() {
-        return idle;
-    }
 
     /**
-     * Sposta il disegno di {@link CharacterSprite} sul pannello secondo la direzione presa in input.
-     * Qualora le coordinate dello {@link Sprite} dovessero superare i confini del pannello giocabile, tale metodo non
-     * avrà effetto.
-     * @param direction direzione del movimento del personaggio. E' possibile scegliere tra le seguenti parole chiave:
-     *                  "up", "right", "left", "down".
+     * Genera un nuovo <code>CharacterSprite</code> che disegna il personaggio della simulazione preso come parametro.
+     * @param character personaggio da disegnare, da cui vengono letti soltanto il nome e le evoluzioni.
+     * @param state istantanea iniziale del personaggio nella simulazione.
+     * @param dimension dimensione dello sprite; una larghezza negativa capovolge lo sprite.
+     * @param actualPanel pannello su cui disegnare lo sprite.
+     * @param tickMillis durata di un tick della simulazione, espressa in millisecondi.
      */
-    public void move(String direction) {
-        assert direction.equals("up") || direction.equals("right") || direction.equals("left") || direction.equals("down");
-
-        Point newPosition = new Point(this.getPosition().x, this.getPosition().y);
-
-        if (direction.equals("up")) {
-            newPosition.y = this.getPosition().y - (this.getCharacter().getSpeed() - 2);
-            this.setActiveSprite(move_forward);
-        }
-
-        if (direction.equals("right")) {
-            newPosition.x = this.getPosition().x + (this.getCharacter().getSpeed() - 2);
-
-            if (this.isFlipped())
-                this.setActiveSprite(move_back);
-            else
-                this.setActiveSprite(move_forward);
-        }
-
-        if (direction.equals("left")) {
-            newPosition.x = this.getPosition().x - (this.getCharacter().getSpeed() - 2);
-
-            if (this.isFlipped())
-                this.setActiveSprite(move_forward);
-            else
-                this.setActiveSprite(move_back);
-        }
-
-        if (direction.equals("down")) {
-            newPosition.y = this.getPosition().y + (this.getCharacter().getSpeed() - 2);
-            this.setActiveSprite(move_back);
-        }
+    public CharacterSprite(Character character, FighterState state, Dimension dimension, JPanel actualPanel,
+                           long tickMillis) {
+        super(character, new Point((int) Math.round(state.getX()), (int) Math.round(state.getY())), dimension,
+                actualPanel, state.isFlipped());
 
-        if ((newPosition.y >= 150 && newPosition.y <= 600) && ((newPosition.x >= 100 && newPosition.x <= 1160))) {
-            this.getPosition().setLocation(newPosition);
-            this.getActualPanel().repaint();
-        }
-    }
+        this.tickMillis = tickMillis;
 
+        initEvolutionsSprites();
 
-    public ArrayList<SkillSprite> getSkillSprites() {
-        return skillSprites;
-    }
-
-    public void showAuraCharge() {
-        SpriteAnimation auraAnimation = new SpriteAnimation(this, auraCharge, getActualPanel(), this.getIsAnimationActive(), 0);
-        auraAnimation.start();
+        this.evolutionNumber = state.getActualEvolutionNumber();
+        this.lastEnergyballCastTick = -1;
+        this.spriteEnergyballNumber = 0;
+        applyEvolutionSprites(this.evolutionNumber);
+        update(state);
     }
 
-    public void showDamageByPunches(AtomicBoolean isEnemyPunchActive) {
-        SpriteAnimation damageAnimation = new SpriteAnimation(this, damageSprites, getActualPanel(), isEnemyPunchActive, 200);
-        damageAnimation.start();
-    }
+    /**
+     * Prepara i frame e le abilità di tutte le evoluzioni del personaggio, così che durante la partita il cambio di
+     * evoluzione si riduca allo scambio dei riferimenti.
+     */
+    private void initEvolutionsSprites() {
+        String[] evolutionsNames = getCharacter().getEvolutionsNames();
+        this.evolutionsSprites = new ArrayList<>(evolutionsNames.length);
 
-    public void showDamageBySkill() {
-        this.setActiveSprite(damageSprites.get(0));
+        for (String evolutionName : evolutionsNames)
+            this.evolutionsSprites.add(new EvolutionSprites(evolutionName));
     }
 
+    private void applyEvolutionSprites(int evolutionNumber) {
+        EvolutionSprites evolutionSprites = this.evolutionsSprites.get(evolutionNumber);
 
-    public boolean isAuraActive() {
-        return isAuraActive;
-    }
+        idle = evolutionSprites.idle;
+        move_back = evolutionSprites.moveBack;
+        move_forward = evolutionSprites.moveForward;
+        auraCharge = evolutionSprites.auraCharge;
+        damageSprites = evolutionSprites.damageSprites;
+        punchAndKick = evolutionSprites.punchAndKick;
+        spritesEnergyball = evolutionSprites.spritesEnergyball;
+        spritesSpecialSkill = evolutionSprites.spritesSpecialSkill;
+        spritesUltimateSkill = evolutionSprites.spritesUltimateSkill;
+        skillSprite = evolutionSprites.skillSprite;
 
-    public void setAuraActive(boolean auraActive) {
-        isAuraActive = auraActive;
+        this.setActiveSprite(this.idle);
     }
 
-    public boolean isPunchActive() {
-        return isPunchActive;
-    }
+    /**
+     * Frame e abilità di una singola evoluzione del personaggio.
+     */
+    private class EvolutionSprites {
+        private final Image idle;
+        private final Image moveBack;
+        private final Image moveForward;
+        private final ArrayList<Image> auraCharge;
+        private final ArrayList<Image> damageSprites;
+        private final ArrayList<Image> punchAndKick;
+        private final ArrayList<Image> spritesEnergyball;
+        private final ArrayList<Image> spritesSpecialSkill;
+        private final ArrayList<Image> spritesUltimateSkill;
+        private final SkillSprite skillSprite;
+
+        private EvolutionSprites(String evolutionName) {
+            String canonicalName = getCharacter().getCanonicalName();
+            SpriteAtlas atlas = ResourcesHandler.getInstance().getSpriteAtlas(canonicalName, evolutionName);
+
+            idle = atlas.getImage("IDLE.png");
+            moveBack = atlas.getImage("MOVE_BACK.png");
+            moveForward = atlas.getImage("MOVE_FORWARD.png");
 
-    public void setPunchActive(boolean punchActive) {
-        isPunchActive = punchActive;
-    }
+            auraCharge = new ArrayList<>();
+            auraCharge.add(atlas.getImage("AURA_0.png"));
+            auraCharge.add(atlas.getImage("AURA_1.png"));
+            auraCharge.add(atlas.getImage("AURA_2.png"));
+            auraCharge.add(atlas.getImage("AURA_1.png"));
+            auraCharge.add(atlas.getImage("AURA_2.png"));
+            auraCharge.add(atlas.getImage("AURA_1.png"));
+            auraCharge.add(atlas.getImage("AURA_2.png"));
+            auraCharge.add(atlas.getImage("AURA_0.png"));
 
-    public void setEnergyballActive(boolean energyballActive) {
-        isEnergyballActive = energyballActive;
-    }
+            damageSprites = new ArrayList<>();
+            damageSprites.add(atlas.getImage("DAMAGE_0.png"));
+            damageSprites.add(atlas.getImage("DAMAGE_1.png"));
+            damageSprites.add(atlas.getImage("DAMAGE_2.png"));
+
+            punchAndKick = new ArrayList<>();
+            punchAndKick.add(atlas.getImage("PUNCH_0.png"));
+            punchAndKick.add(atlas.getImage("PUNCH_1.png"));
+            punchAndKick.add(atlas.getImage("PUNCH_0.png"));
+            punchAndKick.add(atlas.getImage("PUNCH_1.png"));
+            punchAndKick.add(atlas.getImage("KICK_0.png"));
+            punchAndKick.add(atlas.getImage("KICK_1.png"));
+            punchAndKick.add(atlas.getImage("KICK_2.png"));
+            punchAndKick.add(atlas.getImage("KICK_1.png"));
+            punchAndKick.add(atlas.getImage("KICK_2.png"));
+
+            spritesEnergyball = new ArrayList<>();
+            spritesEnergyball.add(atlas.getImage("skills/ENERGYBALL_0.png"));
+            spritesEnergyball.add(atlas.getImage("skills/ENERGYBALL_1.png"));
+
+            spritesSpecialSkill = new ArrayList<>();
+            spritesUltimateSkill = new ArrayList<>();
+            if (canonicalName.equals("goku")) {
+                spritesSpecialSkill.add(atlas.getImage("skills/KAMEHAMEHA_0.png"));
+                spritesSpecialSkill.add(atlas.getImage("skills/KAMEHAMEHA_1.png"));
+                spritesUltimateSkill.add(atlas.getImage("skills/GENKIDAMA_0.png"));
+                spritesUltimateSkill.add(atlas.getImage("skills/GENKIDAMA_1.png"));
+            } else if (canonicalName.equals("freezer")) {
+                spritesSpecialSkill.add(atlas.getImage("skills/DEATH_BULLET_0.png"));
+                spritesSpecialSkill.add(atlas.getImage("skills/DEATH_BULLET_1.png"));
+                spritesUltimateSkill.add(atlas.getImage("skills/SUPERNOVA_0.png"));
+                spritesUltimateSkill.add(atlas.getImage("skills/SUPERNOVA_1.png"));
+            }
 
-    public boolean isEnergyballActive() {
-        return isEnergyballActive;
+            skillSprite = new SkillSprite(CharacterSprite.this, evolutionName, tickMillis);
+        }
     }
 
-    public void setSpecialSkillActive(boolean specialSkillActive) {
-        isSpecialSkillActive = specialSkillActive;
+    public Image getIdle() {
+        return idle;
     }
 
-    public boolean isSpecialSkillActive() {
-        return isSpecialSkillActive;
+    public FighterState getState() {
+        return state;
     }
 
-    public boolean isUltimateSkillActive() {
-        return isUltimateSkillActive;
+    /**
+     * @return lo sprite delle abilità relativo all'evoluzione attualmente disegnata.
+     */
+    public SkillSprite getSkillSprite() {
+        return skillSprite;
     }
 
-    public void setUltimateSkillActive(boolean ultimateSkillActive) {
-        isUltimateSkillActive = ultimateSkillActive;
-    }
+    /**
+     * Allinea lo sprite all'istantanea del personaggio presa come parametro. Va richiamato dal thread che disegna lo
+     * sprite, prima di ogni disegno; la stessa istantanea può essere applicata più volte, così come un'istantanea
+     * precedente ripristinata da un rollback. La posizione all'inizio del tick viene utilizzata come punto di partenza
+     * per l'interpolazione.
+     * @param state istantanea del personaggio al termine dell'ultimo tick.
+     */
+    public void update(FighterState state) {
+        this.state = state;
+        this.setPositions((int) Math.round(state.getPreviousX()), (int) Math.round(state.getPreviousY()),
+                (int) Math.round(state.getX()), (int) Math.round(state.getY()));
+
+        ProjectileState projectile = state.getProjectile();
+        if (projectile != null && projectile.getSkillIndex() == Skill.ENERGYBALL &&
+                projectile.getCastTick() != lastEnergyballCastTick) {
+            spriteEnergyballNumber = (spriteEnergyballNumber + 1) % 2;  //Alterno le animazioni del CharacterSprite
+            lastEnergyballCastTick = projectile.getCastTick();
+        }
 
-    public boolean isSkillActive() {
-        return this.isPunchActive() || this.isEnergyballActive() || this.isSpecialSkillActive() || this.isUltimateSkillActive();
-    }
+        // Per aggiornare lo sprite in caso di evoluzione; l'abilità va disegnata con i frame della nuova evoluzione.
+        // Un rollback della partita in rete può anche riportare il personaggio ad un'evoluzione precedente
+        if (evolutionNumber != state.getActualEvolutionNumber()) {
+            evolutionNumber = state.getActualEvolutionNumber();
+            applyEvolutionSprites(evolutionNumber);
+        }
 
-    public Rectangle getCharacterCollisionRect() {
-        return characterCollisionRect;
+        skillSprite.update(projectile);
     }
 
-    private void handleCollisionRect() {
-        Point position = this.getPosition();
-        Dimension dimension = this.getDimension();
-
-        if (this.isFlipped())
-            this.characterCollisionRect.x = (int) (position.getX() + dimension.getWidth());
-        else
-            this.characterCollisionRect.x = (int) position.getX();
-
-        this.characterCollisionRect.y = (int) position.getY();
+    /**
+     * Sceglie il frame del personaggio relativo all'azione in corso.
+     */
+    private Image selectFrame() {
+        long actionMillis = state.getActionTicks() * tickMillis;
+
+        switch (state.getAction()) {
+            case AURA:
+                return auraCharge.get((int) (state.getActionTicks() % auraCharge.size()));
+            case PUNCH:
+                return punchAndKick.get((int) (actionMillis / PUNCH_FRAME_MILLIS % punchAndKick.size()));
+            case ENERGYBALL:
+                return spritesEnergyball.get(spriteEnergyballNumber);
+            case SPECIAL_SKILL:
+                return spritesSpecialSkill.get(actionMillis < SPECIAL_SKILL_POSE_MILLIS ? 0 : 1);
+            case ULTIMATE_SKILL:
+                ProjectileState projectile = state.getProjectile();
+                return spritesUltimateSkill.get(projectile != null && !projectile.isTravelling() ? 0 : 1);
+            default:
+                break;
+        }
 
-        if (this.isFlipped())
-            this.characterCollisionRect.width = (int) -dimension.getWidth();
-        else
-            this.characterCollisionRect.width = (int) dimension.getWidth();
+        if (state.getPunchedTicks() > 0) {
+            long punchedMillis = (state.getPunchedTicks() - 1) * tickMillis;
+            return damageSprites.get((int) (punchedMillis / DAMAGE_FRAME_MILLIS % damageSprites.size()));
+        }
 
-        this.characterCollisionRect.height = (int) dimension.getHeight();
+        if (state.getAction() == Fighter.Action.MOVE_FORWARD)
+            return move_forward;
+        if (state.getAction() == Fighter.Action.MOVE_BACK)
+            return move_back;
+        if (state.isHitBySkill())
+            return damageSprites.get(0);
 
-        this.characterCollisionRect.grow(-20, -20);  // In order to best fit with the image
+        return idle;
     }
 
     @Override
-    public void draw(Graphics g) {
-        handleCollisionRect();
-        // COLLISION RECTANGLE
-        // g.drawRect(characterCollisionRect.x, characterCollisionRect.y, characterCollisionRect.width, characterCollisionRect.height);
-
-        // Per aggiornare lo sprite in caso di evoluzione
-        if (evolutionNumber < getCharacter().getActualEvolutionNumber()) {
-            this.setIsAnimationActive(false);
-            evolutionNumber++;
-            initCharacterSprite();
-            this.setIsAnimationActive(false);
-        }
+    public void draw(Graphics g, double interpolationAlpha) {
+        this.setActiveSprite(selectFrame());
 
         int width = this.getDimension().width;
         int height = this.getDimension().height;
-        int x = (int) this.getPosition().getX();
-        int y = (int) this.getPosition().getY();
+        Point renderPosition = this.getInterpolatedPosition(interpolationAlpha);
 
-        g.drawImage(this.getActiveSprite(), x, y, width, height, null);
+        g.drawImage(this.getActiveSprite(), renderPosition.x, renderPosition.y, width, height, null);
 
         /* SKILLS HANDLING */
-        if (this.isEnergyballActive) {
-            this.skillSprites.get(Skill.ENERGYBALL).draw(g);
-        } else if (this.isSpecialSkillActive) {
-            this.skillSprites.get(Skill.SPECIAL_SKILL).draw(g);
-        } else if (this.isUltimateSkillActive) {
-            this.skillSprites.get(Skill.ULTIMATE_SKILL).draw(g);
-        }
+        skillSprite.draw(g, interpolationAlpha);
         /**/
     }
 
@@ -18,6 +18,7 @@ import java.awt.*;
  * - creazione di una finestra per l'interazione con il programma;
  * - gestione della visualizzazione dei pannelli.
  * - inizializzazione del cursore di gioco.
+ * - attivazione opzionale del rendering attivo per il pannello di gioco.
  *
  * @author Alessandro Giagnorio
  */
@@ -33,11 +34,13 @@ public class MainFrame extends JFrame {
     public static final int GAME_PANEL = 2;
 
     private JPanel actualPanel;
+    private boolean activeRenderingEnabled;
 
     private static MainFrame instance;
 
     private MainFrame() {
         super();
+        this.activeRenderingEnabled = Boolean.getBoolean("dragonball.activeRendering");
         initFrame();
         initCursor();
         showMainMenuPanel();
@@ -59,6 +62,20 @@ public class MainFrame extends JFrame {
         return actualPanel;
     }
 
+    /**
+     * Indica se il pannello di gioco deve essere disegnato in rendering attivo anziché tramite il ridisegno passivo
+     * di Swing. Di default è disattivato e può essere abilitato all'avvio tramite la proprietà di sistema
+     * <code>dragonball.activeRendering</code>.
+     * @return true se il rendering attivo è abilitato, false altrimenti.
+     */
+    public boolean isActiveRenderingEnabled() {
+        return activeRenderingEnabled;
+    }
+
+    public void setActiveRenderingEnabled(boolean activeRenderingEnabled) {
+        this.activeRenderingEnabled = activeRenderingEnabled;
+    }
+
     private void initFrame() {
         this.setTitle(this.GAME_TITLE);
         this.setSize(this.FRAME_SIZE);
@@ -122,6 +139,10 @@ public class MainFrame extends JFrame {
         this.add(actualPanel);
         this.revalidate();
         GuiHandler.getInstance().setButtonSelectionSoundActive(false);
+
+        // Il rendering attivo richiede che il pannello sia già visualizzato: in caso di errore resta il ridisegno di Swing
+        if (newPanelId == GAME_PANEL && this.activeRenderingEnabled)
+            ((BattleArenaPanel) actualPanel).startActiveRendering();
     }
 
 
@@ -1,43 +1,68 @@
 package it.unimol.dragon_ball.gui.panels;
 
 import it.unimol.dragon_ball.app.GameController;
-import it.unimol.dragon_ball.app.logic.NotEnoughManaException;
+import it.unimol.dragon_ball.app.GameLoop;
+import it.unimol.dragon_ball.app.input.InputEventQueue;
+import it.unimol.dragon_ball.app.input.InputSampler;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleState;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.FighterState;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
 import it.unimol.dragon_ball.gui.GuiHandler;
+import it.unimol.dragon_ball.gui.RenderScheduler;
+import it.unimol.dragon_ball.gui.custom_components.ActiveRenderCanvas;
+import it.unimol.dragon_ball.gui.custom_components.PerformanceOverlay;
 import it.unimol.dragon_ball.gui.custom_components.bars.StatusBar;
 import it.unimol.dragon_ball.gui.custom_components.sprites_classes.CharacterSprite;
 import it.unimol.dragon_ball.gui.frames.MainFrame;
 import it.unimol.dragon_ball.utils.ResourceException;
 import it.unimol.dragon_ball.utils.ResourcesHandler;
 import it.unimol.dragon_ball.app.logic.Character;
-import it.unimol.dragon_ball.app.logic.Skill;
-import it.unimol.dragon_ball.utils.SoundException;
+import it.unimol.dragon_ball.utils.PerformanceMetrics;
+import it.unimol.dragon_ball.utils.SoundVoice;
 
-import javax.sound.sampled.Clip;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Classe che rappresenta il pannello relativo al combattimento tra i personaggi selezionati.
  * BattleArenaPanel è un'estensione di JPanel.
  * Quando viene istanziato, si ha l'inizializzazione del pannello e della musica di background.
  * L'inizializzazione del pannello comprende:
- *      - l'inizializzazione dei flag associati a ciascun giocatore;
- *      - l'inizializzazione del KeyListener per l'interazione con i personaggi del gioco;
- *      - l'inizializzazione del PlayersActionThread che gestisce le azioni dei personaggi in relazione agli input
- *        ricevuti dalla tastiera;
- *      - l'inizializzazione del Thread che gestisce le collisioni del tipo player-player, player-skill, skill-skill.
+ *      - l'inizializzazione dei tasti associati ai comandi di ciascun giocatore;
+ *      - l'inizializzazione del KeyListener, che inserisce le pressioni e i rilasci dei tasti, con il relativo istante,
+ *        in una {@link InputEventQueue} letta dal thread di gioco;
+ *      - la registrazione, sul {@link GameLoop} della partita, delle fasi che consegnano alla {@link BattleSimulation}
+ *        gli input ricevuti dalla tastiera e che gestiscono i suoni dell'aura;
+ *      - l'avvio del {@link RenderScheduler} che ridisegna il pannello alla frequenza obiettivo, interpolando la
+ *        posizione degli sprite tra un tick e il successivo.
+ * Ogni frame viene disegnato a partire da un'unica istantanea {@link BattleState} pubblicata dalla simulazione, così
+ * che barre di stato e sprite mostrino sempre lo stesso tick senza alcuna sincronizzazione con il thread di gioco.
+ * In alternativa al ridisegno passivo di Swing, il pannello può essere disegnato in rendering attivo tramite
+ * {@link #startActiveRendering()}.
+ * Durante il combattimento, F3 mostra o nasconde il {@link PerformanceOverlay}, mentre F4 salva le metriche di
+ * prestazione raccolte in un file CSV nella cartella di lavoro e ne mostra l'esito nello stesso pannello.
  */
 public class BattleArenaPanel extends JPanel {
 
     private final Dimension PANEL_SIZE = MainFrame.FRAME_SIZE;
 
-    private Clip backgroundMusicClip;
     private Image backgroundImage;
 
+    private GameLoop gameLoop;
+    private BattleSimulation battleSimulation;
+    private RenderScheduler renderScheduler;
+    private ActiveRenderCanvas activeRenderCanvas;
+
     private Character player1;
     private Character player2;
 
@@ -49,38 +74,43 @@ public class BattleArenaPanel extends JPanel {
 
     private Image escPressLogo;
 
+    private static final String WAITING_MESSAGE = "In attesa dell'avversario...";
+    private static final Font WAITING_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 32);
+
+    private PerformanceOverlay performanceOverlay;
+    private volatile boolean isPerformanceOverlayVisible;
+
     private Image player1WinnerBar;
     private Image player1Logo;
     private Image player2WinnerBar;
     private Image player2Logo;
     private Image winnerLogo;
 
-    private boolean isFirstErrorSound;
     private boolean isEventTriggered;
     private boolean isGameFinished;
 
     private String winnerName;
 
-    /* PLAYERS FLAG INDEX */
-    private final int UP = 0;
-    private final int LEFT = 1;
-    private final int DOWN = 2;
-    private final int RIGHT = 3;
-    private final int AURA = 4;
-    private final int PUNCH = 5;
-    private final int ENERGYBALL = 6;
-    private final int SPECIAL_SKILL = 7;
-    private final int ULTIMATE_SKILL = 8;
-    private final int TOTAL_FLAG = 9;
-    int i = 0;
+    /* PLAYERS KEYS, ordinati secondo gli indici dei comandi di PlayerInput */
+    private static final int[] PLAYER1_KEYS = {
+            KeyEvent.VK_W, KeyEvent.VK_A, KeyEvent.VK_S, KeyEvent.VK_D,
+            KeyEvent.VK_SPACE, KeyEvent.VK_Q, KeyEvent.VK_E, KeyEvent.VK_R, KeyEvent.VK_T
+    };
+    private static final int[] PLAYER2_KEYS = {
+            KeyEvent.VK_UP, KeyEvent.VK_LEFT, KeyEvent.VK_DOWN, KeyEvent.VK_RIGHT,
+            KeyEvent.VK_ENTER, KeyEvent.VK_U, KeyEvent.VK_I, KeyEvent.VK_O, KeyEvent.VK_P
+    };
     /* */
 
-    /*   PLAYER1 FLAGS    */
-    private ArrayList<AtomicBoolean> player1Flags;
+    /* PLAYERS INPUT */
+    private Map<Integer, Integer> keyBindings;  // Tasto -> giocatore * PlayerInput.BUTTONS_NUMBER + comando
+    private InputEventQueue inputEventQueue;
+    private InputSampler inputSampler;
     /**/
 
-    /*   PLAYER2 FLAGS    */
-    private ArrayList<AtomicBoolean> player2Flags;
+    /* AURA SOUNDS */
+    private SoundVoice player1AuraVoice;
+    private SoundVoice player2AuraVoice;
     /**/
 
     public BattleArenaPanel() {
@@ -90,7 +120,7 @@ public class BattleArenaPanel extends JPanel {
 
     private void initBackgroundMusic() {
         try {
-            backgroundMusicClip = ResourcesHandler.getInstance().playMusic("/resources/sounds/other/BattleBackgroundSound.wav", Clip.LOOP_CONTINUOUSLY);
+            ResourcesHandler.getInstance().playBackgroundMusic("/resources/sounds/other/BattleBackgroundSound.wav");
         } catch (ResourceException ignored) {
         }
 
@@ -117,14 +147,7 @@ public class BattleArenaPanel extends JPanel {
     }
 
     private void stopBackgroundMusic() {
-        assert this.backgroundMusicClip != null;
-        /*
-        try {
-            ResourcesHandler.getInstance().stopMusic(backgroundMusicClip);
-        } catch (SoundException ignored) {
-
-        }
-        */
+        ResourcesHandler.getInstance().stopBackgroundMusic();
     }
 
     private void initPanel() {
@@ -137,141 +160,104 @@ public class BattleArenaPanel extends JPanel {
         player1StatusBar = new StatusBar(player1, new Point(20, 20), false);
         player2StatusBar = new StatusBar(player2, new Point(1147, 20), true);
 
-        player1Sprite = new CharacterSprite(player1, new Point(120, 400), new Dimension(100, 100), this, false);
-        player2Sprite = new CharacterSprite(player2, new Point(1160, 400), new Dimension(-100, 100), this, true);
+        battleSimulation = GameController.getInstance().getBattleSimulation();
+        BattleState state = battleSimulation.getState();
+        long tickMillis = battleSimulation.getTickMillis();
+        player1Sprite = new CharacterSprite(player1, state.getFighter1(), new Dimension(100, 100), this, tickMillis);
+        player2Sprite = new CharacterSprite(player2, state.getFighter2(), new Dimension(-100, 100), this, tickMillis);
 
         escPressLogo = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/EscToContinue.png");
 
+        performanceOverlay = new PerformanceOverlay(new Point(490, 20));
+        isPerformanceOverlayVisible = false;
+
         player1WinnerBar = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Player1WinnerBar.png");
         player1Logo = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Player1Logo.png");
         player2WinnerBar = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Player2WinnerBar.png");
         player2Logo = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Player2Logo.png");
         winnerLogo = ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/WinnerLogo.png");
 
-        isFirstErrorSound = true;
         isEventTriggered = false;
         isGameFinished = false;
 
-        initPlayersFlags();
+        initPlayersInput();
         initListener();
-        initPlayersActionThread();
-        initCollisionChecker();
+        initGameLoopPhases();
 
         this.setSize(PANEL_SIZE);
         this.setLayout(null);
+
+        renderScheduler = new RenderScheduler(this, GuiHandler.getInstance().getTargetFps());
+        renderScheduler.start();
     }
 
+    /**
+     * Sostituisce il ridisegno passivo di Swing con il rendering attivo su {@link ActiveRenderCanvas}.
+     * Va richiamato dopo che il pannello è stato aggiunto alla finestra visibile. Qualora il rendering attivo non
+     * fosse disponibile, il pannello continua ad essere ridisegnato dal {@link RenderScheduler}.
+     * @return true se il rendering attivo è stato avviato, false altrimenti.
+     */
+    public boolean startActiveRendering() {
+        if (activeRenderCanvas != null)
+            return true;
+
+        ActiveRenderCanvas canvas = new ActiveRenderCanvas(this::render, GuiHandler.getInstance().getTargetFps());
+        canvas.setBounds(0, 0, PANEL_SIZE.width, PANEL_SIZE.height);
+        this.add(canvas);
+
+        if (!canvas.start()) {
+            this.remove(canvas);
+            return false;
+        }
+
+        renderScheduler.stop();
+        activeRenderCanvas = canvas;
+        return true;
+    }
+
+    public boolean isActiveRenderingEnabled() {
+        return activeRenderCanvas != null;
+    }
+
+    @Override
+    public void removeNotify() {
+        renderScheduler.stop();
+        if (activeRenderCanvas != null)
+            activeRenderCanvas.stop();
+
+        super.removeNotify();
+    }
 
-    private void initPlayersFlags() {
-        player1Flags = new ArrayList<>(this.TOTAL_FLAG);
-        player2Flags = new ArrayList<>(this.TOTAL_FLAG);
 
-        for (int i = 0; i < this.TOTAL_FLAG; i++) {
-            player1Flags.add(new AtomicBoolean(false));
-            player2Flags.add(new AtomicBoolean(false));
+    private void initPlayersInput() {
+        keyBindings = new HashMap<>();
+        for (int button = 0; button < PlayerInput.BUTTONS_NUMBER; button++) {
+            keyBindings.put(PLAYER1_KEYS[button], button);
+            keyBindings.put(PLAYER2_KEYS[button], PlayerInput.BUTTONS_NUMBER + button);
         }
+
+        inputEventQueue = new InputEventQueue();
+        inputSampler = new InputSampler(inputEventQueue, 2);
     }
 
     private void initListener() {
         MainFrame.getInstance().setFocusable(true);
         MainFrame.getInstance().requestFocus();
 
-        // I listener settano soltanto dei flag. Non cambiano direttamente lo stato degli sprite
+        // I listener accodano soltanto gli eventi. Non cambiano direttamente lo stato della simulazione
         MainFrame.getInstance().addKeyListener(new KeyAdapter() {
 
             @Override
             public void keyPressed(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_A) player1Flags.get(LEFT).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_D) player1Flags.get(RIGHT).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_W) player1Flags.get(UP).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_S) player1Flags.get(DOWN).set(true);
-
-                if (e.getKeyCode() == KeyEvent.VK_SPACE) player1Flags.get(AURA).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_Q) player1Flags.get(PUNCH).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_E) player1Flags.get(ENERGYBALL).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_R) player1Flags.get(SPECIAL_SKILL).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_T) player1Flags.get(ULTIMATE_SKILL).set(true);
-
-
-                if (e.getKeyCode() == KeyEvent.VK_LEFT) player2Flags.get(LEFT).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_RIGHT) player2Flags.get(RIGHT).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_UP) player2Flags.get(UP).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_DOWN) player2Flags.get(DOWN).set(true);
-
-                if (e.getKeyCode() == KeyEvent.VK_ENTER) player2Flags.get(AURA).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_U) player2Flags.get(PUNCH).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_I) player2Flags.get(ENERGYBALL).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_O) player2Flags.get(SPECIAL_SKILL).set(true);
-                if (e.getKeyCode() == KeyEvent.VK_P) player2Flags.get(ULTIMATE_SKILL).set(true);
+                offerInputEvent(e.getKeyCode(), true);
+
+                if (e.getKeyCode() == KeyEvent.VK_F3) isPerformanceOverlayVisible = !isPerformanceOverlayVisible;
+                if (e.getKeyCode() == KeyEvent.VK_F4) dumpPerformanceMetrics();
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_A) player1Flags.get(LEFT).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_D) player1Flags.get(RIGHT).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_W) player1Flags.get(UP).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_S) player1Flags.get(DOWN).set(false);
-
-
-                if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-                    player1Sprite.setAuraActive(false);
-                    player1Sprite.getIsAnimationActive().set(false);
-                    player1Flags.get(AURA).set(false);
-                }
-                if (e.getKeyCode() == KeyEvent.VK_Q) {
-                    player1Sprite.setPunchActive(false);
-                    player1Sprite.getIsAnimationActive().set(false);
-                    player1Flags.get(PUNCH).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_E) {
-                    player1Flags.get(ENERGYBALL).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_R) {
-                    player1Flags.get(SPECIAL_SKILL).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_T) {
-                    player1Flags.get(ULTIMATE_SKILL).set(false);
-                }
-
-
-                if (e.getKeyCode() == KeyEvent.VK_LEFT) player2Flags.get(LEFT).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_RIGHT) player2Flags.get(RIGHT).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_UP) player2Flags.get(UP).set(false);
-                if (e.getKeyCode() == KeyEvent.VK_DOWN) player2Flags.get(DOWN).set(false);
-
-
-                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-                    player2Sprite.setAuraActive(false);
-                    player2Sprite.getIsAnimationActive().set(false);
-                    player2Flags.get(AURA).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_U) {
-                    player2Sprite.setPunchActive(false);
-                    player2Sprite.getIsAnimationActive().set(false);
-                    player2Flags.get(PUNCH).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_I) {
-                    player2Flags.get(ENERGYBALL).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_O) {
-                    player2Flags.get(SPECIAL_SKILL).set(false);
-                }
-
-                if (e.getKeyCode() == KeyEvent.VK_P) {
-                    player2Flags.get(ULTIMATE_SKILL).set(false);
-                }
-
-                if (!player1Sprite.isSkillActive())
-                    player1Sprite.setActiveSprite(player1Sprite.getIdle());
-
-                if (!player2Sprite.isSkillActive())
-                    player2Sprite.setActiveSprite(player2Sprite.getIdle());
+                offerInputEvent(e.getKeyCode(), false);
 
                 if (!GameController.getInstance().isGameActive() && e.getKeyCode() == KeyEvent.VK_ESCAPE) {
                     //stopBackgroundMusic();
@@ -283,23 +269,58 @@ public class BattleArenaPanel extends JPanel {
         });
     }
 
+    private void offerInputEvent(int keyCode, boolean isPressed) {
+        Integer binding = keyBindings.get(keyCode);
+        if (binding == null)
+            return;
 
-    private void initPlayersActionThread() {
-        Thread playerActionThread = new Thread(() -> {
+        int player = binding / PlayerInput.BUTTONS_NUMBER;
+        int button = binding % PlayerInput.BUTTONS_NUMBER;
+        inputEventQueue.offer(player, button, isPressed, System.nanoTime());
+    }
 
-            while (GameController.getInstance().isGameActive()) {
-                handlePlayersActions(player1Sprite, player1, player1Flags);
-                handlePlayersActions(player2Sprite, player2, player2Flags);
 
-                try {
-                    Thread.sleep(30);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
+    /**
+     * Registra le fasi gestite dal pannello sul {@link GameLoop} della partita.
+     * Ad ogni tick vengono consegnati alla simulazione gli input di entrambi i giocatori, campionati dagli eventi
+     * avvenuti entro la fine del tick, e, dopo il suo avanzamento,
+     * vengono avviati o interrotti i suoni dell'aura. Al termine della partita viene mostrata la schermata del
+     * vincitore.
+     */
+    private void initGameLoopPhases() {
+        gameLoop = GameController.getInstance().getGameLoop();
+
+        gameLoop.addPhaseHandler(GameLoop.Phase.INPUT, () -> {
+            inputSampler.sample(gameLoop.getTickEndTime());
+            GameController.getInstance().setPlayersInput(inputSampler.getInput(0), inputSampler.getInput(1));
+        });
+
+        gameLoop.addPhaseHandler(GameLoop.Phase.ANIMATION, () -> {
+            BattleState state = battleSimulation.getState();
+
+            player1AuraVoice = handleAuraSound(state.getFighter1(), player1AuraVoice);
+            player2AuraVoice = handleAuraSound(state.getFighter2(), player2AuraVoice);
+        });
+
+        gameLoop.addStopListener(() -> {
             this.isGameFinished = true;
             this.winnerName = GameController.getInstance().getWinnerName();
-            this.repaint();
+
+            // Il replay viene salvato da un listener registrato prima di questo, all'avvio della partita
+            IOException replaySaveError = GameController.getInstance().getLastReplaySaveError();
+            if (replaySaveError != null)
+                SwingUtilities.invokeLater(() -> MainFrame.getInstance().showErrorPopup(
+                        "Impossibile salvare il replay: " + replaySaveError.getMessage()));
+
+            RuntimeException failure = gameLoop.getFailure();
+            if (failure != null)
+                SwingUtilities.invokeLater(() -> MainFrame.getInstance().showErrorPopup(
+                        "La partita si è interrotta per un errore: " + failure));
+
+            // Senza vincitore non viene evidenziato alcun giocatore
+            if (GameController.getInstance().isConnectionLost())
+                SwingUtilities.invokeLater(() -> MainFrame.getInstance().showPopup("Info",
+                        "Connessione con l'avversario persa: la partita termina senza vincitore"));
 
             Thread winnerSoundThread = new Thread(() -> {
                 /*
@@ -314,9 +335,9 @@ public class BattleArenaPanel extends JPanel {
                 }
 
                 Character winnerCharacter = null;
-                if (winnerName.equals("player1"))
+                if ("player1".equals(winnerName))
                     winnerCharacter = player1;
-                else if (winnerName.equals("player2"))
+                else if ("player2".equals(winnerName))
                     winnerCharacter = player2;
 
                 /*
@@ -326,404 +347,45 @@ public class BattleArenaPanel extends JPanel {
                 }*/
             });
             winnerSoundThread.start();
-
         });
-        playerActionThread.start();
     }
 
-    private void handlePlayersActions(CharacterSprite playerSprite, Character player, ArrayList<AtomicBoolean> booleans) {
-        if (!playerSprite.isSkillActive()) {
-            if (booleans.get(this.LEFT).get() && booleans.get(this.UP).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("left");
-                playerSprite.move("up");
-
-            } else if (booleans.get(this.LEFT).get() && booleans.get(this.DOWN).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("left");
-                playerSprite.move("down");
-
-            } else if (booleans.get(this.RIGHT).get() && booleans.get(this.UP).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("right");
-                playerSprite.move("up");
-
-            } else if (booleans.get(this.RIGHT).get() && booleans.get(this.DOWN).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("right");
-                playerSprite.move("down");
-
-            } else if (booleans.get(this.LEFT).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("left");
-
-            } else if (booleans.get(this.UP).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("up");
-
-            } else if (booleans.get(this.RIGHT).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("right");
-
-            } else if (booleans.get(this.DOWN).get() && !playerSprite.isAuraActive()) {
-                playerSprite.move("down");
-
-            } else if (booleans.get(this.AURA).get()) {
-                if (!playerSprite.getIsAnimationActive().get() && !playerSprite.isAuraActive()) {
-                    playerSprite.setIsAnimationActive(true);
-                    playerSprite.setAuraActive(true);
-                    playerSprite.showAuraCharge();
-                    /*
-                    try {
-                        ResourcesHandler.getInstance().playAnimationMusic("/resources/sounds/battle_sounds/Aura.wav", 0, playerSprite.getIsAnimationActive());
-                    } catch (ResourceException ignored) {
-                    }*/
-                }
-
-                player.setAura(player.getAura() + 1);
-                try {
-                    player.setActualMP(player.getActualMP() + 4);
-                } catch (NotEnoughManaException ignored) {
-                    //MP only increase
-                }
-
-            } else if (booleans.get(PUNCH).get() && playerSprite.getSkillSprites().size() >= 1) {
-                if (!playerSprite.getIsAnimationActive().get()) {
-                    playerSprite.setIsAnimationActive(true);
-                    playerSprite.getSkillSprites().get(Skill.PUNCH).run();
-                }
-
-                /*
-                try {
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/VoidPunches.wav", 0);
-                } catch (ResourceException ignored) {
-                }
-                */
-
-                playerSprite.setPunchActive(true);
+    private void dumpPerformanceMetrics() {
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File file = new File("metrics-" + timestamp + ".csv");
 
-                try {
-                    Thread.sleep(80);  // Evito che i danni da pugno siano eccessivi
-                } catch (InterruptedException ignored) {
-                }
-
-            } else if (booleans.get(ENERGYBALL).get()) {
-                try {
-                    if (playerSprite.getSkillSprites().size() >= 2 &&
-                            playerSprite.getSkillSprites().get(Skill.ENERGYBALL).isEnergyballCooldownEnded()) {
-                        player.setActualMP(player.getActualMP() - player.getSkills().get(Skill.ENERGYBALL).getMana());
-                        playerSprite.setIsAnimationActive(true);
-                        playerSprite.getSkillSprites().get(Skill.ENERGYBALL).run();
-                       // handleEnergyballSound(player);
-                    }
-                } catch (NotEnoughManaException e) {
-                    /*
-                    if (isFirstErrorSound) {
-                        try {
-                            ResourcesHandler.getInstance().playMusic("/resources/sounds/sounds_effects/ManaError.wav", 0);
-                            isFirstErrorSound = false;
-                            Thread resetFirstErrorSound = new Thread(() -> {
-                                try {
-                                    Thread.sleep(1000);
-                                } catch (InterruptedException ignored) {
-                                }
-                                this.isFirstErrorSound = true;
-                            });
-                            resetFirstErrorSound.start();
-                        } catch (ResourceException ignored) {
-                        }
-                    }
-                    */
-                }
-
-            } else if (booleans.get(SPECIAL_SKILL).get()) {
-                try {
-                    if (playerSprite.getSkillSprites().size() >= 3 &&
-                            playerSprite.getSkillSprites().get(Skill.SPECIAL_SKILL).isSpecialSkillCooldownEnded()) {
-                        player.setActualMP(player.getActualMP() - player.getSkills().get(Skill.SPECIAL_SKILL).getMana());
-                        playerSprite.setIsAnimationActive(true);
-                        playerSprite.getSkillSprites().get(Skill.SPECIAL_SKILL).run();
-                        //handleSpecialSkillSound(player);
-                    }
-
-                } catch (NotEnoughManaException e) {
-                    /*
-                    if (isFirstErrorSound) {
-                        try {
-                            ResourcesHandler.getInstance().playMusic("/resources/sounds/sounds_effects/ManaError.wav", 0);
-                            isFirstErrorSound = false;
-                            Thread resetFirstErrorSound = new Thread(() -> {
-                                try {
-                                    Thread.sleep(998);
-                                } catch (InterruptedException ignored) {
-                                }
-                                this.isFirstErrorSound = true;
-                            });
-                            resetFirstErrorSound.start();
-                        } catch (ResourceException ignored) {
-                        }
-                    }
-                    */
-                }
-
-            } else if (booleans.get(ULTIMATE_SKILL).get()) {
-                try {
-                    if (playerSprite.getSkillSprites().size() >= 4 &&
-                            playerSprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).isUltimateSkillCooldownEnded()) {
-                        player.setActualMP(player.getActualMP() - player.getSkills().get(Skill.ULTIMATE_SKILL).getMana());
-                        playerSprite.setIsAnimationActive(true);
-                        playerSprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).run();
-                        //handleUltimateSkillSound(player);
-                    }
-
-                } catch (NotEnoughManaException e) {
-                    /*
-                    if (isFirstErrorSound) {
-                        try {
-                            ResourcesHandler.getInstance().playMusic("/resources/sounds/sounds_effects/ManaError.wav", 0);
-                            isFirstErrorSound = false;
-                            Thread resetFirstErrorSound = new Thread(() -> {
-                                try {
-                                    Thread.sleep(999);
-                                } catch (InterruptedException ignored) {
-                                }
-                                this.isFirstErrorSound = true;
-                            });
-                            resetFirstErrorSound.start();
-                        } catch (ResourceException ignored) {
-                        }
-                    }
-                    */
-                }
-            }
+        try {
+            PerformanceMetrics.getInstance().writeCsv(file);
+            performanceOverlay.setMessage("Metriche salvate in " + file.getName());
+        } catch (IOException e) {
+            performanceOverlay.setMessage("Salvataggio delle metriche non riuscito");
         }
+
+        // L'esito del salvataggio viene mostrato nel pannello delle metriche
+        isPerformanceOverlayVisible = true;
     }
 
-    private void handleEnergyballSound(Character character) {
-        if (character.getCanonicalName().equals("goku")) {
-            try {
-                ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/GokuEnergyball.wav", 0);
-            } catch (ResourceException ignored) {
-            }
-        } else if (character.getCanonicalName().equals("freezer")) {
+    /**
+     * Avvia il suono dell'aura quando il personaggio inizia a caricarla e lo interrompe quando smette.
+     * @return la voce del suono dell'aura in riproduzione, o null se il personaggio non sta caricando l'aura.
+     */
+    private SoundVoice handleAuraSound(FighterState fighter, SoundVoice auraVoice) {
+        boolean isAuraActive = fighter.getAction() == Fighter.Action.AURA;
+
+        if (isAuraActive && auraVoice == null) {
             try {
-                ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/FreezerEnergyball.wav", 0);
+                return ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Aura.wav", 0);
             } catch (ResourceException ignored) {
+                return null;
             }
         }
-    }
-
-    private void handleSpecialSkillSound(Character character) {
-        if (character.getCanonicalName().equals("goku")) {
-
-            Thread musicThread = new Thread(() -> {
-                try {
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Kamehameha0.wav", 0);
-                    Thread.sleep(1000);
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Kamehameha1.wav", 0);
-                } catch (ResourceException | InterruptedException ignored) {
-                }
-            });
-            musicThread.start();
-
-        } else if (character.getCanonicalName().equals("freezer")) {
-            Thread musicThread = new Thread(() -> {
-                try {
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/DeathBullet0.wav", 0);
-                    Thread.sleep(1000);
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/DeathBullet1.wav", 0);
-                } catch (ResourceException | InterruptedException ignored) {
-                }
-            });
-            musicThread.start();
-        }
-    }
-
-    private void handleUltimateSkillSound(Character character) {
-        if (character.getCanonicalName().equals("goku")) {
 
-            Thread musicThread = new Thread(() -> {
-                try {
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Genkidama0.wav", 0);
-                    Thread.sleep(1000);
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Genkidama1.wav", 0);
-                } catch (ResourceException | InterruptedException ignored) {
-                }
-            });
-            musicThread.start();
-
-        } else if (character.getCanonicalName().equals("freezer")) {
-            Thread musicThread = new Thread(() -> {
-                try {
-                    ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Supernova0.wav", 0);
-                } catch (ResourceException ignored) {
-                }
-            });
-            musicThread.start();
+        if (!isAuraActive && auraVoice != null) {
+            auraVoice.stop();
+            return null;
         }
-    }
-
 
-    private void initCollisionChecker() {
-        Thread collisionsThread = new Thread(() -> {
-
-            AtomicBoolean arePlayersColliding = new AtomicBoolean(false);
-            AtomicBoolean player1PunchDamageAnimation = new AtomicBoolean(false);
-            AtomicBoolean player2PunchDamageAnimation = new AtomicBoolean(false);
-
-            while (GameController.getInstance().isGameActive()) {
-                arePlayersColliding.set(player1Sprite.getCharacterCollisionRect().intersects(player2Sprite.getCharacterCollisionRect()));
-                player2PunchDamageAnimation.set(arePlayersColliding.get() && player1Sprite.getIsAnimationActive().get() && player1Sprite.isPunchActive());
-                player1PunchDamageAnimation.set(arePlayersColliding.get() && player2Sprite.getIsAnimationActive().get() && player2Sprite.isPunchActive());
-
-
-                /* HANDLING COLLISION WITH PLAYER2 */
-                if (player1Sprite.getSkillSprites().size() >= 4) {
-                    boolean hasPlayer1EnergyballHitPlayer2 = player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player2Sprite.getCharacterCollisionRect());
-                    boolean isPlayer1EnergyballNotCollided = !player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).isEnergyballCollided();
-                    boolean hasPlayer1SpecialSkillHitPlayer2 = player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect().intersects(player2Sprite.getCharacterCollisionRect());
-                    boolean isPlayer1SpecialSkillNotCollided = !player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).isSpecialSkillCollided();
-                    boolean hasPlayer1UltimateSkillHitPlayer2 = player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect().intersects(player2Sprite.getCharacterCollisionRect());
-                    boolean isPlayer1UltimateSkillNotCollided = !player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).isUltimateSkillCollided();
-
-                    if (arePlayersColliding.get() && player1Sprite.isPunchActive()) {
-                        /*
-                        try {
-                            ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/VoidPunches.wav", 0);
-                        } catch (ResourceException ignored) {
-                        }*/
-
-                        player2.setActualHP(player2.getActualHP() - player1.getSkills().get(Skill.PUNCH).getDamageDealt());
-                        player2Sprite.showDamageByPunches(player2PunchDamageAnimation);
-                        try {
-                            Thread.sleep(80);
-                        } catch (InterruptedException ignored) {
-
-                        }
-
-                    } else if (hasPlayer1EnergyballHitPlayer2 && player1Sprite.isEnergyballActive() && isPlayer1EnergyballNotCollided) {
-                        //startCollisionSound();
-                        player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                        player2.setActualHP(player2.getActualHP() - player1.getSkills().get(Skill.ENERGYBALL).getDamageDealt());
-                        player2Sprite.showDamageBySkill();
-
-                    } else if (hasPlayer1SpecialSkillHitPlayer2 && player1Sprite.isSpecialSkillActive() && isPlayer1SpecialSkillNotCollided) {
-                        //startCollisionSound();
-                        player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).setSpecialSkillCollided(true);
-                        player2.setActualHP(player2.getActualHP() - player1.getSkills().get(Skill.SPECIAL_SKILL).getDamageDealt());
-                        player2Sprite.showDamageBySkill();
-
-                    } else if (hasPlayer1UltimateSkillHitPlayer2 && player1Sprite.isUltimateSkillActive() && isPlayer1UltimateSkillNotCollided) {
-                        //startCollisionSound();
-                        player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).setUltimateSkillCollided(true);
-                        player2.setActualHP(player2.getActualHP() - player1.getSkills().get(Skill.ULTIMATE_SKILL).getDamageDealt());
-                        player2Sprite.showDamageBySkill();
-                    }
-                }
-
-                /* HANDLING COLLISION WITH PLAYER1 */
-                if (player2Sprite.getSkillSprites().size() >= 4) {
-                    boolean hasPlayer2EnergyballHitPlayer1 = player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player1Sprite.getCharacterCollisionRect());
-                    boolean isPlayer2EnergyballNotCollided = !player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).isEnergyballCollided();
-                    boolean hasPlayer2UltimateSkillHitPlayer1 = player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect().intersects(player1Sprite.getCharacterCollisionRect());
-                    boolean isPlayer2UltimateSkillNotCollided = !player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).isUltimateSkillCollided();
-                    boolean hasPlayer2SpecialSkillHitPlayer1 = player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect().intersects(player1Sprite.getCharacterCollisionRect());
-                    boolean isPlayer2SpecialSkillNotCollided = !player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).isSpecialSkillCollided();
-
-
-                    if (arePlayersColliding.get() && player2Sprite.isPunchActive()) {
-                        player1.setActualHP(player1.getActualHP() - player2.getSkills().get(Skill.PUNCH).getDamageDealt());
-                        player1Sprite.showDamageByPunches(player1PunchDamageAnimation);
-
-                        /*
-                        try {
-                            ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/VoidPunches.wav", 0);
-                        } catch (ResourceException ignored) {
-                        }*/
-
-                        try {
-                            Thread.sleep(80);
-                        } catch (InterruptedException ignored) {
-                        }
-
-                    } else if (hasPlayer2EnergyballHitPlayer1 && player2Sprite.isEnergyballActive() && isPlayer2EnergyballNotCollided) {
-                        player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                        player1.setActualHP(player1.getActualHP() - player2.getSkills().get(Skill.ENERGYBALL).getDamageDealt());
-                        player1Sprite.showDamageBySkill();
-                       // startCollisionSound();
-
-                    } else if (hasPlayer2SpecialSkillHitPlayer1 && player2Sprite.isSpecialSkillActive() && isPlayer2SpecialSkillNotCollided) {
-                        player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).setSpecialSkillCollided(true);
-                        player1.setActualHP(player1.getActualHP() - player2.getSkills().get(Skill.SPECIAL_SKILL).getDamageDealt());
-                        player1Sprite.showDamageBySkill();
-                        //startCollisionSound();
-
-                    } else if (hasPlayer2UltimateSkillHitPlayer1 && player2Sprite.isUltimateSkillActive() && isPlayer2UltimateSkillNotCollided) {
-                        player1.setActualHP(player1.getActualHP() - player2.getSkills().get(Skill.ULTIMATE_SKILL).getDamageDealt());
-                        player1Sprite.showDamageBySkill();
-                        player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).setUltimateSkillCollided(true);
-                       // startCollisionSound();
-                    }
-
-                    try {
-                        Thread.sleep(20);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-
-                }
-
-                /* HANDLING SKILL COLLISION WITH OTHER SKILLS */
-                if (player1Sprite.getSkillSprites().size() >= 4 && player2Sprite.getSkillSprites().size() >= 4 &&
-                        player1Sprite.isSkillActive() && player2Sprite.isSkillActive()) {
-
-                    // Amplifico la lunghezza del rettangolo della energyball per rendere possibile l'intersezione tra i due rettangoli
-                    Rectangle player1EnergyballCollisionRectangleAmplified = player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect();
-                    player1EnergyballCollisionRectangleAmplified.grow(10, 0);
-                    Rectangle player2EnergyballCollisionRectangleAmplified = player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect();
-                    player2EnergyballCollisionRectangleAmplified.grow(10, 0);
-                    boolean hasPlayer1EnergyballHitPlayer2Energyball = player1EnergyballCollisionRectangleAmplified.intersects(player2EnergyballCollisionRectangleAmplified);
-                    boolean hasPlayer1EnergyballHitPlayer2SpecialSkill = player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect());
-                    boolean hasPlayer1EnergyballHitPlayer2UltimateSkill = player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect());
-                    boolean hasPlayer2EnergyballHitPlayer1UltimateSkill = player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect());
-                    boolean hasPlayer2EnergyballHitPlayer1SpecialSkill = player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).getSkillCollisionRect().intersects(player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect());
-
-                    boolean hasPlayer1SpecialSkillHitPlayer2SpecialSkill = player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect().intersects(player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).getSkillCollisionRect());
-                    boolean hasPlayer1UltimateSkillHitPlayer2UltimateSkill = player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect().intersects(player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).getSkillCollisionRect());
-
-                    boolean isPlayer1EnergyballNotCollided = !player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).isEnergyballCollided();
-                    boolean isPlayer2EnergyballNotCollided = !player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).isEnergyballCollided();
-                    boolean isPlayer1SpecialSkillNotCollided = !player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).isSpecialSkillCollided();
-                    boolean isPlayer2SpecialSkillNotCollided = !player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).isSpecialSkillCollided();
-                    boolean isPlayer1UltimateSkillNotCollided = !player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).isUltimateSkillCollided();
-                    boolean isPlayer2UltimateSkillNotCollided = !player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).isUltimateSkillCollided();
-
-
-                    if (hasPlayer1EnergyballHitPlayer2Energyball && isPlayer1EnergyballNotCollided && isPlayer2EnergyballNotCollided) {
-                        player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                        player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                        //startCollisionSound();
-                    } else if (((player2Sprite.isSpecialSkillActive() && hasPlayer1EnergyballHitPlayer2SpecialSkill) || (player2Sprite.isUltimateSkillActive() && hasPlayer1EnergyballHitPlayer2UltimateSkill)) && isPlayer1EnergyballNotCollided) {
-                        player1Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                       // startCollisionSound();
-                    } else if (((player1Sprite.isSpecialSkillActive() && hasPlayer2EnergyballHitPlayer1SpecialSkill) || (player1Sprite.isUltimateSkillActive() && hasPlayer2EnergyballHitPlayer1UltimateSkill)) && isPlayer2EnergyballNotCollided) {
-                        player2Sprite.getSkillSprites().get(Skill.ENERGYBALL).setEnergyballCollided(true);
-                        //startCollisionSound();
-                    } else if (hasPlayer1SpecialSkillHitPlayer2SpecialSkill && isPlayer1SpecialSkillNotCollided && isPlayer2SpecialSkillNotCollided) {
-                        player1Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).setSpecialSkillCollided(true);
-                        player2Sprite.getSkillSprites().get(Skill.SPECIAL_SKILL).setSpecialSkillCollided(true);
-                        //startCollisionSound();
-                    } else if (hasPlayer1UltimateSkillHitPlayer2UltimateSkill && isPlayer1UltimateSkillNotCollided && isPlayer2UltimateSkillNotCollided) {
-                        player1Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).setUltimateSkillCollided(true);
-                        player2Sprite.getSkillSprites().get(Skill.ULTIMATE_SKILL).setUltimateSkillCollided(true);
-                        //startCollisionSound();
-                    }
-
-                }
-
-            }
-        });
-        collisionsThread.start();
-    }
-
-    private void startCollisionSound() {
-        try {
-            ResourcesHandler.getInstance().playMusic("/resources/sounds/battle_sounds/Collision.wav", 0);
-        } catch (ResourceException ignored) {
-        }
+        return auraVoice;
     }
 
 
@@ -734,13 +396,36 @@ public class BattleArenaPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        render(g);
+    }
+
+    /**
+     * Disegna un frame completo del combattimento sul contesto grafico preso come parametro.
+     * Viene utilizzato sia dal ridisegno passivo di Swing che dal rendering attivo.
+     * @param g contesto grafico su cui disegnare.
+     */
+    private void render(Graphics g) {
+        BattleState state = battleSimulation.getState();
+        FighterState player1State = state.getFighter1();
+        FighterState player2State = state.getFighter2();
+
         g.drawImage(backgroundImage, 0, 0, PANEL_SIZE.width, PANEL_SIZE.height, this);
 
-        player1StatusBar.draw(g);
-        player2StatusBar.draw(g);
+        player1StatusBar.draw(g, player1State);
+        player2StatusBar.draw(g, player2State);
 
-        player1Sprite.draw(g);
-        player2Sprite.draw(g);
+        double interpolationAlpha = gameLoop.getInterpolationAlpha();
+        player1Sprite.update(player1State);
+        player2Sprite.update(player2State);
+        player1Sprite.draw(g, interpolationAlpha);
+        player2Sprite.draw(g, interpolationAlpha);
+
+        if (GameController.getInstance().isWaitingForOpponent()) {
+            g.setColor(Color.WHITE);
+            g.setFont(WAITING_FONT);
+            int messageWidth = g.getFontMetrics().stringWidth(WAITING_MESSAGE);
+            g.drawString(WAITING_MESSAGE, (PANEL_SIZE.width - messageWidth) / 2, PANEL_SIZE.height / 2);
+        }
 
         if (isGameFinished) {
             g.drawImage(escPressLogo, 250, 530, 787, 91, this);
@@ -750,21 +435,24 @@ public class BattleArenaPanel extends JPanel {
             g.drawImage(player2WinnerBar, 710, 300, 550, 288, this);
             g.drawImage(player2Logo, 770, 350, 289, 81, this);
 
-            if (winnerName.equals("player1"))
+            if ("player1".equals(winnerName))
                 g.drawImage(winnerLogo, 300, 450, 200, 50, this);
-            else if (winnerName.equals("player2"))
+            else if ("player2".equals(winnerName))
                 g.drawImage(winnerLogo, 800, 450, 200, 50, this);
 
             if (player1.getCanonicalName().equals("goku"))
-                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Goku" + player1.getActualEvolutionNumber() + ".png"), -150, 250, 500, 380, this);
+                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Goku" + player1State.getActualEvolutionNumber() + ".png"), -150, 250, 500, 380, this);
             else if (player1.getCanonicalName().equals("freezer"))
-                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Freezer" + player1.getActualEvolutionNumber() + ".png"), -150, 250, 500, 380, this);
+                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Freezer" + player1State.getActualEvolutionNumber() + ".png"), -150, 250, 500, 380, this);
 
             if (player2.getCanonicalName().equals("goku"))
-                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Goku" + player2.getActualEvolutionNumber() + ".png"), 900, 250, 500, 380, this);
+                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Goku" + player2State.getActualEvolutionNumber() + ".png"), 900, 250, 500, 380, this);
             else if (player2.getCanonicalName().equals("freezer"))
-                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Freezer" + player2.getActualEvolutionNumber() + ".png"), 900, 250, 500, 380, this);
+                g.drawImage(ResourcesHandler.getInstance().getImage("/resources/other/battle_panel_images/Freezer" + player2State.getActualEvolutionNumber() + ".png"), 900, 250, 500, 380, this);
         }
 
+        PerformanceMetrics.getInstance().recordFrame();
+        if (isPerformanceOverlayVisible)
+            performanceOverlay.draw(g);
     }
 }
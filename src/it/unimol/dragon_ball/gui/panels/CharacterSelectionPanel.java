@@ -5,12 +5,15 @@ import it.unimol.dragon_ball.gui.GuiHandler;
 import it.unimol.dragon_ball.gui.custom_components.buttons.CustomButton;
 import it.unimol.dragon_ball.gui.frames.MainFrame;
 import it.unimol.dragon_ball.utils.ResourcesHandler;
+import it.unimol.dragon_ball.utils.SpritePreloader;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Classe che rappresenta il pannello di selezione dei personaggi.
@@ -43,6 +46,10 @@ public class CharacterSelectionPanel extends JPanel {
     private CustomButton character2Button;
     private CustomButton previousCharacter2Button;
 
+    private Future<?> character1Preload;
+    private Future<?> character2Preload;
+    private boolean isGameStarting;
+
     private Image mapBorder;
     private CustomButton selectedMapButton;
     private String selectedMapFilepath;
@@ -242,12 +249,8 @@ public class CharacterSelectionPanel extends JPanel {
                 }
 
                 if (startGameButton.containsPoint(e.getPoint())) {
-                    if(checkSelectionValidity()) {
-                        GuiHandler.getInstance().setSelectedBackgroundMapFilepath(selectedMapFilepath);
-                        GuiHandler.getInstance().stopBackgroundMusic();
-                        GameController.getInstance().startGame();
-                        MainFrame.getInstance().switchPanel(MainFrame.GAME_PANEL);
-                    }
+                    if (!isGameStarting && checkSelectionValidity())
+                        startGameAfterPreload();
                 }
 
                 // Characters buttons handling
@@ -280,6 +283,46 @@ public class CharacterSelectionPanel extends JPanel {
         });
     }
 
+    /**
+     * Attende in background il precaricamento degli sprite dei personaggi selezionati e, al termine, avvia la partita
+     * sull'Event Dispatch Thread, così che la costruzione dell'arena non debba decodificare alcun frame.
+     */
+    private void startGameAfterPreload() {
+        isGameStarting = true;
+        Future<?> character1Preload = this.character1Preload;
+        Future<?> character2Preload = this.character2Preload;
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                character1Preload.get();
+                character2Preload.get();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                isGameStarting = false;
+
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                    MainFrame.getInstance().showErrorPopup("Cannot load the characters: " + cause.getMessage());
+                    return;
+                }
+
+                GuiHandler.getInstance().setSelectedBackgroundMapFilepath(selectedMapFilepath);
+                GuiHandler.getInstance().stopBackgroundMusic();
+                if (GuiHandler.getInstance().isComputerGameActive())
+                    GameController.getInstance().startComputerGame(selectedMapFilepath);
+                else
+                    GameController.getInstance().startGame(selectedMapFilepath);
+                MainFrame.getInstance().switchPanel(MainFrame.GAME_PANEL);
+            }
+        }.execute();
+    }
+
     private void resetPreviousSelectedButton() {
         if (previousCharacter1Button != null) {
             if (previousCharacter1Button.getPosition().equals(goku1Button.getPosition())) {
@@ -304,21 +347,26 @@ public class CharacterSelectionPanel extends JPanel {
 
     private void handleMainButtonImageAndCharacterSelection() {
         // This part of code is activated when the user click on the characters. Shows the text "Selected".
+        // The sprites of every evolution of the selected character are preloaded in background.
         if (isCharacter1Selected && character1Button.getPosition().equals(goku1Button.getPosition())) {
             goku1Button.setButtonImage(gokuButtonImageSelected);
             GameController.getInstance().setPlayer1AsGoku();
+            character1Preload = SpritePreloader.getInstance().preload("goku");
         }
         if (isCharacter2Selected && character2Button.getPosition().equals(goku2Button.getPosition())) {
             goku2Button.setButtonImage(gokuButtonImageSelected);
             GameController.getInstance().setPlayer2AsGoku();
+            character2Preload = SpritePreloader.getInstance().preload("goku");
         }
         if (isCharacter1Selected && character1Button.getPosition().equals(freezer1Button.getPosition())) {
             freezer1Button.setButtonImage(freezerButtonImageSelected);
             GameController.getInstance().setPlayer1AsFreezer();
+            character1Preload = SpritePreloader.getInstance().preload("freezer");
         }
         if (isCharacter2Selected && character2Button.getPosition().equals(freezer2Button.getPosition())) {
             freezer2Button.setButtonImage(freezerButtonImageSelected);
             GameController.getInstance().setPlayer2AsFreezer();
+            character2Preload = SpritePreloader.getInstance().preload("freezer");
         }
     }
 
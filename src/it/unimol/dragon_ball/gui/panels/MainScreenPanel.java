@@ -111,11 +111,8 @@ public class MainScreenPanel extends JPanel {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (computerGameButton.containsPoint(e.getPoint())) {
-                    MainFrame.getInstance().showPopup("Info","Coming soon!");
-                    /* COMING SOON
                     GuiHandler.getInstance().setComputerGameActive();
                     MainFrame.getInstance().switchPanel(MainFrame.CHARACTER_SELECTION_PANEL);
-                    */
                 }
 
                 if (multiplayerButton.containsPoint(e.getPoint())) {
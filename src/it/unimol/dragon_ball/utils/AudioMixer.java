@@ -0,0 +1,336 @@
+package it.unimol.dragon_ball.utils;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Mixer audio software.
+ * Tutte le voci in riproduzione vengono sommate, con il rispettivo volume e bilanciamento, in un unico flusso stereo a
+ * 16 bit, scritto da un solo thread su una sola {@link SourceDataLine}. In questo modo il numero di suoni contemporanei
+ * non dipende dalle linee audio messe a disposizione dal sistema.
+ * I suoni con frequenza di campionamento diversa da quella del mixer vengono ricampionati per interpolazione lineare.
+ * Il numero di voci è limitato a {@link #DEFAULT_MAX_VOICES} complessive e {@link #DEFAULT_VOICES_PER_SOUND} per suono:
+ * al superamento di un limite viene interrotta la voce avviata da più tempo (voice stealing), escluse le riproduzioni
+ * in loop continuo.
+ * Oltre alle voci, il mixer riproduce i brani musicali in streaming ({@link MusicStream}) avviati dal
+ * {@link MusicPlayer}.
+ * Il mixaggio è disponibile anche senza linea audio tramite {@link #mix(byte[], int)}.
+ */
+public class AudioMixer {
+    public static final float SAMPLE_RATE = 44_100f;
+    public static final int CHANNELS = 2;
+    public static final int FRAME_SIZE = CHANNELS * 2;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
+
+    public static final int LOOP_CONTINUOUSLY = -1;
+    public static final int DEFAULT_MAX_VOICES = 32;
+    public static final int DEFAULT_VOICES_PER_SOUND = 4;
+
+    public static final int BLOCK_FRAMES = 256;
+    public static final int LINE_BUFFER_BLOCKS = 4;
+
+    private final int maxVoices;
+    private final int voicesPerSound;
+
+    private final List<SoundVoice> voices;
+    private final List<MusicStream> musicStreams;
+    private float[] mixBuffer;
+    private long startSequence;
+    private long stolenVoicesCount;
+
+    private volatile boolean isRunning;
+    private boolean isOutputUnavailable;
+    private Thread mixerThread;
+
+    public AudioMixer() {
+        this(DEFAULT_MAX_VOICES, DEFAULT_VOICES_PER_SOUND);
+    }
+
+    /**
+     * Genera un nuovo <code>AudioMixer</code> con i limiti di voci presi come parametro.
+     * @param maxVoices numero massimo di voci in riproduzione contemporanea.
+     * @param voicesPerSound numero massimo di voci in riproduzione contemporanea per ciascun suono.
+     */
+    public AudioMixer(int maxVoices, int voicesPerSound) {
+        assert maxVoices > 0 && voicesPerSound > 0;
+
+        this.maxVoices = maxVoices;
+        this.voicesPerSound = voicesPerSound;
+        this.voices = new ArrayList<>();
+        this.musicStreams = new ArrayList<>();
+        this.mixBuffer = new float[BLOCK_FRAMES * CHANNELS];
+        this.startSequence = 0;
+        this.stolenVoicesCount = 0;
+        this.isRunning = false;
+        this.isOutputUnavailable = false;
+    }
+
+    /**
+     * Apre la linea audio e avvia il thread che vi scrive il flusso mixato. Qualora non fosse disponibile alcuna linea
+     * audio, i tentativi successivi falliscono immediatamente.
+     * @return true se il mixer è in esecuzione, false se non è disponibile alcuna linea audio.
+     */
+    public synchronized boolean start() {
+        if (this.isRunning)
+            return true;
+
+        if (this.isOutputUnavailable)
+            return false;
+
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, BLOCK_FRAMES * LINE_BUFFER_BLOCKS * FRAME_SIZE);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException ex) {
+            System.err.println("Audio output not available: " + ex.getMessage());
+            this.isOutputUnavailable = true;
+            return false;
+        }
+
+        this.isRunning = true;
+        this.mixerThread = new Thread(() -> runLoop(line), "AudioMixer");
+        this.mixerThread.setDaemon(true);
+        this.mixerThread.setPriority(Thread.MAX_PRIORITY);
+        this.mixerThread.start();
+        return true;
+    }
+
+    /**
+     * Interrompe il thread del mixer e chiude la linea audio. Le voci e i brani in riproduzione vengono interrotti.
+     */
+    public synchronized void stop() {
+        this.isRunning = false;
+        stopAll();
+
+        for (MusicStream musicStream : this.musicStreams)
+            musicStream.close();
+
+        this.musicStreams.clear();
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    private void runLoop(SourceDataLine line) {
+        byte[] block = new byte[BLOCK_FRAMES * FRAME_SIZE];
+        line.start();
+
+        // La scrittura sulla linea è bloccante: è la linea stessa a scandire il ritmo del thread
+        while (this.isRunning) {
+            mix(block, BLOCK_FRAMES);
+            line.write(block, 0, block.length);
+        }
+
+        line.stop();
+        line.flush();
+        line.close();
+    }
+
+    /**
+     * Avvia la riproduzione del suono preso come parametro, con volume unitario e bilanciamento centrato.
+     * @param sound suono da riprodurre.
+     * @param loopCount numero di ripetizioni successive alla prima riproduzione; si inserisca
+     *                  {@link #LOOP_CONTINUOUSLY} per una riproduzione in loop.
+     * @return la voce su cui è in riproduzione il suono, oppure null se non è possibile ottenere una voce.
+     */
+    SoundVoice play(Sound sound, int loopCount) {
+        return play(sound, loopCount, 1, 0);
+    }
+
+    /**
+     * Avvia la riproduzione del suono preso come parametro.
+     * @param sound suono da riprodurre.
+     * @param loopCount numero di ripetizioni successive alla prima riproduzione; si inserisca
+     *                  {@link #LOOP_CONTINUOUSLY} per una riproduzione in loop.
+     * @param gain fattore di amplificazione dei campioni.
+     * @param pan bilanciamento tra i canali, compreso tra -1 (solo sinistra) e 1 (solo destra).
+     * @return la voce su cui è in riproduzione il suono, oppure null se non è possibile ottenere una voce.
+     */
+    synchronized SoundVoice play(Sound sound, int loopCount, float gain, float pan) {
+        assert sound != null;
+
+        if (sound.getFramesNumber() == 0)
+            return null;
+
+        removeStoppedVoices();
+
+        int soundVoicesNumber = 0;
+        for (SoundVoice voice : this.voices) {
+            if (voice.getSound() == sound)
+                soundVoicesNumber++;
+        }
+
+        if ((soundVoicesNumber >= this.voicesPerSound && !stealVoice(sound))
+                || (this.voices.size() >= this.maxVoices && !stealVoice(null)))
+            return null;
+
+        int remainingLoops = loopCount < 0 ? LOOP_CONTINUOUSLY : loopCount;
+        SoundVoice voice = new SoundVoice(sound, remainingLoops, gain, pan, this.startSequence++);
+        this.voices.add(voice);
+        return voice;
+    }
+
+    /**
+     * Interrompe la voce, non in loop continuo, avviata da più tempo.
+     * @param sound suono di cui interrompere una voce, oppure null per considerare tutte le voci.
+     */
+    private boolean stealVoice(Sound sound) {
+        SoundVoice oldestVoice = null;
+
+        for (SoundVoice voice : this.voices) {
+            if ((sound == null || voice.getSound() == sound) && !voice.isContinuous()
+                    && (oldestVoice == null || voice.getStartSequence() < oldestVoice.getStartSequence()))
+                oldestVoice = voice;
+        }
+
+        if (oldestVoice == null)
+            return false;
+
+        oldestVoice.stop();
+        this.voices.remove(oldestVoice);
+        this.stolenVoicesCount++;
+        return true;
+    }
+
+    /**
+     * Aggiunge un brano in streaming a quelli riprodotti dal mixer. Il brano viene rimosso automaticamente quando si
+     * conclude.
+     * @param musicStream brano da riprodurre.
+     */
+    synchronized void addMusicStream(MusicStream musicStream) {
+        assert musicStream != null;
+
+        this.musicStreams.add(musicStream);
+    }
+
+    /**
+     * Interrompe tutte le voci in riproduzione.
+     */
+    public synchronized void stopAll() {
+        for (SoundVoice voice : this.voices)
+            voice.stop();
+
+        this.voices.clear();
+    }
+
+    /**
+     * Somma le voci in riproduzione e scrive il risultato, in formato {@link #FORMAT}, nel buffer preso come parametro.
+     * Le voci concluse vengono rimosse dal mixer.
+     * @param buffer buffer di destinazione, di almeno <code>frames * FRAME_SIZE</code> byte.
+     * @param frames numero di frame da generare.
+     */
+    public synchronized void mix(byte[] buffer, int frames) {
+        assert buffer.length >= frames * FRAME_SIZE;
+
+        if (this.mixBuffer.length < frames * CHANNELS)
+            this.mixBuffer = new float[frames * CHANNELS];
+
+        Arrays.fill(this.mixBuffer, 0, frames * CHANNELS, 0f);
+
+        Iterator<SoundVoice> iterator = this.voices.iterator();
+        while (iterator.hasNext()) {
+            SoundVoice voice = iterator.next();
+            if (!voice.isPlaying() || !mixVoice(voice, frames)) {
+                voice.stop();
+                iterator.remove();
+            }
+        }
+
+        this.musicStreams.removeIf(musicStream -> !musicStream.mix(this.mixBuffer, frames, SAMPLE_RATE));
+
+        for (int i = 0; i < frames * CHANNELS; i++) {
+            int sample = Math.round(this.mixBuffer[i]);
+            sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+
+            buffer[2 * i] = (byte) sample;
+            buffer[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Aggiunge al buffer di mixaggio i frame successivi della voce.
+     * @return false se la riproduzione della voce si è conclusa.
+     */
+    private boolean mixVoice(SoundVoice voice, int frames) {
+        Sound sound = voice.getSound();
+        short[] samples = sound.getSamples();
+        int soundChannels = sound.getChannels();
+        int soundFrames = sound.getFramesNumber();
+
+        double step = sound.getFrameRate() / SAMPLE_RATE;
+        double position = voice.getPosition();
+        int remainingLoops = voice.getRemainingLoops();
+
+        // Legge di bilanciamento che mantiene il volume originale quando la voce è centrata
+        float pan = voice.getPan();
+        float leftGain = voice.getGain() * Math.min(1, 1 - pan);
+        float rightGain = voice.getGain() * Math.min(1, 1 + pan);
+
+        for (int frame = 0; frame < frames; frame++) {
+            int index = (int) position;
+            float fraction = (float) (position - index);
+
+            int nextIndex = index + 1;
+            if (nextIndex >= soundFrames)
+                nextIndex = remainingLoops != 0 ? 0 : index;
+
+            float left = interpolate(samples[index * soundChannels], samples[nextIndex * soundChannels], fraction);
+            float right = left;
+            if (soundChannels == 2)
+                right = interpolate(samples[index * 2 + 1], samples[nextIndex * 2 + 1], fraction);
+
+            this.mixBuffer[frame * CHANNELS] += left * leftGain;
+            this.mixBuffer[frame * CHANNELS + 1] += right * rightGain;
+
+            position = position + step;
+            if (position >= soundFrames) {
+                if (remainingLoops == 0)
+                    return false;
+
+                position = position - soundFrames;
+                if (remainingLoops != LOOP_CONTINUOUSLY)
+                    remainingLoops--;
+            }
+        }
+
+        voice.setPosition(position);
+        voice.setRemainingLoops(remainingLoops);
+        return true;
+    }
+
+    private static float interpolate(short sample, short nextSample, float fraction) {
+        return sample + (nextSample - sample) * fraction;
+    }
+
+    private void removeStoppedVoices() {
+        this.voices.removeIf(voice -> !voice.isPlaying());
+    }
+
+    public synchronized int getMusicStreamsNumber() {
+        return musicStreams.size();
+    }
+
+    public synchronized int getActiveVoicesNumber() {
+        removeStoppedVoices();
+        return voices.size();
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    public int getVoicesPerSound() {
+        return voicesPerSound;
+    }
+
+    public synchronized long getStolenVoicesCount() {
+        return stolenVoicesCount;
+    }
+}
@@ -0,0 +1,58 @@
+package it.unimol.dragon_ball.utils;
+
+import java.util.Arrays;
+
+/**
+ * Finestra a capacità fissa delle durate dei frame, su cui calcolare i percentili.
+ * Superata la capacità, ogni nuova durata sostituisce la più vecchia. La classe non è thread-safe: la sincronizzazione
+ * è a carico del chiamante.
+ */
+public class FrameTimeWindow {
+    private final long[] frameNanos;
+    private int size;
+    private int next;
+
+    /**
+     * @param capacity numero massimo di durate conservate.
+     */
+    public FrameTimeWindow(int capacity) {
+        assert capacity > 0;
+
+        this.frameNanos = new long[capacity];
+        clear();
+    }
+
+    public void add(long nanos) {
+        this.frameNanos[next] = nanos;
+        this.next = (next + 1) % frameNanos.length;
+        this.size = Math.min(size + 1, frameNanos.length);
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.next = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Restituisce il percentile delle durate conservate, calcolato con il metodo nearest-rank.
+     * @param quantile quantile desiderato, compreso tra 0 (escluso) e 1.
+     * @return la durata, in nanosecondi, non superata dalla frazione di frame presa come parametro; 0 se la finestra
+     * è vuota.
+     */
+    public long percentile(double quantile) {
+        assert quantile > 0 && quantile <= 1;
+
+        if (size == 0)
+            return 0;
+
+        long[] sortedNanos = Arrays.copyOf(frameNanos, size);
+        Arrays.sort(sortedNanos);
+
+        int rank = (int) Math.ceil(quantile * size);
+        return sortedNanos[rank - 1];
+    }
+}
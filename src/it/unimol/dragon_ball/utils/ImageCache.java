@@ -0,0 +1,162 @@
+package it.unimol.dragon_ball.utils;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache thread-safe delle immagini decodificate, indicizzate tramite filepath.
+ * La dimensione della cache è limitata dal numero di byte occupati dalle immagini decodificate: al superamento del
+ * limite vengono rimosse le immagini utilizzate meno di recente (LRU).
+ * La decodifica di un'immagine mancante avviene fuori dal lock, così che letture concorrenti di altre immagini non
+ * restino bloccate durante la lettura da disco.
+ * Le immagini restituite sono condivise tra tutti i chiamanti e non devono essere modificate.
+ */
+public class ImageCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, BufferedImage> images;
+    private long sizeInBytes;
+
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+
+    /**
+     * Genera una nuova <code>ImageCache</code> con la capacità presa come parametro.
+     * @param maxBytes numero massimo di byte occupabili dalle immagini decodificate.
+     */
+    public ImageCache(long maxBytes) {
+        assert maxBytes > 0;
+
+        this.maxBytes = maxBytes;
+        this.images = new LinkedHashMap<>(256, 0.75f, true);
+        this.sizeInBytes = 0;
+
+        this.hitCount = new AtomicLong(0);
+        this.missCount = new AtomicLong(0);
+        this.evictionCount = new AtomicLong(0);
+    }
+
+    /**
+     * Restituisce l'immagine associata al filepath. Qualora l'immagine non fosse presente in cache, viene decodificata
+     * tramite il loader preso come parametro e inserita in cache.
+     * @param path filepath dell'immagine desiderata.
+     * @param loader operazione che decodifica l'immagine a partire dal filepath.
+     * @return l'immagine associata al filepath.
+     */
+    public BufferedImage get(String path, Function<String, BufferedImage> loader) {
+        assert path != null && loader != null;
+
+        synchronized (this) {
+            BufferedImage image = this.images.get(path);
+            if (image != null) {
+                this.hitCount.incrementAndGet();
+                return image;
+            }
+        }
+
+        this.missCount.incrementAndGet();
+        BufferedImage loadedImage = loader.apply(path);
+        if (loadedImage == null)
+            return null;
+
+        synchronized (this) {
+            // Un altro thread potrebbe aver decodificato la stessa immagine nel frattempo: mantengo quella già presente
+            BufferedImage image = this.images.get(path);
+            if (image != null)
+                return image;
+
+            long imageBytes = getImageBytes(loadedImage);
+            if (imageBytes <= this.maxBytes) {
+                this.images.put(path, loadedImage);
+                this.sizeInBytes = this.sizeInBytes + imageBytes;
+                evictIfNeeded();
+            }
+        }
+
+        return loadedImage;
+    }
+
+    /**
+     * Rimuove dalla cache l'immagine associata al filepath, così che la successiva richiesta la decodifichi di nuovo.
+     * @param path filepath dell'immagine da rimuovere.
+     */
+    public synchronized void invalidate(String path) {
+        BufferedImage image = this.images.remove(path);
+        if (image != null)
+            this.sizeInBytes = this.sizeInBytes - getImageBytes(image);
+    }
+
+    /**
+     * Rimuove dalla cache tutte le immagini.
+     */
+    public synchronized void invalidateAll() {
+        this.images.clear();
+        this.sizeInBytes = 0;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, BufferedImage>> iterator = this.images.entrySet().iterator();
+
+        while (this.sizeInBytes > this.maxBytes && iterator.hasNext()) {
+            Map.Entry<String, BufferedImage> eldestEntry = iterator.next();
+            this.sizeInBytes = this.sizeInBytes - getImageBytes(eldestEntry.getValue());
+            iterator.remove();
+            this.evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stima il numero di byte occupati da un'immagine decodificata.
+     * @param image immagine di cui calcolare l'occupazione.
+     * @return numero di byte occupati dai pixel dell'immagine.
+     */
+    public static long getImageBytes(BufferedImage image) {
+        int bytesPerPixel = (image.getColorModel().getPixelSize() + 7) / 8;
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    public synchronized boolean contains(String path) {
+        return this.images.containsKey(path);
+    }
+
+    public synchronized int getImagesNumber() {
+        return this.images.size();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return percentuale di richieste soddisfatte dalla cache, compresa tra 0 e 1.
+     */
+    public double getHitRate() {
+        long hits = this.hitCount.get();
+        long requests = hits + this.missCount.get();
+
+        if (requests == 0)
+            return 0;
+
+        return hits / (double) requests;
+    }
+}
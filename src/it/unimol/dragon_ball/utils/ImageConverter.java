@@ -0,0 +1,84 @@
+package it.unimol.dragon_ball.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Converte le immagini decodificate nel formato di pixel nativo dello schermo.
+ * Le immagini restituite da {@link javax.imageio.ImageIO} mantengono il formato scelto dal decoder (es. palette
+ * indicizzata o ABGR a 4 byte), che Java2D deve convertire ad ogni <code>drawImage</code>. Un'immagine creata tramite
+ * {@link GraphicsConfiguration#createCompatibleImage(int, int, int)} condivide invece il formato della superficie di
+ * destinazione ed è gestita da Java2D come <i>managed image</i>: dopo i primi disegni ne viene conservata
+ * automaticamente una copia accelerata (in memoria video, tramite una {@link java.awt.image.VolatileImage} interna),
+ * purché non se ne modifichino direttamente i pixel.
+ * In assenza di uno schermo (modalità headless) viene utilizzato il formato a interi, il più rapido per i cicli di
+ * disegno software.
+ */
+public class ImageConverter {
+
+    private ImageConverter() {
+
+    }
+
+    /**
+     * Restituisce una copia dell'immagine nel formato compatibile con lo schermo, mantenendone la trasparenza.
+     * Qualora l'immagine fosse già in tale formato, viene restituita senza copiarla.
+     * @param image immagine da convertire.
+     * @return un'immagine con lo stesso contenuto, nel formato nativo dello schermo.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (image == null)
+            return null;
+
+        GraphicsConfiguration configuration = getDefaultConfiguration();
+        int transparency = image.getColorModel().getTransparency();
+
+        if (configuration != null && image.getColorModel().equals(configuration.getColorModel(transparency)))
+            return image;
+
+        BufferedImage compatibleImage;
+        if (configuration != null) {
+            compatibleImage = configuration.createCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+        } else {
+            int imageType = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            if (image.getType() == imageType)
+                return image;
+
+            compatibleImage = new BufferedImage(image.getWidth(), image.getHeight(), imageType);
+        }
+
+        Graphics2D g = compatibleImage.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+
+        return compatibleImage;
+    }
+
+    /**
+     * Restituisce un'immagine vuota nel formato compatibile con lo schermo.
+     * @param width larghezza dell'immagine.
+     * @param height altezza dell'immagine.
+     * @param transparency trasparenza dell'immagine (una delle costanti di {@link Transparency}).
+     * @return un'immagine vuota nel formato nativo dello schermo.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        GraphicsConfiguration configuration = getDefaultConfiguration();
+
+        if (configuration != null)
+            return configuration.createCompatibleImage(width, height, transparency);
+
+        int imageType = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, imageType);
+    }
+
+    private static GraphicsConfiguration getDefaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless())
+            return null;
+
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
@@ -0,0 +1,102 @@
+package it.unimol.dragon_ball.utils;
+
+import java.util.Locale;
+
+/**
+ * Valori delle metriche di prestazione campionati da {@link PerformanceMetrics} in un dato istante.
+ * Le istanze sono immutabili e possono quindi essere lette da qualsiasi thread.
+ */
+public final class MetricsSnapshot {
+    public static final String CSV_HEADER = "timestamp_millis,fps,frame_p50_millis,frame_p99_millis,ticks_per_second," +
+            "threads,peak_threads,image_cache_hit_rate,heap_used_bytes,heap_max_bytes,assets_loaded,asset_load_millis";
+
+    private final long timestampMillis;
+    private final double fps;
+    private final double frameP50Millis;
+    private final double frameP99Millis;
+    private final double ticksPerSecond;
+    private final int threads;
+    private final int peakThreads;
+    private final double imageCacheHitRate;
+    private final long heapUsedBytes;
+    private final long heapMaxBytes;
+    private final long assetsLoaded;
+    private final double assetLoadMillis;
+
+    public MetricsSnapshot(long timestampMillis, double fps, double frameP50Millis, double frameP99Millis,
+                           double ticksPerSecond, int threads, int peakThreads, double imageCacheHitRate,
+                           long heapUsedBytes, long heapMaxBytes, long assetsLoaded, double assetLoadMillis) {
+        this.timestampMillis = timestampMillis;
+        this.fps = fps;
+        this.frameP50Millis = frameP50Millis;
+        this.frameP99Millis = frameP99Millis;
+        this.ticksPerSecond = ticksPerSecond;
+        this.threads = threads;
+        this.peakThreads = peakThreads;
+        this.imageCacheHitRate = imageCacheHitRate;
+        this.heapUsedBytes = heapUsedBytes;
+        this.heapMaxBytes = heapMaxBytes;
+        this.assetsLoaded = assetsLoaded;
+        this.assetLoadMillis = assetLoadMillis;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public double getFps() {
+        return fps;
+    }
+
+    public double getFrameP50Millis() {
+        return frameP50Millis;
+    }
+
+    public double getFrameP99Millis() {
+        return frameP99Millis;
+    }
+
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    public double getImageCacheHitRate() {
+        return imageCacheHitRate;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public long getHeapMaxBytes() {
+        return heapMaxBytes;
+    }
+
+    public long getAssetsLoaded() {
+        return assetsLoaded;
+    }
+
+    /**
+     * @return tempo complessivamente impiegato per decodificare le immagini, espresso in millisecondi.
+     */
+    public double getAssetLoadMillis() {
+        return assetLoadMillis;
+    }
+
+    /**
+     * @return una riga CSV, senza terminatore, le cui colonne sono descritte da {@link #CSV_HEADER}.
+     */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%.2f,%.3f,%.3f,%.2f,%d,%d,%.4f,%d,%d,%d,%.3f",
+                timestampMillis, fps, frameP50Millis, frameP99Millis, ticksPerSecond, threads, peakThreads,
+                imageCacheHitRate, heapUsedBytes, heapMaxBytes, assetsLoaded, assetLoadMillis);
+    }
+}
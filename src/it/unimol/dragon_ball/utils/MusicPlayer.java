@@ -0,0 +1,157 @@
+package it.unimol.dragon_ball.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Riproduttore delle musiche di sottofondo.
+ * Ogni brano viene riprodotto in streaming sull'{@link AudioMixer} tramite un {@link MusicStream}: un unico thread
+ * produttore ("MusicStreamer") mantiene pieni i buffer circolari dei brani attivi, leggendo i file a blocchi. Il thread
+ * termina quando non resta alcun brano da riempire, ad esempio dopo l'arresto del mixer, e viene riavviato dal brano
+ * successivo.
+ * Avviare un nuovo brano mentre un altro è in riproduzione produce una dissolvenza incrociata: il brano precedente
+ * sfuma fino al silenzio mentre il nuovo brano sale al volume pieno.
+ */
+public class MusicPlayer {
+    public static final long DEFAULT_CROSSFADE_MILLIS = 1500;
+    public static final long FILL_INTERVAL_MILLIS = 20;
+
+    private final AudioMixer audioMixer;
+    private final int bufferFrames;
+    private final List<MusicStream> musicStreams;
+
+    private MusicStream currentStream;
+    private String currentPath;
+    private Thread streamerThread;
+
+    /**
+     * Genera un nuovo <code>MusicPlayer</code> che riproduce i brani sul mixer preso come parametro.
+     * @param audioMixer mixer su cui riprodurre i brani.
+     */
+    public MusicPlayer(AudioMixer audioMixer) {
+        this(audioMixer, MusicStream.DEFAULT_BUFFER_FRAMES);
+    }
+
+    MusicPlayer(AudioMixer audioMixer, int bufferFrames) {
+        assert audioMixer != null && bufferFrames > 1;
+
+        this.audioMixer = audioMixer;
+        this.bufferFrames = bufferFrames;
+        this.musicStreams = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Avvia la riproduzione in loop del brano preso come parametro, in dissolvenza incrociata con l'eventuale brano in
+     * riproduzione. Un brano già in riproduzione non viene riavviato.
+     * @param path filepath del brano.
+     * @param crossfadeMillis durata della dissolvenza, espressa in millisecondi.
+     * @return true se il brano è in riproduzione, false se il brano o la linea audio non sono disponibili.
+     */
+    public boolean play(String path, long crossfadeMillis) {
+        return play(path, true, crossfadeMillis);
+    }
+
+    /**
+     * Avvia la riproduzione del brano preso come parametro, in dissolvenza incrociata con l'eventuale brano in
+     * riproduzione. Un brano già in riproduzione non viene riavviato.
+     * @param path filepath del brano.
+     * @param isLooping true per ripetere il brano indefinitamente.
+     * @param crossfadeMillis durata della dissolvenza, espressa in millisecondi.
+     * @return true se il brano è in riproduzione, false se il brano o la linea audio non sono disponibili.
+     */
+    public synchronized boolean play(String path, boolean isLooping, long crossfadeMillis) {
+        assert path != null;
+
+        if (path.equals(this.currentPath) && this.currentStream != null && !this.currentStream.isClosed())
+            return true;
+
+        if (!this.audioMixer.start())
+            return false;
+
+        boolean isCrossfading = crossfadeMillis > 0 && this.currentStream != null && !this.currentStream.isClosed();
+
+        MusicStream musicStream;
+        try {
+            musicStream = new MusicStream(Resources.getResource(path), isLooping, this.bufferFrames,
+                    isCrossfading ? 0 : 1);
+        } catch (SoundException ex) {
+            System.err.println("Cannot stream music " + path + ": " + ex.getMessage());
+            return false;
+        }
+
+        long fadeFrames = toMixerFrames(crossfadeMillis);
+        if (this.currentStream != null)
+            this.currentStream.fadeTo(0, fadeFrames);
+        if (isCrossfading)
+            musicStream.fadeTo(1, fadeFrames);
+
+        // Il buffer viene riempito prima di consegnare il brano al mixer, così che la riproduzione inizi senza attese
+        musicStream.fill();
+        this.musicStreams.add(musicStream);
+        this.audioMixer.addMusicStream(musicStream);
+
+        this.currentStream = musicStream;
+        this.currentPath = path;
+        startStreamer();
+        return true;
+    }
+
+    /**
+     * Sfuma fino al silenzio il brano in riproduzione, che viene poi concluso.
+     * @param fadeMillis durata della dissolvenza, espressa in millisecondi.
+     */
+    public synchronized void stop(long fadeMillis) {
+        if (this.currentStream != null)
+            this.currentStream.fadeTo(0, toMixerFrames(fadeMillis));
+
+        this.currentStream = null;
+        this.currentPath = null;
+    }
+
+    public synchronized boolean isPlaying() {
+        return this.currentStream != null && !this.currentStream.isClosed();
+    }
+
+    public synchronized String getCurrentPath() {
+        return currentPath;
+    }
+
+    private static long toMixerFrames(long millis) {
+        return (long) (millis * AudioMixer.SAMPLE_RATE / 1000);
+    }
+
+    private void startStreamer() {
+        if (this.streamerThread != null)
+            return;
+
+        this.streamerThread = new Thread(this::runStreamer, "MusicStreamer");
+        this.streamerThread.setDaemon(true);
+        this.streamerThread.start();
+    }
+
+    private void runStreamer() {
+        while (true) {
+            // Il controllo avviene sotto lock, così che un brano aggiunto da play trovi il thread attivo o lo riavvii
+            synchronized (this) {
+                if (this.musicStreams.isEmpty()) {
+                    this.streamerThread = null;
+                    return;
+                }
+            }
+
+            for (MusicStream musicStream : this.musicStreams) {
+                if (!musicStream.fill() && musicStream.isClosed())
+                    this.musicStreams.remove(musicStream);
+            }
+
+            try {
+                Thread.sleep(FILL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    this.streamerThread = null;
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package it.unimol.dragon_ball.utils;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Brano musicale riprodotto in streaming dall'{@link AudioMixer}.
+ * Il file WAVE viene letto a blocchi da un thread produttore (si veda {@link MusicPlayer}) e depositato in un buffer
+ * circolare di dimensione ridotta, da cui il mixer preleva i frame da riprodurre; in memoria non viene quindi mai
+ * mantenuto l'intero brano decodificato.
+ * Al termine del file, se la riproduzione è in loop, il file viene riaperto e la lettura prosegue sullo stesso buffer,
+ * così che la ripetizione avvenga senza interruzioni.
+ * Il volume del brano può essere portato gradualmente ad un nuovo valore (dissolvenza); un brano la cui dissolvenza
+ * termina a volume nullo viene concluso.
+ */
+class MusicStream {
+    public static final int DEFAULT_BUFFER_FRAMES = 32 * 1024;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final URL url;
+    private final boolean isLooping;
+
+    private final short[] ringBuffer;
+    private final int bufferFrames;
+    private final int channels;
+    private final float frameRate;
+
+    // Frame scritti dal produttore e letti dal mixer dall'inizio della riproduzione
+    private volatile long writtenFrames;
+    private volatile long readFrames;
+    private volatile boolean isEnded;
+    private volatile boolean isClosed;
+
+    // Stato del produttore
+    private AudioInputStream inputStream;
+    private final byte[] readBuffer;
+    private int pendingBytes;
+
+    // Stato del mixer
+    private double fraction;
+    private float gain;
+    private float targetGain;
+    private float gainStep;
+
+    /**
+     * Apre in streaming il file WAVE preso come parametro.
+     * @param url file WAVE da riprodurre.
+     * @param isLooping true per ripetere il brano indefinitamente.
+     * @param bufferFrames capacità del buffer circolare, espressa in frame.
+     * @param gain volume iniziale del brano.
+     * @throws SoundException se il file non risulta essere un corretto file WAVE mono o stereo.
+     */
+    MusicStream(URL url, boolean isLooping, int bufferFrames, float gain) throws SoundException {
+        if (url == null)
+            throw new SoundException("Music not found");
+
+        assert bufferFrames > 1;
+
+        this.url = url;
+        this.isLooping = isLooping;
+        this.inputStream = open(url);
+
+        AudioFormat format = this.inputStream.getFormat();
+        if (format.getChannels() != 1 && format.getChannels() != 2) {
+            closeInputStream();
+            throw new SoundException("Unsupported channels number: " + format.getChannels());
+        }
+
+        this.channels = format.getChannels();
+        this.frameRate = format.getFrameRate();
+        this.bufferFrames = bufferFrames;
+        this.ringBuffer = new short[bufferFrames * this.channels];
+        this.readBuffer = new byte[READ_BUFFER_SIZE - READ_BUFFER_SIZE % format.getFrameSize()];
+
+        this.writtenFrames = 0;
+        this.readFrames = 0;
+        this.isEnded = false;
+        this.isClosed = false;
+
+        this.fraction = 0;
+        this.gain = Math.max(0, gain);
+        this.targetGain = this.gain;
+        this.gainStep = 0;
+    }
+
+    private static AudioInputStream open(URL url) throws SoundException {
+        try {
+            AudioInputStream sourceStream = AudioSystem.getAudioInputStream(url);
+            AudioFormat sourceFormat = sourceStream.getFormat();
+            AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(),
+                    16, sourceFormat.getChannels(), sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(), false);
+
+            if (sourceFormat.matches(pcmFormat))
+                return sourceStream;
+
+            return AudioSystem.getAudioInputStream(pcmFormat, sourceStream);
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException ex) {
+            throw new SoundException(url.getFile(), ex);
+        }
+    }
+
+    /**
+     * Legge dal file i frame necessari a riempire il buffer circolare. Viene invocato dal solo thread produttore.
+     * @return false se il brano è stato letto per intero (e non è in loop) oppure è stato chiuso.
+     */
+    boolean fill() {
+        if (this.isClosed || this.isEnded) {
+            closeInputStream();
+            return false;
+        }
+
+        try {
+            long freeFrames = this.bufferFrames - (this.writtenFrames - this.readFrames);
+            int frameSize = this.channels * 2;
+
+            while (freeFrames > 0) {
+                if (this.pendingBytes < frameSize) {
+                    int readBytes = this.inputStream.read(this.readBuffer, this.pendingBytes,
+                            this.readBuffer.length - this.pendingBytes);
+
+                    if (readBytes == -1) {
+                        if (!this.isLooping) {
+                            this.isEnded = true;
+                            closeInputStream();
+                            return false;
+                        }
+
+                        // Ripetizione senza interruzioni: il file viene riaperto e la lettura prosegue
+                        closeInputStream();
+                        this.inputStream = open(this.url);
+                        this.pendingBytes = 0;
+                        continue;
+                    }
+
+                    this.pendingBytes = this.pendingBytes + readBytes;
+                    continue;
+                }
+
+                int framesToCopy = (int) Math.min(freeFrames, this.pendingBytes / frameSize);
+                writeFrames(framesToCopy);
+                freeFrames = freeFrames - framesToCopy;
+            }
+        } catch (IOException | SoundException ex) {
+            ex.printStackTrace();
+            this.isEnded = true;
+            closeInputStream();
+            return false;
+        }
+
+        return true;
+    }
+
+    private void writeFrames(int framesNumber) {
+        long writePosition = this.writtenFrames;
+
+        for (int frame = 0; frame < framesNumber; frame++) {
+            int ringIndex = (int) ((writePosition + frame) % this.bufferFrames) * this.channels;
+
+            for (int channel = 0; channel < this.channels; channel++) {
+                int byteIndex = (frame * this.channels + channel) * 2;
+                this.ringBuffer[ringIndex + channel] =
+                        (short) ((this.readBuffer[byteIndex] & 0xFF) | (this.readBuffer[byteIndex + 1] << 8));
+            }
+        }
+
+        int copiedBytes = framesNumber * this.channels * 2;
+        this.pendingBytes = this.pendingBytes - copiedBytes;
+        System.arraycopy(this.readBuffer, copiedBytes, this.readBuffer, 0, this.pendingBytes);
+
+        // Pubblica i frame al mixer soltanto dopo averli scritti
+        this.writtenFrames = writePosition + framesNumber;
+    }
+
+    /**
+     * Aggiunge al buffer di mixaggio, stereo, i frame successivi del brano, ricampionati alla frequenza presa come
+     * parametro. In assenza di frame disponibili il brano resta in silenzio finché il produttore non lo alimenta.
+     * Viene invocato dal solo thread del mixer.
+     * @param mixBuffer buffer di mixaggio stereo.
+     * @param frames numero di frame da generare.
+     * @param outputRate frequenza di campionamento del mixer.
+     * @return false se il brano è concluso e può essere rimosso dal mixer.
+     */
+    synchronized boolean mix(float[] mixBuffer, int frames, float outputRate) {
+        if (this.isClosed)
+            return false;
+
+        double step = this.frameRate / outputRate;
+
+        for (int frame = 0; frame < frames; frame++) {
+            long availableFrames = this.writtenFrames - this.readFrames;
+            if (availableFrames == 0) {
+                if (this.isEnded) {
+                    this.isClosed = true;
+                    return false;
+                }
+
+                // Buffer vuoto: il produttore è in ritardo
+                return true;
+            }
+
+            int ringIndex = (int) (this.readFrames % this.bufferFrames) * this.channels;
+            int nextRingIndex = availableFrames > 1
+                    ? (int) ((this.readFrames + 1) % this.bufferFrames) * this.channels : ringIndex;
+
+            float fraction = (float) this.fraction;
+            float left = interpolate(this.ringBuffer[ringIndex], this.ringBuffer[nextRingIndex], fraction);
+            float right = left;
+            if (this.channels == 2)
+                right = interpolate(this.ringBuffer[ringIndex + 1], this.ringBuffer[nextRingIndex + 1], fraction);
+
+            mixBuffer[frame * 2] += left * this.gain;
+            mixBuffer[frame * 2 + 1] += right * this.gain;
+
+            if (this.gainStep != 0 && !advanceFade()) {
+                this.isClosed = true;
+                return false;
+            }
+
+            this.fraction = this.fraction + step;
+            int consumedFrames = (int) this.fraction;
+            this.fraction = this.fraction - consumedFrames;
+            this.readFrames = this.readFrames + Math.min(consumedFrames, availableFrames);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return false se la dissolvenza è terminata a volume nullo.
+     */
+    private boolean advanceFade() {
+        this.gain = this.gain + this.gainStep;
+
+        if ((this.gainStep > 0 && this.gain >= this.targetGain) || (this.gainStep < 0 && this.gain <= this.targetGain)) {
+            this.gain = this.targetGain;
+            this.gainStep = 0;
+            return this.targetGain > 0;
+        }
+
+        return true;
+    }
+
+    private static float interpolate(short sample, short nextSample, float fraction) {
+        return sample + (nextSample - sample) * fraction;
+    }
+
+    /**
+     * Porta gradualmente il volume del brano al valore preso come parametro. Un brano portato a volume nullo viene
+     * concluso al termine della dissolvenza.
+     * @param targetGain volume da raggiungere.
+     * @param frames durata della dissolvenza, espressa in frame del mixer.
+     */
+    synchronized void fadeTo(float targetGain, long frames) {
+        this.targetGain = Math.max(0, targetGain);
+
+        if (frames <= 0) {
+            this.gain = this.targetGain;
+            this.gainStep = 0;
+            if (this.targetGain == 0)
+                this.isClosed = true;
+        } else
+            this.gainStep = (this.targetGain - this.gain) / frames;
+    }
+
+    /**
+     * Conclude immediatamente il brano. Il file viene chiuso dal produttore alla successiva lettura.
+     */
+    void close() {
+        this.isClosed = true;
+    }
+
+    private void closeInputStream() {
+        if (this.inputStream == null)
+            return;
+
+        try {
+            this.inputStream.close();
+        } catch (IOException ignored) {
+        }
+        this.inputStream = null;
+    }
+
+    boolean isClosed() {
+        return isClosed;
+    }
+
+    boolean isLooping() {
+        return isLooping;
+    }
+
+    synchronized float getGain() {
+        return gain;
+    }
+
+    int getBufferedFrames() {
+        return (int) (writtenFrames - readFrames);
+    }
+
+    int getBufferFrames() {
+        return bufferFrames;
+    }
+
+    long getReadFrames() {
+        return readFrames;
+    }
+
+    float getFrameRate() {
+        return frameRate;
+    }
+}
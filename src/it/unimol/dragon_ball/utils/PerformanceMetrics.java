@@ -0,0 +1,166 @@
+package it.unimol.dragon_ball.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Singleton che raccoglie le metriche di prestazione del gioco.
+ * Il thread di rendering registra ogni frame disegnato, il {@link it.unimol.dragon_ball.app.GameLoop} ogni tick
+ * eseguito e il {@link ResourcesHandler} il tempo di decodifica di ogni immagine.
+ * Una volta al secondo, durante la registrazione di un frame, le metriche vengono campionate in un
+ * {@link MetricsSnapshot}: FPS, percentili della durata dei frame, tick al secondo, thread attivi, percentuale di
+ * successo della cache delle immagini e occupazione dello heap. Gli ultimi campioni vengono conservati e possono
+ * essere salvati in un file CSV.
+ */
+public class PerformanceMetrics {
+    public static final long SAMPLE_INTERVAL_NANOS = 1_000_000_000L;
+    public static final int HISTORY_SIZE = 3600;  // Un'ora di campioni
+    private static final int FRAME_WINDOW_CAPACITY = 1024;
+
+    private static PerformanceMetrics instance = new PerformanceMetrics(
+            () -> ResourcesHandler.getInstance().getImageCache().getHitRate());
+
+    private final DoubleSupplier imageCacheHitRate;
+    private final ThreadMXBean threadBean;
+
+    private final FrameTimeWindow frameTimes;
+    private long lastFrameTime;
+    private long sampleStartTime;
+    private long sampleFramesNumber;
+    private long sampleStartTickCount;
+
+    private final AtomicLong tickCount;
+    private final AtomicLong assetsLoaded;
+    private final AtomicLong assetLoadNanos;
+
+    private volatile MetricsSnapshot lastSnapshot;
+    private final Deque<MetricsSnapshot> history;
+
+    PerformanceMetrics(DoubleSupplier imageCacheHitRate) {
+        this.imageCacheHitRate = imageCacheHitRate;
+        this.threadBean = ManagementFactory.getThreadMXBean();
+
+        this.frameTimes = new FrameTimeWindow(FRAME_WINDOW_CAPACITY);
+        this.lastFrameTime = -1;
+
+        this.tickCount = new AtomicLong(0);
+        this.assetsLoaded = new AtomicLong(0);
+        this.assetLoadNanos = new AtomicLong(0);
+
+        this.history = new ArrayDeque<>();
+    }
+
+    public static PerformanceMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registra un tick della simulazione.
+     */
+    public void recordTick() {
+        this.tickCount.incrementAndGet();
+    }
+
+    /**
+     * Registra la decodifica di una risorsa grafica.
+     * @param nanos tempo impiegato per la decodifica, espresso in nanosecondi.
+     */
+    public void recordAssetLoad(long nanos) {
+        this.assetsLoaded.incrementAndGet();
+        this.assetLoadNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Registra il completamento di un frame. La durata del frame è il tempo trascorso dal frame precedente.
+     */
+    public void recordFrame() {
+        recordFrame(System.nanoTime());
+    }
+
+    synchronized void recordFrame(long frameTime) {
+        if (lastFrameTime < 0) {
+            startSample(frameTime);
+        } else {
+            this.frameTimes.add(frameTime - lastFrameTime);
+            this.sampleFramesNumber++;
+        }
+        this.lastFrameTime = frameTime;
+
+        if (frameTime - sampleStartTime >= SAMPLE_INTERVAL_NANOS)
+            takeSample(frameTime);
+    }
+
+    private void startSample(long sampleTime) {
+        this.sampleStartTime = sampleTime;
+        this.sampleFramesNumber = 0;
+        this.sampleStartTickCount = tickCount.get();
+        this.frameTimes.clear();
+    }
+
+    private void takeSample(long sampleTime) {
+        double elapsedSeconds = (sampleTime - sampleStartTime) / 1e9;
+        Runtime runtime = Runtime.getRuntime();
+
+        MetricsSnapshot snapshot = new MetricsSnapshot(
+                System.currentTimeMillis(),
+                sampleFramesNumber / elapsedSeconds,
+                frameTimes.percentile(0.5) / 1e6,
+                frameTimes.percentile(0.99) / 1e6,
+                (tickCount.get() - sampleStartTickCount) / elapsedSeconds,
+                threadBean.getThreadCount(),
+                threadBean.getPeakThreadCount(),
+                imageCacheHitRate.getAsDouble(),
+                runtime.totalMemory() - runtime.freeMemory(),
+                runtime.maxMemory(),
+                assetsLoaded.get(),
+                assetLoadNanos.get() / 1e6);
+
+        this.lastSnapshot = snapshot;
+        synchronized (history) {
+            if (history.size() == HISTORY_SIZE)
+                history.removeFirst();
+            history.addLast(snapshot);
+        }
+
+        startSample(sampleTime);
+    }
+
+    /**
+     * @return l'ultimo campione delle metriche, o null se non è ancora trascorso un intervallo di campionamento.
+     */
+    public MetricsSnapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
+    /**
+     * @return i campioni conservati, dal più vecchio al più recente.
+     */
+    public List<MetricsSnapshot> getHistory() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * Salva i campioni conservati nel file CSV preso come parametro, sovrascrivendolo.
+     * @param file file di destinazione.
+     * @throws IOException se non è possibile scrivere il file.
+     */
+    public void writeCsv(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            writer.println(MetricsSnapshot.CSV_HEADER);
+            for (MetricsSnapshot snapshot : getHistory())
+                writer.println(snapshot.toCsv());
+        }
+    }
+}
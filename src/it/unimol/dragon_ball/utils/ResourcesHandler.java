@@ -1,17 +1,8 @@
 package it.unimol.dragon_ball.utils;
 
-import javax.imageio.ImageIO;
-import javax.sound.sampled.*;
 import java.awt.image.BufferedImage;
-import java.io.*;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static it.unimol.dragon_ball.utils.Resources.*;
 
@@ -19,18 +10,38 @@ import static it.unimol.dragon_ball.utils.Resources.*;
 /**
  * Singleton che si occupa di gestire le risorse video e audio del programma.
  * Presenta le seguenti funzionalità:
- * - ottenimento dell'immagine tramite filepath;
- * - avvio di un contenuto acustico;
+ * - ottenimento dell'immagine tramite filepath, con cache delle immagini già decodificate;
+ * - conversione delle immagini nel formato nativo dello schermo (disattivabile);
+ * - ottenimento dell'atlante dei frame dell'evoluzione di un personaggio;
+ * - precaricamento dei contenuti acustici in un banco di suoni già decodificati;
+ * - avvio di un contenuto acustico, mixato con gli altri suoni su un'unica linea audio;
+ * - riproduzione in streaming delle musiche di sottofondo, in dissolvenza incrociata;
  * - chiusura di un contenuto acustico;
  *
  * @author Alessandro
  */
 public class ResourcesHandler {
 
+    public static final long DEFAULT_IMAGE_CACHE_MB = 128;
+    public static final String SOUNDS_FILEPATH = "/resources/sounds";
+
     private static ResourcesHandler instance = new ResourcesHandler();
 
-    private ResourcesHandler() {
+    private final ImageCache imageCache;
+    private final Map<String, SpriteAtlas> spriteAtlases;
+    private volatile boolean compatibleImagesEnabled;
+    private final SoundBank soundBank;
+    private final AudioMixer audioMixer;
+    private final MusicPlayer musicPlayer;
 
+    private ResourcesHandler() {
+        long imageCacheMB = Long.getLong("dragonball.imageCacheMB", DEFAULT_IMAGE_CACHE_MB);
+        this.imageCache = new ImageCache(imageCacheMB * 1024 * 1024);
+        this.spriteAtlases = new ConcurrentHashMap<>();
+        this.compatibleImagesEnabled = Boolean.parseBoolean(System.getProperty("dragonball.compatibleImages", "true"));
+        this.soundBank = new SoundBank();
+        this.audioMixer = new AudioMixer();
+        this.musicPlayer = new MusicPlayer(audioMixer);
     }
 
     public static ResourcesHandler getInstance() {
@@ -40,444 +51,168 @@ public class ResourcesHandler {
     /**
      * Restituisce l'immagine passata come input tramite filepath. Lancia un ResourceException qualora il filepath
      * non è valido.
+     * L'immagine viene decodificata soltanto alla prima richiesta; le richieste successive restituiscono l'istanza
+     * conservata nell'{@link ImageCache}, che pertanto non deve essere modificata dal chiamante.
+     * Se abilitata, prima dell'inserimento in cache l'immagine viene convertita nel formato nativo dello schermo
+     * tramite {@link ImageConverter}.
      *
      * @param path filepath dell'immagine desiderata
      * @return un'istanza di BufferedImage
      * @throws ResourceException eccezione lanciata quando il pathname preso come parametro sia nullo.
      */
     public BufferedImage getImage(String path){
-        return Resources.getImage(path);
+        return imageCache.get(path, this::loadImage);
     }
 
+    private BufferedImage loadImage(String path) {
+        long startTime = System.nanoTime();
+        BufferedImage image = Resources.getImage(path);
 
-    /**
-     * Avvia la riproduzione musicale della risorsa presa come parametro. Lancia un ResourceException quando il filepath
-     * inserito non è valido.
-     *
-     * @param path      filepath della risorsa musicale;
-     * @param loopCount intero che rappresenta il numero di volte in cui deve essere riprodotta integralmente la risorsa.
-     *                  Si inserisca Clip.LOOP_CONTINUOUSLY per una riproduzione in loop.
-     * @return un'istanza di Clip che rappresenta la risorsa musicale riprodotta.
-     * @throws ResourceException eccezione lanciata quando il filepath preso come parametro è nullo.
-     */
-    public Clip playMusic(String path, int loopCount) throws ResourceException {
-        if (path == null)
-            throw new ResourceException("Path not inserted");
-
-        Clip clip = null;
-
-        try {
-            Sound sound = Resources.getSound(path);
-            clip = sound.play(loopCount);
-
-        } catch (Exception ignored) {
-
-        }
-
-        return clip;
-    }
-
-
-    /**
-     * Avvia la riproduzione musicale della risorsa presa come parametro. Lancia un ResourceException quando il filepath
-     * inserito non è valido. La riproduzione si stopperà quando si conclude l'animazione
-     *
-     * @param path              filepath della risorsa musicale;
-     * @param loopCount         intero che rappresenta il numero di volte in cui deve essere riprodotta integralmente la risorsa.
-     *                          Si inserisca Clip.LOOP_CONTINUOUSLY per una riproduzione in loop.
-     * @param isAnimationActive istanza di AtomicBoolean che rappresenta lo stato dell'animazione.
-     *                          Se l'animazione non è attiva, la riproduzione musicale termina.
-     * @return un'istanza di Clip che rappresenta la risorsa musicale riprodotta.
-     * @throws ResourceException eccezione lanciata quando il filepath preso come parametro è nullo.
-     */
-    public Clip playAnimationMusic(String path, int loopCount, AtomicBoolean isAnimationActive) throws ResourceException {
-        if (path == null)
-            throw new ResourceException("Path not inserted");
-
-        Clip clip = null;
-        final boolean[] isSoundActive = new boolean[1];
-
-        try {
-            Sound sound = Resources.getSound(path);
-            clip = sound.play(loopCount);
-            isSoundActive[0] = true;
-
-            Clip finalClip = clip;
-            Thread thread = new Thread(() -> {
-
-                while (isSoundActive[0]) {
-                    if (!isAnimationActive.get()) {
-                        try {
-                            this.stopMusic(finalClip);
-                        } catch (SoundException e) {
-                            e.printStackTrace();
-                        }
-                        isSoundActive[0] = false;
-                    }
-                }
-            });
-            thread.start();
-
-        } catch (Exception ignored) {
+        if (compatibleImagesEnabled)
+            image = ImageConverter.toCompatibleImage(image);
 
-        }
-
-        return clip;
+        PerformanceMetrics.getInstance().recordAssetLoad(System.nanoTime() - startTime);
+        return image;
     }
 
     /**
-     * Ferma la riproduzione della risorsa musicale già attiva, presa come parametro.
-     * Lancia un SoundException quando la Clip presa in input non è valida o è inattiva.
+     * Rimuove dalla cache l'immagine associata al filepath, così che la successiva richiesta la rilegga dalle risorse.
      *
-     * @param clip Clip della risorsa musicale di cui si desidera interrompere la riproduzione.
-     * @throws SoundException quando il filepath della Clip vale null oppure se la risorsa musicale non è in riproduzione.
+     * @param path filepath dell'immagine da rimuovere.
      */
-    public void stopMusic(Clip clip) throws SoundException {
-        if (clip == null)
-            throw new SoundException("Clip not inserted");
-
-        if (clip.isOpen()) {
-            clip.close();
-            clip.stop();
-        } else
-            throw new SoundException("Clip not active");
+    public void invalidateImage(String path) {
+        imageCache.invalidate(path);
     }
 
-}
-
-
-/**
- * Resources è un gestore delle risorse interne di un'applicazione. La classe
- * fornisce diversi metodi per leggere immagini, suoni o testo
- *
- * @author Oneiros
- */
-class Resources {
-
-    //La classe di riferimento dalla quale leggere le risorse
-    static Class source = Resources.class;
-
     /**
-     * Costruttore privato (Resources è una classe statica)
+     * Rimuove dalla cache tutte le immagini decodificate.
      */
-    private Resources() {
+    public void invalidateAllImages() {
+        imageCache.invalidateAll();
     }
 
     /**
-     * Imposta la classe di riferimento dalla quale leggere le risorse. La
-     * classe di riferimento di default è Resources stessa.
+     * Restituisce l'atlante dei frame dell'evoluzione di un personaggio. L'indice dell'atlante viene letto soltanto
+     * alla prima richiesta, mentre l'immagine dell'atlante è conservata nella cache delle immagini.
      *
-     * @param source la classe di riferimento dalla quale leggere le risorse
+     * @param characterName nome canonico del personaggio (es. "goku").
+     * @param evolutionName nome dell'evoluzione (es. "goku_normal").
+     * @return l'atlante dell'evoluzione.
      */
-    public static void setSourceClass(Class source) {
-        Resources.source = source;
+    public SpriteAtlas getSpriteAtlas(String characterName, String evolutionName) {
+        return spriteAtlases.computeIfAbsent(characterName + "/" + evolutionName,
+                key -> SpriteAtlas.load(characterName, evolutionName));
     }
 
     /**
-     * Restituisce un'immagine presente nelle risorse dell'applicazione
-     *
-     * @param path Il path relativo dell'immagine (ad esempio:
-     *             "/path/myImage.png")
-     * @return L'immagine corrispondente al path
-     */
-    public static BufferedImage getImage(String path) {
-        BufferedImage image = null;
-        try {
-            image = ImageIO.read(getResource(path));
-        } catch (IOException ex) {
-            ex.printStackTrace(System.err);
-            System.exit(-1);
-        }
-        return image;
-    }
-
-
-    /**
-     * Restituisce un suono WAVE presente nelle risorse dell'applicazione
-     *
-     * @param path Il path relativo del suono (ad esempio: "/path/mySound.wav")
-     * @return Il suono corrispondente al path
+     * Avvia in background la decodifica di tutti i contenuti acustici del gioco, così che la prima riproduzione di
+     * ciascuno di essi non richieda la lettura del file.
      */
-    public static Sound getSound(String path) {
-        Sound sound = null;
-        try {
-            //System.out.println("\n\n\n\n" + getResource(path).toURI() + "\n\n\n\n");
-            //File file = new File(getResource(path).toURI());
-            sound = new Sound(getResource(path));
-        } catch (NullPointerException | SoundException | IllegalArgumentException ex) {
-            ex.printStackTrace(System.err);
-            System.exit(-1);
-        }
-        return sound;
+    public void preloadSounds() {
+        Thread preloadThread = new Thread(() -> soundBank.preloadDirectory(SOUNDS_FILEPATH), "SoundPreloader");
+        preloadThread.setDaemon(true);
+        preloadThread.setPriority(Thread.MIN_PRIORITY);
+        preloadThread.start();
     }
 
-
-    /**
-     * Restituisce il testo contenuto in un file di testo (.txt) presente nelle
-     * risorse dell'applicazione
-     *
-     * @param path Il path relativo del file di testo (ad esempio:
-     *             "/path/myText.txt")
-     * @return Il testo contenuto nel file
-     */
-    public static String getText(String path) {
-
-        StringBuilder builder = new StringBuilder();
-
-        try (InputStream byteStream = getResourceAsStream(path);
-             InputStreamReader txtStream = new InputStreamReader(byteStream, "ISO-8859-1");
-             BufferedReader reader = new BufferedReader(txtStream)) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-                builder.append(System.getProperty("line.separator"));
-            }
-        } catch (IOException ex) {
-            ex.printStackTrace(System.err);
-            System.exit(-1);
-        }
-
-        return builder.toString();
+    public SoundBank getSoundBank() {
+        return soundBank;
     }
 
-    /**
-     * Estrae un file interno al jar nella stessa cartella del jar e ne
-     * restituisce il path. Nel caso in cui il programma risulti non essere
-     * eseguito da un jar ma da un file .class, il metodo ritorna direttamente
-     * il path del file presente nelle risorse del file .class
-     *
-     * @param path Il path del file interno al jar
-     * @return Il path del file estratto
-     */
-    public static String extract(String path) throws IOException {
-        return extract(path, null);
+    public AudioMixer getAudioMixer() {
+        return audioMixer;
     }
 
-    /**
-     * Estrae un file interno al jar nella cartella specificata e ne restituisce
-     * il path. Nel caso in cui il programma risulti non essere eseguito da un
-     * jar ma da un file .class, il metodo ritorna direttamente il path del file
-     * presente nelle risorse del file .class
-     *
-     * @param path            Il path del file interno al jar
-     * @param destinationPath Il path della cartella di destinazione
-     * @return Il path del file estratto
-     */
-    public static String extract(String path, String destinationPath) throws IOException {
-        if (path.startsWith("/")) {
-            path = path.substring(1);
-        }
-        String runningPath = getRunningPath();
-        if (isRunningFromJar()) {
-            if (destinationPath == null || destinationPath.isEmpty()) {
-                destinationPath = runningPath.substring(0, runningPath.lastIndexOf("/"));
-            }
-            JarFile jar = new JarFile(runningPath);
-            JarEntry file = jar.getJarEntry(path);
-            String fileName = file.getName();
-            fileName = fileName.substring(fileName.lastIndexOf("/") + 1, fileName.length());
-            File destination = new File(destinationPath + File.separator + fileName);
-            if (!destination.exists()) {
-                if (file.isDirectory()) {
-                    destination.mkdir();
-                }
-                try (
-                        InputStream input = jar.getInputStream(file);
-                        FileOutputStream output = new FileOutputStream(destination)) {
-                    while (input.available() > 0) {
-                        output.write(input.read());
-                    }
-                }
-            }
-            return destination.getAbsolutePath();
-        } else {
-            return runningPath + path;
-        }
+    public MusicPlayer getMusicPlayer() {
+        return musicPlayer;
     }
 
-    /**
-     * Restituisce il path dal quale si sta eseguendo l'applicazione
-     */
-    public static String getRunningPath() {
-        String runningPath = Resources.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-        try {
-            return new URI(runningPath).getPath();
-        } catch (URISyntaxException ex) {
-            return runningPath;
-        }
+    public ImageCache getImageCache() {
+        return imageCache;
     }
 
-    /**
-     * @return True se si sta eseguendo l'applicazione da un file .jar, False
-     * altrimenti
-     */
-    public static boolean isRunningFromJar() {
-        String className = Resources.class.getName().replace('.', '/');
-        String classJar = Resources.class.getResource("/" + className + ".class").toString();
-        return classJar.startsWith("jar:");
+    public boolean isCompatibleImagesEnabled() {
+        return compatibleImagesEnabled;
     }
 
     /**
-     * Chiama il metodo getResource() sulla classe di riferimento
+     * Abilita o disabilita la conversione delle immagini nel formato nativo dello schermo. Le immagini già presenti in
+     * cache vengono rimosse, così che le successive richieste rispettino la nuova impostazione.
      *
-     * @see Class#getResource(String)
+     * @param compatibleImagesEnabled true per convertire le immagini, false per utilizzarle come restituite dal decoder.
      */
-    public static URL getResource(String resource) {
-        return Resources.source.getResource(resource);
-    }
+    public void setCompatibleImagesEnabled(boolean compatibleImagesEnabled) {
+        if (this.compatibleImagesEnabled == compatibleImagesEnabled)
+            return;
 
-    /**
-     * Chiama il metodo getResourceAsStream() sulla classe di riferimento
-     *
-     * @see Class#getResourceAsStream(String)
-     */
-    public static InputStream getResourceAsStream(String resource) {
-        return Resources.source.getResourceAsStream(resource);
+        this.compatibleImagesEnabled = compatibleImagesEnabled;
+        imageCache.invalidateAll();
     }
-}
-
-
-
-/**
- * La classe Sound modella, riproduce e gestisce un suono in formato WAVE.
- *
- * @author Lorenzo
- */
-class Sound {
 
-    private static final Line.Info INFO = new Line.Info(Clip.class);
-    private static HashMap<String, Sound> map;
-    private URL soundUrl;
-    public Clip readyClip;
 
     /**
-     * Crea un nuovo suono a partire dal path assoluto di un file WAVE.
+     * Avvia la riproduzione musicale della risorsa presa come parametro. Lancia un ResourceException quando il filepath
+     * inserito non è valido.
+     * La risorsa viene riprodotta su una voce dell'{@link AudioMixer}, a partire dai campioni del {@link SoundBank}.
+     * La linea audio del mixer viene aperta alla prima riproduzione.
      *
-     * @param path Il path assoluto di un file WAVE.
-     * @throws SoundException Se il path non risulta puntare ad un corretto file
-     * WAVE
+     * @param path      filepath della risorsa musicale;
+     * @param loopCount intero che rappresenta il numero di volte in cui deve essere riprodotta integralmente la risorsa.
+     *                  Si inserisca AudioMixer.LOOP_CONTINUOUSLY per una riproduzione in loop.
+     * @return un'istanza di SoundVoice che rappresenta la risorsa musicale riprodotta, oppure null se la risorsa o la
+     *          linea audio non sono disponibili.
+     * @throws ResourceException eccezione lanciata quando il filepath preso come parametro è nullo.
      */
-    public Sound(String path) throws SoundException, MalformedURLException {
-        this(new URL(path));
-    }
+    public SoundVoice playMusic(String path, int loopCount) throws ResourceException {
+        if (path == null)
+            throw new ResourceException("Path not inserted");
 
-    /**
-     * Crea un nuovo suono a partire da un file WAVE
-     *
-     * @param url Il file WAVE
-     * @throws SoundException Se il file non risulta essere un corretto file
-     * WAVE
-     */
-    public Sound(URL url) throws SoundException {
-        if (url == null) {
-            throw new SoundException("Cannot read " + url.getPath());
-        }
-        this.soundUrl = url;
-        this.readyClip = this.getNewClip();
-    }
+        Sound sound = soundBank.getSound(path);
+        if (sound == null || !audioMixer.start())
+            return null;
 
-    /**
-     * Riproduce una volta il suono
-     *
-     * @return Un oggetto di tipo Clip che permette di gestire il suono
-     */
-    public Clip play() {
-        return play(1);
+        return audioMixer.play(sound, loopCount);
     }
 
-    /**
-     * Riproduce all'infinito il suono
-     *
-     * @return Un oggetto di tipo Clip che permette di gestire il suono
-     */
-    public Clip loop() {
-        return play(-1);
-    }
 
     /**
-     * Riproduce n volte il suono
+     * Avvia in loop la musica di sottofondo presa come parametro. La musica viene letta in streaming, senza essere
+     * decodificata per intero in memoria, e sostituisce l'eventuale musica di sottofondo già in riproduzione tramite
+     * una dissolvenza incrociata. Lancia un ResourceException quando il filepath inserito non è valido.
      *
-     * @param times Il numero di volte da riprodurre il suono (un numero
-     * negativo provoca una riproduzione in loop)
-     * @return Un oggetto di tipo Clip che permette di gestire il suono
+     * @param path filepath della musica di sottofondo.
+     * @return true se la musica è in riproduzione, false se la musica o la linea audio non sono disponibili.
+     * @throws ResourceException eccezione lanciata quando il filepath preso come parametro è nullo.
      */
-    public Clip play(int times) {
-        Clip clip = null;
-        try {
-            clip = getNewClip();
-        } catch (SoundException ex) {
-            throw new RuntimeException(ex);
-        }
-        if (clip != null) {
-            clip.loop(times);
-        }
-        return clip;
+    public boolean playBackgroundMusic(String path) throws ResourceException {
+        if (path == null)
+            throw new ResourceException("Path not inserted");
+
+        return musicPlayer.play(path, MusicPlayer.DEFAULT_CROSSFADE_MILLIS);
     }
 
     /**
-     * Crea e restituisce un nuovo Clip del suono, pronto per essere riprodotto
-     *
-     * @return Un oggetto di tipo Clip che permette di gestire il suono
-     * @throws SoundException Se non è possibile ottenere un Clip dal suono
+     * Sfuma fino al silenzio la musica di sottofondo in riproduzione.
      */
-    public final Clip getNewClip() throws SoundException {
-        try {
-            if (this.readyClip == null) {
-                this.readyClip = Sound.getNewClip(this.soundUrl);
-            }
-            Clip c = this.readyClip;
-            this.readyClip = Sound.getNewClip(this.soundUrl);
-            return c;
-        } catch (SoundException ex) {
-            this.readyClip = null;
-            throw ex;
-        }
+    public void stopBackgroundMusic() {
+        musicPlayer.stop(MusicPlayer.DEFAULT_CROSSFADE_MILLIS);
     }
 
     /**
-     * Restituisce una HashMap (sempre la stessa istanza) utilizzabile per
-     * gestire con comodità una collezione di suoni. Ad ogni nuovo suono
-     * aggiunto a tale struttura dati è necessario associare un nome mnemonico
-     * per poter richiamare successivamente il suono stesso
+     * Ferma la riproduzione della risorsa musicale già attiva, presa come parametro.
+     * Lancia un SoundException quando la voce presa in input non è valida o è inattiva.
      *
-     * @return Una struttura dati di tipo HashMap per la gestione multipla di
-     * suoni
+     * @param voice voce della risorsa musicale di cui si desidera interrompere la riproduzione.
+     * @throws SoundException quando la voce vale null oppure se la risorsa musicale non è in riproduzione.
      */
-    public static HashMap<String, Sound> getMap() {
-        if (map == null) {
-            map = new HashMap<>();
-        }
-        return map;
-    }
-
+    public void stopMusic(SoundVoice voice) throws SoundException {
+        if (voice == null)
+            throw new SoundException("Voice not inserted");
 
-    public Clip getReadyClip() {
-        return readyClip;
+        if (voice.isPlaying())
+            voice.stop();
+        else
+            throw new SoundException("Voice not active");
     }
 
-    /**
-     * Crea e restituisce un nuovo Clip di un file WAVE, pronto per essere
-     * riprodotto
-     *
-     * @param clipURL Il file WAVE dal quale ottenere un Clip
-     * @return Un oggetto di tipo Clip che permette di gestire il suono
-     * @throws SoundException Se non è possibile ottenere un Clip dal file
-     */
-    public static Clip getNewClip(URL clipURL) throws SoundException {
-        Clip clip = null;
-        try {
-            clip = (Clip) AudioSystem.getLine(INFO);
-            clip.open(AudioSystem.getAudioInputStream(clipURL));
-        } catch (IOException | UnsupportedAudioFileException ex) {
-            throw new SoundException(clipURL.getFile(), ex);
-        } catch (LineUnavailableException ex) {
-            throw new RuntimeException(ex);
-        }
-        return clip;
-    }
 }
-
-
-
-
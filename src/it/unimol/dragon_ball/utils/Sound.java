@@ -0,0 +1,113 @@
+package it.unimol.dragon_ball.utils;
+
+import javax.sound.sampled.*;
+import java.io.*;
+import java.net.URL;
+
+/**
+ * La classe Sound modella un suono in formato WAVE, decodificato una sola volta in campioni PCM a 16 bit mantenuti in
+ * memoria. I campioni vengono riprodotti dall'{@link AudioMixer}, senza rileggere né decodificare il file.
+ *
+ * @author Lorenzo
+ */
+class Sound {
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final short[] samples;
+    private final int channels;
+    private final float frameRate;
+
+    /**
+     * Crea un nuovo suono a partire da un file WAVE, decodificandone i campioni in formato PCM a 16 bit.
+     *
+     * @param url Il file WAVE
+     * @throws SoundException Se il file non risulta essere un corretto file
+     * WAVE
+     */
+    public Sound(URL url) throws SoundException {
+        if (url == null) {
+            throw new SoundException("Sound not found");
+        }
+
+        try (AudioInputStream sourceStream = AudioSystem.getAudioInputStream(url)) {
+            AudioFormat sourceFormat = sourceStream.getFormat();
+            AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(),
+                    16, sourceFormat.getChannels(), sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(), false);
+
+            AudioInputStream pcmStream = sourceStream;
+            if (!sourceFormat.matches(pcmFormat))
+                pcmStream = AudioSystem.getAudioInputStream(pcmFormat, sourceStream);
+
+            this.samples = readSamples(pcmStream);
+            this.channels = pcmFormat.getChannels();
+            this.frameRate = pcmFormat.getFrameRate();
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException ex) {
+            throw new SoundException(url.getFile(), ex);
+        }
+    }
+
+    /**
+     * Crea un nuovo suono a partire da campioni PCM già decodificati.
+     *
+     * @param samples   campioni a 16 bit, alternati per canale;
+     * @param channels  numero di canali (1 o 2);
+     * @param frameRate numero di frame al secondo.
+     */
+    Sound(short[] samples, int channels, float frameRate) {
+        assert samples != null && (channels == 1 || channels == 2) && frameRate > 0;
+
+        this.samples = samples;
+        this.channels = channels;
+        this.frameRate = frameRate;
+    }
+
+    private static short[] readSamples(AudioInputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+        int readBytes;
+        while ((readBytes = stream.read(buffer)) != -1)
+            output.write(buffer, 0, readBytes);
+
+        // Un eventuale frame incompleto in coda viene scartato
+        byte[] bytes = output.toByteArray();
+        int frameSize = stream.getFormat().getFrameSize();
+        short[] samples = new short[(bytes.length - bytes.length % frameSize) / 2];
+
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+
+        return samples;
+    }
+
+    short[] getSamples() {
+        return samples;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public float getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * @return numero di byte occupati dai campioni PCM decodificati.
+     */
+    public int getSizeInBytes() {
+        return samples.length * 2;
+    }
+
+    public int getFramesNumber() {
+        return samples.length / channels;
+    }
+
+    /**
+     * @return durata di una singola riproduzione del suono, espressa in microsecondi.
+     */
+    public long getMicrosecondLength() {
+        return (long) (getFramesNumber() * 1_000_000L / frameRate);
+    }
+}
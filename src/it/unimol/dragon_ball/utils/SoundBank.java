@@ -0,0 +1,130 @@
+package it.unimol.dragon_ball.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Banco dei suoni del gioco.
+ * Ogni file WAVE viene decodificato una sola volta in campioni PCM mantenuti in memoria e condivisi da tutte le sue
+ * riproduzioni sull'{@link AudioMixer}, così che l'avvio di un suono non richieda la lettura del file.
+ */
+public class SoundBank {
+    public static final String SOUND_EXTENSION = ".wav";
+
+    private final Map<String, Sound> sounds;
+
+    public SoundBank() {
+        this.sounds = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Decodifica tutti i file WAVE contenuti, anche in sottocartelle, nella cartella delle risorse presa come parametro.
+     * @param directoryPath filepath della cartella delle risorse (es. "/resources/sounds").
+     * @return numero di suoni decodificati.
+     */
+    public int preloadDirectory(String directoryPath) {
+        assert directoryPath != null;
+
+        int preloadedSounds = 0;
+        for (String path : listSounds(directoryPath)) {
+            if (getSound(path) != null)
+                preloadedSounds++;
+        }
+
+        return preloadedSounds;
+    }
+
+    /**
+     * Restituisce il suono associato al filepath, decodificandolo alla prima richiesta.
+     * @param path filepath della risorsa musicale.
+     * @return il suono decodificato, oppure null se il file non esiste o non è un file WAVE valido.
+     */
+    Sound getSound(String path) {
+        Sound sound = this.sounds.get(path);
+        if (sound != null)
+            return sound;
+
+        try {
+            sound = Resources.getSound(path);
+        } catch (SoundException ex) {
+            System.err.println("Cannot load sound " + path + ": " + ex.getMessage());
+            return null;
+        }
+
+        // Un altro thread potrebbe aver decodificato lo stesso suono nel frattempo: mantengo quello già presente
+        Sound previousSound = this.sounds.putIfAbsent(path, sound);
+        return previousSound != null ? previousSound : sound;
+    }
+
+    /**
+     * Elenca i file WAVE contenuti nella cartella delle risorse presa come parametro, sia durante l'esecuzione dalle
+     * classi compilate che dal jar.
+     */
+    static List<String> listSounds(String directoryPath) {
+        String normalizedPath = directoryPath.endsWith("/") ? directoryPath : directoryPath + "/";
+        List<String> soundPaths = new ArrayList<>();
+
+        URL directoryUrl = Resources.getResource(normalizedPath);
+        if (directoryUrl == null)
+            return soundPaths;
+
+        if ("file".equals(directoryUrl.getProtocol())) {
+            try {
+                listSounds(new File(directoryUrl.toURI()), normalizedPath, soundPaths);
+            } catch (URISyntaxException ex) {
+                ex.printStackTrace();
+            }
+        } else if (Resources.isRunningFromJar()) {
+            String entryPrefix = normalizedPath.substring(1);
+            try (JarFile jar = new JarFile(Resources.getRunningPath())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entryName = entries.nextElement().getName();
+                    if (entryName.startsWith(entryPrefix) && entryName.endsWith(SOUND_EXTENSION))
+                        soundPaths.add("/" + entryName);
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        return soundPaths;
+    }
+
+    private static void listSounds(File directory, String directoryPath, List<String> soundPaths) {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (file.isDirectory())
+                listSounds(file, directoryPath + file.getName() + "/", soundPaths);
+            else if (file.getName().endsWith(SOUND_EXTENSION))
+                soundPaths.add(directoryPath + file.getName());
+        }
+    }
+
+    public int getSoundsNumber() {
+        return sounds.size();
+    }
+
+    /**
+     * @return numero di byte occupati dai campioni PCM di tutti i suoni decodificati.
+     */
+    public long getSizeInBytes() {
+        long sizeInBytes = 0;
+        for (Sound sound : this.sounds.values())
+            sizeInBytes = sizeInBytes + sound.getSizeInBytes();
+
+        return sizeInBytes;
+    }
+}
@@ -2,7 +2,7 @@ package it.unimol.dragon_ball.utils;
 
 public class SoundException extends Exception {
     public SoundException(String file, Exception ex) {
-        super();
+        super(file, ex);
     }
 
     public SoundException(String message) {
@@ -0,0 +1,93 @@
+package it.unimol.dragon_ball.utils;
+
+/**
+ * Voce dell'{@link AudioMixer}: una singola riproduzione di un suono, con il proprio volume e bilanciamento.
+ * Il volume e il bilanciamento possono essere modificati durante la riproduzione; le modifiche vengono applicate dal
+ * mixer a partire dal blocco di campioni successivo.
+ */
+public class SoundVoice {
+    private final Sound sound;
+    private final long startSequence;
+
+    private volatile float gain;
+    private volatile float pan;
+    private volatile boolean isPlaying;
+
+    // Stato di riproduzione, letto e modificato soltanto dal mixer sotto il proprio lock
+    private double position;
+    private int remainingLoops;
+
+    SoundVoice(Sound sound, int loopCount, float gain, float pan, long startSequence) {
+        assert sound != null;
+
+        this.sound = sound;
+        this.remainingLoops = loopCount;
+        this.startSequence = startSequence;
+        this.position = 0;
+        this.isPlaying = true;
+
+        setGain(gain);
+        setPan(pan);
+    }
+
+    /**
+     * Interrompe la riproduzione. La voce viene rimossa dal mixer al blocco di campioni successivo.
+     */
+    public void stop() {
+        this.isPlaying = false;
+    }
+
+    public boolean isPlaying() {
+        return isPlaying;
+    }
+
+    public boolean isContinuous() {
+        return remainingLoops == AudioMixer.LOOP_CONTINUOUSLY;
+    }
+
+    public float getGain() {
+        return gain;
+    }
+
+    /**
+     * @param gain fattore di amplificazione dei campioni, non negativo (1 mantiene il volume originale).
+     */
+    public void setGain(float gain) {
+        this.gain = Math.max(0, gain);
+    }
+
+    public float getPan() {
+        return pan;
+    }
+
+    /**
+     * @param pan bilanciamento tra i canali, compreso tra -1 (solo sinistra) e 1 (solo destra); 0 è centrato.
+     */
+    public void setPan(float pan) {
+        this.pan = Math.max(-1, Math.min(1, pan));
+    }
+
+    Sound getSound() {
+        return sound;
+    }
+
+    long getStartSequence() {
+        return startSequence;
+    }
+
+    double getPosition() {
+        return position;
+    }
+
+    void setPosition(double position) {
+        this.position = position;
+    }
+
+    int getRemainingLoops() {
+        return remainingLoops;
+    }
+
+    void setRemainingLoops(int remainingLoops) {
+        this.remainingLoops = remainingLoops;
+    }
+}
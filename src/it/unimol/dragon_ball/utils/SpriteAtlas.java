@@ -0,0 +1,128 @@
+package it.unimol.dragon_ball.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Atlante delle immagini di un'evoluzione di un personaggio.
+ * Tutti i frame di un'evoluzione (comprese le abilità) vengono uniti in fase di build da {@link SpriteAtlasPacker} in
+ * un'unica immagine, accompagnata da un file indice che associa ad ogni frame la sua regione nell'atlante. In questo
+ * modo viene letta e decodificata una sola risorsa per evoluzione, anziché alcune decine di file separati.
+ * I frame vengono richiesti tramite il loro nome relativo alla cartella dell'evoluzione (es. "IDLE.png" oppure
+ * "skills/ENERGYBALL_0.png"). Qualora l'atlante non fosse stato generato (es. esecuzione senza build Maven) o non
+ * contenesse il frame richiesto, l'immagine viene letta dal file originale.
+ */
+public class SpriteAtlas {
+    public static final String ATLASES_FILEPATH = "/resources/atlases/";
+    public static final String SPRITES_FILEPATH = "/resources/sprites/characters/";
+    public static final String IMAGE_EXTENSION = ".png";
+    public static final String INDEX_EXTENSION = ".atlas";
+
+    private final String atlasImagePath;
+    private final String spritesDirectoryPath;
+    private final Map<String, Rectangle> regions;
+
+    /**
+     * Genera un nuovo <code>SpriteAtlas</code>.
+     * @param atlasImagePath filepath dell'immagine dell'atlante.
+     * @param spritesDirectoryPath filepath della cartella contenente i frame originali.
+     * @param regions regioni dei frame all'interno dell'atlante, indicizzate per nome.
+     */
+    SpriteAtlas(String atlasImagePath, String spritesDirectoryPath, Map<String, Rectangle> regions) {
+        this.atlasImagePath = atlasImagePath;
+        this.spritesDirectoryPath = spritesDirectoryPath;
+        this.regions = regions;
+    }
+
+    /**
+     * Carica l'indice dell'atlante relativo all'evoluzione di un personaggio. L'immagine dell'atlante viene invece
+     * decodificata alla prima richiesta di un frame.
+     * @param characterName nome canonico del personaggio (es. "goku").
+     * @param evolutionName nome dell'evoluzione (es. "goku_normal").
+     * @return l'atlante dell'evoluzione; se l'atlante non è stato generato, un atlante vuoto che legge i file originali.
+     */
+    public static SpriteAtlas load(String characterName, String evolutionName) {
+        String atlasPath = ATLASES_FILEPATH + characterName + "/" + evolutionName;
+        String spritesDirectoryPath = SPRITES_FILEPATH + characterName + "/" + evolutionName + "/";
+
+        Map<String, Rectangle> regions = Collections.emptyMap();
+        try (InputStream indexStream = Resources.getResourceAsStream(atlasPath + INDEX_EXTENSION)) {
+            if (indexStream != null)
+                regions = readIndex(indexStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return new SpriteAtlas(atlasPath + IMAGE_EXTENSION, spritesDirectoryPath, regions);
+    }
+
+    /**
+     * Legge un file indice, composto da una riga per frame nel formato "nome x y larghezza altezza" (campi separati da
+     * tabulazione). Le righe vuote e quelle che iniziano con '#' vengono ignorate.
+     * @param indexStream stream del file indice.
+     * @return le regioni dei frame, indicizzate per nome.
+     * @throws IOException qualora la lettura dello stream fallisse o una riga non fosse valida.
+     */
+    static Map<String, Rectangle> readIndex(InputStream indexStream) throws IOException {
+        Map<String, Rectangle> regions = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(indexStream, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] fields = line.split("\t");
+            if (fields.length != 5)
+                throw new IOException("Invalid atlas index line: " + line);
+
+            try {
+                regions.put(fields[0], new Rectangle(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid atlas index line: " + line, e);
+            }
+        }
+
+        return regions;
+    }
+
+    /**
+     * Restituisce il frame associato al nome preso come parametro.
+     * Il frame è una sotto-immagine dell'atlante e ne condivide i pixel: non deve pertanto essere modificato.
+     * @param name nome del frame, relativo alla cartella dell'evoluzione (es. "skills/ENERGYBALL_0.png").
+     * @return il frame richiesto.
+     */
+    public BufferedImage getImage(String name) {
+        Rectangle region = this.regions.get(name);
+
+        if (region == null)
+            return ResourcesHandler.getInstance().getImage(this.spritesDirectoryPath + name);
+
+        BufferedImage atlasImage = ResourcesHandler.getInstance().getImage(this.atlasImagePath);
+        return atlasImage.getSubimage(region.x, region.y, region.width, region.height);
+    }
+
+    /**
+     * @return true se l'atlante è stato generato in fase di build, false se i frame vengono letti dai file originali.
+     */
+    public boolean isPacked() {
+        return !this.regions.isEmpty();
+    }
+
+    public boolean contains(String name) {
+        return this.regions.containsKey(name);
+    }
+
+    public String getAtlasImagePath() {
+        return atlasImagePath;
+    }
+}
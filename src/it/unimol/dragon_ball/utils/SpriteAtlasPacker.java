@@ -0,0 +1,191 @@
+package it.unimol.dragon_ball.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Strumento di build che genera gli atlanti letti a runtime da {@link SpriteAtlas}.
+ * Per ogni cartella <code>&lt;personaggio&gt;/&lt;evoluzione&gt;</code> della cartella sorgente, tutte le immagini PNG
+ * (sottocartelle comprese) vengono disposte su ripiani in un'unica immagine, scritta nella cartella di destinazione
+ * insieme al relativo file indice. Le cartelle "tilesheets" vengono ignorate.
+ * Un atlante già generato viene rigenerato soltanto se una delle immagini sorgenti è più recente.
+ * Utilizzo: <code>SpriteAtlasPacker &lt;cartella sprites/characters&gt; &lt;cartella atlases&gt;</code>
+ */
+public class SpriteAtlasPacker {
+    public static final int PADDING = 1;
+    private static final String EXCLUDED_DIRECTORY = "tilesheets";
+
+    /**
+     * Risultato dell'unione delle immagini: l'atlante e la regione occupata da ogni immagine.
+     */
+    public static class PackedAtlas {
+        private final BufferedImage image;
+        private final Map<String, Rectangle> regions;
+
+        PackedAtlas(BufferedImage image, Map<String, Rectangle> regions) {
+            this.image = image;
+            this.regions = regions;
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public Map<String, Rectangle> getRegions() {
+            return regions;
+        }
+    }
+
+    private SpriteAtlasPacker() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SpriteAtlasPacker <sprites directory> <atlases directory>");
+            System.exit(-1);
+        }
+
+        File spritesDirectory = new File(args[0]);
+        File atlasesDirectory = new File(args[1]);
+        int packedAtlases = 0;
+
+        File[] characterDirectories = spritesDirectory.listFiles(File::isDirectory);
+        if (characterDirectories == null)
+            throw new FileNotFoundException(spritesDirectory.getPath());
+
+        for (File characterDirectory : characterDirectories) {
+            File[] evolutionDirectories = characterDirectory.listFiles(file -> file.isDirectory() && !file.getName().equals(EXCLUDED_DIRECTORY));
+
+            for (File evolutionDirectory : evolutionDirectories) {
+                File outputDirectory = new File(atlasesDirectory, characterDirectory.getName());
+                if (packEvolution(evolutionDirectory, outputDirectory))
+                    packedAtlases++;
+            }
+        }
+
+        System.out.println("Sprite atlases generated: " + packedAtlases);
+    }
+
+    private static boolean packEvolution(File evolutionDirectory, File outputDirectory) throws IOException {
+        Map<String, File> imageFiles = new TreeMap<>();
+        collectImages(evolutionDirectory, "", imageFiles);
+
+        File atlasImageFile = new File(outputDirectory, evolutionDirectory.getName() + SpriteAtlas.IMAGE_EXTENSION);
+        File atlasIndexFile = new File(outputDirectory, evolutionDirectory.getName() + SpriteAtlas.INDEX_EXTENSION);
+
+        if (imageFiles.isEmpty() || isUpToDate(atlasIndexFile, imageFiles.values()))
+            return false;
+
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (Map.Entry<String, File> imageFile : imageFiles.entrySet())
+            images.put(imageFile.getKey(), ImageIO.read(imageFile.getValue()));
+
+        PackedAtlas atlas = pack(images);
+
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs())
+            throw new IOException("Cannot create " + outputDirectory.getPath());
+
+        ImageIO.write(atlas.getImage(), "png", atlasImageFile);
+        writeIndex(atlas.getRegions(), atlasIndexFile);
+        return true;
+    }
+
+    private static void collectImages(File directory, String prefix, Map<String, File> imageFiles) {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (file.isDirectory())
+                collectImages(file, prefix + file.getName() + "/", imageFiles);
+            else if (file.getName().endsWith(SpriteAtlas.IMAGE_EXTENSION))
+                imageFiles.put(prefix + file.getName(), file);
+        }
+    }
+
+    private static boolean isUpToDate(File atlasIndexFile, Collection<File> imageFiles) {
+        if (!atlasIndexFile.isFile())
+            return false;
+
+        long atlasTime = atlasIndexFile.lastModified();
+        for (File imageFile : imageFiles) {
+            if (imageFile.lastModified() > atlasTime)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Dispone le immagini su ripiani orizzontali, in ordine di altezza decrescente, all'interno di un'unica immagine
+     * di larghezza pari circa alla radice quadrata dell'area complessiva. Ogni immagine è separata dalle altre da
+     * {@link #PADDING} pixel trasparenti, così che il filtraggio in fase di disegno non mescoli frame adiacenti.
+     * @param images immagini da unire, indicizzate per nome.
+     * @return l'atlante generato e la regione occupata da ciascuna immagine.
+     */
+    public static PackedAtlas pack(Map<String, BufferedImage> images) {
+        assert images != null && !images.isEmpty();
+
+        List<Map.Entry<String, BufferedImage>> sortedImages = new ArrayList<>(images.entrySet());
+        sortedImages.sort((first, second) -> second.getValue().getHeight() - first.getValue().getHeight());
+
+        long totalArea = 0;
+        int maxWidth = 0;
+        for (Map.Entry<String, BufferedImage> image : sortedImages) {
+            int width = image.getValue().getWidth() + PADDING;
+            int height = image.getValue().getHeight() + PADDING;
+            totalArea = totalArea + (long) width * height;
+            maxWidth = Math.max(maxWidth, width);
+        }
+        int atlasWidth = Math.max(maxWidth, (int) Math.ceil(Math.sqrt(totalArea)));
+
+        Map<String, Rectangle> regions = new LinkedHashMap<>();
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+
+        for (Map.Entry<String, BufferedImage> image : sortedImages) {
+            int width = image.getValue().getWidth();
+            int height = image.getValue().getHeight();
+
+            if (x + width > atlasWidth) {
+                x = 0;
+                y = y + shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+
+            regions.put(image.getKey(), new Rectangle(x, y, width, height));
+            x = x + width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+
+        BufferedImage atlasImage = new BufferedImage(atlasWidth, y + shelfHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlasImage.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            for (Map.Entry<String, Rectangle> region : regions.entrySet())
+                g.drawImage(images.get(region.getKey()), region.getValue().x, region.getValue().y, null);
+        } finally {
+            g.dispose();
+        }
+
+        return new PackedAtlas(atlasImage, regions);
+    }
+
+    private static void writeIndex(Map<String, Rectangle> regions, File atlasIndexFile) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(atlasIndexFile), StandardCharsets.UTF_8)) {
+            writer.write("# name\tx\ty\twidth\theight\n");
+
+            for (Map.Entry<String, Rectangle> region : regions.entrySet()) {
+                Rectangle rect = region.getValue();
+                writer.write(region.getKey() + "\t" + rect.x + "\t" + rect.y + "\t" + rect.width + "\t" + rect.height + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package it.unimol.dragon_ball.utils;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Singleton che precarica, in background, i frame di tutte le evoluzioni di un personaggio.
+ * Le evoluzioni vengono lette dal file properties del personaggio (chiavi <code>evolution0Name</code> ...
+ * <code>evolutionNName</code>) e, per ognuna, viene decodificato l'atlante dei frame tramite {@link ResourcesHandler},
+ * che lo conserva nella propria cache. Qualora fosse disponibile uno schermo, ogni atlante viene inoltre disegnato su
+ * una superficie accelerata, così che Java2D ne prepari la copia in memoria video prima dell'inizio della partita.
+ * In questo modo, durante la partita, il cambio di evoluzione non richiede alcuna lettura da disco.
+ * L'attesa del precaricamento spetta al chiamante, tramite il {@link Future} restituito, e non va eseguita
+ * sull'Event Dispatch Thread.
+ */
+public class SpritePreloader {
+    private static SpritePreloader instance = new SpritePreloader();
+
+    private final ExecutorService executor;
+    private final Map<String, Future<?>> preloads;
+
+    private SpritePreloader() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SpritePreloader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.preloads = new ConcurrentHashMap<>();
+    }
+
+    public static SpritePreloader getInstance() {
+        return instance;
+    }
+
+    /**
+     * Avvia in background il precaricamento delle evoluzioni del personaggio preso come parametro. Un personaggio già
+     * precaricato, o in fase di precaricamento, non viene elaborato nuovamente.
+     * @param characterName nome canonico del personaggio (es. "goku").
+     * @return precaricamento del personaggio, che termina con l'eventuale errore di lettura delle evoluzioni.
+     */
+    public Future<?> preload(String characterName) {
+        assert characterName != null;
+
+        return this.preloads.computeIfAbsent(characterName, name -> this.executor.submit(() -> {
+            preloadCharacter(name);
+            return null;
+        }));
+    }
+
+    public boolean isPreloaded(String characterName) {
+        Future<?> preload = this.preloads.get(characterName);
+        return preload != null && preload.isDone();
+    }
+
+    private void preloadCharacter(String characterName) throws IOException {
+        for (String evolutionName : readEvolutionsNames(characterName)) {
+            SpriteAtlas atlas = ResourcesHandler.getInstance().getSpriteAtlas(characterName, evolutionName);
+
+            if (atlas.isPacked())
+                warmUp(ResourcesHandler.getInstance().getImage(atlas.getAtlasImagePath()));
+        }
+    }
+
+    /**
+     * Legge i nomi delle evoluzioni dal file properties del personaggio.
+     * @param characterName nome canonico del personaggio.
+     * @return i nomi delle evoluzioni, a partire dalla forma iniziale.
+     * @throws IOException se il file properties del personaggio non è disponibile.
+     */
+    static List<String> readEvolutionsNames(String characterName) throws IOException {
+        List<String> evolutionsNames = new ArrayList<>();
+        Properties properties = new Properties();
+        String propertiesFilepath = CharacterFactory.PROPERTIES_FILEPATH + characterName + ".properties";
+
+        try (InputStream inputStream = Resources.getResourceAsStream(propertiesFilepath)) {
+            if (inputStream == null)
+                throw new FileNotFoundException(propertiesFilepath);
+
+            properties.load(inputStream);
+        }
+
+        String evolutionName;
+        for (int i = 0; (evolutionName = properties.getProperty("evolution" + i + "Name")) != null; i++)
+            evolutionsNames.add(evolutionName);
+
+        return evolutionsNames;
+    }
+
+    private void warmUp(BufferedImage image) {
+        if (image == null || GraphicsEnvironment.isHeadless())
+            return;
+
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        VolatileImage surface = configuration.createCompatibleVolatileImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+
+        try {
+            // Java2D crea la copia accelerata di un'immagine soltanto dopo averla disegnata più volte
+            for (int i = 0; i < 2; i++) {
+                Graphics2D g = surface.createGraphics();
+                try {
+                    g.drawImage(image, 0, 0, null);
+                } finally {
+                    g.dispose();
+                }
+            }
+        } finally {
+            surface.flush();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package it.unimol.dragon_ball.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class GameLoopTest {
+    private static final long TICK_NANOS = GameLoop.DEFAULT_TICK_MILLIS * 1_000_000L;
+
+    @Test
+    void phasesOrderTest() {
+        GameLoop gameLoop = new GameLoop();
+        List<GameLoop.Phase> executedPhases = new ArrayList<>();
+
+        // Registro le fasi in ordine inverso: il motore deve comunque eseguirle nell'ordine dichiarato
+        GameLoop.Phase[] phases = GameLoop.Phase.values();
+        for (int i = phases.length - 1; i >= 0; i--) {
+            GameLoop.Phase phase = phases[i];
+            gameLoop.addPhaseHandler(phase, () -> executedPhases.add(phase));
+        }
+
+        gameLoop.tick();
+        assertEquals(Arrays.asList(phases), executedPhases);
+        assertEquals(1, gameLoop.getTickCount());
+    }
+
+    @Test
+    void accumulatorTest() {
+        GameLoop gameLoop = new GameLoop();
+
+        assertEquals(0, gameLoop.advance(TICK_NANOS / 2));
+        assertEquals(0.5, gameLoop.getInterpolationAlpha(), 0.0001);
+
+        assertEquals(1, gameLoop.advance(TICK_NANOS / 2));
+        assertEquals(0.0, gameLoop.getInterpolationAlpha(), 0.0001);
+
+        assertEquals(2, gameLoop.advance(TICK_NANOS * 2 + TICK_NANOS / 4));
+        assertEquals(0.25, gameLoop.getInterpolationAlpha(), 0.0001);
+        assertEquals(3, gameLoop.getTickCount());
+    }
+
+    @Test
+    void tickEndTimeTest() {
+        GameLoop gameLoop = new GameLoop();
+        List<Long> tickEndTimes = new ArrayList<>();
+        gameLoop.addPhaseHandler(GameLoop.Phase.INPUT, () -> tickEndTimes.add(gameLoop.getTickEndTime()));
+
+        // Ciascun tick di recupero copre il proprio intervallo di tempo
+        gameLoop.advance(TICK_NANOS * 2 + TICK_NANOS / 2);
+        assertEquals(Arrays.asList(TICK_NANOS, TICK_NANOS * 2), tickEndTimes);
+
+        // Il ritardo scartato non viene simulato
+        gameLoop.advance(TICK_NANOS * 100);
+        assertEquals(TICK_NANOS * 7, (long) tickEndTimes.get(tickEndTimes.size() - 1));
+        assertEquals(TICK_NANOS * 102, gameLoop.getTickEndTime());
+    }
+
+    @Test
+    void catchUpLimitTest() {
+        GameLoop gameLoop = new GameLoop();
+
+        assertEquals(GameLoop.MAX_CATCH_UP_TICKS, gameLoop.advance(TICK_NANOS * 100));
+        assertEquals(GameLoop.MAX_CATCH_UP_TICKS, gameLoop.getTickCount());
+        assertEquals(0.0, gameLoop.getInterpolationAlpha(), 0.0001);
+    }
+
+    @Test
+    void stopDuringTickTest() {
+        GameLoop gameLoop = new GameLoop();
+        gameLoop.addPhaseHandler(GameLoop.Phase.WIN_CHECK, gameLoop::stop);
+
+        assertEquals(1, gameLoop.advance(TICK_NANOS * 3));
+        assertEquals(1, gameLoop.getTickCount());
+    }
+
+    @Test
+    void failureTest() throws InterruptedException {
+        GameLoop gameLoop = new GameLoop();
+        RuntimeException failure = new IllegalStateException("tick fallito");
+        CountDownLatch stopLatch = new CountDownLatch(1);
+
+        gameLoop.addPhaseHandler(GameLoop.Phase.MOVEMENT, () -> {
+            throw failure;
+        });
+        gameLoop.addStopListener(stopLatch::countDown);
+        assertNull(gameLoop.getFailure());
+
+        // L'eccezione non deve uccidere il thread del motore senza avvisare chi attende la fine della partita
+        gameLoop.start();
+        assertTrue(stopLatch.await(5, TimeUnit.SECONDS));
+        assertFalse(gameLoop.isRunning());
+        assertSame(failure, gameLoop.getFailure());
+    }
+
+    @Test
+    void toTicksTest() {
+        GameLoop gameLoop = new GameLoop();
+
+        assertEquals(17, gameLoop.toTicks(0.5));
+        assertEquals(334, gameLoop.toTicks(10));
+        assertEquals(1, gameLoop.toTicks(0.03));
+        assertEquals(0, gameLoop.toTicks(0));
+    }
+}
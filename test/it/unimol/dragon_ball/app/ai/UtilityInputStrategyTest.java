@@ -0,0 +1,97 @@
+package it.unimol.dragon_ball.app.ai;
+
+import it.unimol.dragon_ball.app.batch.RandomInputStrategy;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.InputStrategy;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class UtilityInputStrategyTest {
+
+    /**
+     * Orologio fittizio che avanza della quantità indicata ad ogni lettura, così da rendere riproducibile il tempo
+     * trascorso durante le decisioni.
+     */
+    private static LongSupplier steppingClock(long nanosPerRead) {
+        long[] time = {0};
+        return () -> time[0] += nanosPerRead;
+    }
+
+    private static BattleSimulation newBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+    }
+
+    private static BattleSimulation play(UtilityInputStrategy ai, InputStrategy opponent, BattleSimulation simulation) {
+        while (!simulation.isFinished() && simulation.getTickCount() < 20_000) {
+            PlayerInput opponentInput = opponent.nextInput(simulation, simulation.getFighter1(),
+                    simulation.getFighter2());
+            PlayerInput aiInput = ai.nextInput(simulation, simulation.getFighter2(), simulation.getFighter1());
+            simulation.step(opponentInput, aiInput);
+        }
+
+        return simulation;
+    }
+
+    @Test
+    void winsAgainstRandomTest() throws IOException {
+        for (long seed = 0; seed < 3; seed++) {
+            BattleSimulation simulation = newBattle();
+            UtilityInputStrategy ai = new UtilityInputStrategy(UtilityInputStrategy.DEFAULT_BUDGET_NANOS, () -> 0);
+            ai.prepare(simulation);
+
+            play(ai, new RandomInputStrategy(seed), simulation);
+            assertEquals("player2", simulation.getWinnerName());
+            assertEquals(UtilityInputStrategy.MAX_ROLLOUTS, ai.getAllowedRollouts());
+        }
+    }
+
+    @Test
+    void budgetTest() throws IOException {
+        // Ogni lettura dell'orologio richiede 10 microsecondi: una simulazione occupa quasi tutto il tempo a
+        // disposizione
+        long budgetNanos = 200_000;
+        BattleSimulation simulation = newBattle();
+        UtilityInputStrategy ai = new UtilityInputStrategy(budgetNanos, steppingClock(10_000));
+        ai.prepare(simulation);
+
+        play(ai, new RandomInputStrategy(1), simulation);
+
+        assertTrue(ai.getDecisions() > 0);
+        assertEquals(0, ai.getOverruns());
+        assertTrue(ai.getMaxDecisionNanos() <= budgetNanos);
+    }
+
+    @Test
+    void degradationTest() throws IOException {
+        // Ogni lettura dell'orologio supera da sola il tempo a disposizione
+        BattleSimulation simulation = newBattle();
+        UtilityInputStrategy ai = new UtilityInputStrategy(1_000_000, steppingClock(2_000_000));
+        ai.prepare(simulation);
+
+        UtilityPolicy policy = new UtilityPolicy();
+        PlayerInput[] candidates = new PlayerInput[UtilityPolicy.CANDIDATES_NUMBER];
+        double[] scores = new double[UtilityPolicy.CANDIDATES_NUMBER];
+
+        for (int i = 0; i < 300; i++) {
+            policy.rank(simulation, simulation.getFighter2(), simulation.getFighter1(), candidates, scores);
+            PlayerInput input = ai.nextInput(simulation, simulation.getFighter2(), simulation.getFighter1());
+
+            // Abbandonate le simulazioni, la decisione coincide con quella della sola politica a utilità
+            if (ai.getAllowedRollouts() <= 1 && !simulation.getFighter2().isBusy())
+                assertSame(candidates[0], input);
+
+            simulation.step(PlayerInput.NONE, input);
+        }
+
+        assertEquals(0, ai.getAllowedRollouts());
+        assertEquals(ai.getDecisions(), ai.getOverruns());
+    }
+}
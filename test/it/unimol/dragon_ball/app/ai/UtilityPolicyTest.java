@@ -0,0 +1,68 @@
+package it.unimol.dragon_ball.app.ai;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class UtilityPolicyTest {
+    private static final PlayerInput AURA = PlayerInput.of(PlayerInput.AURA);
+
+    private final UtilityPolicy policy = new UtilityPolicy();
+    private final PlayerInput[] candidates = new PlayerInput[UtilityPolicy.CANDIDATES_NUMBER];
+    private final double[] scores = new double[UtilityPolicy.CANDIDATES_NUMBER];
+
+    private static BattleSimulation newGokuBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.GOKU));
+    }
+
+    private PlayerInput bestInputOfPlayer1(BattleSimulation simulation) {
+        policy.rank(simulation, simulation.getFighter1(), simulation.getFighter2(), candidates, scores);
+
+        for (int i = 1; i < candidates.length; i++)
+            assertTrue(scores[i - 1] >= scores[i]);
+
+        return candidates[0];
+    }
+
+    @Test
+    void chargeAuraTest() throws IOException {
+        // Senza MP né abilità disponibili, lontano dall'avversario conviene caricare l'aura
+        assertSame(AURA, bestInputOfPlayer1(newGokuBattle()));
+    }
+
+    @Test
+    void castSkillTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        for (int i = 0; i < 19; i++)
+            simulation.step(AURA, PlayerInput.NONE);
+
+        assertSame(PlayerInput.of(PlayerInput.ENERGYBALL), bestInputOfPlayer1(simulation));
+    }
+
+    @Test
+    void punchTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        while (!simulation.getFighter1().getHurtbox().intersects(simulation.getFighter2().getHurtbox()))
+            simulation.step(PlayerInput.of(PlayerInput.RIGHT), PlayerInput.NONE);
+
+        assertSame(PlayerInput.of(PlayerInput.PUNCH), bestInputOfPlayer1(simulation));
+    }
+
+    @Test
+    void dodgeTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        for (int i = 0; i < 19; i++)
+            simulation.step(PlayerInput.NONE, AURA);
+        simulation.step(PlayerInput.NONE, PlayerInput.of(PlayerInput.ENERGYBALL));
+
+        // L'abilità avversaria in caricamento alla stessa altezza va schivata verso il lato più ampio dell'arena
+        assertSame(PlayerInput.of(PlayerInput.UP), bestInputOfPlayer1(simulation));
+    }
+}
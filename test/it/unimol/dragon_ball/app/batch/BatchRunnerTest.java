@@ -0,0 +1,65 @@
+package it.unimol.dragon_ball.app.batch;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.logic.Skill;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BatchRunnerTest {
+    private static final int MATCHES = 24;
+
+    @Test
+    void aggregatesTest() throws IOException {
+        BatchRunner runner = new BatchRunner(CharacterFactory.GOKU, CharacterFactory.FREEZER, StrategyType.SCRIPTED, 1);
+        BatchStatistics statistics = runner.run(MATCHES, 2);
+
+        assertEquals(MATCHES, statistics.getMatches());
+        assertEquals(MATCHES, statistics.getPlayer1Wins() + statistics.getPlayer2Wins() + statistics.getDraws());
+        assertEquals(2, statistics.getThreads());
+
+        // Le statistiche del lotto coincidono con la somma di quelle delle singole partite
+        BattleSimulation simulation = runner.playMatch(0);
+        assertEquals(MATCHES * simulation.getTickCount(), statistics.getTotalTicks());
+        assertEquals(MATCHES * simulation.getFighter1().getDamageDealt(Skill.ENERGYBALL),
+                statistics.getDamageDealt(0, Skill.ENERGYBALL));
+    }
+
+    @Test
+    void threadsIndependenceTest() throws IOException {
+        BatchRunner runner = new BatchRunner(CharacterFactory.GOKU, CharacterFactory.FREEZER, StrategyType.RANDOM, 7,
+                30, 2000);
+
+        BatchStatistics sequential = runner.run(MATCHES, 1);
+        BatchStatistics parallel = runner.run(MATCHES, 4);
+
+        assertEquals(sequential.getPlayer1Wins(), parallel.getPlayer1Wins());
+        assertEquals(sequential.getPlayer2Wins(), parallel.getPlayer2Wins());
+        assertEquals(sequential.getDraws(), parallel.getDraws());
+        assertEquals(sequential.getTotalTicks(), parallel.getTotalTicks());
+        for (int skillIndex = Skill.PUNCH; skillIndex <= Skill.ULTIMATE_SKILL; skillIndex++) {
+            assertEquals(sequential.getDamageDealt(0, skillIndex), parallel.getDamageDealt(0, skillIndex));
+            assertEquals(sequential.getDamageDealt(1, skillIndex), parallel.getDamageDealt(1, skillIndex));
+        }
+    }
+
+    @Test
+    void outputFormatTest() throws IOException {
+        BatchRunner runner = new BatchRunner(CharacterFactory.FREEZER, CharacterFactory.GOKU, StrategyType.SCRIPTED, 0);
+        BatchStatistics statistics = runner.run(2, 1);
+
+        String csv = statistics.toCsv();
+        assertTrue(csv.startsWith("freezer,goku,scripted,2,1,"));
+        assertEquals(BatchStatistics.CSV_HEADER.split(",").length, csv.split(",").length);
+
+        String json = statistics.toJson();
+        assertTrue(json.startsWith("{\"player1\":\"freezer\",\"player2\":\"goku\",\"strategy\":\"scripted\","));
+        assertTrue(json.contains("\"damagePerMatch\":{\"player1\":{\"punch\":"));
+        assertTrue(json.endsWith("}"));
+    }
+
+}
@@ -0,0 +1,116 @@
+package it.unimol.dragon_ball.app.collision;
+
+import it.unimol.dragon_ball.app.simulation.Hitbox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CollisionWorldTest {
+    private static final int ALL_LAYERS = CollisionLayer.maskOf(CollisionLayer.CHARACTERS, CollisionLayer.SKILLS);
+
+    private static Collider newCollider(int ownerId, double x, double y, double width, double height) {
+        return new Collider(ColliderType.CHARACTER, CollisionLayer.CHARACTERS, ALL_LAYERS, ownerId,
+                new Hitbox(x, y, width, height), ownerId);
+    }
+
+    private static List<String> findCollisions(CollisionWorld world) {
+        List<String> collisions = new ArrayList<>();
+        world.findCollisions((first, second) -> collisions.add(first.getUserData() + "-" + second.getUserData()));
+        return collisions;
+    }
+
+    @Test
+    void pairReportedOnceTest() {
+        CollisionWorld world = new CollisionWorld(0, 0, 1000, 1000, 100);
+
+        // Entrambi i collider coprono più celle in comune
+        world.add(newCollider(0, 50, 50, 300, 300));
+        world.add(newCollider(1, 150, 150, 300, 300));
+        world.add(newCollider(2, 600, 600, 100, 100));
+
+        assertEquals(1, world.findCollisions((first, second) -> { }));
+        assertEquals("0-1", findCollisions(world).get(0));
+    }
+
+    @Test
+    void filteringTest() {
+        CollisionWorld world = new CollisionWorld(0, 0, 1000, 1000, 100);
+        Hitbox bounds = new Hitbox(100, 100, 100, 100);
+
+        Collider character = new Collider(ColliderType.CHARACTER, CollisionLayer.CHARACTERS,
+                CollisionLayer.maskOf(CollisionLayer.CHARACTERS), 0, bounds, "character");
+        Collider ownSkill = new Collider(ColliderType.PROJECTILE, CollisionLayer.SKILLS, ALL_LAYERS, 0, bounds,
+                "ownSkill");
+        Collider enemySkill = new Collider(ColliderType.PROJECTILE, CollisionLayer.SKILLS, ALL_LAYERS, 1, bounds,
+                "enemySkill");
+        world.add(character);
+        world.add(ownSkill);
+        world.add(enemySkill);
+
+        // Il personaggio non accetta il livello delle abilità e le abilità dello stesso proprietario non collidono
+        List<String> collisions = findCollisions(world);
+        assertEquals(1, collisions.size());
+        assertEquals("ownSkill-enemySkill", collisions.get(0));
+
+        world.remove(ownSkill);
+        assertTrue(findCollisions(world).isEmpty());
+    }
+
+    @Test
+    void marginAndEmptyBoundsTest() {
+        CollisionWorld world = new CollisionWorld(0, 0, 1000, 1000, 100);
+        Hitbox emptyBounds = new Hitbox();
+
+        world.add(new Collider(ColliderType.PROJECTILE, CollisionLayer.SKILLS, ALL_LAYERS, 0,
+                new Hitbox(100, 100, 50, 50), 10, 0));
+        world.add(new Collider(ColliderType.PROJECTILE, CollisionLayer.SKILLS, ALL_LAYERS, 1,
+                new Hitbox(165, 100, 50, 50), 10, 1));
+        world.add(new Collider(ColliderType.PROJECTILE, CollisionLayer.SKILLS, ALL_LAYERS, 2, emptyBounds, 2));
+
+        // I rettangoli distano 15 pixel, meno della somma dei margini
+        assertEquals(1, findCollisions(world).size());
+    }
+
+    @Test
+    void outsideWorldTest() {
+        CollisionWorld world = new CollisionWorld(0, 0, 1000, 1000, 100);
+        world.add(newCollider(0, -300, -300, 100, 100));
+        world.add(newCollider(1, -250, -250, 100, 100));
+        world.add(newCollider(2, 1500, 500, 100, 100));
+
+        assertEquals(1, findCollisions(world).size());
+    }
+
+    @Test
+    void bruteForceEquivalenceTest() {
+        CollisionWorld world = new CollisionWorld(0, 0, 1280, 720, 128);
+        List<Collider> colliders = new ArrayList<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 300; i++) {
+            Collider collider = newCollider(i, random.nextInt(1400) - 60, random.nextInt(800) - 40,
+                    1 + random.nextInt(150), 1 + random.nextInt(150));
+            colliders.add(collider);
+            world.add(collider);
+        }
+
+        Set<String> expectedCollisions = new HashSet<>();
+        for (int i = 0; i < colliders.size(); i++) {
+            for (int j = i + 1; j < colliders.size(); j++) {
+                if (colliders.get(i).overlaps(colliders.get(j)))
+                    expectedCollisions.add(i + "-" + j);
+            }
+        }
+
+        List<String> collisions = findCollisions(world);
+        assertEquals(expectedCollisions.size(), collisions.size());
+        assertEquals(expectedCollisions, new HashSet<>(collisions));
+    }
+}
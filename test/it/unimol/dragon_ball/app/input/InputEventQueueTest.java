@@ -0,0 +1,83 @@
+package it.unimol.dragon_ball.app.input;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class InputEventQueueTest {
+
+    @Test
+    void drainUntilTest() {
+        InputEventQueue queue = new InputEventQueue(8);
+        queue.offer(0, PlayerInput.UP, true, 100);
+        queue.offer(1, PlayerInput.AURA, true, 200);
+        queue.offer(0, PlayerInput.UP, false, 300);
+
+        List<String> events = new ArrayList<>();
+        InputEventHandler handler = (player, button, isPressed, timestampNanos) ->
+                events.add(player + ":" + button + ":" + isPressed + ":" + timestampNanos);
+
+        // Gli eventi successivi all'istante richiesto restano in coda
+        assertEquals(2, queue.drain(250, handler));
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.drain(300, handler));
+        assertEquals(0, queue.drain(1000, handler));
+
+        assertEquals("0:0:true:100", events.get(0));
+        assertEquals("1:4:true:200", events.get(1));
+        assertEquals("0:0:false:300", events.get(2));
+    }
+
+    @Test
+    void capacityTest() {
+        InputEventQueue queue = new InputEventQueue(4);
+
+        for (int i = 0; i < 4; i++)
+            assertTrue(queue.offer(0, PlayerInput.PUNCH, i % 2 == 0, i));
+        assertFalse(queue.offer(0, PlayerInput.PUNCH, true, 4));
+        assertEquals(1, queue.getDroppedEvents());
+
+        // Liberate le posizioni lette, la coda torna ad accettare eventi
+        assertEquals(2, queue.drain(1, (player, button, isPressed, timestampNanos) -> { }));
+        assertTrue(queue.offer(0, PlayerInput.PUNCH, true, 5));
+        assertTrue(queue.offer(0, PlayerInput.PUNCH, false, 6));
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    void singleProducerSingleConsumerTest() throws InterruptedException {
+        final int eventsNumber = 200_000;
+        InputEventQueue queue = new InputEventQueue(64);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < eventsNumber; i++) {
+                while (!queue.offer(i % 2, i % PlayerInput.BUTTONS_NUMBER, i % 3 == 0, i))
+                    Thread.yield();
+            }
+        });
+        producer.start();
+
+        // Il consumatore deve ricevere tutti gli eventi, integri e nell'ordine di inserimento
+        long[] nextEvent = {0};
+        AtomicReference<String> failure = new AtomicReference<>();
+        InputEventHandler handler = (player, button, isPressed, timestampNanos) -> {
+            long i = nextEvent[0]++;
+            if (timestampNanos != i || player != i % 2 || button != i % PlayerInput.BUTTONS_NUMBER ||
+                    isPressed != (i % 3 == 0))
+                failure.compareAndSet(null, "Evento " + i + " non coerente");
+        };
+
+        while (nextEvent[0] < eventsNumber && failure.get() == null)
+            queue.drain(Long.MAX_VALUE, handler);
+        producer.join();
+
+        assertNull(failure.get());
+        assertEquals(eventsNumber, nextEvent[0]);
+    }
+}
@@ -0,0 +1,50 @@
+package it.unimol.dragon_ball.app.input;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class InputSamplerTest {
+    private static final long TICK_NANOS = 30_000_000L;
+
+    @Test
+    void heldButtonTest() {
+        InputEventQueue queue = new InputEventQueue();
+        InputSampler sampler = new InputSampler(queue, 2);
+
+        queue.offer(0, PlayerInput.RIGHT, true, 10);
+        queue.offer(1, PlayerInput.AURA, true, TICK_NANOS + 10);
+
+        sampler.sample(TICK_NANOS);
+        assertEquals(PlayerInput.of(PlayerInput.RIGHT), sampler.getInput(0));
+        assertEquals(PlayerInput.NONE, sampler.getInput(1));
+
+        // Il comando resta premuto nei tick successivi fino al rilascio
+        sampler.sample(2 * TICK_NANOS);
+        assertEquals(PlayerInput.of(PlayerInput.RIGHT), sampler.getInput(0));
+        assertEquals(PlayerInput.of(PlayerInput.AURA), sampler.getInput(1));
+
+        queue.offer(0, PlayerInput.RIGHT, false, 2 * TICK_NANOS + 10);
+        sampler.sample(3 * TICK_NANOS);
+        assertEquals(PlayerInput.NONE, sampler.getInput(0));
+        assertEquals(PlayerInput.of(PlayerInput.AURA), sampler.getInput(1));
+    }
+
+    @Test
+    void shortTapTest() {
+        InputEventQueue queue = new InputEventQueue();
+        InputSampler sampler = new InputSampler(queue, 2);
+
+        // Pressione e rilascio all'interno dello stesso tick
+        queue.offer(0, PlayerInput.ENERGYBALL, true, 5_000_000L);
+        queue.offer(0, PlayerInput.ENERGYBALL, false, 8_000_000L);
+
+        sampler.sample(TICK_NANOS);
+        assertEquals(PlayerInput.of(PlayerInput.ENERGYBALL), sampler.getInput(0));
+
+        sampler.sample(2 * TICK_NANOS);
+        assertEquals(PlayerInput.NONE, sampler.getInput(0));
+    }
+}
@@ -0,0 +1,240 @@
+package it.unimol.dragon_ball.app.net;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.replay.Replay;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RollbackSessionTest {
+
+    private static BattleSimulation newBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+    }
+
+    /**
+     * Input pseudo-casuali che cambiano ogni pochi tick, come accade premendo e rilasciando i tasti.
+     */
+    private static PlayerInput nextInput(Random random, PlayerInput input, int tick) {
+        return tick % 8 == 0 ? PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER)) : input;
+    }
+
+    /**
+     * Completa lo scambio degli input finché entrambe le sessioni non raggiungono lo stesso tick con tutti gli input
+     * confermati.
+     */
+    private static void synchronize(RollbackSession session1, RollbackSession session2, LoopbackTransport link)
+            throws IOException {
+        for (int i = 0; i < 10_000; i++) {
+            if (session1.getTick() == session2.getTick() && session1.isSynchronized() && session2.isSynchronized())
+                return;
+
+            if (session1.getTick() < session2.getTick())
+                session1.advance(PlayerInput.NONE);
+            else
+                session1.poll();
+
+            if (session2.getTick() < session1.getTick())
+                session2.advance(PlayerInput.NONE);
+            else
+                session2.poll();
+
+            link.advanceTime();
+        }
+
+        fail("Sessions did not synchronize");
+    }
+
+    @Test
+    void convergenceTest() throws IOException {
+        // Con tick da 30 millisecondi, due tick di latenza per direzione corrispondono a circa 100 ms di RTT
+        LoopbackTransport[] transports = LoopbackTransport.createPair(2, 0.05, 1);
+        RollbackSession session1 = new RollbackSession(newBattle(), 0, transports[0],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        RollbackSession session2 = new RollbackSession(newBattle(), 1, transports[1],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+
+        Random random1 = new Random(11);
+        Random random2 = new Random(22);
+        PlayerInput input1 = PlayerInput.NONE;
+        PlayerInput input2 = PlayerInput.NONE;
+
+        for (int i = 0; i < 3000; i++) {
+            input1 = nextInput(random1, input1, i);
+            input2 = nextInput(random2, input2, i);
+
+            session1.advance(input1);
+            session2.advance(input2);
+            transports[0].advanceTime();
+        }
+
+        // A questa latenza nessun giocatore attende l'altro, mentre le previsioni errate vengono corrette
+        assertEquals(0, session1.getStalls());
+        assertEquals(0, session2.getStalls());
+        assertTrue(session1.getRollbacks() > 0);
+        assertTrue(session1.getRolledBackTicks() <= session1.getRollbacks() * RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+
+        synchronize(session1, session2, transports[0]);
+
+        // Entrambe le simulazioni coincidono con una simulazione locale che riceve gli input confermati
+        BattleSimulation reference = newBattle();
+        for (int i = 0; i < session1.getTick(); i++) {
+            assertEquals(session1.getInput(0, i).getBits(), session2.getInput(0, i).getBits());
+            assertEquals(session1.getInput(1, i).getBits(), session2.getInput(1, i).getBits());
+            reference.step(session1.getInput(0, i), session1.getInput(1, i));
+        }
+
+        long checksum = Replay.checksumOf(reference.getState());
+        assertEquals(checksum, Replay.checksumOf(session1.getSimulation().getState()));
+        assertEquals(checksum, Replay.checksumOf(session2.getSimulation().getState()));
+    }
+
+    @Test
+    void stallTest() throws IOException {
+        // Una latenza superiore al limite di rollback costringe le sessioni ad attendersi a vicenda
+        LoopbackTransport[] transports = LoopbackTransport.createPair(12, 0, 1);
+        RollbackSession session1 = new RollbackSession(newBattle(), 0, transports[0], 4);
+        RollbackSession session2 = new RollbackSession(newBattle(), 1, transports[1], 4);
+
+        PlayerInput right = PlayerInput.of(PlayerInput.RIGHT);
+        PlayerInput aura = PlayerInput.of(PlayerInput.AURA);
+        for (int i = 0; i < 500; i++) {
+            session1.advance(i % 20 < 10 ? right : aura);
+            session2.advance(PlayerInput.NONE);
+            transports[0].advanceTime();
+
+            assertTrue(session1.getTick() - session1.getConfirmedTicks() <= 4);
+            assertTrue(session2.getTick() - session2.getConfirmedTicks() <= 4);
+        }
+
+        assertTrue(session1.getStalls() > 0);
+        assertTrue(session1.getTick() < 500);
+        assertTrue(session1.getRolledBackTicks() <= session1.getRollbacks() * 4);
+    }
+
+    @Test
+    void resultTest() throws IOException {
+        LoopbackTransport[] transports = LoopbackTransport.createPair(3, 0.2, 5);
+        RollbackSession session1 = new RollbackSession(newBattle(), 0, transports[0],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        RollbackSession session2 = new RollbackSession(newBattle(), 1, transports[1],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+
+        PlayerInput aura = PlayerInput.of(PlayerInput.AURA);
+        PlayerInput energyball = PlayerInput.of(PlayerInput.ENERGYBALL);
+        boolean isSession1Ended = false;
+        boolean isSession2Ended = false;
+
+        for (int i = 0; i < 100_000 && !isSession1Ended && !isSession2Ended; i++) {
+            int mana = session1.getSimulation().getFighter1().getCharacter().getActualMP();
+            session1.advance(mana >= 75 ? energyball : aura);
+            session2.advance(PlayerInput.NONE);
+            transports[0].advanceTime();
+
+            isSession1Ended = session1.isResultAcknowledged();
+            isSession2Ended = session2.isResultAcknowledged();
+        }
+
+        // Chi termina per primo smette di inviare pacchetti, ma l'avversario conosce già il vincitore definitivo
+        assertTrue(isSession1Ended || isSession2Ended);
+        assertTrue(session1.isResultConfirmed());
+        assertTrue(session2.isResultConfirmed());
+        assertEquals("player1", session1.getSimulation().getWinnerName());
+        assertEquals("player1", session2.getSimulation().getWinnerName());
+        assertEquals(Replay.checksumOf(session1.getSimulation().getState()),
+                Replay.checksumOf(session2.getSimulation().getState()));
+    }
+
+    @Test
+    void malformedPacketTest() throws IOException {
+        LoopbackTransport[] transports = LoopbackTransport.createPair(0, 0, 1);
+        RollbackSession session = new RollbackSession(newBattle(), 0, transports[0], 4);
+
+        // Un pacchetto troncato e uno di input con un identificativo di partita sconosciuto
+        transports[1].send(ByteBuffer.wrap(new byte[]{1, 0, 0}));
+        transports[1].send(ByteBuffer.wrap(new byte[]{1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 50}));
+
+        assertFalse(session.advance(PlayerInput.NONE));
+        assertFalse(session.isConnected());
+        assertEquals(0, session.getTick());
+        assertEquals(0, session.getConfirmedTicks());
+    }
+
+    @Test
+    void lateStartTest() throws IOException {
+        LoopbackTransport[] transports = LoopbackTransport.createPair(2, 0, 1);
+        RollbackSession session1 = new RollbackSession(newBattle(), 0, transports[0],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+
+        // Il primo giocatore attende il secondo, avviato molto più tardi, senza avanzare né considerarlo disconnesso
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(session1.advance(PlayerInput.NONE));
+            transports[0].advanceTime();
+        }
+
+        assertFalse(session1.isConnected());
+        assertEquals(0, session1.getTick());
+        assertEquals(0, session1.getTicksSinceLastPacket());
+
+        RollbackSession session2 = new RollbackSession(newBattle(), 1, transports[1],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        for (int i = 0; i < 100; i++) {
+            session1.advance(PlayerInput.NONE);
+            session2.advance(PlayerInput.NONE);
+            transports[0].advanceTime();
+        }
+
+        // Entrambi i giocatori partono dal tick iniziale quasi insieme, quindi nessuno dei due attende l'altro
+        assertTrue(session1.isConnected());
+        assertTrue(session2.isConnected());
+        assertTrue(session1.getTick() > 90);
+        assertEquals(0, session1.getStalls());
+        assertEquals(0, session2.getStalls());
+        assertTrue(session1.getTicksSinceLastPacket() <= 1);
+    }
+
+    @Test
+    void stalePacketTest() throws IOException {
+        LoopbackTransport[] transports = LoopbackTransport.createPair(3, 0, 1);
+        RollbackSession oldSession1 = new RollbackSession(newBattle(), 0, transports[0],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        RollbackSession oldSession2 = new RollbackSession(newBattle(), 1, transports[1],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+
+        PlayerInput right = PlayerInput.of(PlayerInput.RIGHT);
+        for (int i = 0; i < 50; i++) {
+            oldSession1.advance(PlayerInput.NONE);
+            oldSession2.advance(right);
+            transports[0].advanceTime();
+        }
+
+        // Una nuova partita sugli stessi estremi riceve gli input ancora in viaggio della partita precedente
+        RollbackSession session1 = new RollbackSession(newBattle(), 0, transports[0],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        RollbackSession session2 = new RollbackSession(newBattle(), 1, transports[1],
+                RollbackSession.DEFAULT_MAX_ROLLBACK_TICKS);
+        for (int i = 0; i < 200; i++) {
+            if (i < 10)
+                oldSession2.advance(right);
+
+            session1.advance(PlayerInput.NONE);
+            session2.advance(PlayerInput.NONE);
+            transports[0].advanceTime();
+        }
+
+        synchronize(session1, session2, transports[0]);
+        for (int i = 0; i < session1.getTick(); i++)
+            assertEquals(PlayerInput.NONE.getBits(), session1.getInput(1, i).getBits());
+
+        assertEquals(Replay.checksumOf(session1.getSimulation().getState()),
+                Replay.checksumOf(session2.getSimulation().getState()));
+    }
+}
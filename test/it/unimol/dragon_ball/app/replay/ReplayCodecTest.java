@@ -0,0 +1,72 @@
+package it.unimol.dragon_ball.app.replay;
+
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ReplayCodecTest {
+
+    private static Replay newReplay() {
+        int[] inputs = new int[10_000];
+
+        // Input che restano invariati per molti tick, come avviene tenendo premuti i tasti
+        for (int i = 0; i < inputs.length; i++) {
+            PlayerInput player1Input = (i / 500) % 2 == 0 ? PlayerInput.of(PlayerInput.AURA) : PlayerInput.NONE;
+            PlayerInput player2Input = i % 1000 < 300 ? PlayerInput.of(PlayerInput.LEFT, PlayerInput.UP) : PlayerInput.NONE;
+            inputs[i] = Replay.packInputs(player1Input, player2Input);
+        }
+
+        return new Replay("goku", "freezer", "/resources/maps/map1.png", 30, 7, inputs, 123456789L);
+    }
+
+    private static byte[] encode(Replay replay) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReplayCodec.write(replay, outputStream);
+
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    void roundTripTest() throws IOException {
+        Replay replay = newReplay();
+        Replay decoded = ReplayCodec.read(new ByteArrayInputStream(encode(replay)));
+
+        assertEquals("goku", decoded.getPlayer1Name());
+        assertEquals("freezer", decoded.getPlayer2Name());
+        assertEquals("/resources/maps/map1.png", decoded.getMapFilepath());
+        assertEquals(30, decoded.getTickMillis());
+        assertEquals(7, decoded.getSeed());
+        assertEquals(123456789L, decoded.getFinalChecksum());
+        assertEquals(replay.getTicksNumber(), decoded.getTicksNumber());
+
+        for (int i = 0; i < replay.getTicksNumber(); i++) {
+            assertEquals(replay.getPlayer1Input(i).getBits(), decoded.getPlayer1Input(i).getBits());
+            assertEquals(replay.getPlayer2Input(i).getBits(), decoded.getPlayer2Input(i).getBits());
+        }
+    }
+
+    @Test
+    void compactnessTest() throws IOException {
+        // Cinque minuti di partita a 30 millisecondi per tick occupano poche centinaia di byte
+        assertTrue(encode(newReplay()).length < 512);
+    }
+
+    @Test
+    void invalidFileTest() throws IOException {
+        byte[] bytes = encode(newReplay());
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] = 0;
+        assertThrows(IOException.class, () -> ReplayCodec.read(new ByteArrayInputStream(wrongMagic)));
+
+        byte[] truncated = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> ReplayCodec.read(new ByteArrayInputStream(truncated)));
+    }
+}
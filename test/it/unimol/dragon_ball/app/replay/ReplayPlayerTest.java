@@ -0,0 +1,95 @@
+package it.unimol.dragon_ball.app.replay;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleState;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ReplayPlayerTest {
+
+    private static Replay recordRandomBattle(BattleSimulation simulation, long seed) {
+        ReplayRecorder recorder = new ReplayRecorder(simulation, "");
+        Random random = new Random(seed);
+
+        // Gli input cambiano ogni pochi tick, come accade premendo e rilasciando i tasti
+        PlayerInput player1Input = PlayerInput.NONE;
+        PlayerInput player2Input = PlayerInput.NONE;
+        for (int i = 0; i < 20_000 && !simulation.isFinished(); i++) {
+            if (i % 8 == 0) {
+                player1Input = PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER));
+                player2Input = PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER));
+            }
+
+            recorder.record(player1Input, player2Input);
+            simulation.step(player1Input, player2Input);
+        }
+
+        return recorder.toReplay(simulation.getState());
+    }
+
+    @Test
+    void playbackTest() throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER), 30, 42);
+        Replay replay = recordRandomBattle(simulation, 42);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReplayCodec.write(replay, outputStream);
+        ReplayPlayer player = new ReplayPlayer(ReplayCodec.read(new ByteArrayInputStream(outputStream.toByteArray())));
+        player.playToEnd();
+
+        BattleState expected = simulation.getState();
+        BattleState actual = player.getSimulation().getState();
+        assertTrue(player.isConsistent());
+        assertEquals(42, player.getSimulation().getSeed());
+        assertEquals(expected.getTickCount(), actual.getTickCount());
+        assertEquals(expected.getWinnerName(), actual.getWinnerName());
+        assertEquals(expected.getFighter1().getActualHP(), actual.getFighter1().getActualHP());
+        assertEquals(expected.getFighter2().getActualHP(), actual.getFighter2().getActualHP());
+        assertEquals(expected.getFighter1().getX(), actual.getFighter1().getX());
+    }
+
+    @Test
+    void stepTest() throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER), 30);
+        Replay replay = recordRandomBattle(simulation, 7);
+        ReplayPlayer player = new ReplayPlayer(replay);
+
+        // A velocità multipla la riproduzione avanza di più tick alla volta, senza superare quelli registrati
+        assertEquals(64, player.step(64));
+        assertFalse(player.isConsistent());
+
+        while (!player.isFinished())
+            assertTrue(player.step(64) > 0);
+
+        assertTrue(player.isFinished());
+        assertEquals(replay.getTicksNumber(), player.getTick());
+        assertTrue(player.isConsistent());
+        assertFalse(player.step());
+    }
+
+    @Test
+    void divergenceTest() throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER), 30);
+        Replay replay = recordRandomBattle(simulation, 42);
+
+        // Un replay il cui stato finale non coincide con quello riprodotto viene riconosciuto
+        Replay corrupted = new Replay(replay.getPlayer1Name(), replay.getPlayer2Name(), replay.getMapFilepath(),
+                replay.getTickMillis(), replay.getSeed(), new int[replay.getTicksNumber()], replay.getFinalChecksum());
+        ReplayPlayer player = new ReplayPlayer(corrupted);
+        player.playToEnd();
+
+        assertFalse(player.isConsistent());
+    }
+}
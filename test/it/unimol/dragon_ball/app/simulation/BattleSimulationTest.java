@@ -0,0 +1,250 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.Character;
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BattleSimulationTest {
+    private static final PlayerInput NONE = PlayerInput.NONE;
+    private static final PlayerInput AURA = PlayerInput.of(PlayerInput.AURA);
+    private static final PlayerInput RIGHT = PlayerInput.of(PlayerInput.RIGHT);
+    private static final PlayerInput ENERGYBALL = PlayerInput.of(PlayerInput.ENERGYBALL);
+
+    private static BattleSimulation newGokuBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.GOKU));
+    }
+
+    private static void stepPlayer1(BattleSimulation simulation, PlayerInput input, int ticks) {
+        for (int i = 0; i < ticks; i++)
+            simulation.step(input, NONE);
+    }
+
+    private static void moveUntilPlayersCollide(BattleSimulation simulation) {
+        Fighter fighter1 = simulation.getFighter1();
+        Fighter fighter2 = simulation.getFighter2();
+
+        while (!fighter1.getHurtbox().intersects(fighter2.getHurtbox()))
+            simulation.step(RIGHT, NONE);
+    }
+
+    @Test
+    void movementTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Fighter fighter = simulation.getFighter1();
+
+        simulation.step(RIGHT, NONE);
+        assertEquals(BattleSimulation.PLAYER1_START_X + 6, fighter.getX());
+        assertEquals(Fighter.Action.MOVE_FORWARD, fighter.getAction());
+
+        // Lo spostamento che porterebbe oltre il confine dell'arena non ha effetto
+        stepPlayer1(simulation, PlayerInput.of(PlayerInput.LEFT, PlayerInput.UP), 100);
+        assertEquals(102, fighter.getX());
+        assertEquals(154, fighter.getY());
+        assertEquals(Fighter.Action.MOVE_FORWARD, fighter.getAction());
+
+        simulation.step(PlayerInput.of(PlayerInput.LEFT), NONE);
+        assertEquals(Fighter.Action.MOVE_BACK, fighter.getAction());
+        assertEquals(0, fighter.getActionTicks());
+    }
+
+    @Test
+    void auraTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Fighter fighter = simulation.getFighter1();
+        Character character = fighter.getCharacter();
+
+        stepPlayer1(simulation, AURA, 10);
+        assertEquals(11, character.getAura());
+        assertEquals(40, character.getActualMP());
+
+        // Durante il caricamento dell'aura il personaggio non può muoversi
+        stepPlayer1(simulation, AURA.with(PlayerInput.RIGHT), 5);
+        assertEquals(BattleSimulation.PLAYER1_START_X, fighter.getX());
+        assertEquals(Fighter.Action.AURA, fighter.getAction());
+        assertEquals(14, fighter.getActionTicks());
+
+        stepPlayer1(simulation, AURA, 98 - 15);
+        assertEquals(0, character.getActualEvolutionNumber());
+        simulation.step(AURA, NONE);
+        assertEquals(1, character.getActualEvolutionNumber());
+        assertEquals(1, character.getAura());
+    }
+
+    @Test
+    void energyballTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Fighter fighter1 = simulation.getFighter1();
+        Character player1 = fighter1.getCharacter();
+        Character player2 = simulation.getFighter2().getCharacter();
+
+        simulation.step(ENERGYBALL, NONE);
+        assertNull(fighter1.getProjectile());
+        assertEquals(Fighter.Action.IDLE, fighter1.getAction());
+
+        stepPlayer1(simulation, AURA, 19);
+        simulation.step(ENERGYBALL, NONE);
+        Projectile projectile = fighter1.getProjectile();
+        assertNotNull(projectile);
+        assertEquals(76 - 75, player1.getActualMP());
+
+        // Durante il caricamento il personaggio resta fermo e l'abilità non può colpire
+        stepPlayer1(simulation, RIGHT, (int) simulation.toTicks(0.6) - 2);
+        assertEquals(Projectile.Phase.CHARGING, projectile.getPhase());
+        assertTrue(projectile.getHitbox().isEmpty());
+        assertEquals(BattleSimulation.PLAYER1_START_X, fighter1.getX());
+
+        simulation.step(NONE, NONE);
+        assertTrue(projectile.isTravelling());
+
+        while (fighter1.getProjectile() != null)
+            simulation.step(NONE, NONE);
+
+        assertEquals(900 - 34, player2.getActualHP());
+        assertTrue(simulation.getFighter2().isHitBySkill());
+
+        // Terminata l'abilità, il personaggio torna disponibile dal tick successivo
+        assertEquals(Fighter.Action.ENERGYBALL, fighter1.getAction());
+        simulation.step(NONE, NONE);
+        assertEquals(Fighter.Action.IDLE, fighter1.getAction());
+    }
+
+    @Test
+    void cooldownTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Fighter fighter1 = simulation.getFighter1();
+        Character player2 = simulation.getFighter2().getCharacter();
+
+        moveUntilPlayersCollide(simulation);
+        stepPlayer1(simulation, AURA, 40);
+        int mana = fighter1.getCharacter().getActualMP();
+
+        // A distanza ravvicinata la sfera di energia colpisce appena lanciata
+        simulation.step(ENERGYBALL, NONE);
+        while (fighter1.getProjectile() != null)
+            simulation.step(NONE, NONE);
+        assertEquals(900 - 34, player2.getActualHP());
+        assertEquals(mana - 75, fighter1.getCharacter().getActualMP());
+
+        long cooldownEndTick = fighter1.getCooldownEndTick(1);
+        assertEquals(simulation.toTicks(0.5), cooldownEndTick - simulation.getTickCount());
+
+        while (simulation.getTickCount() < cooldownEndTick - 1) {
+            simulation.step(ENERGYBALL, NONE);
+            assertNull(fighter1.getProjectile());
+        }
+        assertEquals(mana - 75, fighter1.getCharacter().getActualMP());
+
+        simulation.step(ENERGYBALL, NONE);
+        assertNotNull(fighter1.getProjectile());
+    }
+
+    @Test
+    void punchTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Character player2 = simulation.getFighter2().getCharacter();
+
+        moveUntilPlayersCollide(simulation);
+        stepPlayer1(simulation, PlayerInput.of(PlayerInput.PUNCH), 9);
+
+        // Il pugno infligge danno una volta ogni tre tick
+        assertEquals(900 - 3 * 4, player2.getActualHP());
+        assertEquals(9, simulation.getFighter2().getPunchedTicks());
+
+        simulation.step(NONE, NONE);
+        assertEquals(0, simulation.getFighter2().getPunchedTicks());
+    }
+
+    @Test
+    void energyballClashTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+
+        for (int i = 0; i < 19; i++)
+            simulation.step(AURA, AURA);
+        simulation.step(ENERGYBALL, ENERGYBALL);
+
+        while (simulation.getFighter1().getProjectile() != null || simulation.getFighter2().getProjectile() != null)
+            simulation.step(NONE, NONE);
+
+        assertEquals(900, simulation.getFighter1().getCharacter().getActualHP());
+        assertEquals(900, simulation.getFighter2().getCharacter().getActualHP());
+    }
+
+    @Test
+    void longTickEnergyballTest() throws IOException {
+        // Con tick da 200 millisecondi la sfera di energia percorre 250 pixel per tick, più del bersaglio
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.GOKU), 200);
+        Fighter fighter1 = simulation.getFighter1();
+        Character player2 = simulation.getFighter2().getCharacter();
+
+        stepPlayer1(simulation, AURA, 19);
+        simulation.step(ENERGYBALL, NONE);
+        while (fighter1.getProjectile() != null)
+            simulation.step(NONE, NONE);
+
+        assertEquals(900 - 34, player2.getActualHP());
+        assertTrue(simulation.getFighter2().isHitBySkill());
+    }
+
+    @Test
+    void winnerTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        Character player1 = simulation.getFighter1().getCharacter();
+
+        while (!simulation.isFinished() && simulation.getTickCount() < 100_000) {
+            PlayerInput input = player1.getActualMP() >= 75 ? ENERGYBALL : AURA;
+            simulation.step(input, NONE);
+        }
+
+        assertEquals("player1", simulation.getWinnerName());
+        assertTrue(simulation.getFighter2().getCharacter().getActualHP() < 0);
+
+        // A partita conclusa la simulazione non avanza più
+        long tickCount = simulation.getTickCount();
+        simulation.step(NONE, NONE);
+        assertEquals(tickCount, simulation.getTickCount());
+    }
+
+    @Test
+    void determinismTest() throws IOException {
+        BattleSimulation simulation = runRandomBattle(42);
+        BattleSimulation sameSimulation = runRandomBattle(42);
+
+        assertEquals(simulation.getTickCount(), sameSimulation.getTickCount());
+        assertEquals(simulation.getWinnerName(), sameSimulation.getWinnerName());
+        assertSameState(simulation.getFighter1(), sameSimulation.getFighter1());
+        assertSameState(simulation.getFighter2(), sameSimulation.getFighter2());
+    }
+
+    private static BattleSimulation runRandomBattle(long seed) throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+        Random random = new Random(seed);
+
+        for (int i = 0; i < 20_000 && !simulation.isFinished(); i++) {
+            PlayerInput player1Input = PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER));
+            PlayerInput player2Input = PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER));
+            simulation.step(player1Input, player2Input);
+        }
+
+        return simulation;
+    }
+
+    private static void assertSameState(Fighter fighter, Fighter sameFighter) {
+        assertEquals(fighter.getX(), sameFighter.getX());
+        assertEquals(fighter.getY(), sameFighter.getY());
+        assertEquals(fighter.getAction(), sameFighter.getAction());
+        assertEquals(fighter.getCharacter().getActualHP(), sameFighter.getCharacter().getActualHP());
+        assertEquals(fighter.getCharacter().getActualMP(), sameFighter.getCharacter().getActualMP());
+        assertEquals(fighter.getCharacter().getAura(), sameFighter.getCharacter().getAura());
+        assertEquals(fighter.getCharacter().getActualEvolutionNumber(),
+                sameFighter.getCharacter().getActualEvolutionNumber());
+    }
+}
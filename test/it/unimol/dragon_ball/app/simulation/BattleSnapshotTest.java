@@ -0,0 +1,167 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BattleSnapshotTest {
+
+    private static BattleSimulation newBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+    }
+
+    private static PlayerInput[] randomInputs(long seed, int ticks) {
+        Random random = new Random(seed);
+        PlayerInput[] inputs = new PlayerInput[ticks];
+
+        // Gli input cambiano ogni pochi tick, così che le abilità vengano caricate e lanciate
+        for (int i = 0; i < ticks; i += 8) {
+            PlayerInput input = PlayerInput.fromBits(random.nextInt(1 << PlayerInput.BUTTONS_NUMBER));
+            for (int j = i; j < Math.min(i + 8, ticks); j++)
+                inputs[j] = input;
+        }
+
+        return inputs;
+    }
+
+    private static void run(BattleSimulation simulation, PlayerInput[] player1Inputs, PlayerInput[] player2Inputs,
+                            int from, int to) {
+        for (int i = from; i < to; i++)
+            simulation.step(player1Inputs[i], player2Inputs[i]);
+    }
+
+    private static void assertSameState(BattleState expected, BattleState actual) {
+        assertEquals(expected.getTickCount(), actual.getTickCount());
+        assertEquals(expected.getWinnerName(), actual.getWinnerName());
+        assertSameState(expected.getFighter1(), actual.getFighter1());
+        assertSameState(expected.getFighter2(), actual.getFighter2());
+    }
+
+    private static void assertSameState(FighterState expected, FighterState actual) {
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getPreviousX(), actual.getPreviousX());
+        assertEquals(expected.getAction(), actual.getAction());
+        assertEquals(expected.getActionTicks(), actual.getActionTicks());
+        assertEquals(expected.getActualHP(), actual.getActualHP());
+        assertEquals(expected.getActualMP(), actual.getActualMP());
+        assertEquals(expected.getAura(), actual.getAura());
+        assertEquals(expected.getActualEvolutionNumber(), actual.getActualEvolutionNumber());
+        assertEquals(expected.getProjectile() == null, actual.getProjectile() == null);
+
+        if (expected.getProjectile() != null) {
+            assertEquals(expected.getProjectile().getX(), actual.getProjectile().getX());
+            assertEquals(expected.getProjectile().getTicks(), actual.getProjectile().getTicks());
+            assertEquals(expected.getProjectile().getPhase(), actual.getProjectile().getPhase());
+        }
+    }
+
+    @Test
+    void rollbackTest() throws IOException {
+        PlayerInput[] player1Inputs = randomInputs(1, 6000);
+        PlayerInput[] player2Inputs = randomInputs(2, 6000);
+        BattleSimulation simulation = newBattle();
+        BattleSnapshot snapshot = new BattleSnapshot();
+
+        // Ad ogni checkpoint la partita viene salvata, fatta avanzare, riportata indietro e fatta avanzare di nuovo
+        for (int checkpoint = 0; checkpoint + 100 < 6000 && !simulation.isFinished(); checkpoint += 100) {
+            simulation.saveSnapshot(snapshot);
+            assertEquals(checkpoint, snapshot.getTickCount());
+
+            run(simulation, player1Inputs, player2Inputs, checkpoint, checkpoint + 100);
+            BattleState expected = simulation.getState();
+
+            simulation.restoreSnapshot(snapshot);
+            assertEquals(checkpoint, simulation.getTickCount());
+
+            run(simulation, player1Inputs, player2Inputs, checkpoint, checkpoint + 100);
+            assertSameState(expected, simulation.getState());
+        }
+    }
+
+    @Test
+    void restoreIntoNewBattleTest() throws IOException {
+        PlayerInput[] player1Inputs = randomInputs(3, 4000);
+        PlayerInput[] player2Inputs = randomInputs(4, 4000);
+        BattleSimulation simulation = newBattle();
+
+        run(simulation, player1Inputs, player2Inputs, 0, 2000);
+        BattleSnapshot snapshot = BattleSnapshot.fromByteArray(simulation.saveSnapshot().toByteArray());
+        assertEquals(CharacterFactory.GOKU, snapshot.getPlayer1Name());
+        assertEquals(CharacterFactory.FREEZER, snapshot.getPlayer2Name());
+
+        BattleSimulation restored = new BattleSimulation(CharacterFactory.create(snapshot.getPlayer1Name()),
+                CharacterFactory.create(snapshot.getPlayer2Name()), snapshot.getTickMillis());
+        restored.restoreSnapshot(snapshot);
+        assertSameState(simulation.getState(), restored.getState());
+
+        run(simulation, player1Inputs, player2Inputs, 2000, 4000);
+        run(restored, player1Inputs, player2Inputs, 2000, 4000);
+        assertSameState(simulation.getState(), restored.getState());
+    }
+
+    @Test
+    void invalidSnapshotTest() throws IOException {
+        BattleSnapshot snapshot = newBattle().saveSnapshot();
+        assertTrue(snapshot.getSize() < 1024);
+
+        byte[] wrongVersion = snapshot.toByteArray();
+        wrongVersion[5] = 99;
+        assertThrows(IOException.class, () -> BattleSnapshot.fromByteArray(wrongVersion));
+        assertThrows(IOException.class, () -> BattleSnapshot.fromByteArray(new byte[8]));
+
+        BattleSimulation otherBattle = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.GOKU));
+        assertThrows(IllegalArgumentException.class, () -> otherBattle.restoreSnapshot(snapshot));
+    }
+
+    @Test
+    void corruptedBodyTest() throws IOException {
+        BattleSimulation simulation = newBattle();
+        PlayerInput aura = PlayerInput.of(PlayerInput.AURA);
+        for (int i = 0; i < 19; i++)
+            simulation.step(aura, aura);
+        simulation.step(PlayerInput.of(PlayerInput.ENERGYBALL), PlayerInput.of(PlayerInput.ENERGYBALL));
+        byte[] bytes = simulation.saveSnapshot().toByteArray();
+
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> BattleSnapshot.fromByteArray(truncated));
+        }
+
+        // Ogni byte alterato viene rifiutato durante la lettura o dal ripristino, oppure produce uno stato valido
+        BattleSimulation target = newBattle();
+        byte[] targetBytes = target.saveSnapshot().toByteArray();
+        for (int i = 0; i < bytes.length; i++) {
+            for (byte value : new byte[]{-1, 4, 99}) {
+                byte[] corrupted = bytes.clone();
+                corrupted[i] = value;
+
+                BattleSnapshot snapshot;
+                try {
+                    snapshot = BattleSnapshot.fromByteArray(corrupted);
+                } catch (IOException e) {
+                    continue;
+                }
+
+                try {
+                    target.restoreSnapshot(snapshot);
+                } catch (IllegalArgumentException e) {
+                    assertArrayEquals(targetBytes, target.saveSnapshot().toByteArray());
+                    continue;
+                }
+
+                target.step(PlayerInput.NONE, PlayerInput.NONE);
+                target = newBattle();
+                targetBytes = target.saveSnapshot().toByteArray();
+            }
+        }
+    }
+}
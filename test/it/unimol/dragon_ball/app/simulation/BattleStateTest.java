@@ -0,0 +1,96 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BattleStateTest {
+    private static final PlayerInput AURA = PlayerInput.of(PlayerInput.AURA);
+    private static final PlayerInput ENERGYBALL = PlayerInput.of(PlayerInput.ENERGYBALL);
+
+    private static BattleSimulation newGokuBattle() throws IOException {
+        return new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.GOKU));
+    }
+
+    @Test
+    void snapshotTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        BattleState initialState = simulation.getState();
+        assertEquals(0, initialState.getTickCount());
+        assertEquals(BattleSimulation.PLAYER1_START_X, initialState.getFighter1().getX());
+
+        simulation.step(PlayerInput.of(PlayerInput.RIGHT), PlayerInput.NONE);
+        BattleState state = simulation.getState();
+        FighterState fighter1 = state.getFighter1();
+
+        assertEquals(1, state.getTickCount());
+        assertEquals(BattleSimulation.PLAYER1_START_X, fighter1.getPreviousX());
+        assertEquals(simulation.getFighter1().getX(), fighter1.getX());
+        assertEquals(Fighter.Action.MOVE_FORWARD, fighter1.getAction());
+
+        // Le istantanee già pubblicate non cambiano con l'avanzare della simulazione
+        assertEquals(0, initialState.getTickCount());
+        assertEquals(BattleSimulation.PLAYER1_START_X, initialState.getFighter1().getX());
+        assertEquals(Fighter.Action.IDLE, initialState.getFighter1().getAction());
+    }
+
+    @Test
+    void projectileSnapshotTest() throws IOException {
+        BattleSimulation simulation = newGokuBattle();
+        for (int i = 0; i < 19; i++)
+            simulation.step(AURA, PlayerInput.NONE);
+        simulation.step(ENERGYBALL, PlayerInput.NONE);
+
+        ProjectileState projectile = simulation.getState().getFighter1().getProjectile();
+        assertNotNull(projectile);
+        assertEquals(20, projectile.getCastTick());
+        assertFalse(projectile.isTravelling());
+        assertEquals(projectile.getX(), projectile.getPreviousX());
+        assertEquals(76 - 75, simulation.getState().getFighter1().getActualMP());
+
+        while (!simulation.getFighter1().getProjectile().isTravelling())
+            simulation.step(PlayerInput.NONE, PlayerInput.NONE);
+        simulation.step(PlayerInput.NONE, PlayerInput.NONE);
+
+        ProjectileState travellingProjectile = simulation.getState().getFighter1().getProjectile();
+        assertEquals(20, travellingProjectile.getCastTick());
+        assertTrue(travellingProjectile.getX() > travellingProjectile.getPreviousX());
+        assertFalse(projectile.isTravelling());
+    }
+
+    @Test
+    void concurrentReadTest() throws Exception {
+        BattleSimulation simulation = newGokuBattle();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        // Un lettore concorrente osserva sempre istantanee coerenti e in ordine crescente di tick
+        Thread reader = new Thread(() -> {
+            long lastTickCount = 0;
+            while (lastTickCount < 2000 && failure.get() == null) {
+                BattleState state = simulation.getState();
+                FighterState fighter1 = state.getFighter1();
+
+                if (state.getTickCount() < lastTickCount)
+                    failure.set("Istantanea precedente all'ultima letta");
+                else if (state.getTickCount() > 0 && fighter1.getActionTicks() != state.getTickCount() - 1)
+                    failure.set("Durata dell'aura non coerente con il tick " + state.getTickCount());
+
+                lastTickCount = state.getTickCount();
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 2000; i++)
+            simulation.step(AURA, PlayerInput.NONE);
+        reader.join(10_000);
+
+        assertNull(failure.get());
+        assertFalse(reader.isAlive());
+    }
+}
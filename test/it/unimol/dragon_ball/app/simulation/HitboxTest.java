@@ -0,0 +1,53 @@
+package it.unimol.dragon_ball.app.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class HitboxTest {
+    private static final Hitbox TARGET = new Hitbox(100, 0, 20, 20);
+
+    @Test
+    void sweptTranslationTest() {
+        // Il rettangolo attraversa completamente il bersaglio in un solo tick
+        Hitbox from = new Hitbox(0, 0, 10, 10);
+        Hitbox to = new Hitbox(200, 0, 10, 10);
+
+        assertFalse(from.intersects(TARGET));
+        assertFalse(to.intersects(TARGET));
+        assertEquals(0.45, Hitbox.timeOfImpact(from, to, TARGET, TARGET, 0), 1e-9);
+
+        // Spostandosi verticalmente il rettangolo passa sopra il bersaglio
+        Hitbox toAbove = new Hitbox(200, -200, 10, 10);
+        assertEquals(Hitbox.NO_IMPACT, Hitbox.timeOfImpact(from, toAbove, TARGET, TARGET, 0));
+    }
+
+    @Test
+    void sweptRelativeMotionTest() {
+        // I due rettangoli si vengono incontro e si scambiano di posto, incrociandosi a metà del tick
+        Hitbox from = new Hitbox(0, 0, 10, 10);
+        Hitbox to = new Hitbox(200, 0, 10, 10);
+        Hitbox otherFrom = new Hitbox(200, 0, 10, 10);
+        Hitbox otherTo = new Hitbox(0, 0, 10, 10);
+
+        assertEquals(0.475, Hitbox.timeOfImpact(from, to, otherFrom, otherTo, 0), 1e-9);
+        // Il margine allarga entrambi i rettangoli, anticipando l'impatto
+        assertEquals(0.425, Hitbox.timeOfImpact(from, to, otherFrom, otherTo, 10), 1e-9);
+
+        // Rettangoli già sovrapposti all'inizio del tick
+        assertEquals(0, Hitbox.timeOfImpact(TARGET, TARGET, TARGET, TARGET, 0));
+    }
+
+    @Test
+    void sweptGrowthAndEmptyTest() {
+        // Un raggio che si allunga verso destra raggiunge il bersaglio senza traslare
+        Hitbox from = new Hitbox(0, 0, 50, 10);
+        Hitbox to = new Hitbox(0, 0, 150, 10);
+        assertEquals(0.5, Hitbox.timeOfImpact(from, to, TARGET, TARGET, 0), 1e-9);
+
+        // Un rettangolo iniziale vuoto equivale ad un rettangolo fermo nella posizione finale
+        assertEquals(0, Hitbox.timeOfImpact(new Hitbox(), TARGET, TARGET, TARGET, 0));
+        assertEquals(Hitbox.NO_IMPACT, Hitbox.timeOfImpact(TARGET, new Hitbox(), TARGET, TARGET, 0));
+    }
+}
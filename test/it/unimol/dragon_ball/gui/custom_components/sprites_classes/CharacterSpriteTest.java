@@ -0,0 +1,44 @@
+package it.unimol.dragon_ball.gui.custom_components.sprites_classes;
+
+import it.unimol.dragon_ball.app.logic.CharacterFactory;
+import it.unimol.dragon_ball.app.simulation.BattleSimulation;
+import it.unimol.dragon_ball.app.simulation.BattleSnapshot;
+import it.unimol.dragon_ball.app.simulation.Fighter;
+import it.unimol.dragon_ball.app.simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CharacterSpriteTest {
+
+    @Test
+    void rollbackEvolutionTest() throws IOException {
+        BattleSimulation simulation = new BattleSimulation(CharacterFactory.create(CharacterFactory.GOKU),
+                CharacterFactory.create(CharacterFactory.FREEZER));
+        Fighter fighter = simulation.getFighter1();
+        CharacterSprite sprite = new CharacterSprite(fighter.getCharacter(), simulation.getState().getFighter1(),
+                new Dimension(Fighter.WIDTH, Fighter.HEIGHT), new JPanel(), simulation.getTickMillis());
+        SkillSprite normalSkillSprite = sprite.getSkillSprite();
+        Image normalIdle = sprite.getIdle();
+
+        BattleSnapshot snapshot = simulation.saveSnapshot();
+        while (fighter.getCharacter().getActualEvolutionNumber() == 0)
+            simulation.step(PlayerInput.of(PlayerInput.AURA), PlayerInput.NONE);
+
+        sprite.update(simulation.getState().getFighter1());
+        assertNotSame(normalSkillSprite, sprite.getSkillSprite());
+        assertNotSame(normalIdle, sprite.getIdle());
+
+        // Il rollback annulla l'evoluzione: lo sprite torna ai frame della forma base
+        simulation.restoreSnapshot(snapshot);
+        sprite.update(simulation.getState().getFighter1());
+        assertEquals(0, sprite.getState().getActualEvolutionNumber());
+        assertSame(normalSkillSprite, sprite.getSkillSprite());
+        assertSame(normalIdle, sprite.getIdle());
+    }
+}
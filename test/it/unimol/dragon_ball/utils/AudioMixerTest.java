@@ -0,0 +1,135 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class AudioMixerTest {
+
+    private static Sound constantSound(short value, int frames, float frameRate) {
+        short[] samples = new short[frames];
+        Arrays.fill(samples, value);
+        return new Sound(samples, 1, frameRate);
+    }
+
+    private static short sampleAt(byte[] buffer, int frame, int channel) {
+        int index = (frame * AudioMixer.CHANNELS + channel) * 2;
+        return (short) ((buffer[index] & 0xFF) | (buffer[index + 1] << 8));
+    }
+
+    @Test
+    void mixTest() {
+        AudioMixer mixer = new AudioMixer();
+        byte[] buffer = new byte[64 * AudioMixer.FRAME_SIZE];
+
+        mixer.play(constantSound((short) 1000, 1000, AudioMixer.SAMPLE_RATE), 0);
+        mixer.play(constantSound((short) 500, 1000, AudioMixer.SAMPLE_RATE), 0);
+        mixer.mix(buffer, 64);
+
+        assertEquals(1500, sampleAt(buffer, 0, 0));
+        assertEquals(1500, sampleAt(buffer, 63, 1));
+        assertEquals(2, mixer.getActiveVoicesNumber());
+    }
+
+    @Test
+    void gainAndPanTest() {
+        AudioMixer mixer = new AudioMixer();
+        byte[] buffer = new byte[16 * AudioMixer.FRAME_SIZE];
+
+        SoundVoice voice = mixer.play(constantSound((short) 1000, 1000, AudioMixer.SAMPLE_RATE), 0, 0.5f, -1);
+        mixer.mix(buffer, 16);
+        assertEquals(500, sampleAt(buffer, 0, 0));
+        assertEquals(0, sampleAt(buffer, 0, 1));
+
+        voice.setPan(0.5f);
+        mixer.mix(buffer, 16);
+        assertEquals(250, sampleAt(buffer, 0, 0));
+        assertEquals(500, sampleAt(buffer, 0, 1));
+    }
+
+    @Test
+    void clippingTest() {
+        AudioMixer mixer = new AudioMixer();
+        byte[] buffer = new byte[8 * AudioMixer.FRAME_SIZE];
+
+        mixer.play(constantSound(Short.MAX_VALUE, 100, AudioMixer.SAMPLE_RATE), 0);
+        mixer.play(constantSound(Short.MAX_VALUE, 100, AudioMixer.SAMPLE_RATE), 0);
+        mixer.mix(buffer, 8);
+
+        assertEquals(Short.MAX_VALUE, sampleAt(buffer, 0, 0));
+    }
+
+    @Test
+    void loopTest() {
+        AudioMixer mixer = new AudioMixer();
+        byte[] buffer = new byte[10 * AudioMixer.FRAME_SIZE];
+
+        // Tre riproduzioni complete da 4 frame: 12 frame in totale
+        SoundVoice voice = mixer.play(constantSound((short) 100, 4, AudioMixer.SAMPLE_RATE), 2);
+        mixer.mix(buffer, 10);
+        assertTrue(voice.isPlaying());
+        assertEquals(100, sampleAt(buffer, 9, 0));
+
+        mixer.mix(buffer, 10);
+        assertFalse(voice.isPlaying());
+        assertEquals(100, sampleAt(buffer, 1, 0));
+        assertEquals(0, sampleAt(buffer, 2, 0));
+        assertEquals(0, mixer.getActiveVoicesNumber());
+    }
+
+    @Test
+    void resampleTest() {
+        AudioMixer mixer = new AudioMixer();
+        int mixedFrames = 0;
+        byte[] buffer = new byte[AudioMixer.FRAME_SIZE];
+
+        // Mezzo secondo di suono campionato a 22050 Hz dura 22050 frame del mixer
+        SoundVoice voice = mixer.play(constantSound((short) 100, 11_025, AudioMixer.SAMPLE_RATE / 2), 0);
+        while (voice.isPlaying()) {
+            mixer.mix(buffer, 1);
+            mixedFrames++;
+        }
+
+        assertEquals(22_050, mixedFrames, 1);
+    }
+
+    @Test
+    void stopTest() {
+        AudioMixer mixer = new AudioMixer();
+        byte[] buffer = new byte[8 * AudioMixer.FRAME_SIZE];
+
+        SoundVoice voice = mixer.play(constantSound((short) 1000, 100, AudioMixer.SAMPLE_RATE),
+                AudioMixer.LOOP_CONTINUOUSLY);
+        voice.stop();
+        mixer.mix(buffer, 8);
+
+        assertEquals(0, sampleAt(buffer, 0, 0));
+        assertEquals(0, mixer.getActiveVoicesNumber());
+    }
+
+    @Test
+    void voiceStealingTest() {
+        AudioMixer mixer = new AudioMixer(3, 2);
+        Sound sound = constantSound((short) 100, 1000, AudioMixer.SAMPLE_RATE);
+        Sound loopSound = constantSound((short) 100, 1000, AudioMixer.SAMPLE_RATE);
+
+        SoundVoice firstVoice = mixer.play(sound, 0);
+        SoundVoice secondVoice = mixer.play(sound, 0);
+        SoundVoice thirdVoice = mixer.play(sound, 0);
+        assertFalse(firstVoice.isPlaying());
+        assertTrue(secondVoice.isPlaying() && thirdVoice.isPlaying());
+
+        SoundVoice loopVoice = mixer.play(loopSound, AudioMixer.LOOP_CONTINUOUSLY);
+        assertTrue(loopVoice.isPlaying());
+        assertEquals(3, mixer.getActiveVoicesNumber());
+
+        // Il limite complessivo interrompe la voce più vecchia, ma mai quella in loop continuo
+        mixer.play(loopSound, 0);
+        assertFalse(secondVoice.isPlaying());
+        assertTrue(loopVoice.isPlaying());
+        assertEquals(2, mixer.getStolenVoicesCount());
+    }
+}
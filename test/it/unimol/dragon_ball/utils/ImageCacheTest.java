@@ -0,0 +1,77 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ImageCacheTest {
+    // Un'immagine ARGB 10x10 occupa 400 byte
+    private static final long IMAGE_BYTES = 10 * 10 * 4;
+
+    private final AtomicInteger loadsNumber = new AtomicInteger(0);
+    private final Function<String, BufferedImage> loader = path -> {
+        loadsNumber.incrementAndGet();
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    };
+
+    @Test
+    void hitAndMissTest() {
+        ImageCache imageCache = new ImageCache(IMAGE_BYTES * 4);
+
+        BufferedImage firstImage = imageCache.get("a.png", loader);
+        BufferedImage secondImage = imageCache.get("a.png", loader);
+
+        assertSame(firstImage, secondImage);
+        assertEquals(1, loadsNumber.get());
+        assertEquals(1, imageCache.getHitCount());
+        assertEquals(1, imageCache.getMissCount());
+        assertEquals(0.5, imageCache.getHitRate(), 0.0001);
+        assertEquals(IMAGE_BYTES, imageCache.getSizeInBytes());
+    }
+
+    @Test
+    void lruEvictionTest() {
+        ImageCache imageCache = new ImageCache(IMAGE_BYTES * 2);
+
+        imageCache.get("a.png", loader);
+        imageCache.get("b.png", loader);
+        imageCache.get("a.png", loader); // "b.png" diventa l'immagine utilizzata meno di recente
+        imageCache.get("c.png", loader);
+
+        assertTrue(imageCache.contains("a.png"));
+        assertFalse(imageCache.contains("b.png"));
+        assertTrue(imageCache.contains("c.png"));
+        assertEquals(1, imageCache.getEvictionCount());
+        assertEquals(IMAGE_BYTES * 2, imageCache.getSizeInBytes());
+    }
+
+    @Test
+    void invalidateTest() {
+        ImageCache imageCache = new ImageCache(IMAGE_BYTES * 4);
+
+        imageCache.get("a.png", loader);
+        imageCache.invalidate("a.png");
+        imageCache.get("a.png", loader);
+
+        assertEquals(2, loadsNumber.get());
+        assertEquals(IMAGE_BYTES, imageCache.getSizeInBytes());
+
+        imageCache.invalidateAll();
+        assertEquals(0, imageCache.getImagesNumber());
+        assertEquals(0, imageCache.getSizeInBytes());
+    }
+
+    @Test
+    void oversizedImageTest() {
+        ImageCache imageCache = new ImageCache(IMAGE_BYTES / 2);
+
+        assertNotNull(imageCache.get("a.png", loader));
+        assertFalse(imageCache.contains("a.png"));
+        assertEquals(0, imageCache.getSizeInBytes());
+    }
+}
@@ -0,0 +1,36 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ImageConverterTest {
+
+    @Test
+    void translucentConversionTest() {
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_4BYTE_ABGR);
+        image.setRGB(1, 2, 0x80FF0000);
+
+        BufferedImage compatibleImage = ImageConverter.toCompatibleImage(image);
+
+        assertNotSame(image, compatibleImage);
+        assertEquals(Transparency.TRANSLUCENT, compatibleImage.getColorModel().getTransparency());
+        assertEquals(image.getRGB(1, 2), compatibleImage.getRGB(1, 2));
+        assertEquals(0, compatibleImage.getRGB(0, 0) >>> 24);
+    }
+
+    @Test
+    void opaqueConversionTest() {
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_3BYTE_BGR);
+        image.setRGB(3, 3, 0xFF00FF00);
+
+        BufferedImage compatibleImage = ImageConverter.toCompatibleImage(image);
+
+        assertEquals(Transparency.OPAQUE, compatibleImage.getColorModel().getTransparency());
+        assertEquals(image.getRGB(3, 3), compatibleImage.getRGB(3, 3));
+    }
+}
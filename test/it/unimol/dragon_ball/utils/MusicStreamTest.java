@@ -0,0 +1,115 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MusicStreamTest {
+    private static final String MUSIC_PATH = "/resources/sounds/battle_sounds/VoidPunches.wav";
+    private static final int BUFFER_FRAMES = 1024;
+    private static final int BLOCK_FRAMES = 256;
+
+    private static MusicStream openStream(boolean isLooping) throws SoundException {
+        return new MusicStream(Resources.getResource(MUSIC_PATH), isLooping, BUFFER_FRAMES, 1);
+    }
+
+    @Test
+    void streamMatchesDecodedSoundTest() throws SoundException {
+        Sound sound = Resources.getSound(MUSIC_PATH);
+        MusicStream musicStream = openStream(false);
+
+        AudioMixer soundMixer = new AudioMixer();
+        soundMixer.play(sound, 0);
+        AudioMixer musicMixer = new AudioMixer();
+        musicMixer.addMusicStream(musicStream);
+
+        byte[] soundBlock = new byte[BLOCK_FRAMES * AudioMixer.FRAME_SIZE];
+        byte[] musicBlock = new byte[BLOCK_FRAMES * AudioMixer.FRAME_SIZE];
+        int mixedBlocks = 0;
+
+        // Il buffer circolare è più piccolo del brano: lo streaming deve riempirlo più volte
+        while (musicMixer.getMusicStreamsNumber() > 0) {
+            musicStream.fill();
+            soundMixer.mix(soundBlock, BLOCK_FRAMES);
+            musicMixer.mix(musicBlock, BLOCK_FRAMES);
+            mixedBlocks++;
+
+            for (int i = 0; i < soundBlock.length; i += 2) {
+                short soundSample = (short) ((soundBlock[i] & 0xFF) | (soundBlock[i + 1] << 8));
+                short musicSample = (short) ((musicBlock[i] & 0xFF) | (musicBlock[i + 1] << 8));
+                assertEquals(soundSample, musicSample, 1);
+            }
+        }
+
+        long expectedBlocks = (long) Math.ceil(sound.getFramesNumber() * AudioMixer.SAMPLE_RATE
+                / sound.getFrameRate() / BLOCK_FRAMES);
+        assertEquals(expectedBlocks, mixedBlocks, 1);
+        assertTrue(musicStream.isClosed());
+        assertTrue(sound.getFramesNumber() > BUFFER_FRAMES);
+    }
+
+    @Test
+    void loopTest() throws SoundException {
+        Sound sound = Resources.getSound(MUSIC_PATH);
+        MusicStream musicStream = openStream(true);
+        float[] mixBuffer = new float[BLOCK_FRAMES * AudioMixer.CHANNELS];
+
+        while (musicStream.getReadFrames() < 3L * sound.getFramesNumber()) {
+            assertTrue(musicStream.fill());
+            assertTrue(musicStream.mix(mixBuffer, BLOCK_FRAMES, AudioMixer.SAMPLE_RATE));
+        }
+
+        assertTrue(musicStream.getBufferedFrames() <= BUFFER_FRAMES);
+    }
+
+    @Test
+    void underrunTest() throws SoundException {
+        MusicStream musicStream = openStream(true);
+        float[] mixBuffer = new float[BLOCK_FRAMES * AudioMixer.CHANNELS];
+
+        // Senza frame disponibili il brano resta in silenzio, senza concludersi
+        assertTrue(musicStream.mix(mixBuffer, BLOCK_FRAMES, AudioMixer.SAMPLE_RATE));
+        for (float sample : mixBuffer)
+            assertEquals(0, sample);
+    }
+
+    @Test
+    void fadeOutTest() throws SoundException {
+        MusicStream musicStream = openStream(true);
+        float[] mixBuffer = new float[BLOCK_FRAMES * AudioMixer.CHANNELS];
+        int mixedBlocks = 0;
+
+        musicStream.fadeTo(0, 4 * BLOCK_FRAMES);
+        do {
+            musicStream.fill();
+            mixedBlocks++;
+        } while (musicStream.mix(mixBuffer, BLOCK_FRAMES, AudioMixer.SAMPLE_RATE));
+
+        assertEquals(4, mixedBlocks);
+        assertEquals(0, musicStream.getGain());
+        assertTrue(musicStream.isClosed());
+        assertFalse(musicStream.fill());
+    }
+
+    @Test
+    void crossfadeTest() throws SoundException {
+        MusicStream fadingStream = openStream(true);
+        MusicStream risingStream = new MusicStream(Resources.getResource(MUSIC_PATH), true, BUFFER_FRAMES, 0);
+        float[] mixBuffer = new float[BLOCK_FRAMES * AudioMixer.CHANNELS];
+
+        fadingStream.fadeTo(0, 2 * BLOCK_FRAMES);
+        risingStream.fadeTo(1, 2 * BLOCK_FRAMES);
+
+        for (int i = 0; i < 2; i++) {
+            fadingStream.fill();
+            risingStream.fill();
+            fadingStream.mix(mixBuffer, BLOCK_FRAMES, AudioMixer.SAMPLE_RATE);
+            risingStream.mix(mixBuffer, BLOCK_FRAMES, AudioMixer.SAMPLE_RATE);
+        }
+
+        assertTrue(fadingStream.isClosed());
+        assertFalse(risingStream.isClosed());
+        assertEquals(1, risingStream.getGain(), 1e-6);
+    }
+}
@@ -0,0 +1,85 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PerformanceMetricsTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void percentileTest() {
+        FrameTimeWindow window = new FrameTimeWindow(100);
+        assertEquals(0, window.percentile(0.5));
+
+        for (int i = 100; i >= 1; i--)
+            window.add(i);
+        assertEquals(50, window.percentile(0.5));
+        assertEquals(99, window.percentile(0.99));
+        assertEquals(100, window.percentile(1));
+
+        // Superata la capacità, le durate più vecchie vengono sostituite
+        for (int i = 0; i < 100; i++)
+            window.add(1000);
+        assertEquals(100, window.size());
+        assertEquals(1000, window.percentile(0.5));
+    }
+
+    @Test
+    void sampleTest() {
+        PerformanceMetrics metrics = new PerformanceMetrics(() -> 0.75);
+        assertNull(metrics.getLastSnapshot());
+
+        // Un secondo a 50 FPS, con un frame lento ogni 25, e 30 tick
+        long frameTime = 0;
+        metrics.recordFrame(frameTime);
+        for (int i = 1; i <= 50; i++) {
+            frameTime += (i % 25 == 0) ? 40 * MILLIS : 1000 * MILLIS / 50 - 20 * MILLIS / 48;
+            if (i <= 30)
+                metrics.recordTick();
+            if (i < 50)
+                metrics.recordFrame(frameTime);
+        }
+        assertNull(metrics.getLastSnapshot());
+
+        metrics.recordFrame(1000 * MILLIS);
+        metrics.recordAssetLoad(5 * MILLIS);
+
+        MetricsSnapshot snapshot = metrics.getLastSnapshot();
+        assertNotNull(snapshot);
+        assertEquals(50, snapshot.getFps(), 0.001);
+        assertEquals(30, snapshot.getTicksPerSecond(), 0.001);
+        assertEquals(20 - 20.0 / 48, snapshot.getFrameP50Millis(), 0.001);
+        assertEquals(40, snapshot.getFrameP99Millis(), 0.001);
+        assertEquals(0.75, snapshot.getImageCacheHitRate());
+        assertTrue(snapshot.getThreads() > 0);
+        assertEquals(0, snapshot.getAssetsLoaded());
+    }
+
+    @Test
+    void csvTest() throws IOException {
+        PerformanceMetrics metrics = new PerformanceMetrics(() -> 1);
+        for (int i = 0; i <= 3; i++)
+            metrics.recordFrame(i * PerformanceMetrics.SAMPLE_INTERVAL_NANOS);
+        assertEquals(3, metrics.getHistory().size());
+
+        File file = File.createTempFile("metrics", ".csv");
+        file.deleteOnExit();
+        metrics.writeCsv(file);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals(MetricsSnapshot.CSV_HEADER, lines.get(0));
+
+        String[] columns = lines.get(1).split(",");
+        assertEquals(MetricsSnapshot.CSV_HEADER.split(",").length, columns.length);
+        assertEquals("1.00", columns[1]);
+    }
+}
@@ -0,0 +1,53 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SoundBankTest {
+    private static final String VOID_PUNCHES_PATH = "/resources/sounds/battle_sounds/VoidPunches.wav";
+
+    @Test
+    void decodeTest() throws SoundException {
+        Sound sound = Resources.getSound(VOID_PUNCHES_PATH);
+
+        assertTrue(sound.getChannels() == 1 || sound.getChannels() == 2);
+        assertTrue(sound.getFramesNumber() > 0);
+        assertEquals(sound.getFramesNumber() * sound.getChannels(), sound.getSamples().length);
+        assertEquals(sound.getFramesNumber() * 1_000_000L / (long) sound.getFrameRate(),
+                sound.getMicrosecondLength(), 1);
+    }
+
+    @Test
+    void missingSoundTest() {
+        SoundBank soundBank = new SoundBank();
+
+        assertThrows(SoundException.class, () -> Resources.getSound("/resources/sounds/Missing.wav"));
+        assertNull(soundBank.getSound("/resources/sounds/Missing.wav"));
+        assertEquals(0, soundBank.getSoundsNumber());
+    }
+
+    @Test
+    void getSoundTest() {
+        SoundBank soundBank = new SoundBank();
+        Sound sound = soundBank.getSound(VOID_PUNCHES_PATH);
+
+        assertNotNull(sound);
+        assertSame(sound, soundBank.getSound(VOID_PUNCHES_PATH));
+        assertEquals(1, soundBank.getSoundsNumber());
+        assertEquals(sound.getSizeInBytes(), soundBank.getSizeInBytes());
+    }
+
+    @Test
+    void listSoundsTest() {
+        List<String> soundPaths = SoundBank.listSounds(ResourcesHandler.SOUNDS_FILEPATH);
+
+        assertTrue(soundPaths.contains(VOID_PUNCHES_PATH));
+        assertTrue(soundPaths.contains("/resources/sounds/battle_sounds/Collision.wav"));
+        for (String soundPath : soundPaths)
+            assertTrue(soundPath.startsWith(ResourcesHandler.SOUNDS_FILEPATH + "/") && soundPath.endsWith(".wav"));
+    }
+}
@@ -0,0 +1,65 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SpriteAtlasTest {
+
+    @Test
+    void packTest() {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (int i = 0; i < 12; i++) {
+            BufferedImage image = new BufferedImage(20 + i * 3, 10 + i * 5, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(0, 0, 0xFF000000 | i);
+            images.put("FRAME_" + i + ".png", image);
+        }
+
+        SpriteAtlasPacker.PackedAtlas atlas = SpriteAtlasPacker.pack(images);
+        List<Rectangle> regions = new ArrayList<>(atlas.getRegions().values());
+        Rectangle atlasBounds = new Rectangle(atlas.getImage().getWidth(), atlas.getImage().getHeight());
+
+        assertEquals(images.size(), regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            assertTrue(atlasBounds.contains(regions.get(i)));
+
+            for (int j = i + 1; j < regions.size(); j++)
+                assertFalse(regions.get(i).intersects(regions.get(j)));
+        }
+
+        for (Map.Entry<String, BufferedImage> image : images.entrySet()) {
+            Rectangle region = atlas.getRegions().get(image.getKey());
+            assertEquals(image.getValue().getWidth(), region.width);
+            assertEquals(image.getValue().getHeight(), region.height);
+            assertEquals(image.getValue().getRGB(0, 0), atlas.getImage().getRGB(region.x, region.y));
+        }
+    }
+
+    @Test
+    void readIndexTest() throws IOException {
+        String index = "# name\tx\ty\twidth\theight\nIDLE.png\t0\t0\t70\t70\n\nskills/ENERGYBALL_0.png\t71\t0\t70\t70\n";
+
+        Map<String, Rectangle> regions = SpriteAtlas.readIndex(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, regions.size());
+        assertEquals(new Rectangle(71, 0, 70, 70), regions.get("skills/ENERGYBALL_0.png"));
+    }
+
+    @Test
+    void invalidIndexTest() {
+        String index = "IDLE.png\t0\t0\t70\n";
+
+        assertThrows(IOException.class, () -> SpriteAtlas.readIndex(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,44 @@
+package it.unimol.dragon_ball.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SpritePreloaderTest {
+
+    @Test
+    void readEvolutionsNamesTest() throws IOException {
+        List<String> evolutionsNames = SpritePreloader.readEvolutionsNames("goku");
+
+        assertEquals(6, evolutionsNames.size());
+        assertEquals("goku_normal", evolutionsNames.get(0));
+        assertEquals("goku_super_sayan_4", evolutionsNames.get(5));
+    }
+
+    @Test
+    void preloadTest() throws Exception {
+        SpritePreloader.getInstance().preload("freezer").get();
+
+        assertTrue(SpritePreloader.getInstance().isPreloaded("freezer"));
+        for (String evolutionName : SpritePreloader.readEvolutionsNames("freezer")) {
+            SpriteAtlas atlas = ResourcesHandler.getInstance().getSpriteAtlas("freezer", evolutionName);
+            assertTrue(ResourcesHandler.getInstance().getImageCache().contains(atlas.getAtlasImagePath()));
+        }
+    }
+
+    @Test
+    void missingCharacterTest() {
+        Future<?> preload = SpritePreloader.getInstance().preload("missing");
+
+        // L'errore di lettura viene consegnato a chi attende il precaricamento
+        ExecutionException exception = assertThrows(ExecutionException.class, preload::get);
+        assertTrue(exception.getCause() instanceof FileNotFoundException);
+    }
+}